@@ -0,0 +1,162 @@
+package com.ss.rlib.common.benchmark.network;
+
+import com.ss.rlib.common.network.ConnectionOwner;
+import com.ss.rlib.common.network.FlushPolicy;
+import com.ss.rlib.common.network.NetworkConfig;
+import com.ss.rlib.common.network.NetworkFactory;
+import com.ss.rlib.common.network.annotation.PacketDescription;
+import com.ss.rlib.common.network.client.ClientNetwork;
+import com.ss.rlib.common.network.client.ConnectHandler;
+import com.ss.rlib.common.network.client.server.Server;
+import com.ss.rlib.common.network.metrics.NetworkMetricsSnapshot;
+import com.ss.rlib.common.network.packet.ReadablePacketRegistry;
+import com.ss.rlib.common.network.packet.impl.AbstractReadablePacket;
+import com.ss.rlib.common.network.packet.impl.AbstractWritablePacket;
+import com.ss.rlib.common.network.server.AcceptHandler;
+import com.ss.rlib.common.network.server.ServerNetwork;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The benchmark of flush policies: bursts of small packets are sent to a server over the loopback interface and the
+ * send queue blocks the sender when the server can't keep up. The score is packets per microsecond, the count of
+ * packets per write operation of the client is printed after each trial.
+ *
+ * @author JavaSaBr
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FlushPolicyBenchmark {
+
+    private static final InetSocketAddress SERVER_ADDRESS = new InetSocketAddress("127.0.0.1", 2302);
+
+    /**
+     * The count of packets of a burst.
+     */
+    private static final int BURST = 16;
+
+    /**
+     * It's a small packet which a client sends.
+     */
+    @PacketDescription(id = 1)
+    public static class SmallPacket extends AbstractWritablePacket {
+
+        private final long value;
+
+        public SmallPacket(long value) {
+            this.value = value;
+        }
+
+        @Override
+        protected void writeImpl(@NotNull ByteBuffer buffer) {
+            super.writeImpl(buffer);
+            writeLong(buffer, value);
+        }
+
+        @Override
+        public int getExpectedLength() {
+            return 10;
+        }
+    }
+
+    /**
+     * It's a small packet which a server receives.
+     */
+    @PacketDescription(id = 1)
+    public static class SmallRequest extends AbstractReadablePacket {
+
+        @Override
+        protected void readImpl(@NotNull ConnectionOwner owner, @NotNull ByteBuffer buffer) {
+            readLong(buffer);
+        }
+    }
+
+    @Param({"IMMEDIATE", "EXPLICIT", "DELAYED"})
+    public FlushPolicy policy;
+
+    private ServerNetwork serverNetwork;
+    private ClientNetwork clientNetwork;
+    private Server server;
+
+    @Setup
+    public void setup() throws IOException {
+
+        serverNetwork = NetworkFactory.newDefaultAsyncServerNetwork(NetworkConfig.DEFAULT_SERVER,
+                ReadablePacketRegistry.of(SmallRequest.class), AcceptHandler.newDefault());
+        serverNetwork.bind(SERVER_ADDRESS);
+
+        clientNetwork = NetworkFactory.newDefaultAsyncClientNetwork(new NetworkConfig() {
+
+            @Override
+            public @NotNull FlushPolicy getFlushPolicy() {
+                return policy;
+            }
+
+            @Override
+            public int getSendQueueHighWatermark() {
+                return 4096;
+            }
+
+            @Override
+            public boolean isTcpNoDelay() {
+                return true;
+            }
+
+            @Override
+            public boolean isMetricsEnabled() {
+                return true;
+            }
+        }, ReadablePacketRegistry.of(SmallRequest.class), ConnectHandler.newDefault());
+
+        server = clientNetwork.connect(SERVER_ADDRESS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public void sendBurst() {
+
+        for (int i = 0; i < BURST; i++) {
+            server.sendPacket(new SmallPacket(i));
+        }
+
+        if (policy == FlushPolicy.EXPLICIT) {
+            server.getConnection().flush();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+
+        NetworkMetricsSnapshot metrics = clientNetwork.getMetrics().snapshot();
+
+        long writes = Math.max(metrics.getWriteLatency().getCount(), 1);
+
+        System.out.println(String.format(Locale.ROOT, "%s: %d packets by %d writes, %.1f packets per write",
+                policy, metrics.getSentPackets(), writes, metrics.getSentPackets() / (double) writes));
+
+        clientNetwork.shutdown();
+        serverNetwork.shutdown();
+    }
+}
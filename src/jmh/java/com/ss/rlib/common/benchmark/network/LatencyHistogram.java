@@ -0,0 +1,117 @@
+package com.ss.rlib.common.benchmark.network;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The concurrent histogram of latencies in nanoseconds with log-linear buckets: values less than 128 ns have their own
+ * buckets and each power of two above is split to 64 buckets, so the error of a value is less than 1.6%.
+ *
+ * @author JavaSaBr
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private static int indexOf(long value) {
+
+        if (value < SUB_BUCKETS * 2) {
+            return (int) Math.max(value, 0);
+        }
+
+        int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+
+        return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    private static long lowerValueOf(int index) {
+
+        if (index < SUB_BUCKETS * 2) {
+            return index;
+        }
+
+        int shift = index / SUB_BUCKETS - 1;
+
+        return (long) (index % SUB_BUCKETS + SUB_BUCKETS) << shift;
+    }
+
+    private static long upperValueOf(int index) {
+        return index < SUB_BUCKETS * 2 ? index : lowerValueOf(index + 1) - 1;
+    }
+
+    /**
+     * The counts of values by buckets.
+     */
+    @NotNull
+    private final AtomicLongArray counts;
+
+    public LatencyHistogram() {
+        this.counts = new AtomicLongArray(BUCKETS);
+    }
+
+    /**
+     * Record the value.
+     *
+     * @param value the value in nanoseconds.
+     */
+    public void record(long value) {
+        counts.incrementAndGet(indexOf(value));
+    }
+
+    /**
+     * Get the count of recorded values.
+     *
+     * @return the count of recorded values.
+     */
+    public long getCount() {
+
+        long count = 0;
+
+        for (int i = 0; i < BUCKETS; i++) {
+            count += counts.get(i);
+        }
+
+        return count;
+    }
+
+    /**
+     * Get the value at the percentile, it's the max value of the bucket which contains the percentile.
+     *
+     * @param percentile the percentile from 0 to 100.
+     * @return the value in nanoseconds or 0 if there are no recorded values.
+     */
+    public long getValueAtPercentile(double percentile) {
+
+        long count = getCount();
+
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+        long seen = 0;
+
+        for (int i = 0; i < BUCKETS; i++) {
+
+            seen += counts.get(i);
+
+            if (seen >= rank) {
+                return upperValueOf(i);
+            }
+        }
+
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Reset all recorded values.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package com.ss.rlib.common.benchmark.network;
+
+import com.ss.rlib.common.network.ConnectionOwner;
+import com.ss.rlib.common.network.NetworkConfig;
+import com.ss.rlib.common.network.NetworkFactory;
+import com.ss.rlib.common.network.NetworkTransport;
+import com.ss.rlib.common.network.annotation.PacketDescription;
+import com.ss.rlib.common.network.client.ClientNetwork;
+import com.ss.rlib.common.network.client.ConnectHandler;
+import com.ss.rlib.common.network.client.server.Server;
+import com.ss.rlib.common.network.packet.ReadablePacketRegistry;
+import com.ss.rlib.common.network.packet.impl.AbstractReadablePacket;
+import com.ss.rlib.common.network.packet.impl.AbstractWritablePacket;
+import com.ss.rlib.common.network.server.AcceptHandler;
+import com.ss.rlib.common.network.server.ServerNetwork;
+import org.jetbrains.annotations.NotNull;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The load generator of the network: clients of one client network send requests to a server over the loopback
+ * interface with a fixed total rate and the server answers each request. It reports the throughput of responses and
+ * percentiles of latencies. A latency is measured from the time when a request should have been sent by the rate, so
+ * stalls of sending aren't hidden.
+ * <p>
+ * Options are passed as name=value arguments: clients, rate (requests per second), size (bytes of a request payload),
+ * warmup and duration (seconds), transport (ASYNC or SELECTOR), serverThreads, clientThreads, direct, port and maxP99
+ * (microseconds, the generator exits with 1 if the p99 latency is larger).
+ *
+ * @author JavaSaBr
+ */
+public final class LoadGenerator {
+
+    /**
+     * The latencies of responses which were received during measuring.
+     */
+    private static final LatencyHistogram LATENCIES = new LatencyHistogram();
+
+    private static final LongAdder RECEIVED = new LongAdder();
+
+    /**
+     * The payload of requests and responses.
+     */
+    private static ByteBuffer payload = ByteBuffer.allocate(0);
+
+    /**
+     * The time of starting measuring.
+     */
+    private static volatile long measureStart = Long.MAX_VALUE;
+
+    /**
+     * The options of a load.
+     */
+    private static final class Options {
+
+        private int clients = 100;
+        private int rate = 20_000;
+        private int size = 100;
+        private int warmup = 3;
+        private int duration = 10;
+        private int serverThreads = 2;
+        private int clientThreads = 1;
+        private int port = 2400;
+        private long maxP99 = 0;
+        private boolean direct = false;
+
+        @NotNull
+        private NetworkTransport transport = NetworkTransport.ASYNC;
+
+        private static @NotNull Options parse(@NotNull String[] args) {
+
+            var options = new Options();
+
+            for (var arg : args) {
+
+                int index = arg.indexOf('=');
+
+                if (index < 1) {
+                    throw new IllegalArgumentException("the argument " + arg + " should be name=value");
+                }
+
+                var value = arg.substring(index + 1);
+
+                switch (arg.substring(0, index)) {
+                    case "clients": options.clients = Integer.parseInt(value); break;
+                    case "rate": options.rate = Integer.parseInt(value); break;
+                    case "size": options.size = Integer.parseInt(value); break;
+                    case "warmup": options.warmup = Integer.parseInt(value); break;
+                    case "duration": options.duration = Integer.parseInt(value); break;
+                    case "serverThreads": options.serverThreads = Integer.parseInt(value); break;
+                    case "clientThreads": options.clientThreads = Integer.parseInt(value); break;
+                    case "port": options.port = Integer.parseInt(value); break;
+                    case "maxP99": options.maxP99 = Long.parseLong(value); break;
+                    case "direct": options.direct = Boolean.parseBoolean(value); break;
+                    case "transport": options.transport = NetworkTransport.valueOf(value.toUpperCase()); break;
+                    default: throw new IllegalArgumentException("unknown option " + arg);
+                }
+            }
+
+            if (options.clients < 1 || options.rate < 1 || options.size < 0 || options.duration < 1) {
+                throw new IllegalArgumentException("clients, rate and duration should be positive");
+            }
+
+            return options;
+        }
+
+        @Override
+        public String toString() {
+            return "transport=" + transport + ", clients=" + clients + ", rate=" + rate + " req/s, size=" + size +
+                    " B, warmup=" + warmup + " s, duration=" + duration + " s, serverThreads=" + serverThreads +
+                    ", clientThreads=" + clientThreads + ", direct=" + direct;
+        }
+    }
+
+    /**
+     * It's a request which a client sends to a server.
+     */
+    @PacketDescription(id = 1)
+    public static class Request extends AbstractWritablePacket {
+
+        private final long time;
+
+        public Request(long time) {
+            this.time = time;
+        }
+
+        @Override
+        protected void writeImpl(@NotNull ByteBuffer buffer) {
+            super.writeImpl(buffer);
+            writeLong(buffer, time);
+            writeInt(buffer, payload.limit());
+            writeBuffer(buffer, payload.duplicate());
+        }
+
+        @Override
+        public int getExpectedLength() {
+            return 16 + payload.limit();
+        }
+    }
+
+    /**
+     * It's a request which a server receives and answers.
+     */
+    @PacketDescription(id = 1)
+    public static class RequestReceived extends AbstractReadablePacket {
+
+        @Override
+        protected void readImpl(@NotNull ConnectionOwner owner, @NotNull ByteBuffer buffer) {
+            long time = readLong(buffer);
+            buffer.position(buffer.position() + readInt(buffer));
+            owner.sendPacket(new Response(time));
+        }
+    }
+
+    /**
+     * It's a response which a server sends to a client.
+     */
+    @PacketDescription(id = 2)
+    public static class Response extends Request {
+
+        public Response(long time) {
+            super(time);
+        }
+    }
+
+    /**
+     * It's a response which a client receives.
+     */
+    @PacketDescription(id = 2)
+    public static class ResponseReceived extends AbstractReadablePacket {
+
+        @Override
+        protected void readImpl(@NotNull ConnectionOwner owner, @NotNull ByteBuffer buffer) {
+
+            long time = readLong(buffer);
+            buffer.position(buffer.position() + readInt(buffer));
+
+            if (time >= measureStart) {
+                LATENCIES.record(System.nanoTime() - time);
+                RECEIVED.increment();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        var options = Options.parse(args);
+
+        System.out.println("load: " + options);
+
+        payload = ByteBuffer.allocate(options.size);
+
+        var address = new InetSocketAddress("127.0.0.1", options.port);
+
+        ServerNetwork serverNetwork = NetworkFactory.newDefaultAsyncServerNetwork(
+                newConfig(options, options.serverThreads), ReadablePacketRegistry.of(RequestReceived.class),
+                AcceptHandler.newDefault());
+        serverNetwork.bind(address);
+
+        ClientNetwork clientNetwork = NetworkFactory.newDefaultAsyncClientNetwork(
+                newConfig(options, options.clientThreads), ReadablePacketRegistry.of(ResponseReceived.class),
+                ConnectHandler.newDefault());
+
+        var servers = connect(clientNetwork, address, options.clients);
+
+        send(servers, options, options.warmup, false);
+
+        measureStart = System.nanoTime();
+
+        long start = measureStart;
+        long sent = send(servers, options, options.duration, true);
+
+        // waits for responses to the last requests
+        for (int i = 0; i < 100 && RECEIVED.sum() < sent; i++) {
+            TimeUnit.MILLISECONDS.sleep(20);
+        }
+
+        long elapsed = System.nanoTime() - start;
+        long received = RECEIVED.sum();
+        long p99 = TimeUnit.NANOSECONDS.toMicros(LATENCIES.getValueAtPercentile(99));
+
+        System.out.println(String.format(Locale.ROOT, "throughput: %.0f resp/s, sent: %d, received: %d, lost: %d",
+                received * 1e9 / elapsed, sent, received, sent - received));
+        System.out.println(String.format(Locale.ROOT,
+                "latency (us): p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f max=%.1f",
+                micros(LATENCIES.getValueAtPercentile(50)), micros(LATENCIES.getValueAtPercentile(90)),
+                micros(LATENCIES.getValueAtPercentile(99)), micros(LATENCIES.getValueAtPercentile(99.9)),
+                micros(LATENCIES.getValueAtPercentile(100))));
+
+        clientNetwork.shutdown();
+        serverNetwork.shutdown();
+
+        if (options.maxP99 > 0 && p99 > options.maxP99) {
+            System.out.println("p99 latency " + p99 + " us is larger than " + options.maxP99 + " us");
+            System.exit(1);
+        }
+
+        System.exit(0);
+    }
+
+    private static @NotNull NetworkConfig newConfig(@NotNull Options options, int threads) {
+        return new NetworkConfig() {
+
+            @Override
+            public int getGroupSize() {
+                return threads;
+            }
+
+            @Override
+            public boolean isDirectByteBuffer() {
+                return options.direct;
+            }
+
+            @Override
+            public @NotNull NetworkTransport getTransport() {
+                return options.transport;
+            }
+        };
+    }
+
+    private static @NotNull Server[] connect(
+            @NotNull ClientNetwork network,
+            @NotNull InetSocketAddress address,
+            int clients
+    ) throws Exception {
+
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[clients];
+
+        for (int i = 0; i < clients; i++) {
+            futures[i] = network.asyncConnect(address);
+        }
+
+        CompletableFuture.allOf(futures).get(30, TimeUnit.SECONDS);
+
+        var servers = new Server[clients];
+
+        for (int i = 0; i < clients; i++) {
+            servers[i] = (Server) futures[i].get();
+        }
+
+        return servers;
+    }
+
+    /**
+     * Send requests by the rate during the duration and print the throughput every second.
+     *
+     * @param servers  the servers of clients.
+     * @param options  the options of the load.
+     * @param duration the duration in seconds.
+     * @param report   true if the throughput should be printed.
+     * @return the count of sent requests.
+     */
+    private static long send(
+            @NotNull Server[] servers,
+            @NotNull Options options,
+            int duration,
+            boolean report
+    ) {
+
+        long start = System.nanoTime();
+        long interval = Math.max(1, TimeUnit.SECONDS.toNanos(1) / options.rate);
+        long total = (long) options.rate * duration;
+        long nextReport = start + TimeUnit.SECONDS.toNanos(1);
+        long lastSent = 0;
+        long lastReceived = 0;
+
+        for (long sent = 0; sent < total; ) {
+
+            long now = System.nanoTime();
+            long due = Math.min(total, (now - start) / interval + 1);
+
+            for (; sent < due; sent++) {
+                servers[(int) (sent % servers.length)].sendPacket(new Request(start + sent * interval));
+            }
+
+            if (report && now >= nextReport) {
+
+                long received = RECEIVED.sum();
+
+                System.out.println(String.format(Locale.ROOT,
+                        "[%2d s] sent: %d req/s, received: %d resp/s, p99: %.1f us", TimeUnit.NANOSECONDS.toSeconds(now - start + 1), sent - lastSent, received - lastReceived,
+                        micros(LATENCIES.getValueAtPercentile(99))));
+
+                lastSent = sent;
+                lastReceived = received;
+                nextReport += TimeUnit.SECONDS.toNanos(1);
+            }
+
+            if (sent < total) {
+                LockSupport.parkNanos(Math.min(interval, 50_000));
+            }
+        }
+
+        return total;
+    }
+
+    private static double micros(long nanos) {
+        return nanos / 1000D;
+    }
+
+    private LoadGenerator() throws Exception {
+        throw new Exception("no permission");
+    }
+}
@@ -0,0 +1,139 @@
+package com.ss.rlib.common.benchmark.network;
+
+import com.ss.rlib.common.network.NetworkCrypt;
+import com.ss.rlib.common.network.impl.AesCtrNetworkCrypt;
+import com.ss.rlib.common.network.impl.ChaCha20NetworkCrypt;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.Cipher;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The benchmark of encrypting packets in place by network crypts: the null crypt, a byte array based RC4 crypt and
+ * the byte buffer based AES-CTR and ChaCha20 crypts.
+ *
+ * @author JavaSaBr
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NetworkCryptBenchmark {
+
+    /**
+     * The byte array based RC4 crypt which copies data of direct buffers.
+     */
+    private static class Rc4NetworkCrypt implements NetworkCrypt {
+
+        @NotNull
+        private final Cipher encryptCipher;
+
+        @NotNull
+        private final Cipher decryptCipher;
+
+        private Rc4NetworkCrypt(@NotNull byte[] key) throws GeneralSecurityException {
+            this.encryptCipher = Cipher.getInstance("RC4");
+            this.encryptCipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(key, "RC4"));
+            this.decryptCipher = Cipher.getInstance("RC4");
+            this.decryptCipher.init(Cipher.DECRYPT_MODE, new SecretKeySpec(key, "RC4"));
+        }
+
+        @Override
+        public void decrypt(@NotNull byte[] data, int offset, int length) {
+            crypt(decryptCipher, data, offset, length);
+        }
+
+        @Override
+        public void encrypt(@NotNull byte[] data, int offset, int length) {
+            crypt(encryptCipher, data, offset, length);
+        }
+
+        private void crypt(@NotNull Cipher cipher, @NotNull byte[] data, int offset, int length) {
+            try {
+                cipher.update(data, offset, length, data, offset);
+            } catch (ShortBufferException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    @Param({"NULL", "RC4", "AES_CTR", "CHACHA20"})
+    public String crypt;
+
+    /**
+     * The length of packet data.
+     */
+    @Param({"64", "1024", "16384"})
+    public int length;
+
+    @Param({"false", "true"})
+    public boolean direct;
+
+    private NetworkCrypt networkCrypt;
+    private ByteBuffer buffer;
+
+    @Setup
+    public void setup() throws GeneralSecurityException {
+
+        var random = new Random(42);
+        var key = new byte[32];
+        var encryptIv = new byte[16];
+        var decryptIv = new byte[16];
+
+        random.nextBytes(key);
+        random.nextBytes(encryptIv);
+        random.nextBytes(decryptIv);
+
+        switch (crypt) {
+            case "NULL":
+                networkCrypt = NetworkCrypt.NULL;
+                break;
+            case "RC4":
+                networkCrypt = new Rc4NetworkCrypt(key);
+                break;
+            case "AES_CTR":
+                networkCrypt = new AesCtrNetworkCrypt(key, encryptIv, decryptIv);
+                break;
+            case "CHACHA20":
+                networkCrypt = new ChaCha20NetworkCrypt(key, Arrays.copyOf(encryptIv, 12),
+                        Arrays.copyOf(decryptIv, 12));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown crypt " + crypt);
+        }
+
+        var data = new byte[length];
+        random.nextBytes(data);
+
+        buffer = direct ? ByteBuffer.allocateDirect(length) : ByteBuffer.allocate(length);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(data);
+        buffer.clear();
+    }
+
+    @Benchmark
+    public ByteBuffer encrypt() {
+        networkCrypt.encrypt(buffer, 0, length);
+        return buffer;
+    }
+}
@@ -0,0 +1,249 @@
+package com.ss.rlib.common.benchmark.network;
+
+import com.ss.rlib.common.network.AsyncConnection;
+import com.ss.rlib.common.network.ConnectionOwner;
+import com.ss.rlib.common.network.FrameCodec;
+import com.ss.rlib.common.network.NetworkCrypt;
+import com.ss.rlib.common.network.annotation.PacketDescription;
+import com.ss.rlib.common.network.packet.ReadablePacket;
+import com.ss.rlib.common.network.packet.ReadablePacketRegistry;
+import com.ss.rlib.common.network.packet.ReusableReadablePacket;
+import com.ss.rlib.common.network.packet.WritablePacket;
+import com.ss.rlib.common.network.packet.impl.AbstractReadablePacket;
+import com.ss.rlib.common.network.packet.impl.AbstractReusableReadablePacket;
+import com.ss.rlib.common.network.packet.impl.AbstractWritablePacket;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The benchmark of encoding packets to frames and decoding frames to packets: a packet with a few numbers and a
+ * string is written with a frame header and is read by a new and by a pooled readable packet.
+ *
+ * @author JavaSaBr
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PacketCodecBenchmark {
+
+    /**
+     * The owner of read packets which isn't used by the packets.
+     */
+    private static final ConnectionOwner OWNER = new ConnectionOwner() {
+
+        @Override
+        public void destroy() {
+        }
+
+        @Override
+        public @NotNull NetworkCrypt getCrypt() {
+            return NetworkCrypt.NULL;
+        }
+
+        @Override
+        public @NotNull AsyncConnection getConnection() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void readPacket(@NotNull ReadablePacket packet, @NotNull ByteBuffer buffer) {
+            packet.read(this, buffer);
+        }
+
+        @Override
+        public void sendPacket(@NotNull WritablePacket packet) {
+        }
+    };
+
+    /**
+     * It's a packet with a state of an object.
+     */
+    @PacketDescription(id = 1)
+    public static class StatePacket extends AbstractWritablePacket {
+
+        @NotNull
+        private final String name;
+
+        private final long objectId;
+
+        private final int x;
+        private final int y;
+        private final int z;
+
+        public StatePacket(long objectId, int x, int y, int z, @NotNull String name) {
+            this.objectId = objectId;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.name = name;
+        }
+
+        @Override
+        protected void writeImpl(@NotNull ByteBuffer buffer) {
+            super.writeImpl(buffer);
+            writeLong(buffer, objectId);
+            writeInt(buffer, x);
+            writeInt(buffer, y);
+            writeInt(buffer, z);
+            writeString(buffer, name);
+        }
+
+        @Override
+        public int getExpectedLength() {
+            return 28 + name.length() * 2;
+        }
+    }
+
+    /**
+     * It's a readable packet with a state of an object.
+     */
+    @PacketDescription(id = 1)
+    public static class StateRequest extends AbstractReadablePacket {
+
+        private long objectId;
+        private int x;
+        private int y;
+        private int z;
+        private String name;
+
+        @Override
+        protected void readImpl(@NotNull ConnectionOwner owner, @NotNull ByteBuffer buffer) {
+            objectId = readLong(buffer);
+            x = readInt(buffer);
+            y = readInt(buffer);
+            z = readInt(buffer);
+            name = readString(buffer);
+        }
+    }
+
+    /**
+     * It's a pooled readable packet with a state of an object.
+     */
+    @PacketDescription(id = 1)
+    public static class ReusableStateRequest extends AbstractReusableReadablePacket {
+
+        private long objectId;
+        private int x;
+        private int y;
+        private int z;
+        private String name;
+
+        @Override
+        protected void readImpl(@NotNull ConnectionOwner owner, @NotNull ByteBuffer buffer) {
+            objectId = readLong(buffer);
+            x = readInt(buffer);
+            y = readInt(buffer);
+            z = readInt(buffer);
+            name = readString(buffer);
+        }
+    }
+
+    /**
+     * The length of the string of a packet.
+     */
+    @Param({"8", "64", "512"})
+    public int length;
+
+    @Param({"false", "true"})
+    public boolean direct;
+
+    private FrameCodec codec;
+    private StatePacket packet;
+    private ByteBuffer writeBuffer;
+    private ByteBuffer frame;
+
+    private ReadablePacketRegistry registry;
+    private ReadablePacketRegistry reusableRegistry;
+
+    @Setup
+    public void setup() {
+
+        var builder = new StringBuilder();
+
+        for (int i = 0; i < length; i++) {
+            builder.append((char) ('a' + i % 26));
+        }
+
+        codec = FrameCodec.SHORT;
+        packet = new StatePacket(1, 2, 3, 4, builder.toString());
+        writeBuffer = allocate(codec.getMaxHeaderSize() + packet.getExpectedLength() + 16);
+        registry = ReadablePacketRegistry.of(StateRequest.class);
+        reusableRegistry = ReadablePacketRegistry.of(ReusableStateRequest.class);
+
+        encode();
+
+        frame = allocate(writeBuffer.remaining());
+        frame.put(writeBuffer).flip();
+    }
+
+    private ByteBuffer allocate(int size) {
+        return (direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size)).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Benchmark
+    public ByteBuffer encode() {
+
+        var buffer = writeBuffer;
+        int dataOffset = codec.getMaxHeaderSize();
+
+        buffer.clear().position(dataOffset);
+
+        packet.write(buffer);
+
+        int end = buffer.position();
+        int headerOffset = codec.writeHeader(buffer, dataOffset, end - dataOffset);
+
+        buffer.limit(end).position(headerOffset);
+
+        return buffer;
+    }
+
+    @Benchmark
+    public ReadablePacket decode() {
+        return decode(registry);
+    }
+
+    @Benchmark
+    public ReadablePacket decodeReusable() {
+
+        var packet = decode(reusableRegistry);
+        ((ReusableReadablePacket) packet).release();
+
+        return packet;
+    }
+
+    private @NotNull ReadablePacket decode(@NotNull ReadablePacketRegistry registry) {
+
+        var buffer = frame;
+        buffer.position(0);
+
+        codec.readDataLength(buffer);
+
+        var packet = registry.takeById(buffer.getShort() & 0xFFFF);
+        OWNER.readPacket(packet, buffer);
+
+        return packet;
+    }
+}
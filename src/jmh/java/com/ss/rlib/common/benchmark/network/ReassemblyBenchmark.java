@@ -0,0 +1,186 @@
+package com.ss.rlib.common.benchmark.network;
+
+import com.ss.rlib.common.network.FrameCodec;
+import com.ss.rlib.common.network.impl.ReceiveBuffer;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The benchmark of reassembling frames from fragmented reads: compacting of the read buffer after each read against
+ * parsing in place in {@link ReceiveBuffer}.
+ *
+ * @author JavaSaBr
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReassemblyBenchmark {
+
+    private static final int FRAMES = 10_000;
+
+    /**
+     * The max size of received segments.
+     */
+    @Param({"16", "256", "1460"})
+    public int maxSegment;
+
+    /**
+     * The max length of frame data.
+     */
+    @Param({"250", "1500"})
+    public int maxFrame;
+
+    @Param({"false", "true"})
+    public boolean direct;
+
+    private ByteBuffer stream;
+    private int[] segments;
+
+    private ByteBuffer compactBuffer;
+    private ReceiveBuffer receiveBuffer;
+
+    @Setup
+    public void setup() {
+
+        var random = new Random(42);
+        var codec = FrameCodec.SHORT;
+
+        stream = ByteBuffer.allocate(FRAMES * (maxFrame + 10)).order(ByteOrder.LITTLE_ENDIAN);
+
+        for (int i = 0; i < FRAMES; i++) {
+
+            int length = 4 + random.nextInt(maxFrame);
+            int start = stream.position();
+
+            stream.position(start + codec.getMaxHeaderSize());
+
+            for (int j = 0; j < length; j++) {
+                stream.put((byte) j);
+            }
+
+            codec.writeHeader(stream, start + codec.getMaxHeaderSize(), length);
+        }
+
+        stream.flip();
+
+        segments = new int[stream.limit()];
+
+        for (int i = 0, remaining = stream.limit(); remaining > 0; i++) {
+            segments[i] = Math.min(remaining, 1 + random.nextInt(maxSegment));
+            remaining -= segments[i];
+        }
+
+        compactBuffer = allocate(2048);
+        receiveBuffer = new ReceiveBuffer(allocate(2048));
+    }
+
+    private ByteBuffer allocate(int size) {
+        return (direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size)).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Benchmark
+    public long compactBuffer() {
+
+        var buffer = compactBuffer;
+        var source = stream.duplicate();
+        int end = source.limit();
+
+        long result = 0;
+
+        buffer.clear();
+
+        for (int i = 0; source.hasRemaining(); i++) {
+
+            for (int received = 0; received < segments[i]; ) {
+
+                int count = Math.min(buffer.remaining(), segments[i] - received);
+
+                source.limit(source.position() + count);
+                buffer.put(source);
+                source.limit(end);
+
+                received += count;
+
+                buffer.flip();
+                result += readFrames(buffer);
+                buffer.compact();
+            }
+        }
+
+        return result;
+    }
+
+    @Benchmark
+    public long receiveBuffer() {
+
+        var receiveBuffer = this.receiveBuffer;
+        var source = stream.duplicate();
+        int end = source.limit();
+
+        long result = 0;
+
+        receiveBuffer.clear();
+
+        for (int i = 0; source.hasRemaining(); i++) {
+
+            for (int received = 0; received < segments[i]; ) {
+
+                var buffer = receiveBuffer.prepareWrite();
+                int count = Math.min(buffer.remaining(), segments[i] - received);
+
+                source.limit(source.position() + count);
+                buffer.put(source);
+                source.limit(end);
+
+                receiveBuffer.commitWrite(count);
+                received += count;
+            }
+
+            result += readFrames(receiveBuffer.prepareRead());
+            receiveBuffer.commitRead();
+        }
+
+        return result;
+    }
+
+    private long readFrames(@NotNull ByteBuffer buffer) {
+
+        var codec = FrameCodec.SHORT;
+
+        long result = 0;
+
+        while (buffer.hasRemaining()) {
+
+            int start = buffer.position();
+            int length = codec.readDataLength(buffer);
+
+            if (length == FrameCodec.NOT_ENOUGH_DATA || buffer.remaining() < length) {
+                buffer.position(start);
+                break;
+            }
+
+            result += buffer.get(buffer.position() + length - 1);
+            buffer.position(buffer.position() + length);
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,189 @@
+package com.ss.rlib.common.benchmark.network;
+
+import com.ss.rlib.common.util.linkedlist.LinkedList;
+import com.ss.rlib.common.util.linkedlist.LinkedListFactory;
+import com.ss.rlib.common.util.queue.MpscChunkedQueue;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * The benchmark of send queues of connections: a few threads send packets to one connection while the writing thread
+ * takes them. The queue of waited packets is compared with a concurrent linked queue, a locked deque and the linked
+ * list with a stamped lock as it was before. Producers stop adding when the queue has too many packets, so the
+ * benchmark doesn't measure GC of a growing queue.
+ *
+ * @author JavaSaBr
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SendQueueBenchmark {
+
+    /**
+     * The max count of queued packets.
+     */
+    private static final int LIMIT = 1 << 16;
+
+    private static final Object PACKET = new Object();
+
+    /**
+     * The type of a send queue.
+     */
+    public enum QueueType {
+        MPSC,
+        CONCURRENT_LINKED,
+        LOCKED,
+        STAMPED_LINKED_LIST
+    }
+
+    /**
+     * The send queue.
+     */
+    private interface SendQueue {
+
+        void offer(@NotNull Object packet);
+
+        @Nullable Object poll();
+    }
+
+    @Param({"MPSC", "CONCURRENT_LINKED", "LOCKED", "STAMPED_LINKED_LIST"})
+    public QueueType type;
+
+    private SendQueue queue;
+    private AtomicInteger size;
+
+    @Setup
+    public void setup() {
+
+        size = new AtomicInteger();
+
+        switch (type) {
+            case MPSC: {
+                var mpsc = new MpscChunkedQueue<Object>();
+                queue = new SendQueue() {
+
+                    @Override
+                    public void offer(@NotNull Object packet) {
+                        mpsc.offer(packet);
+                    }
+
+                    @Override
+                    public @Nullable Object poll() {
+                        return mpsc.poll();
+                    }
+                };
+                break;
+            }
+            case CONCURRENT_LINKED: {
+                var linked = new ConcurrentLinkedQueue<>();
+                queue = new SendQueue() {
+
+                    @Override
+                    public void offer(@NotNull Object packet) {
+                        linked.offer(packet);
+                    }
+
+                    @Override
+                    public @Nullable Object poll() {
+                        return linked.poll();
+                    }
+                };
+                break;
+            }
+            case STAMPED_LINKED_LIST: {
+                var lock = new StampedLock();
+                LinkedList<Object> list = LinkedListFactory.newLinkedList(Object.class);
+                queue = new SendQueue() {
+
+                    @Override
+                    public void offer(@NotNull Object packet) {
+                        long stamp = lock.writeLock();
+                        try {
+                            list.add(packet);
+                        } finally {
+                            lock.unlockWrite(stamp);
+                        }
+                    }
+
+                    @Override
+                    public @Nullable Object poll() {
+                        long stamp = lock.writeLock();
+                        try {
+                            return list.poll();
+                        } finally {
+                            lock.unlockWrite(stamp);
+                        }
+                    }
+                };
+                break;
+            }
+            default: {
+                var deque = new ArrayDeque<>();
+                queue = new SendQueue() {
+
+                    @Override
+                    public synchronized void offer(@NotNull Object packet) {
+                        deque.add(packet);
+                    }
+
+                    @Override
+                    public synchronized @Nullable Object poll() {
+                        return deque.poll();
+                    }
+                };
+                break;
+            }
+        }
+    }
+
+    @Benchmark
+    @Group("queue")
+    @GroupThreads(3)
+    public boolean offer() {
+
+        if (size.get() >= LIMIT) {
+            return false;
+        }
+
+        size.incrementAndGet();
+        queue.offer(PACKET);
+
+        return true;
+    }
+
+    @Benchmark
+    @Group("queue")
+    @GroupThreads(1)
+    public @Nullable Object poll() {
+
+        var packet = queue.poll();
+
+        if (packet != null) {
+            size.decrementAndGet();
+        }
+
+        return packet;
+    }
+}
@@ -0,0 +1,194 @@
+package com.ss.rlib.common.benchmark.network;
+
+import com.ss.rlib.common.network.ConnectionOwner;
+import com.ss.rlib.common.network.NetworkConfig;
+import com.ss.rlib.common.network.NetworkFactory;
+import com.ss.rlib.common.network.NetworkTransport;
+import com.ss.rlib.common.network.annotation.PacketDescription;
+import com.ss.rlib.common.network.client.ClientNetwork;
+import com.ss.rlib.common.network.client.ConnectHandler;
+import com.ss.rlib.common.network.client.server.Server;
+import com.ss.rlib.common.network.packet.ReadablePacketRegistry;
+import com.ss.rlib.common.network.packet.impl.AbstractReadablePacket;
+import com.ss.rlib.common.network.packet.impl.AbstractWritablePacket;
+import com.ss.rlib.common.network.server.AcceptHandler;
+import com.ss.rlib.common.network.server.ServerNetwork;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The benchmark of the async and the selector transports: the latency of a request/response exchange and the
+ * throughput of responses to a batch of requests between a client and a server over the loopback interface.
+ *
+ * @author JavaSaBr
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransportBenchmark {
+
+    /**
+     * The count of requests in a batch.
+     */
+    public static final int BATCH = 1000;
+
+    /**
+     * The received responses.
+     */
+    private static final Semaphore RESPONSES = new Semaphore(0);
+
+    /**
+     * It's a packet which a server receives from a client and answers.
+     */
+    @PacketDescription(id = 1)
+    public static class PingPacket extends AbstractReadablePacket {
+
+        @Override
+        protected void readImpl(@NotNull ConnectionOwner owner, @NotNull ByteBuffer buffer) {
+            owner.sendPacket(new MessagePacket(readString(buffer)));
+        }
+    }
+
+    /**
+     * It's a packet which a client receives from a server.
+     */
+    @PacketDescription(id = 1)
+    public static class PongPacket extends AbstractReadablePacket {
+
+        @Override
+        protected void readImpl(@NotNull ConnectionOwner owner, @NotNull ByteBuffer buffer) {
+            readString(buffer);
+            RESPONSES.release();
+        }
+    }
+
+    /**
+     * It's a packet with a message.
+     */
+    @PacketDescription(id = 1)
+    public static class MessagePacket extends AbstractWritablePacket {
+
+        @NotNull
+        private final String message;
+
+        public MessagePacket(@NotNull String message) {
+            this.message = message;
+        }
+
+        @Override
+        protected void writeImpl(@NotNull ByteBuffer buffer) {
+            super.writeImpl(buffer);
+            writeString(buffer, message);
+        }
+
+        @Override
+        public int getExpectedLength() {
+            return message.length() * 2 + 8;
+        }
+    }
+
+    @Param({"ASYNC", "SELECTOR"})
+    public NetworkTransport transport;
+
+    /**
+     * The length of a message.
+     */
+    @Param({"100"})
+    public int length;
+
+    private ServerNetwork serverNetwork;
+    private ClientNetwork clientNetwork;
+    private Server server;
+    private String message;
+
+    @Setup
+    public void setup() throws IOException {
+
+        var address = new InetSocketAddress(2300 + transport.ordinal());
+
+        NetworkConfig serverConfig = new NetworkConfig() {
+
+            @Override
+            public int getGroupSize() {
+                return 2;
+            }
+
+            @Override
+            public @NotNull NetworkTransport getTransport() {
+                return transport;
+            }
+        };
+
+        NetworkConfig clientConfig = new NetworkConfig() {
+
+            @Override
+            public @NotNull NetworkTransport getTransport() {
+                return transport;
+            }
+        };
+
+        serverNetwork = NetworkFactory.newDefaultAsyncServerNetwork(serverConfig,
+                ReadablePacketRegistry.of(PingPacket.class), AcceptHandler.newDefault());
+        serverNetwork.bind(address);
+
+        clientNetwork = NetworkFactory.newDefaultAsyncClientNetwork(clientConfig,
+                ReadablePacketRegistry.of(PongPacket.class), ConnectHandler.newDefault());
+
+        server = clientNetwork.connect(address);
+
+        var builder = new StringBuilder();
+
+        for (int i = 0; i < length; i++) {
+            builder.append((char) ('a' + i % 26));
+        }
+
+        message = builder.toString();
+
+        RESPONSES.drainPermits();
+    }
+
+    @TearDown
+    public void tearDown() {
+        clientNetwork.shutdown();
+        serverNetwork.shutdown();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    public void latency() throws InterruptedException {
+        server.sendPacket(new MessagePacket(message));
+        RESPONSES.acquire();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OperationsPerInvocation(BATCH)
+    public void throughput() throws InterruptedException {
+
+        for (int i = 0; i < BATCH; i++) {
+            server.sendPacket(new MessagePacket(message));
+        }
+
+        RESPONSES.acquire(BATCH);
+    }
+}
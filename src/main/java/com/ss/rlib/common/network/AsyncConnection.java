@@ -1,9 +1,12 @@
 package com.ss.rlib.common.network;
 
+import com.ss.rlib.common.network.metrics.NetworkMetrics;
 import com.ss.rlib.common.network.packet.WritablePacket;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.net.SocketAddress;
+
 /**
  * The interface to implement an async connection.
  *
@@ -25,6 +28,13 @@ public interface AsyncConnection {
      */
     @NotNull AsyncNetwork getNetwork();
 
+    /**
+     * Get the remote address of this connection, it's available after closing as well.
+     *
+     * @return the remote address or null if it wasn't known when this connection was created.
+     */
+    @Nullable SocketAddress getRemoteSocketAddress();
+
     /**
      * Set the new connection owner.
      *
@@ -44,6 +54,20 @@ public interface AsyncConnection {
      */
     long getLastActivity();
 
+    /**
+     * Get time of last reading.
+     *
+     * @return the time of last reading.
+     */
+    long getLastReadTime();
+
+    /**
+     * Get time of last writing.
+     *
+     * @return the time of last writing.
+     */
+    long getLastWriteTime();
+
     /**
      * Check if the connection is closed.
      *
@@ -51,6 +75,41 @@ public interface AsyncConnection {
      */
     boolean isClosed();
 
+    /**
+     * Check if the send queue of this connection doesn't exceed the high watermark.
+     *
+     * @return true if this connection is writable.
+     */
+    boolean isWritable();
+
+    /**
+     * Get the count of packets which are waiting for sending.
+     *
+     * @return the count of waited packets.
+     */
+    int getWaitPacketCount();
+
+    /**
+     * Get the expected size of packets which are waiting for sending.
+     *
+     * @return the expected size of waited packets in bytes.
+     */
+    long getWaitPacketBytes();
+
+    /**
+     * Get the count of packets which were dropped because of overflowing the send queue.
+     *
+     * @return the count of dropped packets.
+     */
+    long getDroppedPacketCount();
+
+    /**
+     * Get the metrics of this connection.
+     *
+     * @return the metrics or null if metrics are disabled.
+     */
+    @Nullable NetworkMetrics getMetrics();
+
     /**
      * Send the packet to connection owner.
      *
@@ -58,6 +117,11 @@ public interface AsyncConnection {
      */
     void sendPacket(@NotNull WritablePacket packet);
 
+    /**
+     * Write waited packets, it's needed for connections with a not immediate flush policy.
+     */
+    void flush();
+
     /**
      * Activate the process of receiving packets.
      */
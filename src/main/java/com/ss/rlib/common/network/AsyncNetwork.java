@@ -1,9 +1,13 @@
 package com.ss.rlib.common.network;
 
+import com.ss.rlib.common.network.metrics.NetworkMetrics;
 import com.ss.rlib.common.network.packet.ReadablePacketRegistry;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousSocketChannel;
 
 /**
  * The interface to implement an asynchronous network.
@@ -26,6 +30,49 @@ public interface AsyncNetwork {
      */
     @NotNull ReadablePacketRegistry getPacketRegistry();
 
+    /**
+     * Get the dispatcher of received packets.
+     *
+     * @return the dispatcher or null if received packets are handled by network threads.
+     */
+    @Nullable PacketDispatcher getPacketDispatcher();
+
+    /**
+     * Get the metrics which aggregate metrics of all connections of this network.
+     *
+     * @return the metrics or null if metrics are disabled.
+     */
+    @Nullable NetworkMetrics getMetrics();
+
+    /**
+     * Get the manager of idle connections.
+     *
+     * @return the manager or null if idle timeouts are disabled.
+     */
+    @Nullable IdleManager getIdleManager();
+
+    /**
+     * Get the scheduler of delayed flushes.
+     *
+     * @return the scheduler or null if the flush policy isn't delayed.
+     */
+    @Nullable FlushScheduler getFlushScheduler();
+
+    /**
+     * Apply socket options of the config to the channel.
+     *
+     * @param channel the channel.
+     * @throws IOException if an option can't be set.
+     */
+    void configureChannel(@NotNull AsynchronousSocketChannel channel) throws IOException;
+
+    /**
+     * Get the compressor of packets.
+     *
+     * @return the compressor or null if compression is disabled.
+     */
+    @Nullable PacketCompressor getPacketCompressor();
+
     /**
      * Get a new read buffer to use.
      *
@@ -33,11 +80,21 @@ public interface AsyncNetwork {
      */
     @NotNull ByteBuffer takeReadBuffer();
 
+    /**
+     * Get a new read buffer of the size to use.
+     *
+     * @param size the size of the buffer.
+     * @return the new buffer.
+     */
+    @NotNull ByteBuffer takeReadBuffer(int size);
+
     /**
      * Get a new wait buffer to use.
      *
      * @return the new wait buffer.
+     * @deprecated incomplete frames are kept in read buffers and large buffers, so wait buffers aren't used.
      */
+    @Deprecated
     @NotNull ByteBuffer takeWaitBuffer();
 
     /**
@@ -47,6 +104,14 @@ public interface AsyncNetwork {
      */
     @NotNull ByteBuffer takeWriteBuffer();
 
+    /**
+     * Get a new buffer to read or write a packet which is larger than usual buffers.
+     *
+     * @param size the min size of the buffer.
+     * @return the new large buffer.
+     */
+    @NotNull ByteBuffer takeLargeBuffer(int size);
+
     /**
      * Store the old read buffer.
      *
@@ -58,7 +123,9 @@ public interface AsyncNetwork {
      * Store the old wait buffer.
      *
      * @param buffer the old wait buffer.
+     * @deprecated incomplete frames are kept in read buffers and large buffers, so wait buffers aren't used.
      */
+    @Deprecated
     void putWaitBuffer(@NotNull ByteBuffer buffer);
 
     /**
@@ -68,6 +135,13 @@ public interface AsyncNetwork {
      */
     void putWriteBuffer(@NotNull ByteBuffer buffer);
 
+    /**
+     * Store the old large buffer.
+     *
+     * @param buffer the old large buffer.
+     */
+    void putLargeBuffer(@NotNull ByteBuffer buffer);
+
     /**
      * Shutdown this network.
      */
@@ -0,0 +1,30 @@
+package com.ss.rlib.common.network;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The interface to implement a network crypt which works with byte buffers directly, so it can crypt data of direct
+ * buffers without copying it to a byte array.
+ *
+ * @author JavaSaBr
+ */
+public interface ByteBufferNetworkCrypt extends NetworkCrypt {
+
+    @Override
+    default void decrypt(@NotNull byte[] data, int offset, int length) {
+        decrypt(ByteBuffer.wrap(data), offset, length);
+    }
+
+    @Override
+    default void encrypt(@NotNull byte[] data, int offset, int length) {
+        encrypt(ByteBuffer.wrap(data), offset, length);
+    }
+
+    @Override
+    void decrypt(@NotNull ByteBuffer buffer, int offset, int length);
+
+    @Override
+    void encrypt(@NotNull ByteBuffer buffer, int offset, int length);
+}
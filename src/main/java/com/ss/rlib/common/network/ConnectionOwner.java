@@ -55,4 +55,22 @@ public interface ConnectionOwner {
      * @param packet the packet.
      */
     void sendPacket(@NotNull WritablePacket packet);
+
+    /**
+     * Handle changing writability of the connection. The connection becomes not writable when its send queue exceeds
+     * the high watermark and becomes writable again when the send queue goes down to the low watermark.
+     *
+     * @param writable true if the connection became writable.
+     */
+    default void onWritabilityChanged(boolean writable) {
+    }
+
+    /**
+     * Handle idleness of the connection. It's called by the thread of the manager of idle connections when the
+     * connection wasn't active during the timeout of the idleness kind and then again after each next timeout.
+     *
+     * @param state the kind of idleness.
+     */
+    default void onIdle(@NotNull IdleState state) {
+    }
 }
@@ -0,0 +1,36 @@
+package com.ss.rlib.common.network;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The thread local byte arrays to crypt data of direct buffers by byte array based crypts.
+ *
+ * @author JavaSaBr
+ */
+final class CryptArrays {
+
+    @NotNull
+    private static final ThreadLocal<byte[]> LOCAL_ARRAY = ThreadLocal.withInitial(() -> new byte[2048]);
+
+    /**
+     * Take a thread local array with the length at least the required length.
+     *
+     * @param length the required length.
+     * @return the thread local array.
+     */
+    static @NotNull byte[] take(int length) {
+
+        byte[] array = LOCAL_ARRAY.get();
+
+        if (array.length < length) {
+            array = new byte[Math.max(length, array.length * 2)];
+            LOCAL_ARRAY.set(array);
+        }
+
+        return array;
+    }
+
+    private CryptArrays() {
+        throw new RuntimeException();
+    }
+}
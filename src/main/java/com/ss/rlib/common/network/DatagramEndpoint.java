@@ -0,0 +1,55 @@
+package com.ss.rlib.common.network;
+
+import com.ss.rlib.common.network.packet.WritablePacket;
+import org.jetbrains.annotations.NotNull;
+
+import java.net.SocketAddress;
+
+/**
+ * The interface to implement a remote address of a datagram network which is bound to a connection owner.
+ *
+ * @author JavaSaBr
+ */
+public interface DatagramEndpoint {
+
+    /**
+     * Get the connection owner which handles received packets.
+     *
+     * @return the connection owner.
+     */
+    @NotNull ConnectionOwner getOwner();
+
+    /**
+     * Get the remote address.
+     *
+     * @return the remote address.
+     */
+    @NotNull SocketAddress getRemoteAddress();
+
+    /**
+     * Send the packet in a datagram to the remote address, the packet can be lost or delivered out of order.
+     *
+     * @param packet the packet.
+     */
+    void sendPacket(@NotNull WritablePacket packet);
+
+    /**
+     * Get the count of received packets which were dropped because they were older than the last received packet
+     * of the same id.
+     *
+     * @return the count of stale packets.
+     */
+    long getStalePacketCount();
+
+    /**
+     * Check if the endpoint is closed.
+     *
+     * @return true if the endpoint is closed.
+     */
+    boolean isClosed();
+
+    /**
+     * Unbind the remote address from the owner, waited packets aren't sent.
+     */
+    void close();
+}
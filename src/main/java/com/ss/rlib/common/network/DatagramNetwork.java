@@ -0,0 +1,93 @@
+package com.ss.rlib.common.network;
+
+import com.ss.rlib.common.network.packet.ReadablePacketRegistry;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.util.function.Function;
+
+/**
+ * The interface to implement a datagram network to exchange unreliable packets which don't need ordered delivery,
+ * like position updates. Datagrams use the same packet ids and serialization of packets as connections, each datagram
+ * contains one packet and packets from a remote address are read and handled by the connection owner which is bound
+ * to the address. Datagrams aren't encrypted or compressed.
+ *
+ * @author JavaSaBr
+ */
+public interface DatagramNetwork {
+
+    /**
+     * Bind the datagram channel to the local address and start receiving datagrams.
+     *
+     * @param address the local address.
+     * @throws IOException if the channel can't be bound.
+     */
+    void bind(@NotNull SocketAddress address) throws IOException;
+
+    /**
+     * Get the local address of the datagram channel.
+     *
+     * @return the local address or null if the channel isn't bound.
+     */
+    @Nullable SocketAddress getLocalAddress();
+
+    /**
+     * Bind the remote address to the connection owner, datagrams from the address will be handled by the owner.
+     *
+     * @param owner         the connection owner.
+     * @param remoteAddress the remote address.
+     * @return the endpoint to send packets to the remote address.
+     */
+    @NotNull DatagramEndpoint register(@NotNull ConnectionOwner owner, @NotNull SocketAddress remoteAddress);
+
+    /**
+     * Get the endpoint of the remote address.
+     *
+     * @param remoteAddress the remote address.
+     * @return the endpoint or null if the address isn't bound.
+     */
+    @Nullable DatagramEndpoint getEndpoint(@NotNull SocketAddress remoteAddress);
+
+    /**
+     * Set the resolver of connection owners for datagrams from not bound remote addresses. An address is bound to the
+     * resolved owner, datagrams are dropped if the resolver returns null.
+     *
+     * @param resolver the resolver or null to drop datagrams from not bound addresses.
+     */
+    void setOwnerResolver(@Nullable Function<@NotNull SocketAddress, @Nullable ConnectionOwner> resolver);
+
+    /**
+     * Get the packet registry.
+     *
+     * @return the packet registry.
+     */
+    @NotNull ReadablePacketRegistry getPacketRegistry();
+
+    /**
+     * Get the count of received datagrams.
+     *
+     * @return the count of received datagrams.
+     */
+    long getReceivedDatagrams();
+
+    /**
+     * Get the count of sent datagrams.
+     *
+     * @return the count of sent datagrams.
+     */
+    long getSentDatagrams();
+
+    /**
+     * Get the count of dropped datagrams: from not bound addresses, malformed or too large to send.
+     *
+     * @return the count of dropped datagrams.
+     */
+    long getDroppedDatagrams();
+
+    /**
+     * Close the datagram channel and stop the network thread.
+     */
+    void shutdown();
+}
@@ -0,0 +1,25 @@
+package com.ss.rlib.common.network;
+
+/**
+ * The policy of writing packets which are sent to a connection. With policies other than {@link #IMMEDIATE} waited
+ * packets are coalesced to the write buffer as with batch writing, so a flush writes many small packets by one write.
+ *
+ * @author JavaSaBr
+ */
+public enum FlushPolicy {
+
+    /**
+     * Each sent packet starts writing if the connection isn't writing already.
+     */
+    IMMEDIATE,
+    /**
+     * Sent packets are written only after {@link AsyncConnection#flush()}, a sending thread which is blocked by the
+     * send queue flushes the connection before waiting.
+     */
+    EXPLICIT,
+    /**
+     * Sent packets are written not later than the flush delay after the first not flushed packet or right away when
+     * the expected size of waited packets reaches the flush bytes.
+     */
+    DELAYED
+}
@@ -0,0 +1,25 @@
+package com.ss.rlib.common.network;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The interface to implement a scheduler which flushes connections of a network with the {@link FlushPolicy#DELAYED}
+ * policy by {@link AsyncConnection#flush()}.
+ *
+ * @author JavaSaBr
+ */
+public interface FlushScheduler {
+
+    /**
+     * Schedule flushing the connection after the flush delay, a connection can be flushed earlier if it was scheduled
+     * before.
+     *
+     * @param connection the connection.
+     */
+    void schedule(@NotNull AsyncConnection connection);
+
+    /**
+     * Stop flushing connections.
+     */
+    void shutdown();
+}
@@ -0,0 +1,70 @@
+package com.ss.rlib.common.network;
+
+import com.ss.rlib.common.network.impl.IntFrameCodec;
+import com.ss.rlib.common.network.impl.ShortFrameCodec;
+import com.ss.rlib.common.network.impl.VarIntFrameCodec;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The interface to implement a codec of frame headers which contain the length of packet data.
+ *
+ * @author JavaSaBr
+ */
+public interface FrameCodec {
+
+    /**
+     * The result of reading a header which isn't fully received yet.
+     */
+    int NOT_ENOUGH_DATA = -1;
+
+    /**
+     * The codec of 2 bytes headers with the full frame size, max packet data is 64 KB.
+     */
+    @NotNull FrameCodec SHORT = new ShortFrameCodec();
+
+    /**
+     * The codec of 4 bytes headers with the full frame size.
+     */
+    @NotNull FrameCodec INT = new IntFrameCodec();
+
+    /**
+     * The codec of variable length headers (1-5 bytes) with the data length.
+     */
+    @NotNull FrameCodec VAR_INT = new VarIntFrameCodec();
+
+    /**
+     * Get the max size of a frame header.
+     *
+     * @return the max size of a header.
+     */
+    int getMaxHeaderSize();
+
+    /**
+     * Get the max length of packet data which can be described by a header.
+     *
+     * @return the max length of packet data.
+     */
+    int getMaxDataLength();
+
+    /**
+     * Read a header from the current position of the buffer. If the buffer doesn't contain the full header, the
+     * position of the buffer isn't changed.
+     *
+     * @param buffer the buffer.
+     * @return the length of packet data or {@link #NOT_ENOUGH_DATA}.
+     * @throws FrameException if the header is corrupted.
+     */
+    int readDataLength(@NotNull ByteBuffer buffer);
+
+    /**
+     * Write a header right before packet data which starts at the offset.
+     *
+     * @param buffer     the buffer.
+     * @param dataOffset the offset of packet data, should be not less than the max header size.
+     * @param dataLength the length of packet data.
+     * @return the offset of the written header.
+     */
+    int writeHeader(@NotNull ByteBuffer buffer, int dataOffset, int dataLength);
+}
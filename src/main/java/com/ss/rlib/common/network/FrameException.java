@@ -0,0 +1,18 @@
+package com.ss.rlib.common.network;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The exception of a corrupted frame header. The boundaries of next frames of the stream are unknown after it, so a
+ * connection which receives a corrupted header is closed.
+ *
+ * @author JavaSaBr
+ */
+public class FrameException extends IllegalStateException {
+
+    private static final long serialVersionUID = 4528637283465283901L;
+
+    public FrameException(@NotNull String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,31 @@
+package com.ss.rlib.common.network;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The interface to implement a manager which detects idle connections of a network and notifies their owners by
+ * {@link ConnectionOwner#onIdle(IdleState)}.
+ *
+ * @author JavaSaBr
+ */
+public interface IdleManager {
+
+    /**
+     * Start tracking idleness of the connection, a closed connection is forgotten automatically.
+     *
+     * @param connection the connection.
+     */
+    void register(@NotNull AsyncConnection connection);
+
+    /**
+     * Get the count of tracked connections.
+     *
+     * @return the count of tracked connections.
+     */
+    int size();
+
+    /**
+     * Stop tracking connections.
+     */
+    void shutdown();
+}
@@ -0,0 +1,22 @@
+package com.ss.rlib.common.network;
+
+/**
+ * The kind of idleness of a connection.
+ *
+ * @author JavaSaBr
+ */
+public enum IdleState {
+
+    /**
+     * The connection didn't receive data during the read idle timeout.
+     */
+    READER_IDLE,
+    /**
+     * The connection didn't send data during the write idle timeout.
+     */
+    WRITER_IDLE,
+    /**
+     * The connection neither received nor sent data during the all idle timeout.
+     */
+    ALL_IDLE
+}
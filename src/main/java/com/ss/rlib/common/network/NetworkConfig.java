@@ -1,6 +1,9 @@
 package com.ss.rlib.common.network;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.zip.Deflater;
 
 /**
  * The interface to implement a network config.
@@ -20,6 +23,16 @@ public interface NetworkConfig {
         public @NotNull String getGroupName() {
             return "ServerNetworkThread";
         }
+
+        @Override
+        public int getSendBufferSize() {
+            return 12000;
+        }
+
+        @Override
+        public int getReceiveBufferSize() {
+            return 24000;
+        }
     };
 
     @NotNull NetworkConfig DEFAULT_CLIENT = new NetworkConfig() {
@@ -35,6 +48,24 @@ public interface NetworkConfig {
         }
     };
 
+    /**
+     * Gets frame codec.
+     *
+     * @return the codec of frame headers.
+     */
+    default @NotNull FrameCodec getFrameCodec() {
+        return FrameCodec.SHORT;
+    }
+
+    /**
+     * Gets dispatch threads.
+     *
+     * @return the count of worker threads to handle received packets or 0 to handle them by network threads.
+     */
+    default int getDispatchThreads() {
+        return 0;
+    }
+
     /**
      * Gets group name.
      *
@@ -53,6 +84,16 @@ public interface NetworkConfig {
         return 1;
     }
 
+    /**
+     * Gets transport.
+     *
+     * @return the transport of network channels, the group size is the count of event loops of the selector
+     * transport.
+     */
+    default @NotNull NetworkTransport getTransport() {
+        return NetworkTransport.ASYNC;
+    }
+
     /**
      * Gets read buffer size.
      *
@@ -62,6 +103,202 @@ public interface NetworkConfig {
         return 2048;
     }
 
+    /**
+     * Gets read rate limit.
+     *
+     * @param ownerType the type of the owner of a connection.
+     * @return the limit of reading by connections of owners of the type or null to not limit reading.
+     */
+    default @Nullable ReadRateLimit getReadRateLimit(@NotNull Class<? extends ConnectionOwner> ownerType) {
+        return null;
+    }
+
+    /**
+     * Gets accept backlog.
+     *
+     * @return the max count of pending connections of a server socket or 0 to use the system default, connections
+     * wait there while accepting is delayed by the accept rate.
+     */
+    default int getAcceptBacklog() {
+        return 0;
+    }
+
+    /**
+     * Gets accept rate.
+     *
+     * @return the max count of accepted connections per second or 0 to accept connections without delays.
+     */
+    default int getAcceptRate() {
+        return 0;
+    }
+
+    /**
+     * Gets max connections.
+     *
+     * @return the max count of connections of a server or 0 to not limit connections, connections over the limit are
+     * closed right after accepting until clients of other connections are destroyed.
+     */
+    default int getMaxConnections() {
+        return 0;
+    }
+
+    /**
+     * Gets max connections per address.
+     *
+     * @return the max count of connections of a server from one remote IP address or 0 to not limit connections.
+     */
+    default int getMaxConnectionsPerAddress() {
+        return 0;
+    }
+
+    /**
+     * Gets max packet size.
+     *
+     * @return the max length of received packet data, frames with larger data are considered as corrupted.
+     */
+    default int getMaxPacketSize() {
+        return 1024 * 1024;
+    }
+
+    /**
+     * Gets send queue high watermark.
+     *
+     * @return the count of waited packets of a connection after which the connection becomes not writable.
+     */
+    default int getSendQueueHighWatermark() {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Gets send queue low watermark.
+     *
+     * @return the count of waited packets of a not writable connection after which the connection becomes writable.
+     */
+    default int getSendQueueLowWatermark() {
+        return getSendQueueHighWatermark() / 2;
+    }
+
+    /**
+     * Gets send queue high watermark bytes.
+     *
+     * @return the expected size of waited packets of a connection after which the connection becomes not writable,
+     * only packets with the expected length are counted.
+     */
+    default long getSendQueueHighWatermarkBytes() {
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Gets send queue low watermark bytes.
+     *
+     * @return the expected size of waited packets of a not writable connection after which the connection becomes
+     * writable.
+     */
+    default long getSendQueueLowWatermarkBytes() {
+        return getSendQueueHighWatermarkBytes() / 2;
+    }
+
+    /**
+     * Gets send queue overflow policy.
+     *
+     * @return the policy of handling a connection which has exceeded the high watermark.
+     */
+    default @NotNull SendQueueOverflowPolicy getSendQueueOverflowPolicy() {
+        return SendQueueOverflowPolicy.BLOCK;
+    }
+
+    /**
+     * Gets max priority burst.
+     *
+     * @return the max count of packets of higher priorities which are written in a row while packets of a lower
+     * priority are waiting, after that one packet of the lower priority is written.
+     */
+    default int getMaxPriorityBurst() {
+        return 16;
+    }
+
+    /**
+     * Is batch write boolean.
+     *
+     * @return true if need to coalesce as many queued packets as fit into the write buffer to one write.
+     */
+    default boolean isBatchWrite() {
+        return false;
+    }
+
+    /**
+     * Gets flush policy.
+     *
+     * @return the policy of writing sent packets.
+     */
+    default @NotNull FlushPolicy getFlushPolicy() {
+        return FlushPolicy.IMMEDIATE;
+    }
+
+    /**
+     * Gets flush delay.
+     *
+     * @return the max time in microseconds between sending a packet and flushing it with the delayed flush policy.
+     */
+    default long getFlushDelay() {
+        return 100;
+    }
+
+    /**
+     * Gets flush bytes.
+     *
+     * @return the expected size of waited packets after which a connection with the delayed flush policy is flushed
+     * right away, only packets with the expected length are counted.
+     */
+    default long getFlushBytes() {
+        return getWriteBufferSize();
+    }
+
+    /**
+     * Is tcp no delay boolean.
+     *
+     * @return true if need to disable the Nagle algorithm of sockets.
+     */
+    default boolean isTcpNoDelay() {
+        return false;
+    }
+
+    /**
+     * Is keep alive boolean.
+     *
+     * @return true if need to enable keep-alive of sockets.
+     */
+    default boolean isKeepAlive() {
+        return false;
+    }
+
+    /**
+     * Gets send buffer size.
+     *
+     * @return the size of socket send buffers or 0 to use the system default.
+     */
+    default int getSendBufferSize() {
+        return 0;
+    }
+
+    /**
+     * Gets receive buffer size.
+     *
+     * @return the size of socket receive buffers or 0 to use the system default.
+     */
+    default int getReceiveBufferSize() {
+        return 0;
+    }
+
+    /**
+     * Is metrics enabled boolean.
+     *
+     * @return true if need to collect metrics of networks and connections.
+     */
+    default boolean isMetricsEnabled() {
+        return false;
+    }
+
     /**
      * Is direct byte buffer boolean.
      *
@@ -98,6 +335,126 @@ public interface NetworkConfig {
         return 2048;
     }
 
+    /**
+     * Is adaptive read buffer boolean.
+     *
+     * @return true if need to grow or shrink read buffers of connections by sizes of their recent reads.
+     */
+    default boolean isAdaptiveReadBuffer() {
+        return false;
+    }
+
+    /**
+     * Gets min read buffer size.
+     *
+     * @return the min size of adaptive read buffers.
+     */
+    default int getMinReadBufferSize() {
+        return 512;
+    }
+
+    /**
+     * Gets max read buffer size.
+     *
+     * @return the max size of adaptive read buffers.
+     */
+    default int getMaxReadBufferSize() {
+        return 65536;
+    }
+
+    /**
+     * Gets compression threshold.
+     *
+     * @return the min length of packet data to compress or 0 to disable compression, compression should be enabled
+     * on both sides of connections.
+     */
+    default int getCompressionThreshold() {
+        return 0;
+    }
+
+    /**
+     * Gets compression level.
+     *
+     * @return the level of compressing packet data from 0 to 9.
+     */
+    default int getCompressionLevel() {
+        return Deflater.BEST_SPEED;
+    }
+
+    /**
+     * Gets max datagram size.
+     *
+     * @return the max length of datagrams of datagram networks, larger packets are dropped.
+     */
+    default int getMaxDatagramSize() {
+        return 1400;
+    }
+
+    /**
+     * Is datagram sequencing boolean.
+     *
+     * @return true if datagrams have sequence numbers to drop received packets which are older than the last received
+     * packet of the same id.
+     */
+    default boolean isDatagramSequencing() {
+        return false;
+    }
+
+    /**
+     * Gets slab buffers.
+     *
+     * @return the count of network buffers which are allocated at once as slices of one slab.
+     */
+    default int getSlabBuffers() {
+        return 32;
+    }
+
+    /**
+     * Gets buffer magazine size.
+     *
+     * @return the max count of free network buffers which are cached by each thread.
+     */
+    default int getBufferMagazineSize() {
+        return 16;
+    }
+
+    /**
+     * Gets read idle timeout.
+     *
+     * @return the time in ms without reading after which a connection is read idle or 0 to disable it.
+     */
+    default long getReadIdleTimeout() {
+        return 0;
+    }
+
+    /**
+     * Gets write idle timeout.
+     *
+     * @return the time in ms without writing after which a connection is write idle or 0 to disable it.
+     */
+    default long getWriteIdleTimeout() {
+        return 0;
+    }
+
+    /**
+     * Gets all idle timeout.
+     *
+     * @return the time in ms without reading and writing after which a connection is idle and is closed or 0 to
+     * disable it.
+     */
+    default long getAllIdleTimeout() {
+        return 0;
+    }
+
+    /**
+     * Gets idle check interval.
+     *
+     * @return the interval in ms between checks of idle connections.
+     */
+    default long getIdleCheckInterval() {
+        return 100;
+    }
+
     /**
      * Is visible read exception boolean.
      *
@@ -1,7 +1,10 @@
 package com.ss.rlib.common.network;
 
+import com.ss.rlib.common.util.BufferUtils;
 import org.jetbrains.annotations.NotNull;
 
+import java.nio.ByteBuffer;
+
 /**
  * The interface to implement a network crypt.
  *
@@ -19,6 +22,14 @@ public interface NetworkCrypt {
         public void encrypt(@NotNull byte[] data, int offset, int length) {
         }
 
+        @Override
+        public void decrypt(@NotNull ByteBuffer buffer, int offset, int length) {
+        }
+
+        @Override
+        public void encrypt(@NotNull ByteBuffer buffer, int offset, int length) {
+        }
+
         @Override
         public boolean isNull() {
             return true;
@@ -51,4 +62,48 @@ public interface NetworkCrypt {
      * @param length the byte count.
      */
     void encrypt(@NotNull byte[] data, int offset, int length);
+
+    /**
+     * Decrypt a region of a heap or direct byte buffer in place. The default implementation uses the byte array
+     * based method and copies data of direct buffers through a thread local array.
+     *
+     * @param buffer the byte buffer.
+     * @param offset the offset in the buffer.
+     * @param length the byte count.
+     */
+    default void decrypt(@NotNull ByteBuffer buffer, int offset, int length) {
+
+        if (buffer.hasArray()) {
+            decrypt(buffer.array(), buffer.arrayOffset() + offset, length);
+            return;
+        }
+
+        byte[] data = CryptArrays.take(length);
+
+        BufferUtils.get(buffer, offset, data, 0, length);
+        decrypt(data, 0, length);
+        BufferUtils.put(buffer, offset, data, 0, length);
+    }
+
+    /**
+     * Encrypt a region of a heap or direct byte buffer in place. The default implementation uses the byte array
+     * based method and copies data of direct buffers through a thread local array.
+     *
+     * @param buffer the byte buffer.
+     * @param offset the offset in the buffer.
+     * @param length the byte count.
+     */
+    default void encrypt(@NotNull ByteBuffer buffer, int offset, int length) {
+
+        if (buffer.hasArray()) {
+            encrypt(buffer.array(), buffer.arrayOffset() + offset, length);
+            return;
+        }
+
+        byte[] data = CryptArrays.take(length);
+
+        BufferUtils.get(buffer, offset, data, 0, length);
+        encrypt(data, 0, length);
+        BufferUtils.put(buffer, offset, data, 0, length);
+    }
 }
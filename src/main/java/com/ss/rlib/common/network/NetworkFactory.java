@@ -9,6 +9,7 @@ import org.jetbrains.annotations.NotNull;
 import com.ss.rlib.common.network.client.ClientNetwork;
 import com.ss.rlib.common.network.client.ConnectHandler;
 import com.ss.rlib.common.network.client.impl.DefaultClientNetwork;
+import com.ss.rlib.common.network.impl.DefaultDatagramNetwork;
 import com.ss.rlib.common.network.packet.ReadablePacketRegistry;
 import com.ss.rlib.common.network.server.AcceptHandler;
 import com.ss.rlib.common.network.server.ServerNetwork;
@@ -111,6 +112,24 @@ public final class NetworkFactory {
         }
     }
 
+    /**
+     * Create a default datagram network.
+     *
+     * @param config   the network config.
+     * @param registry the readable packet registry.
+     * @return the datagram network.
+     */
+    public static @NotNull DatagramNetwork newDefaultDatagramNetwork(
+            @NotNull NetworkConfig config,
+            @NotNull ReadablePacketRegistry registry
+    ) {
+        try {
+            return new DefaultDatagramNetwork(config, registry);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     private NetworkFactory() throws Exception {
         throw new Exception("no permission");
     }
@@ -0,0 +1,21 @@
+package com.ss.rlib.common.network;
+
+/**
+ * The transport which performs IO operations of network channels.
+ *
+ * @author JavaSaBr
+ */
+public enum NetworkTransport {
+
+    /**
+     * Channels are handled by an {@link java.nio.channels.AsynchronousChannelGroup}, so completions of IO operations
+     * of a channel can be handled by any thread of the group.
+     */
+    ASYNC,
+    /**
+     * Channels are handled by event loops based on {@link java.nio.channels.Selector}. Each channel is pinned to one
+     * event loop which performs all IO operations of the channel and handles their completions, ready channels are
+     * read and written in batches by each select cycle.
+     */
+    SELECTOR
+}
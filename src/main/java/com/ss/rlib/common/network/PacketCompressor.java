@@ -0,0 +1,70 @@
+package com.ss.rlib.common.network;
+
+import com.ss.rlib.common.network.metrics.CompressionStats;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+/**
+ * The interface to implement a compression stage of frames. Frame data starts with a flags byte which tells that the
+ * rest data is compressed, so only packets which are larger than a threshold can be compressed and other packets
+ * are sent as is. Both sides of connections should have enabled compression to agree on the format of frames.
+ *
+ * @author JavaSaBr
+ */
+public interface PacketCompressor {
+
+    /**
+     * The flags of not compressed packet data.
+     */
+    byte FLAG_RAW = 0;
+
+    /**
+     * The flags of compressed packet data.
+     */
+    byte FLAG_COMPRESSED = 1;
+
+    /**
+     * Get the count of bytes which are reserved before packet data.
+     *
+     * @return the count of reserved bytes.
+     */
+    default int getReservedBytes() {
+        return 1;
+    }
+
+    /**
+     * Write the flags to the reserved byte of frame data and compress packet data in place if it's larger than the
+     * threshold.
+     *
+     * @param packetName the name of the packet to collect statistics.
+     * @param buffer     the buffer with frame data from the offset to the limit.
+     * @param dataOffset the offset of frame data which starts from the reserved byte.
+     */
+    void compress(@NotNull String packetName, @NotNull ByteBuffer buffer, int dataOffset);
+
+    /**
+     * Read the flags of frame data from the current position of the buffer and decompress packet data if it's
+     * compressed. The returned buffer is valid only until the next decompressing by the current thread.
+     *
+     * @param buffer the buffer with frame data from the position to the limit.
+     * @return the buffer with packet data from the position to the limit.
+     * @throws IllegalStateException if the frame data is corrupted.
+     */
+    @NotNull ByteBuffer decompress(@NotNull ByteBuffer buffer);
+
+    /**
+     * Get statistics of compressing by names of packets.
+     *
+     * @return the statistics by names of packets.
+     */
+    @NotNull Map<String, CompressionStats> getCompressionStats();
+
+    /**
+     * Get statistics of decompressing all packets.
+     *
+     * @return the statistics of decompressing.
+     */
+    @NotNull CompressionStats getDecompressionStats();
+}
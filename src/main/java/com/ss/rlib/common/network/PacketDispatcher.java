@@ -0,0 +1,66 @@
+package com.ss.rlib.common.network;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.Executor;
+
+/**
+ * The interface to implement a dispatcher which handles received packets by worker threads instead of network
+ * threads. Each connection gets its own serial mailbox, so packets of the same connection are handled in the received
+ * order, while packets of different connections are handled in parallel.
+ *
+ * @author JavaSaBr
+ */
+public interface PacketDispatcher {
+
+    /**
+     * Create a new serial mailbox for a connection. Tasks of the same mailbox are executed one by one in the order of
+     * adding.
+     *
+     * @return the new mailbox.
+     */
+    @NotNull Executor newMailbox();
+
+    /**
+     * Get the count of tasks which are waiting for handling in all mailboxes.
+     *
+     * @return the count of waiting tasks.
+     */
+    long getQueueSize();
+
+    /**
+     * Get the count of handled tasks.
+     *
+     * @return the count of handled tasks.
+     */
+    long getHandledCount();
+
+    /**
+     * Get the total time of handling tasks.
+     *
+     * @return the total time of handling in nanoseconds.
+     */
+    long getTotalHandleTime();
+
+    /**
+     * Get the max time of handling a task.
+     *
+     * @return the max time of handling in nanoseconds.
+     */
+    long getMaxHandleTime();
+
+    /**
+     * Get the average time of handling a task.
+     *
+     * @return the average time of handling in nanoseconds.
+     */
+    default long getAverageHandleTime() {
+        long count = getHandledCount();
+        return count == 0 ? 0 : getTotalHandleTime() / count;
+    }
+
+    /**
+     * Shutdown worker threads of this dispatcher.
+     */
+    void shutdown();
+}
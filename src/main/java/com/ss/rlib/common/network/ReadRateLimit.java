@@ -0,0 +1,66 @@
+package com.ss.rlib.common.network;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The limit of reading packets and bytes per second by a connection. A connection can read a burst of one second of
+ * the rate at once, after that reading is delayed until the connection has the budget again.
+ *
+ * @author JavaSaBr
+ */
+public final class ReadRateLimit {
+
+    /**
+     * Create a limit of reading.
+     *
+     * @param packetsPerSecond the max count of packets per second or 0 to not limit packets.
+     * @param bytesPerSecond   the max count of bytes per second or 0 to not limit bytes.
+     * @return the new limit.
+     */
+    public static @NotNull ReadRateLimit of(long packetsPerSecond, long bytesPerSecond) {
+        return new ReadRateLimit(packetsPerSecond, bytesPerSecond);
+    }
+
+    /**
+     * The max count of packets per second or 0.
+     */
+    private final long packetsPerSecond;
+
+    /**
+     * The max count of bytes per second or 0.
+     */
+    private final long bytesPerSecond;
+
+    private ReadRateLimit(long packetsPerSecond, long bytesPerSecond) {
+
+        if (packetsPerSecond < 0 || bytesPerSecond < 0) {
+            throw new IllegalArgumentException("wrong rates " + packetsPerSecond + " and " + bytesPerSecond);
+        }
+
+        this.packetsPerSecond = packetsPerSecond;
+        this.bytesPerSecond = bytesPerSecond;
+    }
+
+    /**
+     * Get the max count of packets per second.
+     *
+     * @return the max count of packets per second or 0 if packets aren't limited.
+     */
+    public long getPacketsPerSecond() {
+        return packetsPerSecond;
+    }
+
+    /**
+     * Get the max count of bytes per second.
+     *
+     * @return the max count of bytes per second or 0 if bytes aren't limited.
+     */
+    public long getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+    @Override
+    public String toString() {
+        return "ReadRateLimit{" + "packetsPerSecond=" + packetsPerSecond + ", bytesPerSecond=" + bytesPerSecond + '}';
+    }
+}
@@ -0,0 +1,26 @@
+package com.ss.rlib.common.network;
+
+/**
+ * The policy of handling a connection which has more waited packets than the high watermark of its send queue.
+ *
+ * @author JavaSaBr
+ */
+public enum SendQueueOverflowPolicy {
+
+    /**
+     * A sending thread waits until the send queue goes down to the low watermark. Network threads and event loops
+     * never wait, because they write waited packets themselves, so packets which are sent by them are added to the
+     * send queue over the high watermark. The dispatcher of received packets should be used to handle packets which
+     * send many responses.
+     */
+    BLOCK,
+    /**
+     * The oldest droppable waited packets are dropped until the send queue goes down to the high watermark, the send
+     * queue can stay overflowed if it doesn't have enough droppable packets.
+     */
+    DROP_OLDEST,
+    /**
+     * The connection is closed.
+     */
+    CLOSE
+}
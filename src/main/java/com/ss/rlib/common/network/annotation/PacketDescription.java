@@ -1,5 +1,7 @@
 package com.ss.rlib.common.network.annotation;
 
+import com.ss.rlib.common.network.packet.PacketPriority;
+
 import java.lang.annotation.*;
 
 /**
@@ -18,4 +20,11 @@ public @interface PacketDescription {
      * @return the packet id.
      */
     int id();
+
+    /**
+     * Get the priority of sending the packet.
+     *
+     * @return the priority of the packet.
+     */
+    PacketPriority priority() default PacketPriority.NORMAL;
 }
@@ -0,0 +1,23 @@
+package com.ss.rlib.common.network.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * The annotation to mark a field of a network packet which is read and written by a codec generated at compile time.
+ * Fields are serialized in the order of declaration, supported types are primitives, {@link String} and byte arrays.
+ * Annotated fields should be not private and not static.
+ *
+ * @author JavaSaBr
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target({ElementType.FIELD})
+public @interface PacketField {
+
+    /**
+     * Get the max length of a string or a byte array, received data with a larger length is rejected.
+     *
+     * @return the max length or -1 if the length is limited only by the packet data.
+     */
+    int maxLength() default -1;
+}
@@ -0,0 +1,435 @@
+package com.ss.rlib.common.network.annotation.processor;
+
+import com.ss.rlib.common.network.annotation.PacketField;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The annotation processor which generates codecs of packets with fields marked by {@link PacketField}. A codec of a
+ * packet {@code Outer.MovePacket} is the class {@code Outer_MovePacketCodec} in the same package with the singleton
+ * {@code INSTANCE}, it accesses fields directly, so it doesn't use reflection at runtime. A packet with final fields
+ * can't be read, so its codec is only a {@link com.ss.rlib.common.network.packet.PacketWriter}.
+ * <p>
+ * The processor isn't registered as a service, so having RLib on the class path doesn't run it. It's enabled by the
+ * compiler option {@code -processor com.ss.rlib.common.network.annotation.processor.PacketCodecProcessor} with RLib
+ * on the processor path, e.g. in the {@code annotationProcessor} configuration of Gradle.
+ *
+ * @author JavaSaBr
+ */
+@SupportedAnnotationTypes("com.ss.rlib.common.network.annotation.PacketField")
+public class PacketCodecProcessor extends AbstractProcessor {
+
+    private static final String READABLE_PACKET = "com.ss.rlib.common.network.packet.ReadablePacket";
+
+    /**
+     * The kind of a packet field.
+     */
+    private enum FieldKind {
+        BOOLEAN(1, "put", "get"),
+        BYTE(1, "put", "get"),
+        CHAR(2, "putChar", "getChar"),
+        SHORT(2, "putShort", "getShort"),
+        INT(4, "putInt", "getInt"),
+        FLOAT(4, "putFloat", "getFloat"),
+        LONG(8, "putLong", "getLong"),
+        DOUBLE(8, "putDouble", "getDouble"),
+        STRING(-1, null, null),
+        BYTES(-1, null, null);
+
+        /**
+         * The size of a fixed size field or -1.
+         */
+        private final int size;
+
+        private final String putMethod;
+        private final String getMethod;
+
+        FieldKind(int size, String putMethod, String getMethod) {
+            this.size = size;
+            this.putMethod = putMethod;
+            this.getMethod = getMethod;
+        }
+
+        private boolean isFixed() {
+            return size > 0;
+        }
+    }
+
+    /**
+     * The description of a packet field.
+     */
+    private static final class FieldInfo {
+
+        private final String name;
+        private final FieldKind kind;
+        private final int maxLength;
+
+        private FieldInfo(String name, FieldKind kind, int maxLength) {
+            this.name = name;
+            this.kind = kind;
+            this.maxLength = maxLength;
+        }
+    }
+
+    /**
+     * The names of already generated codecs.
+     */
+    private final Set<String> generated = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+
+        var types = new LinkedHashSet<TypeElement>();
+
+        for (Element element : roundEnv.getElementsAnnotatedWith(PacketField.class)) {
+            types.add((TypeElement) element.getEnclosingElement());
+        }
+
+        for (TypeElement type : types) {
+            processType(type);
+        }
+
+        return true;
+    }
+
+    private void processType(TypeElement type) {
+
+        var fields = new ArrayList<FieldInfo>();
+        var hasFinalFields = false;
+        var valid = checkType(type);
+
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+
+            var annotation = field.getAnnotation(PacketField.class);
+
+            if (annotation == null) {
+                continue;
+            }
+
+            var modifiers = field.getModifiers();
+
+            if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.STATIC)) {
+                error(field, "a packet field should be not private and not static");
+                valid = false;
+                continue;
+            }
+
+            var kind = kindOf(field.asType());
+
+            if (kind == null) {
+                error(field, "the type " + field.asType() + " isn't supported by packet codecs");
+                valid = false;
+                continue;
+            }
+
+            if (annotation.maxLength() != -1 && (kind.isFixed() || annotation.maxLength() < 0)) {
+                error(field, "the max length can be used only for strings and byte arrays and should be positive");
+                valid = false;
+                continue;
+            }
+
+            hasFinalFields |= modifiers.contains(Modifier.FINAL);
+            fields.add(new FieldInfo(field.getSimpleName().toString(), kind, annotation.maxLength()));
+        }
+
+        if (hasFinalFields && isReadablePacket(type)) {
+            error(type, "fields of a readable packet should be not final");
+            valid = false;
+        }
+
+        if (!valid) {
+            return;
+        }
+
+        var packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        var codecName = codecNameOf(type);
+        var qualifiedName = packageName.isEmpty() ? codecName : packageName + "." + codecName;
+
+        if (!generated.add(qualifiedName)) {
+            return;
+        }
+
+        var source = generate(packageName, codecName, type.getQualifiedName().toString(), fields, !hasFinalFields);
+
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, type).openWriter()) {
+            writer.write(source);
+        } catch (IOException e) {
+            error(type, "can't generate the codec " + qualifiedName + ": " + e.getMessage());
+        }
+    }
+
+    private boolean checkType(TypeElement type) {
+
+        for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()) {
+            if (element.getModifiers().contains(Modifier.PRIVATE)) {
+                error(type, "a packet with codec fields should be not private");
+                return false;
+            }
+        }
+
+        if (type.getKind() != ElementKind.CLASS) {
+            error(type, "only classes can have packet fields");
+            return false;
+        }
+
+        return true;
+    }
+
+    private boolean isReadablePacket(TypeElement type) {
+
+        var readable = processingEnv.getElementUtils().getTypeElement(READABLE_PACKET);
+
+        return readable != null &&
+                processingEnv.getTypeUtils().isAssignable(type.asType(), processingEnv.getTypeUtils()
+                        .erasure(readable.asType()));
+    }
+
+    private FieldKind kindOf(TypeMirror type) {
+        switch (type.getKind()) {
+            case BOOLEAN: return FieldKind.BOOLEAN;
+            case BYTE: return FieldKind.BYTE;
+            case CHAR: return FieldKind.CHAR;
+            case SHORT: return FieldKind.SHORT;
+            case INT: return FieldKind.INT;
+            case FLOAT: return FieldKind.FLOAT;
+            case LONG: return FieldKind.LONG;
+            case DOUBLE: return FieldKind.DOUBLE;
+            case ARRAY: {
+                var componentType = ((ArrayType) type).getComponentType();
+                return componentType.getKind() == TypeKind.BYTE ? FieldKind.BYTES : null;
+            }
+            case DECLARED: {
+                var element = (TypeElement) ((DeclaredType) type).asElement();
+                return element.getQualifiedName().contentEquals("java.lang.String") ? FieldKind.STRING : null;
+            }
+            default: return null;
+        }
+    }
+
+    private String codecNameOf(TypeElement type) {
+
+        var name = new StringBuilder(type.getSimpleName()).append("Codec");
+
+        for (Element element = type.getEnclosingElement(); element instanceof TypeElement;
+             element = element.getEnclosingElement()) {
+            name.insert(0, '_').insert(0, element.getSimpleName());
+        }
+
+        return name.toString();
+    }
+
+    private String generate(
+            String packageName,
+            String codecName,
+            String packetType,
+            List<FieldInfo> fields,
+            boolean readable
+    ) {
+
+        int fixedSize = 0;
+
+        for (FieldInfo field : fields) {
+            fixedSize += field.kind.isFixed() ? field.kind.size : Integer.BYTES;
+        }
+
+        var out = new StringBuilder();
+
+        if (!packageName.isEmpty()) {
+            out.append("package ").append(packageName).append(";\n\n");
+        }
+
+        // a packet with final fields can't be read, so it gets only a writer
+        var codecType = readable ? "PacketCodec" : "PacketWriter";
+
+        out.append("import com.ss.rlib.common.network.packet.").append(codecType).append(";\n\n");
+        out.append("import javax.annotation.processing.Generated;\n");
+        out.append("import java.nio.ByteBuffer;\n\n");
+        out.append("/**\n * The generated codec of {@link ").append(packetType).append("}.\n */\n");
+        out.append("@Generated(\"").append(PacketCodecProcessor.class.getName()).append("\")\n");
+        out.append("public final class ").append(codecName).append(" implements ").append(codecType).append('<')
+                .append(packetType).append("> {\n\n");
+        out.append("    public static final ").append(codecName).append(" INSTANCE = new ").append(codecName)
+                .append("();\n\n");
+        out.append("    private ").append(codecName).append("() {\n    }\n\n");
+
+        // the exact length
+        out.append("    @Override\n");
+        out.append("    public int getLength(").append(packetType).append(" packet) {\n");
+        out.append("        int length = ").append(fixedSize).append(";\n");
+
+        for (FieldInfo field : fields) {
+            if (field.kind == FieldKind.STRING) {
+                out.append("        length += packet.").append(field.name).append(" == null ? 0 : packet.")
+                        .append(field.name).append(".length() * 2;\n");
+            } else if (field.kind == FieldKind.BYTES) {
+                out.append("        length += packet.").append(field.name).append(" == null ? 0 : packet.")
+                        .append(field.name).append(".length;\n");
+            }
+        }
+
+        out.append("        return length;\n    }\n\n");
+
+        // writing
+        out.append("    @Override\n");
+        out.append("    public void write(").append(packetType).append(" packet, ByteBuffer buffer) {\n");
+
+        for (FieldInfo field : fields) {
+            generateWrite(out, field);
+        }
+
+        out.append("    }\n");
+
+        // reading
+        if (readable) {
+            out.append("\n    @Override\n");
+            out.append("    public boolean read(").append(packetType).append(" packet, ByteBuffer buffer) {\n");
+            generateRead(out, fields);
+            out.append("    }\n");
+        }
+
+        out.append("}\n");
+
+        return out.toString();
+    }
+
+    private void generateWrite(StringBuilder out, FieldInfo field) {
+
+        var value = "packet." + field.name;
+
+        switch (field.kind) {
+            case BOOLEAN: {
+                out.append("        buffer.put((byte) (").append(value).append(" ? 1 : 0));\n");
+                break;
+            }
+            case STRING: {
+                out.append("        if (").append(value).append(" == null) {\n");
+                out.append("            buffer.putInt(0);\n");
+                out.append("        } else {\n");
+                out.append("            String value = ").append(value).append(";\n");
+                out.append("            buffer.putInt(value.length());\n");
+                out.append("            for (int i = 0, length = value.length(); i < length; i++) {\n");
+                out.append("                buffer.putChar(value.charAt(i));\n");
+                out.append("            }\n");
+                out.append("        }\n");
+                break;
+            }
+            case BYTES: {
+                out.append("        if (").append(value).append(" == null) {\n");
+                out.append("            buffer.putInt(0);\n");
+                out.append("        } else {\n");
+                out.append("            buffer.putInt(").append(value).append(".length);\n");
+                out.append("            buffer.put(").append(value).append(");\n");
+                out.append("        }\n");
+                break;
+            }
+            default: {
+                out.append("        buffer.").append(field.kind.putMethod).append('(').append(value).append(");\n");
+            }
+        }
+    }
+
+    private void generateRead(StringBuilder out, List<FieldInfo> fields) {
+
+        for (int i = 0; i < fields.size(); ) {
+
+            var field = fields.get(i);
+
+            if (field.kind.isFixed()) {
+
+                // consecutive fields of fixed sizes are checked once
+                int end = i;
+                int size = 0;
+
+                while (end < fields.size() && fields.get(end).kind.isFixed()) {
+                    size += fields.get(end++).kind.size;
+                }
+
+                out.append("        if (buffer.remaining() < ").append(size).append(") {\n");
+                out.append("            return false;\n");
+                out.append("        }\n");
+
+                for (; i < end; i++) {
+
+                    var fixed = fields.get(i);
+
+                    out.append("        packet.").append(fixed.name).append(" = buffer.")
+                            .append(fixed.kind.getMethod).append("()");
+
+                    if (fixed.kind == FieldKind.BOOLEAN) {
+                        out.append(" != 0");
+                    }
+
+                    out.append(";\n");
+                }
+
+                continue;
+            }
+
+            var lengthName = field.name + "Length";
+            var size = field.kind == FieldKind.STRING ? "(long) " + lengthName + " * 2" : lengthName;
+
+            out.append("        if (buffer.remaining() < 4) {\n");
+            out.append("            return false;\n");
+            out.append("        }\n");
+            out.append("        int ").append(lengthName).append(" = buffer.getInt();\n");
+            out.append("        if (").append(lengthName).append(" < 0 || ");
+
+            if (field.maxLength >= 0) {
+                out.append(lengthName).append(" > ").append(field.maxLength).append(" || ");
+            }
+
+            out.append(size).append(" > buffer.remaining()) {\n");
+            out.append("            return false;\n");
+            out.append("        }\n");
+
+            if (field.kind == FieldKind.STRING) {
+                var charsName = field.name + "Chars";
+                out.append("        char[] ").append(charsName).append(" = new char[").append(lengthName)
+                        .append("];\n");
+                out.append("        for (int i = 0; i < ").append(lengthName).append("; i++) {\n");
+                out.append("            ").append(charsName).append("[i] = buffer.getChar();\n");
+                out.append("        }\n");
+                out.append("        packet.").append(field.name).append(" = new String(").append(charsName)
+                        .append(");\n");
+            } else {
+                out.append("        packet.").append(field.name).append(" = new byte[").append(lengthName)
+                        .append("];\n");
+                out.append("        buffer.get(packet.").append(field.name).append(");\n");
+            }
+
+            i++;
+        }
+
+        out.append("        return true;\n");
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
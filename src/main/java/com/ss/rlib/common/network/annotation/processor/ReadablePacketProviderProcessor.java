@@ -0,0 +1,233 @@
+package com.ss.rlib.common.network.annotation.processor;
+
+import com.ss.rlib.common.network.annotation.PacketDescription;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The annotation processor which generates a {@link com.ss.rlib.common.network.packet.ReadablePacketProvider} of
+ * readable packets with {@link PacketDescription} of a compilation and registers it as a service. The provider is
+ * {@code GeneratedReadablePacketProvider} in the common package of the packets, the name can be changed by the option
+ * {@code -Arlib.packetProvider=<qualified name>}.
+ * <p>
+ * Like {@link PacketCodecProcessor}, this processor runs only when it's named by the compiler option
+ * {@code -processor}.
+ *
+ * @author JavaSaBr
+ */
+@SupportedAnnotationTypes("com.ss.rlib.common.network.annotation.PacketDescription")
+@SupportedOptions(ReadablePacketProviderProcessor.PROVIDER_OPTION)
+public class ReadablePacketProviderProcessor extends AbstractProcessor {
+
+    static final String PROVIDER_OPTION = "rlib.packetProvider";
+
+    private static final String DEFAULT_PROVIDER_NAME = "GeneratedReadablePacketProvider";
+    private static final String READABLE_PACKET = "com.ss.rlib.common.network.packet.ReadablePacket";
+    private static final String PROVIDER = "com.ss.rlib.common.network.packet.ReadablePacketProvider";
+
+    /**
+     * True if the provider was generated.
+     */
+    private boolean generated;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+
+        if (generated || roundEnv.processingOver()) {
+            return false;
+        }
+
+        var packets = new ArrayList<TypeElement>();
+
+        for (Element element : roundEnv.getElementsAnnotatedWith(PacketDescription.class)) {
+            if (element.getKind() == ElementKind.CLASS && isReadablePacket((TypeElement) element) &&
+                    !element.getModifiers().contains(Modifier.ABSTRACT)) {
+                packets.add((TypeElement) element);
+            }
+        }
+
+        if (packets.isEmpty()) {
+            return false;
+        }
+
+        var providerName = processingEnv.getOptions().get(PROVIDER_OPTION);
+
+        if (providerName == null) {
+            var packageName = commonPackageOf(packets);
+            providerName = packageName.isEmpty() ? DEFAULT_PROVIDER_NAME : packageName + "." + DEFAULT_PROVIDER_NAME;
+        }
+
+        var index = providerName.lastIndexOf('.');
+        var providerPackage = index < 0 ? "" : providerName.substring(0, index);
+        var accessible = new ArrayList<TypeElement>();
+
+        for (TypeElement packet : packets) {
+            if (isInstantiable(packet, providerPackage)) {
+                accessible.add(packet);
+            } else {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "the packet isn't added to the " +
+                        "generated provider, it should have an accessible constructor without parameters", packet);
+            }
+        }
+
+        generated = true;
+
+        try {
+            generate(providerName, providerPackage, providerName.substring(index + 1), accessible);
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "can't generate the packet provider " + providerName + ": " + e.getMessage());
+        }
+
+        return false;
+    }
+
+    private boolean isReadablePacket(TypeElement type) {
+
+        var readable = processingEnv.getElementUtils().getTypeElement(READABLE_PACKET);
+
+        return readable != null &&
+                processingEnv.getTypeUtils().isAssignable(type.asType(), processingEnv.getTypeUtils()
+                        .erasure(readable.asType()));
+    }
+
+    private String commonPackageOf(List<TypeElement> packets) {
+
+        String common = null;
+
+        for (TypeElement packet : packets) {
+
+            var packageName = processingEnv.getElementUtils().getPackageOf(packet).getQualifiedName().toString();
+
+            if (common == null) {
+                common = packageName;
+                continue;
+            }
+
+            while (!common.isEmpty() && !packageName.equals(common) && !packageName.startsWith(common + ".")) {
+                int index = common.lastIndexOf('.');
+                common = index < 0 ? "" : common.substring(0, index);
+            }
+        }
+
+        return common;
+    }
+
+    private boolean isInstantiable(TypeElement packet, String providerPackage) {
+
+        var packageName = processingEnv.getElementUtils().getPackageOf(packet).getQualifiedName().toString();
+        var samePackage = packageName.equals(providerPackage);
+
+        for (Element element = packet; element instanceof TypeElement; element = element.getEnclosingElement()) {
+
+            var type = (TypeElement) element;
+
+            if (type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(Modifier.STATIC) &&
+                    type.getEnclosingElement().getKind() == ElementKind.CLASS) {
+                return false;
+            } else if (!isAccessible(type.getModifiers(), samePackage)) {
+                return false;
+            }
+        }
+
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(packet.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty()) {
+                return isAccessible(constructor.getModifiers(), samePackage);
+            }
+        }
+
+        return false;
+    }
+
+    private boolean isAccessible(Set<Modifier> modifiers, boolean samePackage) {
+        return modifiers.contains(Modifier.PUBLIC) || samePackage && !modifiers.contains(Modifier.PRIVATE);
+    }
+
+    private void generate(
+            String providerName,
+            String packageName,
+            String simpleName,
+            List<TypeElement> packets
+    ) throws IOException {
+
+        var out = new StringBuilder();
+
+        if (!packageName.isEmpty()) {
+            out.append("package ").append(packageName).append(";\n\n");
+        }
+
+        out.append("import com.ss.rlib.common.network.packet.ReadablePacketFactory;\n");
+        out.append("import com.ss.rlib.common.network.packet.ReadablePacketProvider;\n\n");
+        out.append("import javax.annotation.processing.Generated;\n\n");
+        out.append("/**\n * The generated provider of readable packets.\n */\n");
+        out.append("@Generated(\"").append(ReadablePacketProviderProcessor.class.getName()).append("\")\n");
+        out.append("public final class ").append(simpleName).append(" implements ReadablePacketProvider {\n\n");
+
+        out.append("    private static final int[] IDS = {");
+
+        for (int i = 0; i < packets.size(); i++) {
+            out.append(i == 0 ? "" : ", ").append(packets.get(i).getAnnotation(PacketDescription.class).id());
+        }
+
+        out.append("};\n\n");
+        out.append("    private static final ReadablePacketFactory[] FACTORIES = {\n");
+
+        for (int i = 0; i < packets.size(); i++) {
+            out.append("            ").append(packets.get(i).getQualifiedName()).append("::new")
+                    .append(i < packets.size() - 1 ? ",\n" : "\n");
+        }
+
+        out.append("    };\n\n");
+        out.append("    @Override\n");
+        out.append("    public int size() {\n");
+        out.append("        return IDS.length;\n");
+        out.append("    }\n\n");
+        out.append("    @Override\n");
+        out.append("    public int getId(int index) {\n");
+        out.append("        return IDS[index];\n");
+        out.append("    }\n\n");
+        out.append("    @Override\n");
+        out.append("    public ReadablePacketFactory getFactory(int index) {\n");
+        out.append("        return FACTORIES[index];\n");
+        out.append("    }\n");
+        out.append("}\n");
+
+        var originatingElements = packets.toArray(new Element[0]);
+        var filer = processingEnv.getFiler();
+
+        try (Writer writer = filer.createSourceFile(providerName, originatingElements).openWriter()) {
+            writer.write(out.toString());
+        }
+
+        var service = filer.createResource(StandardLocation.CLASS_OUTPUT, "", "META-INF/services/" + PROVIDER,
+                originatingElements);
+
+        try (Writer writer = service.openWriter()) {
+            writer.write(providerName);
+            writer.write('\n');
+        }
+    }
+}
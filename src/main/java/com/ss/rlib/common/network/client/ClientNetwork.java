@@ -2,14 +2,16 @@ package com.ss.rlib.common.network.client;
 
 import com.ss.rlib.common.network.AsyncNetwork;
 import com.ss.rlib.common.network.client.server.Server;
+import com.ss.rlib.common.util.array.Array;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.net.InetSocketAddress;
-import java.nio.channels.AsynchronousSocketChannel;
+import java.util.concurrent.CompletableFuture;
 
 /**
- * The interface to implement a client network.
+ * The interface to implement a client network. A client network can keep connections to many servers at the same
+ * time, all connections share the threads and the buffers of the network.
  *
  * @author JavaSaBr
  */
@@ -19,8 +21,9 @@ public interface ClientNetwork extends AsyncNetwork {
      * Async connect to a server by the address.
      *
      * @param serverAddress the sever address.
+     * @return the future of the connected server.
      */
-    void asyncConnect(@NotNull InetSocketAddress serverAddress);
+    @NotNull CompletableFuture<Server> asyncConnect(@NotNull InetSocketAddress serverAddress);
 
     /**
      * Connect to a server by the address.
@@ -28,17 +31,24 @@ public interface ClientNetwork extends AsyncNetwork {
      * @param serverAddress the sever address.
      * @return the connected server.
      */
-    Server connect(@NotNull InetSocketAddress serverAddress);
+    @NotNull Server connect(@NotNull InetSocketAddress serverAddress);
 
     /**
-     * Get the network channel to a server.
+     * Get the connected servers.
      *
-     * @return the network channel to a server.
+     * @return the connected servers.
      */
-    @Nullable AsynchronousSocketChannel getChannel();
+    @NotNull Array<Server> getServers();
 
     /**
-     * Get the current server.
+     * Remove the disconnected server.
+     *
+     * @param server the disconnected server.
+     */
+    void removeServer(@NotNull Server server);
+
+    /**
+     * Get the current server, it's the last connected server.
      *
      * @return the current server or null.
      */
@@ -1,24 +1,22 @@
 package com.ss.rlib.common.network.client;
 
-import static com.ss.rlib.common.util.ObjectUtils.notNull;
 import com.ss.rlib.common.network.client.server.Server;
 import com.ss.rlib.common.network.client.server.ServerConnection;
 import com.ss.rlib.common.network.client.server.impl.DefaultServer;
 import com.ss.rlib.common.network.client.server.impl.DefaultServerConnection;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 
 import java.nio.channels.AsynchronousSocketChannel;
-import java.nio.channels.CompletionHandler;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
 /**
- * The interface to implement a connection handler.
+ * The interface to implement a connection handler. A client network can connect to many servers at the same time, so
+ * the handler gets the connected channel of each connection.
  *
  * @author JavaSaBr
  */
-public interface ConnectHandler extends CompletionHandler<Void, ClientNetwork> {
+public interface ConnectHandler {
 
     /**
      * Create a simple connection handler.
@@ -31,13 +29,12 @@ public interface ConnectHandler extends CompletionHandler<Void, ClientNetwork> {
             @NotNull BiFunction<ClientNetwork, AsynchronousSocketChannel, ServerConnection> connectionFactory,
             @NotNull Function<ServerConnection, Server> serverFactory
     ) {
-        return (network) -> {
-            AsynchronousSocketChannel channel = notNull(network.getChannel());
+        return (network, channel) -> {
             ServerConnection connection = connectionFactory.apply(network, channel);
             Server server = serverFactory.apply(connection);
             connection.setOwner(server);
             connection.startRead();
-            network.setCurrentServer(server);
+            return server;
         };
     }
 
@@ -50,22 +47,14 @@ public interface ConnectHandler extends CompletionHandler<Void, ClientNetwork> {
         return newSimple(DefaultServerConnection::new, DefaultServer::new);
     }
 
-    @Override
-    default void completed(@Nullable Void result, @NotNull ClientNetwork network) {
-        onConnect(network);
-    }
-
-    @Override
-    default void failed(@NotNull Throwable exc, @NotNull ClientNetwork network) {
-        onFailed(exc);
-    }
-
     /**
      * Handle a new connection.
      *
      * @param network the network.
+     * @param channel the connected channel.
+     * @return the connected server.
      */
-    void onConnect(@NotNull ClientNetwork network);
+    @NotNull Server onConnect(@NotNull ClientNetwork network, @NotNull AsynchronousSocketChannel channel);
 
     /**
      * Handle an exception.
@@ -0,0 +1,82 @@
+package com.ss.rlib.common.network.client;
+
+import com.ss.rlib.common.network.client.impl.DefaultServerPool;
+import com.ss.rlib.common.network.client.server.Server;
+import com.ss.rlib.common.network.packet.WritablePacket;
+import com.ss.rlib.common.util.array.Array;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The interface to implement a pool of connections to a set of servers of one client network, a packet is sent by
+ * the least loaded connection. Lost connections are reconnected in the background.
+ *
+ * @author JavaSaBr
+ */
+public interface ServerPool {
+
+    /**
+     * Create a default pool of connections.
+     *
+     * @param network               the client network.
+     * @param connectionsPerAddress the count of connections to each address.
+     * @param addresses             the addresses of servers.
+     * @return the pool of connections.
+     */
+    static @NotNull ServerPool newDefault(
+            @NotNull ClientNetwork network,
+            int connectionsPerAddress,
+            @NotNull InetSocketAddress... addresses
+    ) {
+        return new DefaultServerPool(network, connectionsPerAddress, addresses);
+    }
+
+    /**
+     * Connect all connections of this pool.
+     *
+     * @return the future which is completed when all connections are connected, it's completed exceptionally if
+     * some connection was failed, failed connections are reconnected by {@link #next()}.
+     */
+    @NotNull CompletableFuture<Void> connect();
+
+    /**
+     * Get the least loaded server, it's a server with the least count of packets which are waiting for sending, servers
+     * with the same count are compared by the size of the waiting packets.
+     *
+     * @return the least loaded server or null if there are no connected servers.
+     */
+    @Nullable Server next();
+
+    /**
+     * Send the packet to the least loaded server.
+     *
+     * @param packet the packet.
+     * @return false if there are no connected servers.
+     */
+    default boolean sendPacket(@NotNull WritablePacket packet) {
+
+        Server server = next();
+
+        if (server == null) {
+            return false;
+        }
+
+        server.sendPacket(packet);
+        return true;
+    }
+
+    /**
+     * Get the connected servers of this pool.
+     *
+     * @return the connected servers.
+     */
+    @NotNull Array<Server> getServers();
+
+    /**
+     * Close all connections of this pool.
+     */
+    void close();
+}
@@ -1,36 +1,82 @@
 package com.ss.rlib.common.network.client.impl;
 
-import com.ss.rlib.common.concurrent.GroupThreadFactory;
 import com.ss.rlib.common.network.NetworkConfig;
+import com.ss.rlib.common.network.NetworkTransport;
 import com.ss.rlib.common.network.client.ClientNetwork;
 import com.ss.rlib.common.network.client.ConnectHandler;
 import com.ss.rlib.common.network.client.server.Server;
 import com.ss.rlib.common.network.impl.AbstractAsyncNetwork;
+import com.ss.rlib.common.network.impl.SelectorEventLoopGroup;
 import com.ss.rlib.common.network.packet.ReadablePacketRegistry;
+import com.ss.rlib.common.util.array.Array;
+import com.ss.rlib.common.util.array.ArrayFactory;
+import com.ss.rlib.common.util.array.ConcurrentArray;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
-import java.io.UncheckedIOException;
 import java.net.InetSocketAddress;
 import java.nio.channels.AsynchronousChannelGroup;
 import java.nio.channels.AsynchronousSocketChannel;
+import java.nio.channels.CompletionHandler;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
 
 /**
- * The base implementation of a async client network.
+ * The base implementation of a async client network. Each connection has its own channel, but all connections share
+ * the channel group and the buffers of this network.
  *
  * @author JavaSaBr
  */
 public final class DefaultClientNetwork extends AbstractAsyncNetwork implements ClientNetwork {
 
     /**
-     * The asynchronous channel group.
+     * The future of a connection which handles the result of connecting its channel.
      */
-    @NotNull
+    private final class ConnectFuture extends CompletableFuture<Server>
+            implements CompletionHandler<Void, AsynchronousSocketChannel> {
+
+        @Override
+        public void completed(@Nullable Void result, @NotNull AsynchronousSocketChannel channel) {
+
+            Server server;
+            try {
+                server = connectHandler.onConnect(DefaultClientNetwork.this, channel);
+            } catch (RuntimeException e) {
+                failed(e, channel);
+                return;
+            }
+
+            addServer(server);
+            complete(server);
+        }
+
+        @Override
+        public void failed(@NotNull Throwable exc, @NotNull AsynchronousSocketChannel channel) {
+
+            try {
+                channel.close();
+            } catch (IOException e) {
+                LOGGER.warning(this, e);
+            }
+
+            connectHandler.onFailed(exc);
+            completeExceptionally(exc);
+        }
+    }
+
+    /**
+     * The asynchronous channel group of the async transport.
+     */
+    @Nullable
     protected final AsynchronousChannelGroup group;
 
+    /**
+     * The event loop group of the selector transport.
+     */
+    @Nullable
+    protected final SelectorEventLoopGroup eventLoopGroup;
+
     /**
      * The connection handler.
      */
@@ -38,10 +84,10 @@ public final class DefaultClientNetwork extends AbstractAsyncNetwork implements
     protected final ConnectHandler connectHandler;
 
     /**
-     * The asynchronous channel.
+     * The connected servers.
      */
-    @Nullable
-    protected AsynchronousSocketChannel channel;
+    @NotNull
+    protected final ConcurrentArray<Server> servers;
 
     /**
      * The current server.
@@ -57,61 +103,119 @@ public final class DefaultClientNetwork extends AbstractAsyncNetwork implements
 
         super(config, packetRegistry);
 
-        this.group = AsynchronousChannelGroup.withFixedThreadPool(config.getGroupSize(),
-                new GroupThreadFactory(config.getGroupName(), config.getThreadClass(), config.getThreadPriority()));
+        var threadFactory = newNetworkThreadFactory(config);
+
+        if (config.getTransport() == NetworkTransport.SELECTOR) {
+            this.group = null;
+            this.eventLoopGroup = new SelectorEventLoopGroup(config.getGroupSize(), threadFactory);
+        } else {
+            this.group = AsynchronousChannelGroup.withFixedThreadPool(config.getGroupSize(), threadFactory);
+            this.eventLoopGroup = null;
+        }
 
         this.connectHandler = connectHandler;
+        this.servers = ArrayFactory.newConcurrentStampedLockArray(Server.class);
     }
 
     /**
-     * Prepare the channel to connect.
+     * Open a new channel to connect.
      *
-     * @return the prepared socket channel.
+     * @return the new socket channel.
+     * @throws IOException if the channel can't be opened.
      */
-    protected @NotNull AsynchronousSocketChannel prepareChannel() {
+    protected @NotNull AsynchronousSocketChannel openChannel() throws IOException {
+
+        var channel = eventLoopGroup != null ? eventLoopGroup.openSocketChannel() :
+                AsynchronousSocketChannel.open(group);
         try {
-            if (channel != null) channel.close();
-            channel = AsynchronousSocketChannel.open(group);
-            return channel;
+            configureChannel(channel);
         } catch (IOException e) {
-            throw new UncheckedIOException(e);
+            channel.close();
+            throw e;
         }
+
+        return channel;
     }
 
     @Override
-    public synchronized void asyncConnect(@NotNull InetSocketAddress serverAddress) {
-        prepareChannel().connect(serverAddress, this, connectHandler);
+    public @NotNull CompletableFuture<Server> asyncConnect(@NotNull InetSocketAddress serverAddress) {
+
+        var future = new ConnectFuture();
+
+        AsynchronousSocketChannel channel;
+        try {
+            channel = openChannel();
+        } catch (IOException e) {
+            connectHandler.onFailed(e);
+            future.completeExceptionally(e);
+            return future;
+        }
+
+        channel.connect(serverAddress, channel, future);
+
+        return future;
     }
 
     @Override
-    public synchronized Server connect(@NotNull InetSocketAddress serverAddress) {
-
-        Future<Void> future = prepareChannel().connect(serverAddress);
+    public @NotNull Server connect(@NotNull InetSocketAddress serverAddress) {
         try {
-            future.get();
+            return asyncConnect(serverAddress).get();
         } catch (final InterruptedException | ExecutionException e) {
             throw new RuntimeException(e);
         }
+    }
 
-        connectHandler.completed(null, this);
+    /**
+     * Add the connected server and make it the current server.
+     *
+     * @param server the connected server.
+     */
+    protected void addServer(@NotNull Server server) {
 
-        return getCurrentServer();
+        servers.runInWriteLock(server, Array::add);
+        setCurrentServer(server);
+
+        // the connection could be closed before the server was added
+        if (server.getConnection().isClosed()) {
+            removeServer(server);
+        }
     }
 
     @Override
-    public synchronized void shutdown() {
+    public void removeServer(@NotNull Server server) {
+
+        servers.runInWriteLock(server, Array::fastRemove);
 
-        Server currentServer = getCurrentServer();
-        if (currentServer != null) {
-            currentServer.destroy();
+        if (currentServer == server) {
+            setCurrentServer(null);
         }
+    }
+
+    @Override
+    public @NotNull Array<Server> getServers() {
 
-        group.shutdown();
+        Array<Server> result = ArrayFactory.newArray(Server.class);
+        servers.runInReadLock(result, (source, target) -> target.addAll(source));
+
+        return result;
     }
 
     @Override
-    public @Nullable AsynchronousSocketChannel getChannel() {
-        return channel;
+    public void shutdown() {
+
+        for (Server server : getServers()) {
+            server.destroy();
+        }
+
+        if (group != null) {
+            group.shutdown();
+        }
+
+        if (eventLoopGroup != null) {
+            eventLoopGroup.shutdown();
+        }
+
+        shutdownServices();
     }
 
     @Override
@@ -0,0 +1,243 @@
+package com.ss.rlib.common.network.client.impl;
+
+import com.ss.rlib.common.network.client.ClientNetwork;
+import com.ss.rlib.common.network.client.ServerPool;
+import com.ss.rlib.common.network.client.server.Server;
+import com.ss.rlib.common.network.client.server.ServerConnection;
+import com.ss.rlib.common.util.array.Array;
+import com.ss.rlib.common.util.array.ArrayFactory;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The base implementation of {@link ServerPool}. Each connection of the pool has its own slot, the search of the least
+ * loaded server starts from a rotated slot, so idle servers are used by turns.
+ *
+ * @author JavaSaBr
+ */
+public class DefaultServerPool implements ServerPool {
+
+    /**
+     * The delay between attempts to reconnect a lost connection.
+     */
+    private static final long RECONNECT_DELAY = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * The slot of a connection of the pool.
+     */
+    private final class Slot {
+
+        /**
+         * The server address.
+         */
+        @NotNull
+        private final InetSocketAddress address;
+
+        /**
+         * The flag of connecting now.
+         */
+        @NotNull
+        private final AtomicBoolean connecting;
+
+        /**
+         * The connected server.
+         */
+        @Nullable
+        private volatile Server server;
+
+        /**
+         * The time of the last attempt to connect.
+         */
+        private volatile long lastConnectTime;
+
+        private Slot(@NotNull InetSocketAddress address) {
+            this.address = address;
+            this.connecting = new AtomicBoolean();
+        }
+
+        /**
+         * Get the connected server or start reconnecting if the connection was lost.
+         *
+         * @return the connected server or null.
+         */
+        private @Nullable Server getServer() {
+
+            Server server = this.server;
+
+            if (server != null && !server.getConnection().isClosed()) {
+                return server;
+            }
+
+            if (System.nanoTime() - lastConnectTime >= RECONNECT_DELAY) {
+                connect();
+            }
+
+            return null;
+        }
+
+        /**
+         * Connect to the server if the slot isn't connecting now.
+         *
+         * @return the future of connecting.
+         */
+        private @NotNull CompletableFuture<Server> connect() {
+
+            if (closed || !connecting.compareAndSet(false, true)) {
+                return CompletableFuture.completedFuture(server);
+            }
+
+            lastConnectTime = System.nanoTime();
+
+            return network.asyncConnect(address).whenComplete((connected, exc) -> {
+
+                if (connected != null) {
+                    this.server = connected;
+                    // the pool could be closed during connecting
+                    if (closed) {
+                        connected.destroy();
+                    }
+                }
+
+                connecting.set(false);
+            });
+        }
+    }
+
+    /**
+     * The client network.
+     */
+    @NotNull
+    protected final ClientNetwork network;
+
+    /**
+     * The slots of connections.
+     */
+    @NotNull
+    private final Slot[] slots;
+
+    /**
+     * The counter to rotate the first slot of searching.
+     */
+    @NotNull
+    private final AtomicInteger counter;
+
+    /**
+     * The flag of closing this pool.
+     */
+    private volatile boolean closed;
+
+    public DefaultServerPool(
+            @NotNull ClientNetwork network,
+            int connectionsPerAddress,
+            @NotNull InetSocketAddress... addresses
+    ) {
+
+        if (connectionsPerAddress < 1 || addresses.length < 1) {
+            throw new IllegalArgumentException("the pool should have at least one connection");
+        }
+
+        this.network = network;
+        this.counter = new AtomicInteger();
+        this.slots = new Slot[connectionsPerAddress * addresses.length];
+
+        // connections to the same address aren't neighbours to spread load by turns between addresses
+        for (int i = 0; i < connectionsPerAddress; i++) {
+            for (int j = 0; j < addresses.length; j++) {
+                slots[i * addresses.length + j] = new Slot(addresses[j]);
+            }
+        }
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Void> connect() {
+
+        var futures = new CompletableFuture<?>[slots.length];
+
+        for (int i = 0; i < slots.length; i++) {
+            futures[i] = slots[i].connect();
+        }
+
+        return CompletableFuture.allOf(futures);
+    }
+
+    @Override
+    public @Nullable Server next() {
+
+        int length = slots.length;
+        int start = Math.floorMod(counter.getAndIncrement(), length);
+
+        Server result = null;
+        int minCount = Integer.MAX_VALUE;
+        long minBytes = Long.MAX_VALUE;
+
+        for (int i = 0; i < length; i++) {
+
+            Server server = slots[(start + i) % length].getServer();
+
+            if (server == null) {
+                continue;
+            }
+
+            // packets without an expected length don't add waiting bytes, so the count of packets is compared first
+            ServerConnection connection = server.getConnection();
+            int count = connection.getWaitPacketCount();
+            long bytes = connection.getWaitPacketBytes();
+
+            if (count < minCount || count == minCount && bytes < minBytes) {
+                result = server;
+                minCount = count;
+                minBytes = bytes;
+            }
+
+            if (count == 0) {
+                break;
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public @NotNull Array<Server> getServers() {
+
+        Array<Server> result = ArrayFactory.newArray(Server.class, slots.length);
+
+        for (Slot slot : slots) {
+
+            Server server = slot.server;
+
+            if (server != null && !server.getConnection().isClosed()) {
+                result.add(server);
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public void close() {
+
+        closed = true;
+
+        for (Slot slot : slots) {
+
+            Server server = slot.server;
+
+            if (server != null) {
+                server.destroy();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "DefaultServerPool{" + "connections=" + slots.length + ", connected=" + getServers().size() +
+                ", closed=" + closed + '}';
+    }
+}
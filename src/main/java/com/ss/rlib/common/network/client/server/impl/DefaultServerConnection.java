@@ -19,15 +19,22 @@ import java.nio.channels.AsynchronousSocketChannel;
 public class DefaultServerConnection extends AbstractAsyncConnection implements ServerConnection {
 
     public DefaultServerConnection(@NotNull ClientNetwork network, @NotNull AsynchronousSocketChannel channel) {
-        super(network, channel, WritablePacket.class);
+        super(network, channel);
     }
 
+    /**
+     * @param network      the network.
+     * @param channel      the channel.
+     * @param sendableType the type of sendable packets.
+     * @deprecated the type of sendable packets isn't used, use the constructor without it.
+     */
+    @Deprecated
     public DefaultServerConnection(
             @NotNull ClientNetwork network,
             @NotNull AsynchronousSocketChannel channel,
             @NotNull Class<? extends WritablePacket> sendableType
     ) {
-        super(network, channel, sendableType);
+        this(network, channel);
     }
 
     @Override
@@ -39,8 +46,9 @@ public class DefaultServerConnection extends AbstractAsyncConnection implements
     protected void doClose() throws IOException {
         super.doClose();
         ClientNetwork clientNetwork = (ClientNetwork) getNetwork();
-        if (clientNetwork.getCurrentServer() == getOwner()) {
-            clientNetwork.setCurrentServer(null);
+        Server owner = getOwner();
+        if (owner != null) {
+            clientNetwork.removeServer(owner);
         }
     }
 }
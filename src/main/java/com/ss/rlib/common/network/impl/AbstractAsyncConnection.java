@@ -5,21 +5,26 @@ import static java.lang.Math.min;
 import com.ss.rlib.common.logging.Logger;
 import com.ss.rlib.common.logging.LoggerManager;
 import com.ss.rlib.common.network.*;
+import com.ss.rlib.common.network.metrics.NetworkMetrics;
 import com.ss.rlib.common.network.packet.ReadablePacket;
+import com.ss.rlib.common.network.packet.ReusableReadablePacket;
 import com.ss.rlib.common.network.packet.ReusableWritablePacket;
 import com.ss.rlib.common.network.packet.WritablePacket;
-import com.ss.rlib.common.network.packet.impl.AbstractReusableWritablePacket;
-import com.ss.rlib.common.util.linkedlist.LinkedList;
-import com.ss.rlib.common.util.linkedlist.LinkedListFactory;
+import com.ss.rlib.common.util.BufferUtils;
+import com.ss.rlib.common.util.CoarseClock;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
+import java.net.SocketAddress;
 import java.nio.ByteBuffer;
 import java.nio.channels.AsynchronousSocketChannel;
 import java.nio.channels.CompletionHandler;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.locks.StampedLock;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * The base implementation of {@link AsyncConnection}.
@@ -30,11 +35,14 @@ public abstract class AbstractAsyncConnection implements AsyncConnection {
 
     protected static final Logger LOGGER = LoggerManager.getLogger(AsyncNetwork.class);
 
-
-    protected static final int PACKET_SIZE_BYTES_COUNT = 2;
     protected static final int MAX_PACKETS_BY_READ = Integer.parseInt(System.getProperty(
             AbstractAsyncConnection.class.getName() + ".maxPacketsByRead", "100"));
 
+    /**
+     * The max time in ms to wait for writability before re-checking the state of the connection.
+     */
+    private static final long WRITABLE_WAIT_TIME = 100;
+
     /**
      * The network.
      */
@@ -42,10 +50,10 @@ public abstract class AbstractAsyncConnection implements AsyncConnection {
     protected final AsyncNetwork network;
 
     /**
-     * The list of waited packets.
+     * The queue of waited packets.
      */
     @NotNull
-    protected final LinkedList<WritablePacket> waitPackets;
+    protected final PriorityPacketQueue waitPackets;
 
     /**
      * The channel.
@@ -53,17 +61,41 @@ public abstract class AbstractAsyncConnection implements AsyncConnection {
     @NotNull
     protected final AsynchronousSocketChannel channel;
 
+    /**
+     * The remote address of the channel or null if it's unknown.
+     */
+    @Nullable
+    protected final SocketAddress remoteAddress;
+
     /**
      * The read buffer.
      */
     @NotNull
-    protected final ByteBuffer readBuffer;
+    protected ByteBuffer readBuffer;
 
     /**
-     * The swap buffer.
+     * The buffer to receive data to the read buffer and parse frames in place.
      */
     @NotNull
-    protected final ByteBuffer swapBuffer;
+    protected ReceiveBuffer receiveBuffer;
+
+    /**
+     * The sizer of the read buffer or null if the read buffer has the fixed size.
+     */
+    @Nullable
+    protected final AdaptiveReadBufferSizer readBufferSizer;
+
+    /**
+     * The limiter of reading or null if reading isn't limited for the owner of this connection.
+     */
+    @Nullable
+    protected ReadRateLimiter readRateLimiter;
+
+    /**
+     * The compressor of packets or null if compression is disabled.
+     */
+    @Nullable
+    protected final PacketCompressor compressor;
 
     /**
      * The write buffer.
@@ -72,10 +104,16 @@ public abstract class AbstractAsyncConnection implements AsyncConnection {
     protected final ByteBuffer writeBuffer;
 
     /**
-     * The wait buffer to receive a large packet.
+     * The buffer to prepare a next packet before coalescing it to the write buffer.
+     */
+    @Nullable
+    protected final ByteBuffer packetBuffer;
+
+    /**
+     * The codec of frame headers.
      */
     @NotNull
-    protected final ByteBuffer waitBuffer;
+    protected final FrameCodec frameCodec;
 
     /**
      * The state of writing.
@@ -83,6 +121,24 @@ public abstract class AbstractAsyncConnection implements AsyncConnection {
     @NotNull
     protected final AtomicBoolean isWriting;
 
+    /**
+     * The state of requested flushing waited packets, it's used only with a not immediate flush policy.
+     */
+    @NotNull
+    protected final AtomicBoolean flushRequested;
+
+    /**
+     * The state of scheduled delayed flushing.
+     */
+    @NotNull
+    protected final AtomicBoolean flushScheduled;
+
+    /**
+     * The policy of writing sent packets.
+     */
+    @NotNull
+    protected final FlushPolicy flushPolicy;
+
     /**
      * The state of closed.
      */
@@ -90,16 +146,45 @@ public abstract class AbstractAsyncConnection implements AsyncConnection {
     protected final AtomicBoolean closed;
 
     /**
-     * The config.
+     * The state of writability, it's also used as the monitor to wait for writability.
      */
     @NotNull
-    protected final NetworkConfig config;
+    protected final AtomicBoolean writable;
+
+    /**
+     * The count of waited packets.
+     */
+    @NotNull
+    protected final AtomicInteger waitPacketCount;
+
+    /**
+     * The expected size of waited packets.
+     */
+    @NotNull
+    protected final AtomicLong waitPacketBytes;
+
+    /**
+     * The count of dropped packets.
+     */
+    @NotNull
+    protected final AtomicLong droppedPacketCount;
+
+    /**
+     * The metrics of this connection.
+     */
+    @Nullable
+    protected final NetworkMetrics metrics;
+
+    /**
+     * The time of starting writing the current buffer.
+     */
+    protected long writeStartTime;
 
     /**
-     * The locker.
+     * The config.
      */
     @NotNull
-    protected final StampedLock lock;
+    protected final NetworkConfig config;
 
     /**
      * The connection's owner.
@@ -108,9 +193,32 @@ public abstract class AbstractAsyncConnection implements AsyncConnection {
     protected volatile ConnectionOwner owner;
 
     /**
-     * The time of lst activity.
+     * The buffer to receive a packet which is larger than the read buffer.
+     */
+    @Nullable
+    protected ByteBuffer largeReadBuffer;
+
+    /**
+     * The buffer with prepared data of the pending packet.
+     */
+    @Nullable
+    protected ByteBuffer pendingBuffer;
+
+    /**
+     * The packet which data is prepared in the pending buffer, but wasn't coalesced yet.
+     */
+    @Nullable
+    protected WritablePacket pendingPacket;
+
+    /**
+     * The time of last reading.
+     */
+    protected volatile long lastReadTime;
+
+    /**
+     * The time of last writing.
      */
-    protected volatile long lastActivity;
+    protected volatile long lastWriteTime;
 
     /**
      * The read handler.
@@ -134,52 +242,91 @@ public abstract class AbstractAsyncConnection implements AsyncConnection {
      * The write handler.
      */
     @NotNull
-    private final CompletionHandler<Integer, WritablePacket> writeHandler =
-            new CompletionHandler<Integer, WritablePacket>() {
+    private final CompletionHandler<Integer, ByteBuffer> writeHandler =
+            new CompletionHandler<Integer, ByteBuffer>() {
 
         @Override
-        public void completed(@NotNull Integer result, @NotNull WritablePacket packet) {
-            handleWroteData(result, packet);
+        public void completed(@NotNull Integer result, @NotNull ByteBuffer buffer) {
+            handleWroteData(result, buffer);
         }
 
         @Override
-        public void failed(@NotNull Throwable exc, @NotNull WritablePacket packet) {
-            handleFailedWrite(exc, packet);
+        public void failed(@NotNull Throwable exc, @NotNull ByteBuffer buffer) {
+            handleFailedWrite(exc, buffer);
         }
     };
 
+    /**
+     * @param network      the network.
+     * @param channel      the channel.
+     * @param sendableType the type of sendable packets.
+     * @deprecated the type of sendable packets isn't used, any writable packet can be sent, use
+     * {@link #AbstractAsyncConnection(AsyncNetwork, AsynchronousSocketChannel)}.
+     */
+    @Deprecated
     public AbstractAsyncConnection(
             @NotNull AsyncNetwork network,
             @NotNull AsynchronousSocketChannel channel,
             @NotNull Class<? extends WritablePacket> sendableType
     ) {
-        this.lock = new StampedLock();
+        this(network, channel);
+    }
+
+    public AbstractAsyncConnection(@NotNull AsyncNetwork network, @NotNull AsynchronousSocketChannel channel) {
         this.channel = channel;
-        this.waitPackets = LinkedListFactory.newLinkedList(sendableType);
+        this.remoteAddress = remoteAddressOf(channel);
+        this.waitPackets = new PriorityPacketQueue(network.getConfig().getMaxPriorityBurst());
         this.network = network;
         this.readBuffer = network.takeReadBuffer();
         this.readBuffer.clear();
+        this.receiveBuffer = new ReceiveBuffer(readBuffer);
         this.writeBuffer = network.takeWriteBuffer();
         this.config = network.getConfig();
+        this.frameCodec = config.getFrameCodec();
+        this.compressor = network.getPacketCompressor();
+        this.readBufferSizer = config.isAdaptiveReadBuffer() ? new AdaptiveReadBufferSizer(readBuffer.capacity(),
+                config.getMinReadBufferSize(), config.getMaxReadBufferSize()) : null;
+        this.flushPolicy = config.getFlushPolicy();
+        this.packetBuffer = config.isBatchWrite() || flushPolicy != FlushPolicy.IMMEDIATE ?
+                network.takeWriteBuffer() : null;
         this.isWriting = new AtomicBoolean(false);
+        this.flushRequested = new AtomicBoolean(false);
+        this.flushScheduled = new AtomicBoolean(false);
         this.closed = new AtomicBoolean(false);
-        this.waitBuffer = network.takeWaitBuffer();
-        this.waitBuffer.flip();
-        this.swapBuffer = network.takeWaitBuffer();
-        this.swapBuffer.flip();
+        this.writable = new AtomicBoolean(true);
+        this.waitPacketCount = new AtomicInteger();
+        this.waitPacketBytes = new AtomicLong();
+        this.droppedPacketCount = new AtomicLong();
+
+        NetworkMetrics networkMetrics = network.getMetrics();
+
+        this.metrics = networkMetrics == null ? null : new NetworkMetrics(networkMetrics);
+
+        setLastActivity(CoarseClock.currentTimeMillis());
+
+        IdleManager idleManager = network.getIdleManager();
+
+        if (idleManager != null) {
+            idleManager.register(this);
+        }
     }
 
     /**
-     * Clear waited packets.
+     * Clear waited packets. Should be called only by the thread which holds the writing state.
      */
     protected void clearWaitPackets() {
-        waitPackets.forEach(AbstractReusableWritablePacket.class::isInstance,
-                packet -> ((AbstractReusableWritablePacket) packet).forceComplete());
-        waitPackets.clear();
+        // a packet can be shared by other connections, so only the sending to this connection is completed
+        for (WritablePacket packet = pollWaitPacket(); packet != null; packet = pollWaitPacket()) {
+            completed(packet);
+        }
     }
 
     @Override
     public void setOwner(@Nullable ConnectionOwner owner) {
+
+        ReadRateLimit limit = owner == null ? null : config.getReadRateLimit(owner.getClass());
+
+        this.readRateLimiter = limit == null ? null : new ReadRateLimiter(limit, System.nanoTime());
         this.owner = owner;
     }
 
@@ -200,6 +347,11 @@ public abstract class AbstractAsyncConnection implements AsyncConnection {
         } catch (final IOException e) {
             LOGGER.warning(this, e);
         }
+
+        // wake up threads which are waiting for writability
+        synchronized (writable) {
+            writable.notifyAll();
+        }
     }
 
     /**
@@ -214,13 +366,22 @@ public abstract class AbstractAsyncConnection implements AsyncConnection {
             channel.close();
         }
 
-        clearWaitPackets();
+        // if the writing state is free, we clear waited packets here, otherwise the writer will do it
+        writeNextPacket();
 
         AsyncNetwork network = getNetwork();
-        network.putReadBuffer(getReadBuffer());
+
+        // the read buffer can be replaced by the reading thread at the same time
+        synchronized (closed) {
+            network.putReadBuffer(getReadBuffer());
+        }
+
         network.putWriteBuffer(getWriteBuffer());
-        network.putWaitBuffer(getWaitBuffer());
-        network.putWaitBuffer(getSwapBuffer());
+
+        ByteBuffer packetBuffer = getPacketBuffer();
+        if (packetBuffer != null) {
+            network.putWriteBuffer(packetBuffer);
+        }
     }
 
     /**
@@ -234,21 +395,12 @@ public abstract class AbstractAsyncConnection implements AsyncConnection {
     }
 
     /**
-     * Get the wait buffer.
-     *
-     * @return the wait buffer to receive a large packet.
-     */
-    protected @NotNull ByteBuffer getWaitBuffer() {
-        return waitBuffer;
-    }
-
-    /**
-     * Get the swap buffer.
+     * Get the codec of frame headers.
      *
-     * @return the swap buffer.
+     * @return the codec of frame headers.
      */
-    protected @NotNull ByteBuffer getSwapBuffer() {
-        return swapBuffer;
+    protected @NotNull FrameCodec getFrameCodec() {
+        return frameCodec;
     }
 
     /**
@@ -257,23 +409,21 @@ public abstract class AbstractAsyncConnection implements AsyncConnection {
      * @return the remote address.
      */
     public @NotNull String getRemoteAddress() {
-        AsynchronousSocketChannel channel = getChannel();
+        return remoteAddress == null ? "unknown" : String.valueOf(remoteAddress);
+    }
+
+    @Override
+    public @Nullable SocketAddress getRemoteSocketAddress() {
+        return remoteAddress;
+    }
+
+    private static @Nullable SocketAddress remoteAddressOf(@NotNull AsynchronousSocketChannel channel) {
         try {
-            return String.valueOf(channel.getRemoteAddress());
+            return channel.getRemoteAddress();
         } catch (IOException e) {
-            LOGGER.warning(this, e);
+            LOGGER.warning(e);
         }
-        return "unknown";
-    }
-
-    /**
-     * Get the data size of the packet.
-     *
-     * @param buffer the packet data buffer.
-     * @return the packet size.
-     */
-    protected int getPacketSize(@NotNull ByteBuffer buffer) {
-        return buffer.getShort() & 0xFFFF;
+        return null;
     }
 
     /**
@@ -287,7 +437,17 @@ public abstract class AbstractAsyncConnection implements AsyncConnection {
 
     @Override
     public long getLastActivity() {
-        return lastActivity;
+        return Math.max(lastReadTime, lastWriteTime);
+    }
+
+    @Override
+    public long getLastReadTime() {
+        return lastReadTime;
+    }
+
+    @Override
+    public long getLastWriteTime() {
+        return lastWriteTime;
     }
 
     /**
@@ -296,14 +456,22 @@ public abstract class AbstractAsyncConnection implements AsyncConnection {
      * @param lastActivity the time of last activity.
      */
     protected void setLastActivity(long lastActivity) {
-        this.lastActivity = lastActivity;
+        this.lastReadTime = lastActivity;
+        this.lastWriteTime = lastActivity;
+    }
+
+    /**
+     * Update the time of last reading by the coarse clock.
+     */
+    protected void updateLastReadTime() {
+        lastReadTime = CoarseClock.currentTimeMillis();
     }
 
     /**
-     * Update the time of last activity.
+     * Update the time of last writing by the coarse clock.
      */
-    protected void updateLastActivity() {
-        setLastActivity(System.currentTimeMillis());
+    protected void updateLastWriteTime() {
+        lastWriteTime = CoarseClock.currentTimeMillis();
     }
 
     @Override
@@ -320,6 +488,15 @@ public abstract class AbstractAsyncConnection implements AsyncConnection {
         return readBuffer;
     }
 
+    /**
+     * Get the buffer to receive data to the read buffer.
+     *
+     * @return the receive buffer.
+     */
+    protected @NotNull ReceiveBuffer getReceiveBuffer() {
+        return receiveBuffer;
+    }
+
     /**
      * Get the read handler.
      *
@@ -330,11 +507,11 @@ public abstract class AbstractAsyncConnection implements AsyncConnection {
     }
 
     /**
-     * Get the list of wait packets.
+     * Get the queue of wait packets.
      *
-     * @return the list of waited packets.
+     * @return the queue of waited packets.
      */
-    protected @NotNull LinkedList<WritablePacket> getWaitPackets() {
+    protected @NotNull PriorityPacketQueue getWaitPackets() {
         return waitPackets;
     }
 
@@ -347,12 +524,21 @@ public abstract class AbstractAsyncConnection implements AsyncConnection {
         return writeBuffer;
     }
 
+    /**
+     * Get the buffer to prepare a next packet before coalescing it to the write buffer.
+     *
+     * @return the packet buffer or null if batch writing is disabled.
+     */
+    protected @Nullable ByteBuffer getPacketBuffer() {
+        return packetBuffer;
+    }
+
     /**
      * Get the write handler.
      *
      * @return the write handler.
      */
-    protected @NotNull CompletionHandler<Integer, WritablePacket> getWriteHandler() {
+    protected @NotNull CompletionHandler<Integer, ByteBuffer> getWriteHandler() {
         return writeHandler;
     }
 
@@ -381,25 +567,43 @@ public abstract class AbstractAsyncConnection implements AsyncConnection {
     }
 
     /**
-     * Get the byte count of packet size bytes.
+     * Get the how many packets can be read by the one method call readPacket().
      *
-     * @return the byte count of packet size bytes.
+     * @return the how many packets can be read by the one method call readPacket().
      */
-    protected int getPacketSizeByteCount() {
-        return PACKET_SIZE_BYTES_COUNT;
+    protected int getMaxPacketsByRead() {
+        return MAX_PACKETS_BY_READ;
     }
 
     /**
-     * Get the how many packets can be read by the one method call readPacket().
+     * Read all complete frames of the buffer with received data by portions of max packets by read. Complete frames
+     * can't wait for the next read, because the next read will be completed only when new data will be received.
      *
-     * @return the how many packets can be read by the one method call readPacket().
+     * @param buffer the buffer with received data.
+     * @return the count of read packets.
      */
-    protected int getMaxPacketsByRead() {
-        return MAX_PACKETS_BY_READ;
+    protected int readPackets(@NotNull ByteBuffer buffer) {
+
+        int maxPacketsByRead = getMaxPacketsByRead();
+        int total = 0;
+        int count;
+
+        do {
+            count = readPacket(buffer);
+            total += count;
+        } while (count >= maxPacketsByRead && buffer.hasRemaining());
+
+        if (metrics != null) {
+            metrics.onPacketsRead(total, total > maxPacketsByRead);
+        }
+
+        return total;
     }
 
     /**
-     * Read the buffer with received data.
+     * Read the buffer with received data. Frames are parsed in place and the buffer is positioned to the first not
+     * completed frame which will be completed by next reads, a frame which can't fit into the read buffer is collected
+     * in a large buffer.
      *
      * @param buffer the buffer with received data
      * @return count of read packets.
@@ -408,242 +612,303 @@ public abstract class AbstractAsyncConnection implements AsyncConnection {
 
         ConnectionOwner owner = notNull(getOwner());
         NetworkCrypt crypt = owner.getCrypt();
-        ByteBuffer waitBuffer = getWaitBuffer();
+        FrameCodec frameCodec = getFrameCodec();
 
         int resultCount = 0;
 
-        int waitedBytes = waitBuffer.remaining();
+        // if we are receiving a large packet, we need to complete it at first
+        if (largeReadBuffer != null) {
+
+            if (!readToLargeBuffer(buffer)) {
+                return resultCount;
+            }
 
-        // если есть кусок пакета ожидающего
-        if (waitedBytes > 0) {
-            takeFromWaitBuffer(buffer, waitBuffer);
+            resultCount += readLargeFrame(owner, crypt);
         }
 
-        int sizeByteCount = getPacketSizeByteCount();
         int maxPacketsByRead = getMaxPacketsByRead();
 
-        for (int i = 0, limit = 0, size; buffer.remaining() >= sizeByteCount && i < maxPacketsByRead; i++) {
-            size = getPacketSize(buffer);
-            limit += size;
+        while (buffer.hasRemaining() && resultCount < maxPacketsByRead) {
 
-            // если пакет не вместился в этот буффер
-            if (limit > buffer.limit()) {
+            int frameStart = buffer.position();
+            int length = frameCodec.readDataLength(buffer);
 
-                final int missedBytes = limit - buffer.limit();
+            if (length == FrameCodec.NOT_ENOUGH_DATA) {
+                buffer.position(frameStart);
+                break;
+            }
 
-                // проверка остались ли данные в ожидаемом буффере для до прочтения и если да,
-                // то достаточно ли там байт что бы дочитать пакет
-                if (waitedBytes > 0 && waitBuffer.position() > 0 && waitBuffer.remaining() >= missedBytes) {
-                    takeMissedFromWaitBuffer(buffer, waitBuffer);
-                    limit = size;
-                } else {
-                    saveDataToWaitBuffer(buffer, waitBuffer, sizeByteCount);
-                    break;
-                }
+            if (length > config.getMaxPacketSize()) {
+                throw new FrameException("Too large packet " + length + " from " + this);
             }
 
-            decrypt(buffer, crypt, buffer.position(), size - sizeByteCount);
+            // the frame can't fit into the read buffer, so we need to collect it in a large buffer
+            if (buffer.position() - frameStart + length > buffer.capacity()) {
 
-            ReadablePacket packet = createPacketFor(buffer);
+                ByteBuffer largeBuffer = getNetwork().takeLargeBuffer(length);
 
-            if (packet != null) {
-                owner.readPacket(packet, buffer);
-                resultCount++;
+                if (metrics != null) {
+                    metrics.onLargeFrame();
+                }
+                largeBuffer.clear().limit(length);
+
+                largeReadBuffer = largeBuffer;
+
+                if (!readToLargeBuffer(buffer)) {
+                    break;
+                }
+
+                resultCount += readLargeFrame(owner, crypt);
+                continue;
             }
-        }
 
-        if (buffer.hasRemaining()) {
-            if (buffer.remaining() < sizeByteCount) {
-                saveDataToWaitBuffer(buffer, waitBuffer, 0);
-            } else {
-                LOGGER.warning(this, "Have not read data from the read buffer...");
+            // the rest of the frame will be received by next reads
+            if (buffer.remaining() < length) {
+                buffer.position(frameStart);
+                break;
             }
-        }
 
-        // если ожидаеющий буффер фрагментировал
-        if (waitBuffer.position() > 0) {
-            compactWaitBuffer(waitBuffer);
+            resultCount += readFrame(owner, crypt, buffer, length);
         }
 
         return resultCount;
     }
 
     /**
-     * Save not read data to the wait buffer.
+     * Move received data to the large buffer.
      *
-     * @param buffer        the read buffer.
-     * @param waitBuffer    the wait buffer.
-     * @param sizeByteCount the byte count of packet size.
+     * @param buffer the buffer with received data.
+     * @return true if the large buffer was filled.
      */
-    protected void saveDataToWaitBuffer(
-            @NotNull ByteBuffer buffer,
-            @NotNull ByteBuffer waitBuffer,
-            int sizeByteCount
-    ) {
+    private boolean readToLargeBuffer(@NotNull ByteBuffer buffer) {
 
-        int offset = buffer.position() - sizeByteCount;
-        int length = buffer.limit() - offset;
+        ByteBuffer largeBuffer = notNull(largeReadBuffer);
 
-        // если ожидаеющий буффер фрагментировал
-        if (waitBuffer.position() > 0) {
+        int length = min(largeBuffer.remaining(), buffer.remaining());
 
-            ByteBuffer swapBuffer = getSwapBuffer();
-            swapBuffer.clear();
-            swapBuffer.put(buffer.array(), offset, length);
-            swapBuffer.put(waitBuffer.array(), waitBuffer.position(), waitBuffer.remaining());
-            swapBuffer.flip();
-            waitBuffer.clear();
-            waitBuffer.put(swapBuffer.array(), 0, swapBuffer.remaining());
-            waitBuffer.flip();
+        BufferUtils.copy(buffer, buffer.position(), length, largeBuffer);
+        buffer.position(buffer.position() + length);
 
-            /*if (waitBuffer.limit() >= 4) {
-                final int size = waitBuffer.getShort() & 0xFFFF;
-                final int id = waitBuffer.getShort() & 0xFFFF;
-                waitBuffer.position(0);
-            }*/
+        return !largeBuffer.hasRemaining();
+    }
 
-        } else {
+    /**
+     * Read a packet from the filled large buffer and release the buffer.
+     *
+     * @param owner the connection owner.
+     * @param crypt the crypt.
+     * @return count of read packets.
+     */
+    private int readLargeFrame(@NotNull ConnectionOwner owner, @NotNull NetworkCrypt crypt) {
 
-            waitBuffer.clear();
-            waitBuffer.put(buffer.array(), offset, length);
-            waitBuffer.flip();
+        ByteBuffer largeBuffer = notNull(largeReadBuffer);
+        largeBuffer.flip();
 
-            /* if (waitBuffer.limit() >= 4) {
-                final int size = waitBuffer.getShort() & 0xFFFF;
-                final int id = waitBuffer.getShort() & 0xFFFF;
-                waitBuffer.position(0);
-            } */
-        }
+        largeReadBuffer = null;
 
-        buffer.clear().flip();
+        try {
+            return readFrame(owner, crypt, largeBuffer, largeBuffer.limit());
+        } finally {
+            getNetwork().putLargeBuffer(largeBuffer);
+        }
     }
 
     /**
-     * Take missed bytes from the wait buffer.
+     * Read a packet from frame data which starts at the current position of the buffer. The packet can't read
+     * outside of the frame data and the buffer will be positioned to the end of the frame after reading.
      *
-     * @param buffer     the read buffer.
-     * @param waitBuffer the wait buffer.
+     * @param owner  the connection owner.
+     * @param crypt  the crypt.
+     * @param buffer the buffer with received data.
+     * @param length the length of frame data.
+     * @return count of read packets.
      */
-    protected void takeMissedFromWaitBuffer(@NotNull ByteBuffer buffer, @NotNull ByteBuffer waitBuffer) {
+    protected int readFrame(
+            @NotNull ConnectionOwner owner,
+            @NotNull NetworkCrypt crypt,
+            @NotNull ByteBuffer buffer,
+            int length
+    ) {
+
+        int limit = buffer.limit();
+        int end = buffer.position() + length;
 
-        // делаем отступ назад на кол-во байт которых осталось непрочитанных в буффере
-        int newPosition = waitBuffer.position() - buffer.remaining();
-        int prevLimit = waitBuffer.limit();
+        decrypt(buffer, crypt, buffer.position(), length);
 
-        waitBuffer.clear();
-        waitBuffer.position(newPosition);
+        buffer.limit(end);
+        try {
 
-        // добавляем спереди непрочитанный кусок
-        waitBuffer.put(buffer.array(), buffer.position(), buffer.remaining());
-        waitBuffer.position(newPosition);
-        waitBuffer.limit(prevLimit);
+            ByteBuffer packetBuffer = compressor == null ? buffer : compressor.decompress(buffer);
+            ReadablePacket packet = createPacketFor(packetBuffer);
 
-        buffer.clear();
-        buffer.put(waitBuffer.array(), newPosition, min(waitBuffer.remaining(), buffer.remaining()));
-        buffer.flip();
+            if (packet == null) {
+                return 0;
+            }
 
-        // сдвигаем позицию на кол-во сколько скинули данных в буффер
-        waitBuffer.position(waitBuffer.position() + buffer.limit());
+            try {
+                owner.readPacket(packet, packetBuffer);
+            } finally {
+                released(packet);
+            }
 
-        // очищаем ожидающий буффер если мы его весь прочитали
-        if (!waitBuffer.hasRemaining()) {
-            waitBuffer.clear();
-            waitBuffer.flip();
-        }
+            return 1;
 
-        /* if (waitBuffer.limit() >= 4) {
-            final int size = waitBuffer.getShort() & 0xFFFF;
-            final int id = waitBuffer.getShort() & 0xFFFF;
-            waitBuffer.position(0);
-        } */
+        } finally {
+            buffer.limit(limit);
+            buffer.position(end);
+        }
     }
 
     /**
-     * Compact the wait buffer.
+     * Get a buffer to write the packet.
      *
-     * @param waitBuffer the wait buffer.
+     * @param packet the packet.
+     * @param buffer the usual buffer.
+     * @return the usual buffer or a new large buffer if the packet is expected to not fit into the usual buffer.
      */
-    protected void compactWaitBuffer(@NotNull ByteBuffer waitBuffer) {
+    protected @NotNull ByteBuffer getBufferToWrite(@NotNull WritablePacket packet, @NotNull ByteBuffer buffer) {
+
+        int maxLength = packet.getExpectedLength() + getFrameCodec().getMaxHeaderSize();
+
+        if (compressor != null) {
+            maxLength += compressor.getReservedBytes();
+        }
 
-        ByteBuffer swapBuffer = getSwapBuffer();
-        swapBuffer.clear();
-        swapBuffer.put(waitBuffer.array(), waitBuffer.position(), waitBuffer.remaining());
-        swapBuffer.flip();
-        waitBuffer.clear();
-        waitBuffer.put(swapBuffer.array(), 0, swapBuffer.remaining());
-        waitBuffer.flip();
+        if (maxLength <= buffer.capacity()) {
+            return buffer;
+        }
+
+        return getNetwork().takeLargeBuffer(maxLength);
+    }
 
-        /* if (waitBuffer.limit() >= 4) {
-            final int size = waitBuffer.getShort() & 0xFFFF;
-            final int id = waitBuffer.getShort() & 0xFFFF;
-            waitBuffer.position(0);
-        } */
+    /**
+     * Release the buffer which was used to write a packet if it's a large buffer.
+     *
+     * @param buffer the buffer.
+     */
+    protected void releaseBufferToWrite(@NotNull ByteBuffer buffer) {
+        if (buffer != getWriteBuffer() && buffer != getPacketBuffer()) {
+            getNetwork().putLargeBuffer(buffer);
+        }
     }
 
     /**
-     * Take waited data from the wait buffer.
+     * Write the packet to the write buffer.
      *
-     * @param buffer     the read buffer.
-     * @param waitBuffer the wait buffer.
+     * @param packet the packet.
+     * @param buffer the write buffer.
+     * @return the write buffer positioned to the start of the frame or null if the packet is too large for a frame and
+     * was dropped.
      */
-    protected void takeFromWaitBuffer(@NotNull ByteBuffer buffer, @NotNull ByteBuffer waitBuffer) {
+    protected @Nullable ByteBuffer writePacketToBuffer(@NotNull WritablePacket packet, @NotNull ByteBuffer buffer) {
 
-        int prevLimit = waitBuffer.limit();
-        int prevPosition = waitBuffer.position();
-        int length = buffer.limit() - buffer.position();
+        FrameCodec frameCodec = getFrameCodec();
 
-        // add all current data to the wait buffer
-        waitBuffer.clear();
-        waitBuffer.position(prevLimit);
-        waitBuffer.put(buffer.array(), buffer.position(), length);
-        waitBuffer.flip();
-        waitBuffer.position(prevPosition);
+        int dataOffset = frameCodec.getMaxHeaderSize();
+        int packetOffset = compressor == null ? dataOffset : dataOffset + compressor.getReservedBytes();
 
-        // clear the read buffer and put result data from wait buffer
         buffer.clear();
-        buffer.put(waitBuffer.array(), prevPosition, min(waitBuffer.remaining(), buffer.remaining()));
+        buffer.position(packetOffset);
+        packet.write(buffer);
         buffer.flip();
 
-        // update the position of wait buffer to understand of existing wait data
-        waitBuffer.position(waitBuffer.position() + buffer.limit());
+        if (compressor != null) {
+            compressor.compress(packet.getName(), buffer, dataOffset);
+        }
+
+        ConnectionOwner owner = notNull(getOwner());
+        NetworkCrypt crypt = owner.getCrypt();
+
+        int length = buffer.limit() - dataOffset;
+
+        // the header can't contain the length, so the peer would read a broken stream
+        if (length > frameCodec.getMaxDataLength()) {
+
+            LOGGER.warning(this, "the packet " + packet.getName() + " with " + length +
+                    " bytes is too large for a frame and will be dropped");
+
+            droppedPacketCount.incrementAndGet();
+            releaseBufferToWrite(buffer);
 
-        // clear wait buffer if it doesn't have wait data
-        if (!waitBuffer.hasRemaining()) {
-            waitBuffer.clear();
-            waitBuffer.flip();
+            if (metrics != null) {
+                metrics.onPacketDropped();
+            }
+
+            return null;
+        }
+
+        encrypt(buffer, crypt, dataOffset, length);
+
+        buffer.position(frameCodec.writeHeader(buffer, dataOffset, length));
+
+        if (metrics != null) {
+            metrics.onPacketWritten();
         }
 
-        /* if (buffer.limit() >= 4) {
-            final int size = buffer.getShort() & 0xFFFF;
-            final int id = buffer.getShort() & 0xFFFF;
-            buffer.position(0);
-        } */
+        return buffer;
     }
 
     /**
-     * Write the packet to the write buffer.
+     * Coalesce as many waited packets as fit into the write buffer. A packet which is larger than the write buffer is
+     * returned in its own large buffer to be written alone.
      *
-     * @param packet the packet.
      * @param buffer the write buffer.
-     * @return the write buffer.
+     * @return the buffer to write or null if there are no waited packets.
      */
-    protected @NotNull ByteBuffer writePacketToBuffer(@NotNull WritablePacket packet, @NotNull ByteBuffer buffer) {
+    protected @Nullable ByteBuffer writePacketsToBuffer(@NotNull ByteBuffer buffer) {
+
+        ByteBuffer packetBuffer = notNull(getPacketBuffer());
 
         buffer.clear();
-        packet.prepareWritePosition(buffer);
-        packet.write(buffer);
-        buffer.flip();
-        packet.writePacketSize(buffer, buffer.limit());
 
-        ConnectionOwner owner = notNull(getOwner());
-        NetworkCrypt crypt = owner.getCrypt();
+        while (true) {
 
-        int sizeByteCount = getPacketSizeByteCount();
-        int length = buffer.limit() - sizeByteCount;
+            ByteBuffer pending = pendingBuffer;
 
-        encrypt(buffer, crypt, sizeByteCount, length);
+            // if we don't have a prepared packet, we need to prepare the next waited packet
+            if (pending == null) {
 
-        return buffer;
+                WritablePacket waitPacket = pollFlushedPacket();
+
+                if (waitPacket == null) {
+                    break;
+                }
+
+                pending = writePacketToBuffer(waitPacket, getBufferToWrite(waitPacket, packetBuffer));
+                completed(waitPacket);
+
+                if (pending == null) {
+                    continue;
+                }
+
+                pendingBuffer = pending;
+                pendingPacket = waitPacket;
+            }
+
+            if (pending.remaining() > buffer.remaining()) {
+
+                // the prepared packet will be sent by the next write
+                if (buffer.position() > 0) {
+                    break;
+                }
+
+                // the prepared packet can't fit into the write buffer at all
+                pendingBuffer = null;
+                pendingPacket = null;
+
+                return pending;
+            }
+
+            buffer.put(pending);
+            releaseBufferToWrite(pending);
+
+            pendingBuffer = null;
+            pendingPacket = null;
+        }
+
+        buffer.flip();
+
+        return buffer.hasRemaining() ? buffer : null;
     }
 
     /**
@@ -655,8 +920,17 @@ public abstract class AbstractAsyncConnection implements AsyncConnection {
      * @param length the length.
      */
     protected void decrypt(@NotNull ByteBuffer buffer, @NotNull NetworkCrypt crypt, int offset, int length) {
-        if (crypt.isNull()) return;
-        crypt.decrypt(buffer.array(), offset, length);
+
+        if (crypt.isNull()) {
+            return;
+        } else if (metrics == null) {
+            crypt.decrypt(buffer, offset, length);
+            return;
+        }
+
+        long start = System.nanoTime();
+        crypt.decrypt(buffer, offset, length);
+        metrics.onCrypt(System.nanoTime() - start);
     }
 
     /**
@@ -668,8 +942,17 @@ public abstract class AbstractAsyncConnection implements AsyncConnection {
      * @param length the length.
      */
     protected void encrypt(@NotNull ByteBuffer buffer, @NotNull NetworkCrypt crypt, int offset, int length) {
-        if (crypt.isNull()) return;
-        crypt.encrypt(buffer.array(), offset, length);
+
+        if (crypt.isNull()) {
+            return;
+        } else if (metrics == null) {
+            crypt.encrypt(buffer, offset, length);
+            return;
+        }
+
+        long start = System.nanoTime();
+        crypt.encrypt(buffer, offset, length);
+        metrics.onCrypt(System.nanoTime() - start);
     }
 
     /**
@@ -682,11 +965,22 @@ public abstract class AbstractAsyncConnection implements AsyncConnection {
         if (buffer.remaining() < 2) return null;
         int packetId = buffer.getShort() & 0xFFFF;
         return getNetwork().getPacketRegistry()
-                .findById(packetId);
+                .takeById(packetId);
     }
 
     /**
-     * Handle a completed packet.
+     * Release the read packet if it's reusable, the packet stays alive if it was retained during reading.
+     *
+     * @param packet the read packet.
+     */
+    protected void released(@NotNull ReadablePacket packet) {
+        if (packet instanceof ReusableReadablePacket) {
+            ((ReusableReadablePacket) packet).release();
+        }
+    }
+
+    /**
+     * Handle a completed packet.
      *
      * @param packet the sent packet.
      */
@@ -699,23 +993,314 @@ public abstract class AbstractAsyncConnection implements AsyncConnection {
     @Override
     public final void sendPacket(@NotNull WritablePacket packet) {
 
+        SendQueueOverflowPolicy policy = config.getSendQueueOverflowPolicy();
+
+        // a network thread writes waited packets, so it would wait for itself
+        if (policy == SendQueueOverflowPolicy.BLOCK && !isWritable() && !AbstractAsyncNetwork.isNetworkThread()) {
+
+            // waited packets of a not immediate policy may wait for flushing
+            if (flushPolicy != FlushPolicy.IMMEDIATE) {
+                flush();
+            }
+
+            waitForWritable();
+        }
+
+        // a shared packet is released only when sending to every connection is completed
         if (isClosed()) {
+            completed(packet);
             return;
         }
 
-        long stamp = lock.writeLock();
-        try {
-            waitPackets.add(packet);
-        } finally {
-            lock.unlockWrite(stamp);
+        waitPackets.offer(packet);
+
+        if (increaseWaitPackets(packet)) {
+            handleOverflow(policy);
+        }
+
+        switch (flushPolicy) {
+            case IMMEDIATE: {
+                writeNextPacket();
+                break;
+            }
+            case DELAYED: {
+                if (waitPacketBytes.get() >= config.getFlushBytes()) {
+                    flush();
+                } else {
+                    scheduleFlush();
+                }
+                break;
+            }
         }
+    }
 
+    @Override
+    public void flush() {
+        flushScheduled.set(false);
+        flushRequested.set(true);
         writeNextPacket();
     }
 
+    /**
+     * Schedule flushing this connection by the flush scheduler of the network if it isn't scheduled yet.
+     */
+    protected void scheduleFlush() {
+
+        FlushScheduler scheduler = network.getFlushScheduler();
+
+        if (scheduler == null) {
+            flush();
+        } else if (flushScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(this);
+        }
+    }
+
+    /**
+     * Handle overflowing the send queue of this connection.
+     *
+     * @param policy the overflow policy.
+     */
+    protected void handleOverflow(@NotNull SendQueueOverflowPolicy policy) {
+        switch (policy) {
+            case CLOSE: {
+                LOGGER.warning(this, "the send queue is overflowed, the connection will be closed");
+                finish();
+                close();
+                break;
+            }
+            case DROP_OLDEST: {
+                dropOldestPackets();
+                break;
+            }
+        }
+    }
+
+    /**
+     * Drop the oldest droppable waited packets until the send queue goes down to the high watermark.
+     */
+    protected void dropOldestPackets() {
+
+        while (isOverHighWatermark()) {
+
+            WritablePacket packet = waitPackets.removeFirst(WritablePacket::isDroppable);
+
+            if (packet == null) {
+                return;
+            }
+
+            droppedPacketCount.incrementAndGet();
+            decreaseWaitPackets(packet);
+            completed(packet);
+
+            if (metrics != null) {
+                metrics.onPacketDropped();
+            }
+        }
+    }
+
+    /**
+     * Wait until this connection becomes writable or closed.
+     */
+    protected void waitForWritable() {
+        synchronized (writable) {
+            while (!writable.get() && !isClosed()) {
+                try {
+                    writable.wait(WRITABLE_WAIT_TIME);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the expected size of the waited packet.
+     *
+     * @param packet the waited packet.
+     * @return the expected size of the packet or 0 if it's unknown.
+     */
+    protected int getExpectedSize(@NotNull WritablePacket packet) {
+        return Math.max(packet.getExpectedLength(), 0);
+    }
+
+    /**
+     * Update the state of the send queue after adding the packet.
+     *
+     * @param packet the added packet.
+     * @return true if the send queue exceeds the high watermark.
+     */
+    protected boolean increaseWaitPackets(@NotNull WritablePacket packet) {
+
+        int count = waitPacketCount.incrementAndGet();
+        long bytes = waitPacketBytes.addAndGet(getExpectedSize(packet));
+
+        if (metrics != null) {
+            metrics.onPacketAdded(count);
+        }
+
+        if (count <= config.getSendQueueHighWatermark() && bytes <= config.getSendQueueHighWatermarkBytes()) {
+            return false;
+        }
+
+        if (writable.compareAndSet(true, false)) {
+            notifyWritabilityChanged(false);
+        }
+
+        return true;
+    }
+
+    /**
+     * Update the state of the send queue after removing the packet.
+     *
+     * @param packet the removed packet.
+     */
+    protected void decreaseWaitPackets(@NotNull WritablePacket packet) {
+
+        int count = waitPacketCount.decrementAndGet();
+        long bytes = waitPacketBytes.addAndGet(-getExpectedSize(packet));
+
+        if (metrics != null) {
+            metrics.onPacketRemoved();
+        }
+
+        if (count > config.getSendQueueLowWatermark() || bytes > config.getSendQueueLowWatermarkBytes()) {
+            return;
+        }
+
+        if (writable.compareAndSet(false, true)) {
+
+            synchronized (writable) {
+                writable.notifyAll();
+            }
+
+            notifyWritabilityChanged(true);
+        }
+    }
+
+    /**
+     * Check if the send queue exceeds the high watermark.
+     *
+     * @return true if the send queue exceeds the high watermark.
+     */
+    protected boolean isOverHighWatermark() {
+        return waitPacketCount.get() > config.getSendQueueHighWatermark() ||
+                waitPacketBytes.get() > config.getSendQueueHighWatermarkBytes();
+    }
+
+    /**
+     * Notify the owner about changing writability of this connection.
+     *
+     * @param writable true if this connection became writable.
+     */
+    protected void notifyWritabilityChanged(boolean writable) {
+
+        ConnectionOwner owner = getOwner();
+
+        if (owner != null) {
+            owner.onWritabilityChanged(writable);
+        }
+    }
+
+    @Override
+    public boolean isWritable() {
+        return writable.get();
+    }
+
+    @Override
+    public int getWaitPacketCount() {
+        return waitPacketCount.get();
+    }
+
+    @Override
+    public long getWaitPacketBytes() {
+        return waitPacketBytes.get();
+    }
+
+    @Override
+    public long getDroppedPacketCount() {
+        return droppedPacketCount.get();
+    }
+
+    @Override
+    public @Nullable NetworkMetrics getMetrics() {
+        return metrics;
+    }
+
     @Override
     public final void startRead() {
-        channel.read(readBuffer, this, getReadHandler());
+
+        if (receiveBuffer.compactIfNeeded() && metrics != null) {
+            metrics.onCompaction();
+        }
+
+        channel.read(receiveBuffer.prepareWrite(), this, getReadHandler());
+    }
+
+    /**
+     * Check if this connection has waited packets.
+     *
+     * @return true if this connection has waited packets.
+     */
+    protected boolean hasWaitPackets() {
+        return !waitPackets.isEmpty();
+    }
+
+    /**
+     * Poll a next waited packet. Should be called only by the thread which holds the writing state.
+     *
+     * @return the next waited packet or null.
+     */
+    protected @Nullable WritablePacket pollWaitPacket() {
+
+        WritablePacket packet = waitPackets.poll();
+
+        if (packet != null) {
+            decreaseWaitPackets(packet);
+        }
+
+        return packet;
+    }
+
+    /**
+     * Check if this connection has waited packets which can be written by the flush policy.
+     *
+     * @return true if this connection has waited packets to write.
+     */
+    protected boolean hasFlushedPackets() {
+        return hasWaitPackets() && (flushPolicy == FlushPolicy.IMMEDIATE || flushRequested.get());
+    }
+
+    /**
+     * Poll a next waited packet which can be written by the flush policy. The flush request is reset when the send
+     * queue becomes empty. Should be called only by the thread which holds the writing state.
+     *
+     * @return the next waited packet or null.
+     */
+    protected @Nullable WritablePacket pollFlushedPacket() {
+
+        if (flushPolicy == FlushPolicy.IMMEDIATE) {
+            return pollWaitPacket();
+        } else if (!flushRequested.get()) {
+            return null;
+        }
+
+        WritablePacket packet = pollWaitPacket();
+
+        if (packet != null) {
+            return packet;
+        }
+
+        flushRequested.set(false);
+
+        // packets which were added and flushed before resetting the request should be written as well
+        packet = pollWaitPacket();
+
+        if (packet != null) {
+            flushRequested.set(true);
+        }
+
+        return packet;
     }
 
     /**
@@ -723,28 +1308,83 @@ public abstract class AbstractAsyncConnection implements AsyncConnection {
      */
     protected final void writeNextPacket() {
 
-        if (isClosed() || !isWriting.compareAndSet(false, true)) {
+        if (!isWriting.compareAndSet(false, true)) {
             return;
         }
 
-        WritablePacket waitPacket;
+        // the writing state will never be released after closing the connection
+        if (isClosed()) {
+            clearWaitPackets();
+            return;
+        }
 
-        long stamp = lock.writeLock();
-        try {
-            waitPacket = waitPackets.poll();
-        } finally {
-            lock.unlockWrite(stamp);
+        if (getPacketBuffer() != null) {
+            writeNextPackets();
+            return;
+        }
+
+        while (true) {
+
+            WritablePacket waitPacket = pollFlushedPacket();
+
+            if (waitPacket == null) {
+                finishWriting();
+                return;
+            }
+
+            ByteBuffer buffer = writePacketToBuffer(waitPacket, getBufferToWrite(waitPacket, getWriteBuffer()));
+
+            if (buffer == null) {
+                completed(waitPacket);
+                continue;
+            }
+
+            writeBuffer(buffer);
+            completed(waitPacket);
+            return;
         }
+    }
+
+    /**
+     * Finish the process of writing and check that no packet was added during releasing the writing state.
+     */
+    private void finishWriting() {
+
+        isWriting.set(false);
+
+        if (hasFlushedPackets()) {
+            writeNextPacket();
+        }
+    }
+
+    /**
+     * Write next packets coalesced to the write buffer by one write.
+     */
+    private void writeNextPackets() {
+
+        ByteBuffer buffer = writePacketsToBuffer(getWriteBuffer());
 
-        if (waitPacket == null) {
-            isWriting.set(false);
+        if (buffer == null) {
+            finishWriting();
             return;
         }
 
-        AsynchronousSocketChannel channel = getChannel();
-        channel.write(writePacketToBuffer(waitPacket, getWriteBuffer()), waitPacket, getWriteHandler());
+        writeBuffer(buffer);
+    }
 
-        completed(waitPacket);
+    /**
+     * Start writing the prepared buffer to the channel.
+     *
+     * @param buffer the buffer.
+     */
+    protected void writeBuffer(@NotNull ByteBuffer buffer) {
+
+        if (metrics != null) {
+            writeStartTime = System.nanoTime();
+        }
+
+        AsynchronousSocketChannel channel = getChannel();
+        channel.write(buffer, buffer, getWriteHandler());
     }
 
     /**
@@ -753,27 +1393,131 @@ public abstract class AbstractAsyncConnection implements AsyncConnection {
      * @param result the count of read bytes.
      */
     protected void handleReadData(@NotNull Integer result) {
-        updateLastActivity();
+        updateLastReadTime();
 
         if (result == -1) {
             finish();
             return;
         }
 
-        ByteBuffer buffer = getReadBuffer();
-        buffer.flip();
+        if (metrics != null) {
+            metrics.onRead(result);
+        }
+
+        ReceiveBuffer receiveBuffer = getReceiveBuffer();
+
+        int space = receiveBuffer.freeSpace();
+
+        receiveBuffer.commitWrite(result);
+
+        ByteBuffer buffer = receiveBuffer.prepareRead();
+
+        int packets = 0;
         try {
-            if (isReadyToRead(buffer)) readPacket(buffer);
+            if (isReadyToRead(buffer)) packets = readPackets(buffer);
+            receiveBuffer.commitRead();
+        } catch (FrameException e) {
+            // next bytes can't be parsed as frames, so this connection can't be read anymore
+            LOGGER.warning(this, e);
+            finish();
+            close();
+            return;
         } catch (Exception e) {
-            getWaitBuffer().clear().flip();
+            receiveBuffer.clear();
+            largeReadBuffer = null;
             LOGGER.error(this, e);
-        } finally {
-            buffer.clear();
+        }
+
+        if (readBufferSizer != null) {
+            resizeReadBuffer(readBufferSizer.record(result, space));
+        }
+
+        if (readRateLimiter != null) {
+
+            long delay = readRateLimiter.acquire(packets, result, System.nanoTime());
+
+            if (delay > 0) {
+                delayRead(delay);
+                return;
+            }
         }
 
         startRead();
     }
 
+    /**
+     * Start the next read after the delay, data isn't received from the channel during the delay, so a flooding client
+     * is slowed down by TCP flow control instead of holding a network thread.
+     *
+     * @param delay the delay in nanoseconds.
+     */
+    protected void delayRead(long delay) {
+
+        if (metrics != null) {
+            metrics.onReadThrottled();
+        }
+
+        // starting a read doesn't block, so it's started by the shared timer thread itself
+        CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS, Runnable::run)
+                .execute(this::resumeRead);
+    }
+
+    /**
+     * Start the delayed read if this connection isn't closed.
+     */
+    protected void resumeRead() {
+
+        if (metrics != null) {
+            metrics.onReadResumed();
+        }
+
+        // the read buffer is released by closing under this lock
+        synchronized (closed) {
+            if (!isClosed()) {
+                startRead();
+            }
+        }
+    }
+
+    /**
+     * Replace the read buffer by a buffer of the new size if not parsed data can fit into the new buffer.
+     *
+     * @param size the new size of the read buffer.
+     */
+    protected void resizeReadBuffer(int size) {
+
+        ByteBuffer oldBuffer = getReadBuffer();
+
+        int oldSize = oldBuffer.capacity();
+
+        if (size == oldSize || receiveBuffer.size() > size) {
+            return;
+        }
+
+        AsyncNetwork network = getNetwork();
+
+        synchronized (closed) {
+
+            if (isClosed()) {
+                return;
+            }
+
+            ByteBuffer newBuffer = network.takeReadBuffer(size);
+            ReceiveBuffer newReceiveBuffer = new ReceiveBuffer(newBuffer);
+
+            receiveBuffer.moveTo(newReceiveBuffer);
+
+            readBuffer = newBuffer;
+            receiveBuffer = newReceiveBuffer;
+
+            network.putReadBuffer(oldBuffer);
+        }
+
+        if (metrics != null) {
+            metrics.onReadBufferResized(oldSize, size);
+        }
+    }
+
     /**
      * Handle the exception during reading data.
      *
@@ -791,52 +1535,69 @@ public abstract class AbstractAsyncConnection implements AsyncConnection {
     }
 
     /**
-
      * Handle wrote data.
      *
      * @param result the count of wrote bytes.
-     * @param packet the sent packet.
+     * @param buffer the written buffer.
      */
-    protected void handleWroteData(@NotNull Integer result, @NotNull WritablePacket packet) {
-        updateLastActivity();
+    protected void handleWroteData(@NotNull Integer result, @NotNull ByteBuffer buffer) {
+        updateLastWriteTime();
 
         if (result == -1) {
             finish();
+            releaseBufferToWrite(buffer);
+            releaseWriting();
             return;
         }
 
-        ByteBuffer buffer = getWriteBuffer();
+        if (metrics != null) {
+
+            metrics.onWrite(result);
+
+            if (!buffer.hasRemaining()) {
+                metrics.onWriteCompleted(System.nanoTime() - writeStartTime);
+            }
+        }
+
         if (buffer.remaining() > 0) {
-            channel.write(buffer, packet, getWriteHandler());
+            channel.write(buffer, buffer, getWriteHandler());
             return;
         }
 
+        releaseBufferToWrite(buffer);
+        releaseWriting();
+    }
+
+    /**
+     * Release the writing state and try to write a next packet.
+     */
+    protected void releaseWriting() {
         if (isWriting.compareAndSet(true, false)) {
             writeNextPacket();
         }
     }
 
     /**
-     * Handle the exception during writing the packet.
+     * Handle the exception during writing data.
      *
      * @param exception the exception.
-     * @param packet    the packet.
+     * @param buffer    the buffer.
      */
-    protected void handleFailedWrite(@NotNull Throwable exception, @NotNull WritablePacket packet) {
+    protected void handleFailedWrite(@NotNull Throwable exception, @NotNull ByteBuffer buffer) {
 
         if (config.isVisibleWriteException()) {
-            LOGGER.warning(this, new Exception("incorrect write packet " + packet, exception));
+            LOGGER.warning(this, new Exception("incorrect write to " + getRemoteAddress(), exception));
         }
 
-        if (isClosed()) return;
-        if (isWriting.compareAndSet(true, false)) {
-            writeNextPacket();
-        }
+        releaseBufferToWrite(buffer);
+        releaseWriting();
     }
 
     @Override
     public String toString() {
         return getClass().getSimpleName() + "{" + "network=" + network + ", waitPackets=" + waitPackets + ", channel=" +
-                channel + ", isWriting=" + isWriting + ", closed=" + closed + ", lastActivity=" + lastActivity + '}';
+                channel + ", isWriting=" + isWriting + ", closed=" + closed + ", writable=" + writable +
+                ", waitPacketCount=" + waitPacketCount + ", lastReadTime=" + lastReadTime +
+                ", lastWriteTime=" + lastWriteTime + '}';
     }
 }
@@ -3,17 +3,28 @@ package com.ss.rlib.common.network.impl;
 import static java.nio.ByteBuffer.allocate;
 import static java.nio.ByteBuffer.allocateDirect;
 import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import com.ss.rlib.common.concurrent.GroupThreadFactory;
 import com.ss.rlib.common.logging.Logger;
 import com.ss.rlib.common.logging.LoggerManager;
 import com.ss.rlib.common.network.AsyncNetwork;
+import com.ss.rlib.common.network.FlushPolicy;
+import com.ss.rlib.common.network.FlushScheduler;
+import com.ss.rlib.common.network.IdleManager;
 import com.ss.rlib.common.network.NetworkConfig;
+import com.ss.rlib.common.network.PacketCompressor;
+import com.ss.rlib.common.network.PacketDispatcher;
+import com.ss.rlib.common.network.metrics.NetworkMetrics;
 import com.ss.rlib.common.network.packet.ReadablePacketRegistry;
-import com.ss.rlib.common.util.pools.PoolFactory;
 import org.jetbrains.annotations.NotNull;
-import com.ss.rlib.common.util.pools.Pool;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
+import java.net.StandardSocketOptions;
 import java.nio.ByteBuffer;
-import java.util.function.Function;
+import java.nio.channels.AsynchronousSocketChannel;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * The base implementation of {@link AsyncNetwork}.
@@ -25,22 +36,63 @@ public abstract class AbstractAsyncNetwork implements AsyncNetwork {
     protected static final Logger LOGGER = LoggerManager.getLogger(AsyncNetwork.class);
 
     /**
-     * The pool with read buffers.
+     * The max size of a slab of buffers.
+     */
+    private static final int MAX_SLAB_SIZE = 1024 * 1024;
+
+    /**
+     * The max size of pooled large buffers.
+     */
+    private static final int MAX_POOLED_LARGE_BUFFER_SIZE = 16 * 1024 * 1024;
+
+    /**
+     * The flag of threads which handle I/O of networks.
+     */
+    private static final ThreadLocal<Boolean> NETWORK_THREAD = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    /**
+     * Check the current thread.
+     *
+     * @return true if the current thread handles I/O of a network, such a thread should never wait for other threads.
+     */
+    public static boolean isNetworkThread() {
+        return NETWORK_THREAD.get();
+    }
+
+    /**
+     * Create a factory of threads which handle I/O of a network.
+     *
+     * @param config the network config.
+     * @return the factory of marked network threads.
+     */
+    protected static @NotNull ThreadFactory newNetworkThreadFactory(@NotNull NetworkConfig config) {
+
+        var threadFactory = new GroupThreadFactory(config.getGroupName(), config.getThreadClass(),
+                config.getThreadPriority());
+
+        return runnable -> threadFactory.newThread(() -> {
+            NETWORK_THREAD.set(Boolean.TRUE);
+            runnable.run();
+        });
+    }
+
+    /**
+     * The arenas of read buffers by sizes.
      */
     @NotNull
-    protected final Pool<ByteBuffer> readBufferPool;
+    protected final ConcurrentMap<Integer, ByteBufferArena> readBufferArenas;
 
     /**
-     * The pool with wait buffers.
+     * The arena of write buffers.
      */
     @NotNull
-    protected final Pool<ByteBuffer> waitBufferPool;
+    protected final ByteBufferArena writeBufferArena;
 
     /**
-     * The pool with write buffers.
+     * The arenas of large buffers by power of two sizes.
      */
     @NotNull
-    protected final Pool<ByteBuffer> writeBufferPool;
+    protected final ConcurrentMap<Integer, ByteBufferArena> largeBufferArenas;
 
     /**
      * The readable packet registry.
@@ -54,12 +106,52 @@ public abstract class AbstractAsyncNetwork implements AsyncNetwork {
     @NotNull
     protected final NetworkConfig config;
 
+    /**
+     * The dispatcher of received packets.
+     */
+    @Nullable
+    protected final PacketDispatcher dispatcher;
+
+    /**
+     * The metrics of this network.
+     */
+    @Nullable
+    protected final NetworkMetrics metrics;
+
+    /**
+     * The manager of idle connections.
+     */
+    @Nullable
+    protected final IdleManager idleManager;
+
+    /**
+     * The scheduler of delayed flushes.
+     */
+    @Nullable
+    protected final FlushScheduler flushScheduler;
+
+    /**
+     * The compressor of packets.
+     */
+    @Nullable
+    protected final PacketCompressor compressor;
+
     protected AbstractAsyncNetwork(@NotNull NetworkConfig config, @NotNull ReadablePacketRegistry registry) {
         this.config = config;
         this.registry = registry;
-        this.readBufferPool = PoolFactory.newConcurrentAtomicARSWLockPool(ByteBuffer.class);
-        this.waitBufferPool = PoolFactory.newConcurrentAtomicARSWLockPool(ByteBuffer.class);
-        this.writeBufferPool = PoolFactory.newConcurrentAtomicARSWLockPool(ByteBuffer.class);
+        this.readBufferArenas = new ConcurrentHashMap<>();
+        this.readBufferArenas.put(config.getReadBufferSize(), newBufferArena(config.getReadBufferSize()));
+        this.writeBufferArena = newBufferArena(config.getWriteBufferSize());
+        this.largeBufferArenas = new ConcurrentHashMap<>();
+        this.dispatcher = config.getDispatchThreads() > 0 ? new OrderedPacketDispatcher(config) : null;
+        this.metrics = config.isMetricsEnabled() ? new NetworkMetrics() : null;
+        this.idleManager = isIdleTimeoutEnabled(config) ? new HashedWheelIdleManager(config) : null;
+        this.flushScheduler = config.getFlushPolicy() == FlushPolicy.DELAYED ? new DefaultFlushScheduler(config) : null;
+        this.compressor = config.getCompressionThreshold() > 0 ? new DeflatePacketCompressor(config) : null;
+    }
+
+    private static boolean isIdleTimeoutEnabled(@NotNull NetworkConfig config) {
+        return config.getReadIdleTimeout() > 0 || config.getWriteIdleTimeout() > 0 || config.getAllIdleTimeout() > 0;
     }
 
     @Override
@@ -73,69 +165,181 @@ public abstract class AbstractAsyncNetwork implements AsyncNetwork {
     }
 
     @Override
-    public @NotNull ByteBuffer takeReadBuffer() {
-        ByteBuffer buffer = readBufferPool.take(config, readBufferFactory());
-        buffer.clear();
-        return buffer;
+    public @Nullable PacketDispatcher getPacketDispatcher() {
+        return dispatcher;
+    }
+
+    @Override
+    public @Nullable NetworkMetrics getMetrics() {
+        return metrics;
     }
 
     /**
-     * Get the read buffers factory.
+     * Create a new arena of buffers.
      *
-     * @return the read buffers factory.
+     * @param bufferSize the size of buffers.
+     * @return the new arena.
      */
-    protected @NotNull Function<NetworkConfig, ByteBuffer> readBufferFactory() {
-        return conf -> (conf.isDirectByteBuffer() ?
-                allocateDirect(conf.getReadBufferSize()) : allocate(conf.getReadBufferSize())).order(LITTLE_ENDIAN);
+    protected @NotNull ByteBufferArena newBufferArena(int bufferSize) {
+
+        // slabs of large buffers are limited to not allocate too much memory for a few connections
+        int slabBuffers = Math.max(Math.min(config.getSlabBuffers(), MAX_SLAB_SIZE / bufferSize), 1);
+
+        return new ByteBufferArena(bufferSize, slabBuffers, config.getBufferMagazineSize(),
+                config.isDirectByteBuffer());
     }
 
-    @Override
-    public @NotNull ByteBuffer takeWaitBuffer() {
-        ByteBuffer buffer = writeBufferPool.take(config, waitBufferFactory());
-        buffer.clear();
-        return buffer;
+    /**
+     * Get the arena of read buffers of the default size.
+     *
+     * @return the arena of read buffers.
+     */
+    public @NotNull ByteBufferArena getReadBufferArena() {
+        return getReadBufferArena(config.getReadBufferSize());
     }
 
     /**
-     * Get the wait buffers factory.
+     * Get the arena of read buffers of the size.
      *
-     * @return the wait buffers factory.
+     * @param size the size of buffers.
+     * @return the arena of read buffers.
      */
-    protected @NotNull Function<NetworkConfig, ByteBuffer> waitBufferFactory() {
-        return conf -> (conf.isDirectByteBuffer() ?
-                allocateDirect(conf.getReadBufferSize() * 2) : allocate(conf.getReadBufferSize() * 2)).order(LITTLE_ENDIAN);
+    public @NotNull ByteBufferArena getReadBufferArena(int size) {
+        return readBufferArenas.computeIfAbsent(size, this::newBufferArena);
+    }
+
+    /**
+     * Get the arena of write buffers.
+     *
+     * @return the arena of write buffers.
+     */
+    public @NotNull ByteBufferArena getWriteBufferArena() {
+        return writeBufferArena;
+    }
+
+    @Override
+    public @Nullable IdleManager getIdleManager() {
+        return idleManager;
+    }
+
+    @Override
+    public @Nullable FlushScheduler getFlushScheduler() {
+        return flushScheduler;
+    }
+
+    @Override
+    public void configureChannel(@NotNull AsynchronousSocketChannel channel) throws IOException {
+
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, config.isTcpNoDelay());
+        channel.setOption(StandardSocketOptions.SO_KEEPALIVE, config.isKeepAlive());
+
+        if (config.getSendBufferSize() > 0) {
+            channel.setOption(StandardSocketOptions.SO_SNDBUF, config.getSendBufferSize());
+        }
+
+        if (config.getReceiveBufferSize() > 0) {
+            channel.setOption(StandardSocketOptions.SO_RCVBUF, config.getReceiveBufferSize());
+        }
+    }
+
+    @Override
+    public @Nullable PacketCompressor getPacketCompressor() {
+        return compressor;
+    }
+
+    /**
+     * Shutdown the dispatcher of received packets, the manager of idle connections and the scheduler of flushes if
+     * they exist.
+     */
+    protected void shutdownServices() {
+
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
+
+        if (idleManager != null) {
+            idleManager.shutdown();
+        }
+
+        if (flushScheduler != null) {
+            flushScheduler.shutdown();
+        }
+    }
+
+    @Override
+    public @NotNull ByteBuffer takeReadBuffer() {
+        return takeReadBuffer(config.getReadBufferSize());
+    }
+
+    @Override
+    public @NotNull ByteBuffer takeReadBuffer(int size) {
+        return getReadBufferArena(size).take();
+    }
+
+    @Override
+    @Deprecated
+    public @NotNull ByteBuffer takeWaitBuffer() {
+        int size = config.getReadBufferSize() * 2;
+        return (config.isDirectByteBuffer() ? allocateDirect(size) : allocate(size)).order(LITTLE_ENDIAN);
     }
 
     @Override
     public @NotNull ByteBuffer takeWriteBuffer() {
-        ByteBuffer buffer = writeBufferPool.take(config, writeBufferFactory());
-        buffer.clear();
-        return buffer;
+        return writeBufferArena.take();
     }
 
     /**
-     * Get the write buffers factory.
+     * Take a large buffer from the arena of the nearest power of two size, so large frames reuse the same buffers
+     * instead of allocating new buffers for each frame. Buffers over the max pooled size are released by GC.
      *
-     * @return the write buffers factory.
+     * @param size the min size of the buffer.
+     * @return the large buffer.
      */
-    protected Function<NetworkConfig, ByteBuffer> writeBufferFactory() {
-        return conf -> (conf.isDirectByteBuffer() ?
-                allocateDirect(conf.getWriteBufferSize()) : allocate(conf.getWriteBufferSize())).order(LITTLE_ENDIAN);
+    @Override
+    public @NotNull ByteBuffer takeLargeBuffer(int size) {
+
+        if (size > MAX_POOLED_LARGE_BUFFER_SIZE) {
+            return (config.isDirectByteBuffer() ? allocateDirect(size) : allocate(size)).order(LITTLE_ENDIAN);
+        }
+
+        int sizeClass = size <= 1 ? 1 : Integer.highestOneBit(size - 1) << 1;
+
+        return largeBufferArenas.computeIfAbsent(sizeClass, this::newBufferArena).take();
     }
 
     @Override
     public void putReadBuffer(@NotNull ByteBuffer buffer) {
-        readBufferPool.put(buffer);
+
+        ByteBufferArena arena = readBufferArenas.get(buffer.capacity());
+
+        if (arena != null) {
+            arena.put(buffer);
+        }
     }
 
+    /**
+     * Wait buffers aren't used by connections anymore, so they aren't cached and are released by GC.
+     *
+     * @param buffer the buffer.
+     */
     @Override
+    @Deprecated
     public void putWaitBuffer(@NotNull ByteBuffer buffer) {
-        waitBufferPool.put(buffer);
     }
 
     @Override
     public void putWriteBuffer(@NotNull ByteBuffer buffer) {
-        writeBufferPool.put(buffer);
+        writeBufferArena.put(buffer);
+    }
+
+    @Override
+    public void putLargeBuffer(@NotNull ByteBuffer buffer) {
+
+        ByteBufferArena arena = largeBufferArenas.get(buffer.capacity());
+
+        if (arena != null) {
+            arena.put(buffer);
+        }
     }
 
     @Override
@@ -4,13 +4,18 @@ import com.ss.rlib.common.logging.Logger;
 import com.ss.rlib.common.logging.LoggerManager;
 import com.ss.rlib.common.network.AsyncConnection;
 import com.ss.rlib.common.network.ConnectionOwner;
+import com.ss.rlib.common.network.IdleState;
 import com.ss.rlib.common.network.NetworkCrypt;
+import com.ss.rlib.common.network.PacketDispatcher;
 import com.ss.rlib.common.network.client.server.Server;
+import com.ss.rlib.common.network.packet.HandleablePacket;
 import com.ss.rlib.common.network.packet.ReadablePacket;
 import com.ss.rlib.common.network.packet.WritablePacket;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.nio.ByteBuffer;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -40,10 +45,20 @@ public abstract class AbstractConnectionOwner implements ConnectionOwner {
     @NotNull
     protected final AtomicBoolean destroyed;
 
+    /**
+     * The serial mailbox to handle received packets by worker threads.
+     */
+    @Nullable
+    protected final Executor mailbox;
+
     protected AbstractConnectionOwner(@NotNull AsyncConnection connection, @NotNull NetworkCrypt crypt) {
         this.connection = connection;
         this.crypt = crypt;
         this.destroyed = new AtomicBoolean();
+
+        PacketDispatcher dispatcher = connection.getNetwork().getPacketDispatcher();
+
+        this.mailbox = dispatcher == null ? null : dispatcher.newMailbox();
     }
 
     @Override
@@ -81,7 +96,28 @@ public abstract class AbstractConnectionOwner implements ConnectionOwner {
 
     @Override
     public void readPacket(@NotNull ReadablePacket packet, @NotNull ByteBuffer buffer) {
-        packet.read(this, buffer);
+
+        if (!packet.read(this, buffer) || !(packet instanceof HandleablePacket)) {
+            return;
+        }
+
+        HandleablePacket handleable = (HandleablePacket) packet;
+
+        if (mailbox == null) {
+            handleable.handle(this);
+            return;
+        }
+
+        // the connection releases the packet after reading, so we need to keep it until handling
+        handleable.retain();
+
+        mailbox.execute(() -> {
+            try {
+                handleable.handle(this);
+            } finally {
+                handleable.release();
+            }
+        });
     }
 
     @Override
@@ -90,6 +126,19 @@ public abstract class AbstractConnectionOwner implements ConnectionOwner {
         connection.sendPacket(packet);
     }
 
+    /**
+     * Destroy this owner when the connection is idle in both directions.
+     *
+     * @param state the kind of idleness.
+     */
+    @Override
+    public void onIdle(@NotNull IdleState state) {
+        if (state == IdleState.ALL_IDLE) {
+            LOGGER.debug(this, "destroy the idle connection " + connection);
+            destroy();
+        }
+    }
+
     @Override
     public String toString() {
         return getClass().getSimpleName() + "{" + "connection=" +
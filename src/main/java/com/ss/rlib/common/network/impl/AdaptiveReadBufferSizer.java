@@ -0,0 +1,86 @@
+package com.ss.rlib.common.network.impl;
+
+/**
+ * The strategy to choose the size of a read buffer of a connection by sizes of its recent reads. The size is doubled
+ * right after a read which filled all free space of the buffer and is halved after two reads in a row which used less
+ * than a quarter of the buffer, so the size follows bulk transfers quickly and doesn't jump on a single small read.
+ * <p>
+ * The sizer isn't thread safe, but a connection uses it only from the thread which handles the current read.
+ *
+ * @author JavaSaBr
+ */
+public final class AdaptiveReadBufferSizer {
+
+    /**
+     * The min size of a buffer.
+     */
+    private final int minSize;
+
+    /**
+     * The max size of a buffer.
+     */
+    private final int maxSize;
+
+    /**
+     * The current size of a buffer.
+     */
+    private int size;
+
+    /**
+     * True if the previous read was small.
+     */
+    private boolean smallRead;
+
+    public AdaptiveReadBufferSizer(int initialSize, int minSize, int maxSize) {
+
+        if (minSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("wrong min size " + minSize + " or max size " + maxSize);
+        }
+
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.size = Math.min(Math.max(initialSize, minSize), maxSize);
+    }
+
+    /**
+     * Record a completed read and choose the next size of a buffer.
+     *
+     * @param bytes the count of received bytes.
+     * @param space the free space of the buffer before the read.
+     * @return the next size of a buffer.
+     */
+    public int record(int bytes, int space) {
+
+        if (bytes >= space) {
+            smallRead = false;
+            size = Math.min(size << 1, maxSize);
+        } else if (bytes < size >> 2) {
+
+            if (smallRead) {
+                smallRead = false;
+                size = Math.max(size >> 1, minSize);
+            } else {
+                smallRead = true;
+            }
+
+        } else {
+            smallRead = false;
+        }
+
+        return size;
+    }
+
+    /**
+     * Get the current size of a buffer.
+     *
+     * @return the current size of a buffer.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveReadBufferSizer{" + "minSize=" + minSize + ", maxSize=" + maxSize + ", size=" + size + '}';
+    }
+}
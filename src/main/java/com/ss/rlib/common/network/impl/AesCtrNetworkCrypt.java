@@ -0,0 +1,135 @@
+package com.ss.rlib.common.network.impl;
+
+import com.ss.rlib.common.network.ByteBufferNetworkCrypt;
+import com.ss.rlib.common.util.BufferUtils;
+import org.jetbrains.annotations.NotNull;
+
+import javax.crypto.Cipher;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+
+/**
+ * The implementation of {@link ByteBufferNetworkCrypt} based on AES in the counter mode. A connection owner should
+ * have its own instance, because ciphers are created once and the key stream continues between packets, so packets
+ * are crypted in the same order as they are written to and read from the channel. Both directions use the same key,
+ * but different initial counters, and the other side should swap them.
+ * <p>
+ * Data of heap buffers is crypted in place, data of direct buffers is crypted by chunks through a reused array.
+ *
+ * @author JavaSaBr
+ */
+public class AesCtrNetworkCrypt implements ByteBufferNetworkCrypt {
+
+    /**
+     * The size of an initial counter.
+     */
+    public static final int IV_SIZE = 16;
+
+    /**
+     * The size of a chunk to crypt data of direct buffers.
+     */
+    private static final int CHUNK_SIZE = 4096;
+
+    /**
+     * The cipher to encrypt data.
+     */
+    @NotNull
+    private final Cipher encryptCipher;
+
+    /**
+     * The cipher to decrypt data.
+     */
+    @NotNull
+    private final Cipher decryptCipher;
+
+    /**
+     * The chunk to encrypt data of direct buffers.
+     */
+    @NotNull
+    private final byte[] encryptChunk;
+
+    /**
+     * The chunk to decrypt data of direct buffers.
+     */
+    @NotNull
+    private final byte[] decryptChunk;
+
+    /**
+     * Create a new AES-CTR crypt.
+     *
+     * @param key       the key with 16, 24 or 32 bytes.
+     * @param encryptIv the initial counter to encrypt data.
+     * @param decryptIv the initial counter to decrypt data.
+     * @throws IllegalArgumentException if the key or the initial counters are wrong.
+     */
+    public AesCtrNetworkCrypt(@NotNull byte[] key, @NotNull byte[] encryptIv, @NotNull byte[] decryptIv) {
+
+        if (key.length != 16 && key.length != 24 && key.length != 32) {
+            throw new IllegalArgumentException("Wrong key size " + key.length);
+        } else if (encryptIv.length != IV_SIZE || decryptIv.length != IV_SIZE) {
+            throw new IllegalArgumentException("Initial counters should have " + IV_SIZE + " bytes.");
+        } else if (Arrays.equals(encryptIv, decryptIv)) {
+            throw new IllegalArgumentException("Both directions can't use the same initial counter.");
+        }
+
+        var secretKey = new SecretKeySpec(key, "AES");
+
+        this.encryptCipher = createCipher(Cipher.ENCRYPT_MODE, secretKey, encryptIv);
+        this.decryptCipher = createCipher(Cipher.DECRYPT_MODE, secretKey, decryptIv);
+        this.encryptChunk = new byte[CHUNK_SIZE];
+        this.decryptChunk = new byte[CHUNK_SIZE];
+    }
+
+    private static @NotNull Cipher createCipher(int mode, @NotNull SecretKeySpec key, @NotNull byte[] iv) {
+        try {
+            var cipher = Cipher.getInstance("AES/CTR/NoPadding");
+            cipher.init(mode, key, new IvParameterSpec(iv));
+            return cipher;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void decrypt(@NotNull ByteBuffer buffer, int offset, int length) {
+        crypt(decryptCipher, decryptChunk, buffer, offset, length);
+    }
+
+    @Override
+    public void encrypt(@NotNull ByteBuffer buffer, int offset, int length) {
+        crypt(encryptCipher, encryptChunk, buffer, offset, length);
+    }
+
+    private void crypt(
+            @NotNull Cipher cipher,
+            @NotNull byte[] chunk,
+            @NotNull ByteBuffer buffer,
+            int offset,
+            int length
+    ) {
+        try {
+
+            if (buffer.hasArray()) {
+                byte[] array = buffer.array();
+                int start = buffer.arrayOffset() + offset;
+                cipher.update(array, start, length, array, start);
+                return;
+            }
+
+            for (int done = 0; done < length; ) {
+                int count = Math.min(chunk.length, length - done);
+                BufferUtils.get(buffer, offset + done, chunk, 0, count);
+                cipher.update(chunk, 0, count, chunk, 0);
+                BufferUtils.put(buffer, offset + done, chunk, 0, count);
+                done += count;
+            }
+
+        } catch (ShortBufferException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
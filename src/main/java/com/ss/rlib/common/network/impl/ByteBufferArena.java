@@ -0,0 +1,283 @@
+package com.ss.rlib.common.network.impl;
+
+import static com.ss.rlib.common.util.ObjectUtils.notNull;
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The arena of byte buffers of the same size. Buffers are slices of large slabs, so many connections don't allocate
+ * many small buffers one by one and returned buffers don't fragment the heap. Each thread takes and puts buffers from
+ * its own magazine without any synchronization. When a magazine becomes empty it's refilled by a full magazine from the
+ * shared depot and when it becomes full, its buffers are moved to the depot, so buffers which are taken by one thread
+ * and are returned by another thread are balanced between threads.
+ * <p>
+ * Slabs are never released, so the arena keeps the max count of buffers which were used at the same time.
+ *
+ * @author JavaSaBr
+ */
+public final class ByteBufferArena {
+
+    /**
+     * The thread local cache of buffers.
+     */
+    private static final class Magazine {
+
+        /**
+         * The cached buffers.
+         */
+        @NotNull
+        private ByteBuffer[] buffers;
+
+        /**
+         * The count of cached buffers.
+         */
+        private int size;
+
+        private Magazine(int capacity) {
+            this.buffers = new ByteBuffer[capacity];
+        }
+
+        private @Nullable ByteBuffer pop() {
+
+            if (size == 0) {
+                return null;
+            }
+
+            ByteBuffer buffer = buffers[--size];
+            buffers[size] = null;
+
+            return buffer;
+        }
+
+        private boolean push(@NotNull ByteBuffer buffer) {
+
+            if (size == buffers.length) {
+                return false;
+            }
+
+            buffers[size++] = buffer;
+            return true;
+        }
+    }
+
+    /**
+     * The depot of full magazines.
+     */
+    @NotNull
+    private final ConcurrentLinkedQueue<ByteBuffer[]> depot;
+
+    /**
+     * The magazines of threads.
+     */
+    @NotNull
+    private final ThreadLocal<Magazine> magazines;
+
+    /**
+     * The count of allocated slabs.
+     */
+    @NotNull
+    private final LongAdder slabCount;
+
+    /**
+     * The count of taken buffers.
+     */
+    @NotNull
+    private final LongAdder takeCount;
+
+    /**
+     * The count of buffers which were taken from the magazine of the current thread.
+     */
+    @NotNull
+    private final LongAdder cacheHitCount;
+
+    /**
+     * The size of buffers.
+     */
+    private final int bufferSize;
+
+    /**
+     * The count of buffers in a slab.
+     */
+    private final int slabBuffers;
+
+    /**
+     * The capacity of a magazine.
+     */
+    private final int magazineSize;
+
+    /**
+     * True if slabs are direct buffers.
+     */
+    private final boolean direct;
+
+    public ByteBufferArena(int bufferSize, int slabBuffers, int magazineSize, boolean direct) {
+
+        if (bufferSize < 1 || slabBuffers < 1 || magazineSize < 1) {
+            throw new IllegalArgumentException("sizes should be positive.");
+        }
+
+        this.bufferSize = bufferSize;
+        this.slabBuffers = slabBuffers;
+        this.magazineSize = magazineSize;
+        this.direct = direct;
+        this.depot = new ConcurrentLinkedQueue<>();
+        this.magazines = ThreadLocal.withInitial(() -> new Magazine(magazineSize));
+        this.slabCount = new LongAdder();
+        this.takeCount = new LongAdder();
+        this.cacheHitCount = new LongAdder();
+    }
+
+    /**
+     * Take a cleared buffer.
+     *
+     * @return the buffer.
+     */
+    public @NotNull ByteBuffer take() {
+
+        takeCount.increment();
+
+        Magazine magazine = magazines.get();
+        ByteBuffer buffer = magazine.pop();
+
+        if (buffer != null) {
+            cacheHitCount.increment();
+            return buffer.clear();
+        }
+
+        ByteBuffer[] buffers = depot.poll();
+
+        if (buffers != null) {
+            magazine.buffers = buffers;
+            magazine.size = buffers.length;
+        } else {
+            allocateSlab(magazine);
+        }
+
+        return notNull(magazine.pop()).clear();
+    }
+
+    /**
+     * Put the buffer back to this arena. Buffers which weren't taken from this arena are ignored.
+     *
+     * @param buffer the buffer.
+     */
+    public void put(@NotNull ByteBuffer buffer) {
+
+        if (buffer.capacity() != bufferSize || buffer.isDirect() != direct) {
+            return;
+        }
+
+        Magazine magazine = magazines.get();
+
+        if (magazine.push(buffer)) {
+            return;
+        }
+
+        depot.offer(magazine.buffers);
+
+        magazine.buffers = new ByteBuffer[magazineSize];
+        magazine.size = 0;
+        magazine.push(buffer);
+    }
+
+    /**
+     * Allocate a new slab and put its buffers to the magazine and to the depot.
+     *
+     * @param magazine the empty magazine of the current thread.
+     */
+    private void allocateSlab(@NotNull Magazine magazine) {
+
+        ByteBuffer slab = direct ? ByteBuffer.allocateDirect(bufferSize * slabBuffers) :
+                ByteBuffer.allocate(bufferSize * slabBuffers);
+
+        slabCount.increment();
+
+        ByteBuffer[] buffers = null;
+        int size = 0;
+
+        for (int i = 0; i < slabBuffers; i++) {
+
+            slab.limit((i + 1) * bufferSize);
+            slab.position(i * bufferSize);
+
+            ByteBuffer buffer = slab.slice().order(LITTLE_ENDIAN);
+
+            if (magazine.push(buffer)) {
+                continue;
+            }
+
+            if (buffers == null) {
+                buffers = new ByteBuffer[magazineSize];
+            }
+
+            buffers[size++] = buffer;
+
+            if (size == magazineSize) {
+                depot.offer(buffers);
+                buffers = null;
+                size = 0;
+            }
+        }
+
+        // a not full magazine can't be stored to the depot, so the rest buffers are returned one by one
+        for (int i = 0; i < size; i++) {
+            put(buffers[i]);
+        }
+    }
+
+    /**
+     * Get the size of buffers.
+     *
+     * @return the size of buffers.
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Get the count of allocated slabs.
+     *
+     * @return the count of allocated slabs.
+     */
+    public long getSlabCount() {
+        return slabCount.sum();
+    }
+
+    /**
+     * Get the count of allocated buffers.
+     *
+     * @return the count of allocated buffers.
+     */
+    public long getAllocatedBuffers() {
+        return slabCount.sum() * slabBuffers;
+    }
+
+    /**
+     * Get the count of taken buffers.
+     *
+     * @return the count of taken buffers.
+     */
+    public long getTakeCount() {
+        return takeCount.sum();
+    }
+
+    /**
+     * Get the count of buffers which were taken from the magazine of the taking thread.
+     *
+     * @return the count of cache hits.
+     */
+    public long getCacheHitCount() {
+        return cacheHitCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "ByteBufferArena{" + "bufferSize=" + bufferSize + ", direct=" + direct + ", slabCount=" +
+                getSlabCount() + ", takeCount=" + getTakeCount() + ", cacheHitCount=" + getCacheHitCount() + '}';
+    }
+}
@@ -0,0 +1,61 @@
+package com.ss.rlib.common.network.impl;
+
+import com.ss.rlib.common.network.ByteBufferNetworkCrypt;
+import com.ss.rlib.common.util.crypt.ChaCha20;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * The implementation of {@link ByteBufferNetworkCrypt} based on the {@link ChaCha20} stream cipher. A connection
+ * owner should have its own instance, because the key stream continues between packets, so packets are crypted in
+ * the same order as they are written to and read from the channel. Both directions use the same key, but different
+ * nonces, and the other side should swap them.
+ * <p>
+ * Data of heap and direct buffers is crypted in place without copying.
+ *
+ * @author JavaSaBr
+ */
+public class ChaCha20NetworkCrypt implements ByteBufferNetworkCrypt {
+
+    /**
+     * The cipher to encrypt data.
+     */
+    @NotNull
+    private final ChaCha20 encryptCipher;
+
+    /**
+     * The cipher to decrypt data.
+     */
+    @NotNull
+    private final ChaCha20 decryptCipher;
+
+    /**
+     * Create a new ChaCha20 crypt.
+     *
+     * @param key          the key with 32 bytes.
+     * @param encryptNonce the nonce with 12 bytes to encrypt data.
+     * @param decryptNonce the nonce with 12 bytes to decrypt data.
+     * @throws IllegalArgumentException if the key or the nonces are wrong.
+     */
+    public ChaCha20NetworkCrypt(@NotNull byte[] key, @NotNull byte[] encryptNonce, @NotNull byte[] decryptNonce) {
+
+        if (Arrays.equals(encryptNonce, decryptNonce)) {
+            throw new IllegalArgumentException("Both directions can't use the same nonce.");
+        }
+
+        this.encryptCipher = new ChaCha20(key, encryptNonce);
+        this.decryptCipher = new ChaCha20(key, decryptNonce);
+    }
+
+    @Override
+    public void decrypt(@NotNull ByteBuffer buffer, int offset, int length) {
+        decryptCipher.crypt(buffer, offset, length);
+    }
+
+    @Override
+    public void encrypt(@NotNull ByteBuffer buffer, int offset, int length) {
+        encryptCipher.crypt(buffer, offset, length);
+    }
+}
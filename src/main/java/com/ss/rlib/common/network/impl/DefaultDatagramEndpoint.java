@@ -0,0 +1,197 @@
+package com.ss.rlib.common.network.impl;
+
+import com.ss.rlib.common.network.ConnectionOwner;
+import com.ss.rlib.common.network.DatagramEndpoint;
+import com.ss.rlib.common.network.packet.WritablePacket;
+import com.ss.rlib.common.util.queue.MpscChunkedQueue;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.SocketAddress;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The base implementation of {@link DatagramEndpoint}. Waited packets are written by the thread of the datagram
+ * network, the sequence state is used only by the same thread.
+ *
+ * @author JavaSaBr
+ */
+final class DefaultDatagramEndpoint implements DatagramEndpoint {
+
+    /**
+     * The datagram network.
+     */
+    @NotNull
+    private final DefaultDatagramNetwork network;
+
+    /**
+     * The connection owner.
+     */
+    @NotNull
+    private final ConnectionOwner owner;
+
+    /**
+     * The remote address.
+     */
+    @NotNull
+    private final SocketAddress remoteAddress;
+
+    /**
+     * The packets which are waiting for sending.
+     */
+    @NotNull
+    private final MpscChunkedQueue<WritablePacket> waitPackets;
+
+    /**
+     * The flag of being in the queue of endpoints to flush.
+     */
+    @NotNull
+    private final AtomicBoolean scheduled;
+
+    /**
+     * The flag of closing this endpoint.
+     */
+    @NotNull
+    private final AtomicBoolean closed;
+
+    /**
+     * The count of dropped stale packets.
+     */
+    @NotNull
+    private final LongAdder stalePackets;
+
+    /**
+     * The last received sequence numbers by packet ids.
+     */
+    @NotNull
+    private int[] lastSequences;
+
+    /**
+     * The flags of having received sequence numbers by packet ids.
+     */
+    @NotNull
+    private boolean[] receivedSequences;
+
+    /**
+     * The next sequence number to send.
+     */
+    private int nextSequence;
+
+    DefaultDatagramEndpoint(
+            @NotNull DefaultDatagramNetwork network,
+            @NotNull ConnectionOwner owner,
+            @NotNull SocketAddress remoteAddress
+    ) {
+        this.network = network;
+        this.owner = owner;
+        this.remoteAddress = remoteAddress;
+        this.waitPackets = new MpscChunkedQueue<>();
+        this.scheduled = new AtomicBoolean();
+        this.closed = new AtomicBoolean();
+        this.stalePackets = new LongAdder();
+        this.lastSequences = new int[0];
+        this.receivedSequences = new boolean[0];
+    }
+
+    @Override
+    public @NotNull ConnectionOwner getOwner() {
+        return owner;
+    }
+
+    @Override
+    public @NotNull SocketAddress getRemoteAddress() {
+        return remoteAddress;
+    }
+
+    @Override
+    public void sendPacket(@NotNull WritablePacket packet) {
+
+        if (isClosed()) {
+            return;
+        }
+
+        packet.notifyAddedToSend();
+        waitPackets.offer(packet);
+
+        if (scheduled.compareAndSet(false, true)) {
+            network.scheduleFlush(this);
+        }
+    }
+
+    /**
+     * Reset the flag of being in the queue of endpoints to flush, should be called before polling waited packets.
+     */
+    void resetScheduled() {
+        scheduled.set(false);
+    }
+
+    /**
+     * Poll a next waited packet, should be called only by the thread of the datagram network.
+     *
+     * @return the next waited packet or null.
+     */
+    @Nullable WritablePacket pollWaitPacket() {
+        return waitPackets.poll();
+    }
+
+    /**
+     * Get a next sequence number to send a packet.
+     *
+     * @return the sequence number.
+     */
+    int nextSequence() {
+        return nextSequence++;
+    }
+
+    /**
+     * Check the sequence number of a received packet, the packet is stale if a packet with the same id and a newer
+     * sequence number was already received.
+     *
+     * @param packetId the packet id.
+     * @param sequence the sequence number.
+     * @return true if the packet isn't stale.
+     */
+    boolean acceptSequence(int packetId, int sequence) {
+
+        if (packetId >= lastSequences.length) {
+            lastSequences = Arrays.copyOf(lastSequences, packetId + 1);
+            receivedSequences = Arrays.copyOf(receivedSequences, packetId + 1);
+        }
+
+        // the difference handles overflowing of sequence numbers
+        if (receivedSequences[packetId] && sequence - lastSequences[packetId] <= 0) {
+            stalePackets.increment();
+            return false;
+        }
+
+        receivedSequences[packetId] = true;
+        lastSequences[packetId] = sequence;
+
+        return true;
+    }
+
+    @Override
+    public long getStalePacketCount() {
+        return stalePackets.sum();
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            network.unregister(this);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "DefaultDatagramEndpoint{" + "remoteAddress=" + remoteAddress + ", owner=" + owner + ", closed=" +
+                closed + ", stalePackets=" + stalePackets + '}';
+    }
+}
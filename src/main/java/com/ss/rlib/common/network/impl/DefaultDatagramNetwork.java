@@ -0,0 +1,583 @@
+package com.ss.rlib.common.network.impl;
+
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import com.ss.rlib.common.concurrent.GroupThreadFactory;
+import com.ss.rlib.common.logging.Logger;
+import com.ss.rlib.common.logging.LoggerManager;
+import com.ss.rlib.common.network.ConnectionOwner;
+import com.ss.rlib.common.network.DatagramEndpoint;
+import com.ss.rlib.common.network.DatagramNetwork;
+import com.ss.rlib.common.network.NetworkConfig;
+import com.ss.rlib.common.network.packet.ReadablePacket;
+import com.ss.rlib.common.network.packet.ReadablePacketRegistry;
+import com.ss.rlib.common.network.packet.ReusableReadablePacket;
+import com.ss.rlib.common.network.packet.ReusableWritablePacket;
+import com.ss.rlib.common.network.packet.WritablePacket;
+import com.ss.rlib.common.util.queue.MpscChunkedQueue;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * The base implementation of {@link DatagramNetwork} on a non-blocking {@link DatagramChannel} which is handled by
+ * its own event loop. Datagrams are received by batches while the channel is readable and waited packets of all
+ * endpoints are sent by batches in one task of the event loop. A datagram contains an optional sequence number and
+ * one packet in the same format as in connections: the packet id and the packet data.
+ *
+ * @author JavaSaBr
+ */
+public class DefaultDatagramNetwork implements DatagramNetwork, SelectorEventLoop.Handler {
+
+    protected static final Logger LOGGER = LoggerManager.getLogger(DatagramNetwork.class);
+
+    /**
+     * The max count of datagrams which are received by one select cycle.
+     */
+    private static final int MAX_RECEIVE_BATCH = 64;
+
+    /**
+     * The max count of datagrams which are sent by one select cycle.
+     */
+    private static final int MAX_SEND_BATCH = 256;
+
+    /**
+     * The reserved space of the send buffer to detect packets which are larger than the max datagram size.
+     */
+    private static final int SEND_BUFFER_RESERVE = 16;
+
+    /**
+     * The network config.
+     */
+    @NotNull
+    protected final NetworkConfig config;
+
+    /**
+     * The readable packet registry.
+     */
+    @NotNull
+    protected final ReadablePacketRegistry packetRegistry;
+
+    /**
+     * The event loop.
+     */
+    @NotNull
+    protected final SelectorEventLoop eventLoop;
+
+    /**
+     * The datagram channel.
+     */
+    @NotNull
+    protected final DatagramChannel channel;
+
+    /**
+     * The endpoints by remote addresses.
+     */
+    @NotNull
+    protected final ConcurrentHashMap<SocketAddress, DefaultDatagramEndpoint> endpoints;
+
+    /**
+     * The endpoints which have waited packets.
+     */
+    @NotNull
+    protected final MpscChunkedQueue<DefaultDatagramEndpoint> flushEndpoints;
+
+    /**
+     * The flag of scheduling the flush task.
+     */
+    @NotNull
+    protected final AtomicBoolean flushScheduled;
+
+    /**
+     * The buffer to receive datagrams.
+     */
+    @NotNull
+    protected final ByteBuffer receiveBuffer;
+
+    /**
+     * The buffer to send datagrams.
+     */
+    @NotNull
+    protected final ByteBuffer sendBuffer;
+
+    /**
+     * The task to send waited packets.
+     */
+    @NotNull
+    protected final Runnable flushTask;
+
+    /**
+     * The count of received datagrams.
+     */
+    @NotNull
+    protected final LongAdder receivedDatagrams;
+
+    /**
+     * The count of sent datagrams.
+     */
+    @NotNull
+    protected final LongAdder sentDatagrams;
+
+    /**
+     * The count of dropped datagrams.
+     */
+    @NotNull
+    protected final LongAdder droppedDatagrams;
+
+    /**
+     * The max size of datagrams.
+     */
+    protected final int maxDatagramSize;
+
+    /**
+     * The flag of using sequence numbers.
+     */
+    protected final boolean sequencing;
+
+    /**
+     * The resolver of owners of not bound remote addresses.
+     */
+    @Nullable
+    protected volatile Function<@NotNull SocketAddress, @Nullable ConnectionOwner> ownerResolver;
+
+    /**
+     * The selection key of the channel.
+     */
+    @Nullable
+    private SelectionKey selectionKey;
+
+    /**
+     * The endpoint which is flushed by the event loop now.
+     */
+    @Nullable
+    private DefaultDatagramEndpoint flushingEndpoint;
+
+    /**
+     * The flag of having a datagram in the send buffer which wasn't sent because the channel was full.
+     */
+    private boolean pendingDatagram;
+
+    public DefaultDatagramNetwork(
+            @NotNull NetworkConfig config,
+            @NotNull ReadablePacketRegistry packetRegistry
+    ) throws IOException {
+        this.config = config;
+        this.packetRegistry = packetRegistry;
+        this.maxDatagramSize = config.getMaxDatagramSize();
+        this.sequencing = config.isDatagramSequencing();
+        this.eventLoop = new SelectorEventLoop(new GroupThreadFactory(config.getGroupName() + "Datagram",
+                config.getThreadClass(), config.getThreadPriority()));
+        this.channel = DatagramChannel.open();
+        this.channel.configureBlocking(false);
+        this.endpoints = new ConcurrentHashMap<>();
+        this.flushEndpoints = new MpscChunkedQueue<>();
+        this.flushScheduled = new AtomicBoolean();
+        this.receiveBuffer = allocate(config, maxDatagramSize + 1);
+        this.sendBuffer = allocate(config, maxDatagramSize + SEND_BUFFER_RESERVE);
+        this.flushTask = this::flush;
+        this.receivedDatagrams = new LongAdder();
+        this.sentDatagrams = new LongAdder();
+        this.droppedDatagrams = new LongAdder();
+        this.eventLoop.start();
+    }
+
+    private static @NotNull ByteBuffer allocate(@NotNull NetworkConfig config, int size) {
+        var buffer = config.isDirectByteBuffer() ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+        return buffer.order(LITTLE_ENDIAN);
+    }
+
+    @Override
+    public void bind(@NotNull SocketAddress address) throws IOException {
+        channel.bind(address);
+        eventLoop.execute(this::registerChannel);
+    }
+
+    private void registerChannel() {
+        try {
+            selectionKey = eventLoop.register(channel, this);
+            selectionKey.interestOps(SelectionKey.OP_READ);
+        } catch (ClosedChannelException e) {
+            LOGGER.warning(this, e);
+        }
+    }
+
+    @Override
+    public @Nullable SocketAddress getLocalAddress() {
+        try {
+            return channel.getLocalAddress();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public @NotNull DatagramEndpoint register(@NotNull ConnectionOwner owner, @NotNull SocketAddress remoteAddress) {
+
+        var endpoint = new DefaultDatagramEndpoint(this, owner, remoteAddress);
+        var prev = endpoints.put(remoteAddress, endpoint);
+
+        if (prev != null) {
+            prev.close();
+        }
+
+        return endpoint;
+    }
+
+    /**
+     * Remove the closed endpoint.
+     *
+     * @param endpoint the endpoint.
+     */
+    void unregister(@NotNull DefaultDatagramEndpoint endpoint) {
+        endpoints.remove(endpoint.getRemoteAddress(), endpoint);
+        // waited packets are completed by the event loop which is the only consumer of them
+        eventLoop.execute(() -> clearWaitPackets(endpoint));
+    }
+
+    @Override
+    public @Nullable DatagramEndpoint getEndpoint(@NotNull SocketAddress remoteAddress) {
+        return endpoints.get(remoteAddress);
+    }
+
+    @Override
+    public void setOwnerResolver(@Nullable Function<@NotNull SocketAddress, @Nullable ConnectionOwner> resolver) {
+        this.ownerResolver = resolver;
+    }
+
+    @Override
+    public @NotNull ReadablePacketRegistry getPacketRegistry() {
+        return packetRegistry;
+    }
+
+    @Override
+    public void handleReady(int readyOps) {
+
+        if ((readyOps & SelectionKey.OP_READ) != 0) {
+            receive();
+        }
+
+        if ((readyOps & SelectionKey.OP_WRITE) != 0) {
+            flush();
+        }
+    }
+
+    private void receive() {
+
+        var buffer = receiveBuffer;
+
+        for (int i = 0; i < MAX_RECEIVE_BATCH; i++) {
+
+            SocketAddress remoteAddress;
+
+            buffer.clear();
+            try {
+                remoteAddress = channel.receive(buffer);
+            } catch (IOException e) {
+                LOGGER.warning(this, e);
+                return;
+            }
+
+            if (remoteAddress == null) {
+                return;
+            }
+
+            receivedDatagrams.increment();
+            buffer.flip();
+
+            // the datagram was truncated by the receive buffer
+            if (buffer.remaining() > maxDatagramSize) {
+                droppedDatagrams.increment();
+                continue;
+            }
+
+            var endpoint = resolveEndpoint(remoteAddress);
+
+            if (endpoint == null) {
+                droppedDatagrams.increment();
+                continue;
+            }
+
+            try {
+                readDatagram(endpoint, buffer);
+            } catch (RuntimeException e) {
+                droppedDatagrams.increment();
+                LOGGER.warning(this, new Exception("incorrect datagram from " + remoteAddress, e));
+            }
+        }
+    }
+
+    private @Nullable DefaultDatagramEndpoint resolveEndpoint(@NotNull SocketAddress remoteAddress) {
+
+        var endpoint = endpoints.get(remoteAddress);
+
+        if (endpoint == null) {
+
+            var resolver = ownerResolver;
+            var owner = resolver == null ? null : resolver.apply(remoteAddress);
+
+            if (owner == null) {
+                return null;
+            }
+
+            endpoint = (DefaultDatagramEndpoint) register(owner, remoteAddress);
+        }
+
+        // the connection of the owner is closed, so the owner doesn't handle packets anymore
+        if (endpoint.getOwner().getConnection().isClosed()) {
+            endpoint.close();
+            return null;
+        }
+
+        return endpoint;
+    }
+
+    private void readDatagram(@NotNull DefaultDatagramEndpoint endpoint, @NotNull ByteBuffer buffer) {
+
+        int sequence = 0;
+
+        if (sequencing) {
+
+            if (buffer.remaining() < Integer.BYTES) {
+                droppedDatagrams.increment();
+                return;
+            }
+
+            sequence = buffer.getInt();
+        }
+
+        if (buffer.remaining() < Short.BYTES) {
+            droppedDatagrams.increment();
+            return;
+        }
+
+        int packetId = buffer.getShort() & 0xFFFF;
+
+        if (sequencing && !endpoint.acceptSequence(packetId, sequence)) {
+            return;
+        }
+
+        ReadablePacket packet = packetRegistry.takeById(packetId);
+        try {
+            endpoint.getOwner().readPacket(packet, buffer);
+        } finally {
+            if (packet instanceof ReusableReadablePacket) {
+                ((ReusableReadablePacket) packet).release();
+            }
+        }
+    }
+
+    /**
+     * Schedule sending waited packets of the endpoint.
+     *
+     * @param endpoint the endpoint.
+     */
+    void scheduleFlush(@NotNull DefaultDatagramEndpoint endpoint) {
+
+        flushEndpoints.offer(endpoint);
+
+        if (flushScheduled.compareAndSet(false, true)) {
+            eventLoop.execute(flushTask);
+        }
+    }
+
+    private void flush() {
+
+        flushScheduled.set(false);
+
+        if (pendingDatagram && !sendPendingDatagram()) {
+            return;
+        }
+
+        for (int sent = 0; sent < MAX_SEND_BATCH; ) {
+
+            var endpoint = flushingEndpoint;
+
+            if (endpoint == null) {
+
+                endpoint = flushEndpoints.poll();
+
+                if (endpoint == null) {
+                    return;
+                }
+
+                // the endpoint will be scheduled again by a packet which is added after this point
+                endpoint.resetScheduled();
+                flushingEndpoint = endpoint;
+            }
+
+            var packet = endpoint.pollWaitPacket();
+
+            if (packet == null) {
+                flushingEndpoint = null;
+                continue;
+            }
+
+            if (!writeDatagram(endpoint, packet)) {
+                continue;
+            }
+
+            sent++;
+
+            if (!sendPendingDatagram()) {
+                return;
+            }
+        }
+
+        // the rest of waited packets will be sent by the next select cycle
+        if (flushScheduled.compareAndSet(false, true)) {
+            eventLoop.execute(flushTask);
+        }
+    }
+
+    private boolean writeDatagram(@NotNull DefaultDatagramEndpoint endpoint, @NotNull WritablePacket packet) {
+
+        var buffer = sendBuffer;
+        buffer.clear();
+
+        try {
+
+            if (endpoint.isClosed()) {
+                return false;
+            }
+
+            if (packet.getExpectedLength() > maxDatagramSize) {
+                droppedDatagrams.increment();
+                LOGGER.warning(this, "the packet " + packet + " is too large for a datagram");
+                return false;
+            }
+
+            if (sequencing) {
+                buffer.putInt(endpoint.nextSequence());
+            }
+
+            try {
+                packet.write(buffer);
+            } catch (BufferOverflowException e) {
+                droppedDatagrams.increment();
+                LOGGER.warning(this, "the packet " + packet + " is too large for a datagram");
+                return false;
+            }
+
+            // overflowing of the send buffer stops writing after the max datagram size
+            if (buffer.position() > maxDatagramSize) {
+                droppedDatagrams.increment();
+                LOGGER.warning(this, "the packet " + packet + " is too large for a datagram");
+                return false;
+            }
+
+        } finally {
+            if (packet instanceof ReusableWritablePacket) {
+                ((ReusableWritablePacket) packet).complete();
+            }
+        }
+
+        buffer.flip();
+        pendingDatagram = true;
+
+        return true;
+    }
+
+    private boolean sendPendingDatagram() {
+
+        var endpoint = flushingEndpoint;
+
+        if (endpoint == null || endpoint.isClosed()) {
+            pendingDatagram = false;
+            return true;
+        }
+
+        try {
+
+            if (channel.send(sendBuffer, endpoint.getRemoteAddress()) == 0) {
+                setWriteInterest(true);
+                return false;
+            }
+
+            sentDatagrams.increment();
+
+        } catch (IOException e) {
+            droppedDatagrams.increment();
+            LOGGER.warning(this, new Exception("incorrect send to " + endpoint.getRemoteAddress(), e));
+        }
+
+        pendingDatagram = false;
+        setWriteInterest(false);
+
+        return true;
+    }
+
+    private void setWriteInterest(boolean enabled) {
+
+        var key = selectionKey;
+
+        if (key == null || !key.isValid()) {
+            return;
+        }
+
+        int ops = key.interestOps();
+        int newOps = enabled ? ops | SelectionKey.OP_WRITE : ops & ~SelectionKey.OP_WRITE;
+
+        if (ops != newOps) {
+            key.interestOps(newOps);
+        }
+    }
+
+    private void clearWaitPackets(@NotNull DefaultDatagramEndpoint endpoint) {
+        for (var packet = endpoint.pollWaitPacket(); packet != null; packet = endpoint.pollWaitPacket()) {
+            if (packet instanceof ReusableWritablePacket) {
+                ((ReusableWritablePacket) packet).complete();
+            }
+        }
+    }
+
+    @Override
+    public long getReceivedDatagrams() {
+        return receivedDatagrams.sum();
+    }
+
+    @Override
+    public long getSentDatagrams() {
+        return sentDatagrams.sum();
+    }
+
+    @Override
+    public long getDroppedDatagrams() {
+        return droppedDatagrams.sum();
+    }
+
+    @Override
+    public void handleShutdown() {
+        closeChannel();
+    }
+
+    private void closeChannel() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOGGER.warning(this, e);
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        // the channel isn't registered in the event loop if it wasn't bound
+        closeChannel();
+        eventLoop.shutdown();
+    }
+
+    @Override
+    public String toString() {
+        return "DefaultDatagramNetwork{" + "localAddress=" + getLocalAddress() + ", endpoints=" + endpoints.size() +
+                ", received=" + receivedDatagrams + ", sent=" + sentDatagrams + ", dropped=" + droppedDatagrams + '}';
+    }
+}
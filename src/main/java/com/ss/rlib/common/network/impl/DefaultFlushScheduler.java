@@ -0,0 +1,130 @@
+package com.ss.rlib.common.network.impl;
+
+import com.ss.rlib.common.logging.Logger;
+import com.ss.rlib.common.logging.LoggerManager;
+import com.ss.rlib.common.network.AsyncConnection;
+import com.ss.rlib.common.network.FlushScheduler;
+import com.ss.rlib.common.network.NetworkConfig;
+import com.ss.rlib.common.util.queue.MpscChunkedQueue;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The implementation of {@link FlushScheduler} which flushes scheduled connections by ticks of the flush delay. A tick
+ * starts when the first connection is scheduled and flushes all connections which were scheduled before its end, so
+ * a connection waits not longer than the delay and all connections of a burst are flushed together.
+ * <p>
+ * The scheduler is served by its own daemon thread which sleeps while there are no scheduled connections.
+ *
+ * @author JavaSaBr
+ */
+public class DefaultFlushScheduler implements FlushScheduler, Runnable {
+
+    protected static final Logger LOGGER = LoggerManager.getLogger(FlushScheduler.class);
+
+    /**
+     * The scheduled connections.
+     */
+    @NotNull
+    private final MpscChunkedQueue<AsyncConnection> scheduled;
+
+    /**
+     * The thread of the scheduler.
+     */
+    @NotNull
+    private final Thread thread;
+
+    /**
+     * The flush delay in nanoseconds.
+     */
+    private final long delay;
+
+    /**
+     * The flag of sleeping without scheduled connections.
+     */
+    private volatile boolean sleeping;
+
+    /**
+     * The flag of working.
+     */
+    private volatile boolean running;
+
+    public DefaultFlushScheduler(@NotNull NetworkConfig config) {
+        this.scheduled = new MpscChunkedQueue<>();
+        this.delay = TimeUnit.MICROSECONDS.toNanos(Math.max(config.getFlushDelay(), 1));
+        this.running = true;
+        this.thread = new Thread(this, config.getGroupName() + "Flush");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    @Override
+    public void schedule(@NotNull AsyncConnection connection) {
+
+        scheduled.offer(connection);
+
+        // the offer ends by a lazy store, so without the fence the flag can be read before the connection is visible
+        // to the sleeping thread and its wakeup is lost
+        VarHandle.fullFence();
+
+        if (sleeping) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    @Override
+    public void run() {
+
+        while (running) {
+
+            if (scheduled.isEmpty()) {
+
+                sleeping = true;
+
+                // a connection could be scheduled before the flag was set
+                if (scheduled.isEmpty()) {
+                    LockSupport.park(this);
+                }
+
+                sleeping = false;
+                continue;
+            }
+
+            long deadline = System.nanoTime() + delay;
+
+            for (long time = delay; time > 0 && running; time = deadline - System.nanoTime()) {
+                LockSupport.parkNanos(this, time);
+            }
+
+            // connections which are scheduled during flushing wait for the next tick
+            for (int count = scheduled.size(); count > 0; count--) {
+
+                AsyncConnection connection = scheduled.poll();
+
+                if (connection == null) {
+                    break;
+                }
+
+                try {
+                    connection.flush();
+                } catch (Exception e) {
+                    LOGGER.warning(this, e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+
+    @Override
+    public String toString() {
+        return "DefaultFlushScheduler{" + "scheduled=" + scheduled.size() + ", delay=" + delay + '}';
+    }
+}
@@ -0,0 +1,282 @@
+package com.ss.rlib.common.network.impl;
+
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import com.ss.rlib.common.network.NetworkConfig;
+import com.ss.rlib.common.network.PacketCompressor;
+import com.ss.rlib.common.network.metrics.CompressionStats;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * The implementation of {@link PacketCompressor} based on {@link Deflater} and {@link Inflater}. Each thread reuses
+ * its own deflater, inflater and temporary arrays, so compressing doesn't allocate anything after warming up.
+ * <p>
+ * Compressed frame data has the format: the flags byte, the length of packet data (4 bytes) and deflated packet data.
+ *
+ * @author JavaSaBr
+ */
+public class DeflatePacketCompressor implements PacketCompressor {
+
+    /**
+     * The size of the length of packet data in compressed frame data.
+     */
+    private static final int LENGTH_SIZE = 4;
+
+    /**
+     * The compressing state of a thread.
+     */
+    private final class Context {
+
+        /**
+         * The deflater.
+         */
+        @NotNull
+        private final Deflater deflater;
+
+        /**
+         * The inflater.
+         */
+        @NotNull
+        private final Inflater inflater;
+
+        /**
+         * The array to copy data of direct buffers.
+         */
+        @NotNull
+        private byte[] input;
+
+        /**
+         * The array to deflate data.
+         */
+        @NotNull
+        private byte[] output;
+
+        /**
+         * The buffer to inflate data.
+         */
+        @NotNull
+        private ByteBuffer inflated;
+
+        private Context() {
+            this.deflater = new Deflater(level);
+            this.inflater = new Inflater();
+            this.input = new byte[0];
+            this.output = new byte[0];
+            this.inflated = ByteBuffer.allocate(0).order(LITTLE_ENDIAN);
+        }
+
+        private @NotNull byte[] input(int length) {
+
+            if (input.length < length) {
+                input = new byte[length];
+            }
+
+            return input;
+        }
+
+        private @NotNull byte[] output(int length) {
+
+            if (output.length < length) {
+                output = new byte[length];
+            }
+
+            return output;
+        }
+
+        private @NotNull ByteBuffer inflated(int length) {
+
+            if (inflated.capacity() < length) {
+                inflated = ByteBuffer.allocate(length).order(LITTLE_ENDIAN);
+            }
+
+            inflated.clear();
+
+            return inflated;
+        }
+    }
+
+    /**
+     * The compressing states of threads.
+     */
+    @NotNull
+    private final ThreadLocal<Context> contexts;
+
+    /**
+     * The statistics of compressing by names of packets.
+     */
+    @NotNull
+    private final ConcurrentMap<String, CompressionStats> compressionStats;
+
+    /**
+     * The statistics of decompressing.
+     */
+    @NotNull
+    private final CompressionStats decompressionStats;
+
+    /**
+     * The min length of packet data to compress.
+     */
+    private final int threshold;
+
+    /**
+     * The max length of packet data.
+     */
+    private final int maxPacketSize;
+
+    /**
+     * The compression level.
+     */
+    private final int level;
+
+    public DeflatePacketCompressor(@NotNull NetworkConfig config) {
+        this.threshold = config.getCompressionThreshold();
+        this.maxPacketSize = config.getMaxPacketSize();
+        this.level = config.getCompressionLevel();
+        this.contexts = ThreadLocal.withInitial(Context::new);
+        this.compressionStats = new ConcurrentHashMap<>();
+        this.decompressionStats = new CompressionStats();
+    }
+
+    @Override
+    public void compress(@NotNull String packetName, @NotNull ByteBuffer buffer, int dataOffset) {
+
+        int start = dataOffset + getReservedBytes();
+        int length = buffer.limit() - start;
+
+        if (length < threshold) {
+            buffer.put(dataOffset, FLAG_RAW);
+            return;
+        }
+
+        long begin = System.nanoTime();
+
+        Context context = contexts.get();
+
+        byte[] input;
+        int inputOffset;
+
+        if (buffer.hasArray()) {
+            input = buffer.array();
+            inputOffset = buffer.arrayOffset() + start;
+        } else {
+            input = context.input(length);
+            inputOffset = 0;
+            buffer.position(start);
+            buffer.get(input, 0, length);
+        }
+
+        Deflater deflater = context.deflater;
+        deflater.reset();
+        deflater.setInput(input, inputOffset, length);
+        deflater.finish();
+
+        // compressed data is useful only if it's smaller than packet data with the length
+        int maxCompressed = length - LENGTH_SIZE - 1;
+        byte[] output = context.output(Math.max(maxCompressed, 1));
+        int compressed = maxCompressed > 0 ? deflater.deflate(output, 0, maxCompressed) : 0;
+
+        CompressionStats stats = compressionStats.computeIfAbsent(packetName, name -> new CompressionStats());
+
+        if (maxCompressed < 1 || !deflater.finished()) {
+            buffer.put(dataOffset, FLAG_RAW);
+            buffer.position(0);
+            stats.onSkipped(System.nanoTime() - begin);
+            return;
+        }
+
+        buffer.put(dataOffset, FLAG_COMPRESSED);
+        buffer.position(start);
+        buffer.putInt(length);
+        buffer.put(output, 0, compressed);
+        buffer.flip();
+
+        stats.onCompressed(length, compressed, System.nanoTime() - begin);
+    }
+
+    @Override
+    public @NotNull ByteBuffer decompress(@NotNull ByteBuffer buffer) {
+
+        byte flags = buffer.get();
+
+        if (flags == FLAG_RAW) {
+            return buffer;
+        } else if (flags != FLAG_COMPRESSED) {
+            throw new IllegalStateException("Unknown flags " + flags + " of frame data.");
+        } else if (buffer.remaining() < LENGTH_SIZE) {
+            throw new IllegalStateException("Not found the length of compressed data.");
+        }
+
+        long begin = System.nanoTime();
+
+        int length = buffer.getInt();
+
+        if (length < 1 || length > maxPacketSize) {
+            throw new IllegalStateException("Wrong length " + length + " of compressed data.");
+        }
+
+        Context context = contexts.get();
+
+        int compressed = buffer.remaining();
+
+        byte[] input;
+        int inputOffset;
+
+        if (buffer.hasArray()) {
+            input = buffer.array();
+            inputOffset = buffer.arrayOffset() + buffer.position();
+        } else {
+            input = context.input(compressed);
+            inputOffset = 0;
+            buffer.get(input, 0, compressed);
+        }
+
+        ByteBuffer inflated = context.inflated(length);
+
+        Inflater inflater = context.inflater;
+        inflater.reset();
+        inflater.setInput(input, inputOffset, compressed);
+
+        try {
+
+            int result = inflater.inflate(inflated.array(), inflated.arrayOffset(), length);
+
+            if (result != length || !inflater.finished()) {
+                throw new IllegalStateException("Wrong compressed data, expected " + length + " bytes, but was " +
+                        result);
+            }
+
+        } catch (DataFormatException e) {
+            throw new IllegalStateException(e);
+        }
+
+        inflated.limit(length);
+
+        decompressionStats.onCompressed(length, compressed, System.nanoTime() - begin);
+
+        return inflated;
+    }
+
+    @Override
+    public @NotNull Map<String, CompressionStats> getCompressionStats() {
+        return Collections.unmodifiableMap(compressionStats);
+    }
+
+    @Override
+    public @NotNull CompressionStats getDecompressionStats() {
+        return decompressionStats;
+    }
+
+    @Override
+    public String toString() {
+        return "DeflatePacketCompressor{" + "threshold=" + threshold + ", level=" + level + ", compressionStats=" +
+                compressionStats + ", decompressionStats=" + decompressionStats + '}';
+    }
+}
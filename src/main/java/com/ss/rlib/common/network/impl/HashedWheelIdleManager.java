@@ -0,0 +1,299 @@
+package com.ss.rlib.common.network.impl;
+
+import com.ss.rlib.common.logging.Logger;
+import com.ss.rlib.common.logging.LoggerManager;
+import com.ss.rlib.common.network.AsyncConnection;
+import com.ss.rlib.common.network.ConnectionOwner;
+import com.ss.rlib.common.network.IdleManager;
+import com.ss.rlib.common.network.IdleState;
+import com.ss.rlib.common.network.NetworkConfig;
+import com.ss.rlib.common.util.CoarseClock;
+import com.ss.rlib.common.util.queue.MpscChunkedQueue;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The implementation of {@link IdleManager} based on a hashed timing wheel. Each connection is placed to the bucket of
+ * the tick when it can become idle, so one tick checks only connections of one bucket instead of all connections.
+ * Connections don't touch the wheel on reading and writing, they only update their activity times and the wheel moves
+ * a not idle connection to the bucket of its new deadline when the old deadline comes.
+ * <p>
+ * The wheel is served by its own daemon thread, so callbacks of idleness are called by this thread.
+ *
+ * @author JavaSaBr
+ */
+public class HashedWheelIdleManager implements IdleManager, Runnable {
+
+    protected static final Logger LOGGER = LoggerManager.getLogger(IdleManager.class);
+
+    /**
+     * The count of buckets of the wheel.
+     */
+    private static final int WHEEL_SIZE = 512;
+
+    /**
+     * The entry of a tracked connection.
+     */
+    private static final class Entry {
+
+        /**
+         * The connection.
+         */
+        @NotNull
+        private final AsyncConnection connection;
+
+        /**
+         * The count of full turns of the wheel before the deadline.
+         */
+        private long rounds;
+
+        /**
+         * The next entry in the same bucket.
+         */
+        @Nullable
+        private Entry next;
+
+        private Entry(@NotNull AsyncConnection connection) {
+            this.connection = connection;
+        }
+    }
+
+    /**
+     * The buckets of the wheel, they are accessed only by the thread of the wheel.
+     */
+    @NotNull
+    private final Entry[] wheel;
+
+    /**
+     * The just registered entries.
+     */
+    @NotNull
+    private final MpscChunkedQueue<Entry> registered;
+
+    /**
+     * The count of tracked connections.
+     */
+    @NotNull
+    private final AtomicInteger size;
+
+    /**
+     * The thread of the wheel.
+     */
+    @NotNull
+    private final Thread thread;
+
+    /**
+     * The duration of a tick in ms.
+     */
+    private final long tickDuration;
+
+    /**
+     * The read idle timeout in ms.
+     */
+    private final long readIdleTimeout;
+
+    /**
+     * The write idle timeout in ms.
+     */
+    private final long writeIdleTimeout;
+
+    /**
+     * The all idle timeout in ms.
+     */
+    private final long allIdleTimeout;
+
+    /**
+     * The current tick.
+     */
+    private long tick;
+
+    /**
+     * The flag of working.
+     */
+    private volatile boolean running;
+
+    public HashedWheelIdleManager(@NotNull NetworkConfig config) {
+        this.wheel = new Entry[WHEEL_SIZE];
+        this.registered = new MpscChunkedQueue<>();
+        this.size = new AtomicInteger();
+        this.tickDuration = Math.max(config.getIdleCheckInterval(), 1);
+        this.readIdleTimeout = config.getReadIdleTimeout();
+        this.writeIdleTimeout = config.getWriteIdleTimeout();
+        this.allIdleTimeout = config.getAllIdleTimeout();
+        this.running = true;
+        this.thread = new Thread(this, config.getGroupName() + "Idle");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    @Override
+    public void register(@NotNull AsyncConnection connection) {
+        size.incrementAndGet();
+        registered.offer(new Entry(connection));
+    }
+
+    @Override
+    public int size() {
+        return size.get();
+    }
+
+    @Override
+    public void run() {
+
+        long startTime = System.currentTimeMillis();
+
+        while (running) {
+
+            long sleepTime = startTime + (tick + 1) * tickDuration - System.currentTimeMillis();
+
+            if (sleepTime > 0) {
+                try {
+                    Thread.sleep(sleepTime);
+                } catch (InterruptedException e) {
+                    continue;
+                }
+            }
+
+            tick++;
+
+            long now = CoarseClock.currentTimeMillis();
+
+            for (Entry entry = registered.poll(); entry != null; entry = registered.poll()) {
+                check(entry, now);
+            }
+
+            processBucket(now);
+        }
+    }
+
+    /**
+     * Process entries of the bucket of the current tick.
+     *
+     * @param now the current time.
+     */
+    private void processBucket(long now) {
+
+        int index = (int) (tick & (WHEEL_SIZE - 1));
+
+        // the bucket is detached, because entries can be scheduled to the same bucket again
+        Entry entry = wheel[index];
+        wheel[index] = null;
+
+        while (entry != null) {
+
+            Entry next = entry.next;
+            entry.next = null;
+
+            if (entry.rounds > 0) {
+                entry.rounds--;
+                add(index, entry);
+            } else {
+                check(entry, now);
+            }
+
+            entry = next;
+        }
+    }
+
+    /**
+     * Check idleness of the connection of the entry and schedule the next check.
+     *
+     * @param entry the entry.
+     * @param now   the current time.
+     */
+    private void check(@NotNull Entry entry, long now) {
+
+        AsyncConnection connection = entry.connection;
+
+        long deadline = Long.MAX_VALUE;
+
+        if (allIdleTimeout > 0) {
+            deadline = Math.min(deadline, check(connection, IdleState.ALL_IDLE,
+                    connection.getLastActivity(), allIdleTimeout, now));
+        }
+
+        if (readIdleTimeout > 0) {
+            deadline = Math.min(deadline, check(connection, IdleState.READER_IDLE,
+                    connection.getLastReadTime(), readIdleTimeout, now));
+        }
+
+        if (writeIdleTimeout > 0) {
+            deadline = Math.min(deadline, check(connection, IdleState.WRITER_IDLE,
+                    connection.getLastWriteTime(), writeIdleTimeout, now));
+        }
+
+        if (connection.isClosed() || deadline == Long.MAX_VALUE) {
+            size.decrementAndGet();
+            return;
+        }
+
+        long ticks = Math.max((deadline - now + tickDuration - 1) / tickDuration, 1);
+
+        entry.rounds = (ticks - 1) / WHEEL_SIZE;
+
+        add((int) ((tick + ticks) & (WHEEL_SIZE - 1)), entry);
+    }
+
+    /**
+     * Check idleness of the connection and notify its owner if it's idle.
+     *
+     * @param connection   the connection.
+     * @param state        the kind of idleness.
+     * @param lastActivity the time of last activity of this kind.
+     * @param timeout      the timeout of this kind.
+     * @param now          the current time.
+     * @return the time of the next check.
+     */
+    private long check(
+            @NotNull AsyncConnection connection,
+            @NotNull IdleState state,
+            long lastActivity,
+            long timeout,
+            long now
+    ) {
+
+        long deadline = lastActivity + timeout;
+
+        if (deadline > now) {
+            return deadline;
+        }
+
+        ConnectionOwner owner = connection.getOwner();
+
+        if (owner != null && !connection.isClosed()) {
+            try {
+                owner.onIdle(state);
+            } catch (Exception e) {
+                LOGGER.warning(this, e);
+            }
+        }
+
+        return now + timeout;
+    }
+
+    /**
+     * Add the entry to the bucket.
+     *
+     * @param index the index of the bucket.
+     * @param entry the entry.
+     */
+    private void add(int index, @NotNull Entry entry) {
+        entry.next = wheel[index];
+        wheel[index] = entry;
+    }
+
+    @Override
+    public void shutdown() {
+        running = false;
+        thread.interrupt();
+    }
+
+    @Override
+    public String toString() {
+        return "HashedWheelIdleManager{" + "size=" + size + ", tickDuration=" + tickDuration + ", readIdleTimeout=" +
+                readIdleTimeout + ", writeIdleTimeout=" + writeIdleTimeout + ", allIdleTimeout=" + allIdleTimeout +
+                '}';
+    }
+}
@@ -0,0 +1,55 @@
+package com.ss.rlib.common.network.impl;
+
+import com.ss.rlib.common.network.FrameCodec;
+import com.ss.rlib.common.network.FrameException;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The implementation of {@link FrameCodec} with 4 bytes headers which contain the full frame size.
+ *
+ * @author JavaSaBr
+ */
+public class IntFrameCodec implements FrameCodec {
+
+    private static final int HEADER_SIZE = 4;
+
+    @Override
+    public int getMaxHeaderSize() {
+        return HEADER_SIZE;
+    }
+
+    @Override
+    public int getMaxDataLength() {
+        return Integer.MAX_VALUE - HEADER_SIZE;
+    }
+
+    @Override
+    public int readDataLength(@NotNull ByteBuffer buffer) {
+
+        if (buffer.remaining() < HEADER_SIZE) {
+            return NOT_ENOUGH_DATA;
+        }
+
+        int size = buffer.getInt();
+
+        if (size < HEADER_SIZE) {
+            throw new FrameException("Incorrect frame size " + size);
+        }
+
+        return size - HEADER_SIZE;
+    }
+
+    @Override
+    public int writeHeader(@NotNull ByteBuffer buffer, int dataOffset, int dataLength) {
+        int offset = dataOffset - HEADER_SIZE;
+        buffer.putInt(offset, dataLength + HEADER_SIZE);
+        return offset;
+    }
+
+    @Override
+    public String toString() {
+        return "IntFrameCodec";
+    }
+}
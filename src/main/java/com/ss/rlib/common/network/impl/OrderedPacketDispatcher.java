@@ -0,0 +1,206 @@
+package com.ss.rlib.common.network.impl;
+
+import com.ss.rlib.common.concurrent.GroupThreadFactory;
+import com.ss.rlib.common.logging.Logger;
+import com.ss.rlib.common.logging.LoggerManager;
+import com.ss.rlib.common.network.NetworkConfig;
+import com.ss.rlib.common.network.PacketDispatcher;
+import com.ss.rlib.common.util.queue.MpscChunkedQueue;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The implementation of {@link PacketDispatcher} based on a fixed pool of worker threads. A mailbox is scheduled to a
+ * worker only when it has tasks and only one worker executes tasks of the same mailbox at the same time. A worker
+ * executes a limited count of tasks of the mailbox at once to not starve other mailboxes.
+ *
+ * @author JavaSaBr
+ */
+public class OrderedPacketDispatcher implements PacketDispatcher {
+
+    protected static final Logger LOGGER = LoggerManager.getLogger(PacketDispatcher.class);
+
+    /**
+     * The max count of tasks which a worker executes from a mailbox before switching to other mailboxes.
+     */
+    private static final int MAX_TASKS_BY_RUN = 32;
+
+    /**
+     * The serial mailbox of a connection.
+     */
+    private final class Mailbox implements Executor, Runnable {
+
+        /**
+         * The waiting tasks.
+         */
+        @NotNull
+        private final MpscChunkedQueue<Runnable> tasks;
+
+        /**
+         * The flag of scheduling this mailbox to a worker.
+         */
+        @NotNull
+        private final AtomicBoolean scheduled;
+
+        private Mailbox() {
+            this.tasks = new MpscChunkedQueue<>();
+            this.scheduled = new AtomicBoolean();
+        }
+
+        @Override
+        public void execute(@NotNull Runnable task) {
+            queueSize.increment();
+            tasks.offer(task);
+            schedule();
+        }
+
+        /**
+         * Schedule this mailbox to a worker if it isn't scheduled yet.
+         */
+        private void schedule() {
+
+            if (!scheduled.compareAndSet(false, true)) {
+                return;
+            }
+
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                LOGGER.warning(OrderedPacketDispatcher.this, "can't handle packets after shutdown");
+                scheduled.set(false);
+            }
+        }
+
+        @Override
+        public void run() {
+
+            for (int i = 0; i < MAX_TASKS_BY_RUN; i++) {
+
+                Runnable task = tasks.poll();
+
+                if (task == null) {
+                    break;
+                }
+
+                queueSize.decrement();
+                handle(task);
+            }
+
+            scheduled.set(false);
+
+            // a task could be added after the last poll, but before resetting the flag
+            if (!tasks.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+
+    /**
+     * The worker threads.
+     */
+    @NotNull
+    protected final ExecutorService executor;
+
+    /**
+     * The count of waiting tasks.
+     */
+    @NotNull
+    protected final LongAdder queueSize;
+
+    /**
+     * The count of handled tasks.
+     */
+    @NotNull
+    protected final LongAdder handledCount;
+
+    /**
+     * The total time of handling tasks in nanoseconds.
+     */
+    @NotNull
+    protected final LongAdder totalHandleTime;
+
+    /**
+     * The max time of handling a task in nanoseconds.
+     */
+    @NotNull
+    protected final AtomicLong maxHandleTime;
+
+    public OrderedPacketDispatcher(@NotNull NetworkConfig config) {
+        this.executor = Executors.newFixedThreadPool(config.getDispatchThreads(),
+                new GroupThreadFactory(config.getGroupName() + "Dispatch", config.getThreadClass(),
+                        config.getThreadPriority()));
+        this.queueSize = new LongAdder();
+        this.handledCount = new LongAdder();
+        this.totalHandleTime = new LongAdder();
+        this.maxHandleTime = new AtomicLong();
+    }
+
+    @Override
+    public @NotNull Executor newMailbox() {
+        return new Mailbox();
+    }
+
+    /**
+     * Handle the task and update statistics.
+     *
+     * @param task the task.
+     */
+    protected void handle(@NotNull Runnable task) {
+
+        long start = System.nanoTime();
+        try {
+            task.run();
+        } catch (Exception e) {
+            LOGGER.warning(this, e);
+        }
+
+        long time = System.nanoTime() - start;
+
+        handledCount.increment();
+        totalHandleTime.add(time);
+
+        long max = maxHandleTime.get();
+
+        while (time > max && !maxHandleTime.compareAndSet(max, time)) {
+            max = maxHandleTime.get();
+        }
+    }
+
+    @Override
+    public long getQueueSize() {
+        return queueSize.sum();
+    }
+
+    @Override
+    public long getHandledCount() {
+        return handledCount.sum();
+    }
+
+    @Override
+    public long getTotalHandleTime() {
+        return totalHandleTime.sum();
+    }
+
+    @Override
+    public long getMaxHandleTime() {
+        return maxHandleTime.get();
+    }
+
+    @Override
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public String toString() {
+        return "OrderedPacketDispatcher{" + "queueSize=" + getQueueSize() + ", handledCount=" + getHandledCount() +
+                ", averageHandleTime=" + getAverageHandleTime() + ", maxHandleTime=" + getMaxHandleTime() + '}';
+    }
+}
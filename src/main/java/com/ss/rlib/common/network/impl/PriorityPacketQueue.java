@@ -0,0 +1,185 @@
+package com.ss.rlib.common.network.impl;
+
+import com.ss.rlib.common.network.packet.PacketPriority;
+import com.ss.rlib.common.network.packet.WritablePacket;
+import com.ss.rlib.common.util.queue.MpscChunkedQueue;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.Predicate;
+
+/**
+ * The send queue of a connection with a lane for each {@link PacketPriority}. Packets are taken from the highest not
+ * empty lane, but when packets of a lower lane have waited for the max burst of packets of higher lanes, one packet of
+ * the lower lane is taken, so bulk transfers aren't starved by a steady stream of high priority packets.
+ * <p>
+ * Packets can be offered by many threads, but they should be taken only by the thread which holds the writing state.
+ *
+ * @author JavaSaBr
+ */
+public final class PriorityPacketQueue {
+
+    private static final PacketPriority[] PRIORITIES = PacketPriority.values();
+
+    /**
+     * The lanes by ordinals of priorities.
+     */
+    @NotNull
+    private final MpscChunkedQueue<WritablePacket>[] lanes;
+
+    /**
+     * The counts of packets which were taken from higher lanes while the lanes were waiting.
+     */
+    @NotNull
+    private final int[] skipped;
+
+    /**
+     * The max count of packets of higher lanes in a row.
+     */
+    private final int maxBurst;
+
+    public PriorityPacketQueue(int maxBurst) {
+        this.lanes = newLanes(PRIORITIES.length);
+        this.skipped = new int[PRIORITIES.length];
+        this.maxBurst = Math.max(maxBurst, 1);
+
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new MpscChunkedQueue<>();
+        }
+    }
+
+    // an array of a generic type can't be created, so the array of lanes is created raw
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static @NotNull MpscChunkedQueue<WritablePacket>[] newLanes(int size) {
+        return new MpscChunkedQueue[size];
+    }
+
+    /**
+     * Add the packet to the lane of its priority.
+     *
+     * @param packet the packet.
+     */
+    public void offer(@NotNull WritablePacket packet) {
+        lanes[packet.getPriority().ordinal()].offer(packet);
+    }
+
+    /**
+     * Take the next packet.
+     *
+     * @return the next packet or null.
+     */
+    public @Nullable WritablePacket poll() {
+
+        // the lowest starved lane goes first
+        for (int i = lanes.length - 1; i > 0; i--) {
+
+            if (skipped[i] < maxBurst) {
+                continue;
+            }
+
+            WritablePacket packet = lanes[i].poll();
+
+            if (packet != null) {
+                return taken(i, packet);
+            }
+
+            skipped[i] = 0;
+        }
+
+        for (int i = 0; i < lanes.length; i++) {
+
+            WritablePacket packet = lanes[i].poll();
+
+            if (packet != null) {
+                return taken(i, packet);
+            }
+        }
+
+        return null;
+    }
+
+    private @NotNull WritablePacket taken(int lane, @NotNull WritablePacket packet) {
+
+        skipped[lane] = 0;
+
+        for (int i = lane + 1; i < lanes.length; i++) {
+            skipped[i] = lanes[i].isEmpty() ? 0 : skipped[i] + 1;
+        }
+
+        return packet;
+    }
+
+    /**
+     * Remove the first packet which matches the condition, lower lanes are checked first.
+     *
+     * @param condition the condition.
+     * @return the removed packet or null.
+     */
+    public @Nullable WritablePacket removeFirst(@NotNull Predicate<? super WritablePacket> condition) {
+
+        for (int i = lanes.length - 1; i >= 0; i--) {
+
+            WritablePacket packet = lanes[i].removeFirst(condition);
+
+            if (packet != null) {
+                return packet;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Return true if this queue doesn't have visible packets.
+     *
+     * @return true if this queue is empty.
+     */
+    public boolean isEmpty() {
+
+        for (MpscChunkedQueue<WritablePacket> lane : lanes) {
+            if (!lane.isEmpty()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Get the approximate count of packets in this queue.
+     *
+     * @return the count of packets.
+     */
+    public int size() {
+
+        int size = 0;
+
+        for (MpscChunkedQueue<WritablePacket> lane : lanes) {
+            size += lane.size();
+        }
+
+        return size;
+    }
+
+    /**
+     * Get the approximate count of packets of the priority.
+     *
+     * @param priority the priority.
+     * @return the count of packets of the priority.
+     */
+    public int size(@NotNull PacketPriority priority) {
+        return lanes[priority.ordinal()].size();
+    }
+
+    @Override
+    public String toString() {
+
+        var builder = new StringBuilder("PriorityPacketQueue{");
+
+        for (int i = 0; i < lanes.length; i++) {
+            builder.append(i == 0 ? "" : ", ").append(PRIORITIES[i]).append('=').append(lanes[i].size());
+        }
+
+        return builder.append('}').toString();
+    }
+}
@@ -0,0 +1,97 @@
+package com.ss.rlib.common.network.impl;
+
+import com.ss.rlib.common.network.ReadRateLimit;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The token buckets of packets and bytes which limit reading of a connection. Read packets and bytes are taken from
+ * the buckets after each read, so the buckets can go to debt and the next read is delayed until the debt is repaid.
+ * <p>
+ * The limiter isn't thread safe, but a connection uses it only from the thread which handles the current read.
+ *
+ * @author JavaSaBr
+ */
+public final class ReadRateLimiter {
+
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * The rate of packets per nanosecond or 0.
+     */
+    private final double packetRate;
+
+    /**
+     * The rate of bytes per nanosecond or 0.
+     */
+    private final double byteRate;
+
+    /**
+     * The max count of tokens of packets.
+     */
+    private final double packetCapacity;
+
+    /**
+     * The max count of tokens of bytes.
+     */
+    private final double byteCapacity;
+
+    /**
+     * The current tokens of packets.
+     */
+    private double packetTokens;
+
+    /**
+     * The current tokens of bytes.
+     */
+    private double byteTokens;
+
+    /**
+     * The time of the last refill in nanoseconds.
+     */
+    private long lastTime;
+
+    public ReadRateLimiter(@NotNull ReadRateLimit limit, long now) {
+        this.packetRate = limit.getPacketsPerSecond() / NANOS_PER_SECOND;
+        this.byteRate = limit.getBytesPerSecond() / NANOS_PER_SECOND;
+        this.packetCapacity = limit.getPacketsPerSecond();
+        this.byteCapacity = limit.getBytesPerSecond();
+        this.packetTokens = packetCapacity;
+        this.byteTokens = byteCapacity;
+        this.lastTime = now;
+    }
+
+    /**
+     * Take read packets and bytes from the buckets.
+     *
+     * @param packets the count of read packets.
+     * @param bytes   the count of read bytes.
+     * @param now     the current time in nanoseconds.
+     * @return the delay in nanoseconds before the next read or 0 if the connection can read right away.
+     */
+    public long acquire(int packets, int bytes, long now) {
+
+        long elapsed = Math.max(now - lastTime, 0);
+
+        lastTime = now;
+
+        long delay = 0;
+
+        if (packetRate > 0) {
+            packetTokens = Math.min(packetTokens + elapsed * packetRate, packetCapacity) - packets;
+            delay = Math.max(delay, delayOf(packetTokens, packetRate));
+        }
+
+        if (byteRate > 0) {
+            byteTokens = Math.min(byteTokens + elapsed * byteRate, byteCapacity) - bytes;
+            delay = Math.max(delay, delayOf(byteTokens, byteRate));
+        }
+
+        return delay;
+    }
+
+    private static long delayOf(double tokens, double rate) {
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / rate);
+    }
+}
@@ -0,0 +1,162 @@
+package com.ss.rlib.common.network.impl;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The buffer to receive data from a channel and parse frames in place. Not parsed data stays where it was received
+ * and new data is appended after it, so frames are never copied while the buffer has free space at the end. Only when
+ * the free space at the end becomes smaller than the space of already parsed data, the not parsed tail is moved to the
+ * start of the buffer, which happens once per many reads instead of once per read.
+ * <p>
+ * The buffer isn't thread safe, but a connection uses it only from the thread which handles the current read.
+ *
+ * @author JavaSaBr
+ */
+public final class ReceiveBuffer {
+
+    /**
+     * The backing buffer.
+     */
+    @NotNull
+    private final ByteBuffer buffer;
+
+    /**
+     * The index of the first not parsed byte.
+     */
+    private int head;
+
+    /**
+     * The index after the last received byte.
+     */
+    private int tail;
+
+    public ReceiveBuffer(@NotNull ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Get the backing buffer.
+     *
+     * @return the backing buffer.
+     */
+    public @NotNull ByteBuffer getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * Get the count of not parsed bytes.
+     *
+     * @return the count of not parsed bytes.
+     */
+    public int size() {
+        return tail - head;
+    }
+
+    /**
+     * Get the free space after received bytes.
+     *
+     * @return the free space after received bytes.
+     */
+    public int freeSpace() {
+        return buffer.capacity() - tail;
+    }
+
+    /**
+     * Move not parsed bytes of this buffer to the start of the empty receive buffer and clear this buffer.
+     *
+     * @param target the empty receive buffer which has enough space for not parsed bytes.
+     */
+    public void moveTo(@NotNull ReceiveBuffer target) {
+
+        ByteBuffer targetBuffer = target.buffer;
+        targetBuffer.clear();
+        targetBuffer.put(prepareRead());
+
+        target.head = 0;
+        target.tail = targetBuffer.position();
+
+        clear();
+    }
+
+    /**
+     * Move not parsed bytes to the start of the backing buffer if the free space at the end is smaller than the space
+     * of already parsed data.
+     *
+     * @return true if not parsed bytes were moved.
+     */
+    public boolean compactIfNeeded() {
+
+        if (head == tail) {
+            head = 0;
+            tail = 0;
+            return false;
+        } else if (buffer.capacity() - tail >= head) {
+            return false;
+        }
+
+        buffer.limit(tail);
+        buffer.position(head);
+        buffer.compact();
+        tail -= head;
+        head = 0;
+
+        return true;
+    }
+
+    /**
+     * Prepare the backing buffer to receive data after not parsed bytes.
+     *
+     * @return the backing buffer positioned to the free space.
+     */
+    public @NotNull ByteBuffer prepareWrite() {
+
+        compactIfNeeded();
+
+        buffer.limit(buffer.capacity());
+        buffer.position(tail);
+
+        return buffer;
+    }
+
+    /**
+     * Notify this buffer about received data.
+     *
+     * @param count the count of received bytes.
+     */
+    public void commitWrite(int count) {
+        tail += count;
+    }
+
+    /**
+     * Prepare the backing buffer to parse not parsed bytes.
+     *
+     * @return the backing buffer limited by not parsed bytes.
+     */
+    public @NotNull ByteBuffer prepareRead() {
+        buffer.limit(tail);
+        buffer.position(head);
+        return buffer;
+    }
+
+    /**
+     * Mark bytes before the current position of the backing buffer as parsed.
+     */
+    public void commitRead() {
+        head = buffer.position();
+    }
+
+    /**
+     * Mark all received bytes as parsed.
+     */
+    public void clear() {
+        head = 0;
+        tail = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "ReceiveBuffer{" + "capacity=" + buffer.capacity() + ", head=" + head + ", tail=" + tail + '}';
+    }
+}
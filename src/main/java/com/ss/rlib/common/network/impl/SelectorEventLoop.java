@@ -0,0 +1,324 @@
+package com.ss.rlib.common.network.impl;
+
+import com.ss.rlib.common.logging.Logger;
+import com.ss.rlib.common.logging.LoggerManager;
+import com.ss.rlib.common.util.queue.MpscChunkedQueue;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The event loop which performs IO operations of pinned channels using a {@link Selector}. Each select cycle handles
+ * all ready channels and then runs submitted tasks, tasks which are submitted by the loop itself during the cycle are
+ * run by the same cycle, so operations which were started by handlers of ready channels are performed in a batch.
+ * Delayed tasks of the loop limit the time of waiting for ready channels.
+ *
+ * @author JavaSaBr
+ */
+final class SelectorEventLoop implements Runnable {
+
+    private static final Logger LOGGER = LoggerManager.getLogger(SelectorEventLoop.class);
+
+    /**
+     * The handler of a channel which is registered in an event loop.
+     */
+    interface Handler {
+
+        /**
+         * Handle ready operations of the channel.
+         *
+         * @param readyOps the ready operations.
+         */
+        void handleReady(int readyOps);
+
+        /**
+         * Close the channel because the event loop is stopped.
+         */
+        void handleShutdown();
+    }
+
+    /**
+     * The task which is run by the loop thread after a delay.
+     */
+    static final class ScheduledTask implements Comparable<ScheduledTask> {
+
+        /**
+         * The task.
+         */
+        @NotNull
+        private final Runnable task;
+
+        /**
+         * The time to run the task in nanoseconds.
+         */
+        private final long deadline;
+
+        private ScheduledTask(@NotNull Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public int compareTo(@NotNull ScheduledTask other) {
+            return Long.compare(deadline - other.deadline, 0);
+        }
+    }
+
+    /**
+     * The selector.
+     */
+    @NotNull
+    private final Selector selector;
+
+    /**
+     * The tasks which were submitted by other threads.
+     */
+    @NotNull
+    private final MpscChunkedQueue<Runnable> tasks;
+
+    /**
+     * The tasks which were submitted by the loop thread.
+     */
+    @NotNull
+    private final ArrayDeque<Runnable> localTasks;
+
+    /**
+     * The delayed tasks ordered by their deadlines, is used only by the loop thread.
+     */
+    @NotNull
+    private final PriorityQueue<ScheduledTask> scheduledTasks;
+
+    /**
+     * The flag of waking up the selector after the last select.
+     */
+    @NotNull
+    private final AtomicBoolean wakenUp;
+
+    /**
+     * The loop thread.
+     */
+    @NotNull
+    private final Thread thread;
+
+    /**
+     * The flag of running this loop.
+     */
+    private volatile boolean running;
+
+    SelectorEventLoop(@NotNull ThreadFactory threadFactory) throws IOException {
+        this.selector = Selector.open();
+        this.tasks = new MpscChunkedQueue<>();
+        this.localTasks = new ArrayDeque<>();
+        this.scheduledTasks = new PriorityQueue<>();
+        this.wakenUp = new AtomicBoolean();
+        this.thread = threadFactory.newThread(this);
+    }
+
+    /**
+     * Start the loop thread.
+     */
+    void start() {
+        running = true;
+        thread.start();
+    }
+
+    /**
+     * Check if the current thread is the loop thread.
+     *
+     * @return true if the current thread is the loop thread.
+     */
+    boolean inLoop() {
+        return Thread.currentThread() == thread;
+    }
+
+    /**
+     * Submit the task to run it by the loop thread.
+     *
+     * @param task the task.
+     */
+    void execute(@NotNull Runnable task) {
+
+        if (inLoop()) {
+            localTasks.add(task);
+            return;
+        }
+
+        tasks.offer(task);
+
+        if (wakenUp.compareAndSet(false, true)) {
+            selector.wakeup();
+        }
+    }
+
+    /**
+     * Register the channel in the selector, should be called only by the loop thread.
+     *
+     * @param channel the channel.
+     * @param handler the handler of the channel.
+     * @return the selection key.
+     * @throws ClosedChannelException if the channel is closed.
+     */
+    @NotNull SelectionKey register(@NotNull SelectableChannel channel, @NotNull Handler handler)
+            throws ClosedChannelException {
+        return channel.register(selector, 0, handler);
+    }
+
+    /**
+     * Schedule the task to run it by the loop thread after the delay, should be called only by the loop thread.
+     *
+     * @param task  the task.
+     * @param delay the delay in nanoseconds.
+     * @return the scheduled task to cancel it.
+     */
+    @NotNull ScheduledTask schedule(@NotNull Runnable task, long delay) {
+        var scheduled = new ScheduledTask(task, System.nanoTime() + delay);
+        scheduledTasks.add(scheduled);
+        return scheduled;
+    }
+
+    /**
+     * Cancel the scheduled task if it wasn't run yet, should be called only by the loop thread.
+     *
+     * @param scheduled the scheduled task.
+     */
+    void cancel(@NotNull ScheduledTask scheduled) {
+        scheduledTasks.remove(scheduled);
+    }
+
+    @Override
+    public void run() {
+
+        while (running) {
+            try {
+
+                ScheduledTask next = scheduledTasks.peek();
+
+                if (!tasks.isEmpty() || !localTasks.isEmpty()) {
+                    selector.selectNow();
+                } else if (next == null) {
+                    selector.select();
+                } else {
+                    selector.select(toSelectTimeout(next.deadline - System.nanoTime()));
+                }
+
+                wakenUp.set(false);
+
+                handleSelectedKeys();
+                runTasks();
+                runScheduledTasks();
+
+            } catch (Throwable e) {
+                LOGGER.warning(this, e);
+            }
+        }
+
+        for (SelectionKey key : selector.keys()) {
+            try {
+                ((Handler) key.attachment()).handleShutdown();
+            } catch (Throwable e) {
+                LOGGER.warning(this, e);
+            }
+        }
+
+        try {
+            selector.close();
+        } catch (IOException e) {
+            LOGGER.warning(this, e);
+        }
+    }
+
+    private void handleSelectedKeys() {
+
+        Set<SelectionKey> selectedKeys = selector.selectedKeys();
+
+        if (selectedKeys.isEmpty()) {
+            return;
+        }
+
+        for (Iterator<SelectionKey> iterator = selectedKeys.iterator(); iterator.hasNext(); ) {
+
+            SelectionKey key = iterator.next();
+            iterator.remove();
+
+            if (!key.isValid()) {
+                continue;
+            }
+
+            try {
+                ((Handler) key.attachment()).handleReady(key.readyOps());
+            } catch (Throwable e) {
+                LOGGER.warning(this, e);
+            }
+        }
+    }
+
+    private void runTasks() {
+
+        // tasks which are submitted by these tasks will be run by the next cycle
+        for (int i = 0, count = localTasks.size(); i < count; i++) {
+            runTask(localTasks.poll());
+        }
+
+        for (int i = 0, count = tasks.size(); i < count; i++) {
+            runTask(tasks.poll());
+        }
+    }
+
+    private void runScheduledTasks() {
+
+        long now = System.nanoTime();
+
+        for (ScheduledTask next = scheduledTasks.peek(); next != null && next.deadline - now <= 0;
+             next = scheduledTasks.peek()) {
+            scheduledTasks.poll();
+            runTask(next.task);
+        }
+    }
+
+    /**
+     * Convert the time before the next deadline to the timeout of select.
+     *
+     * @param nanos the time in nanoseconds.
+     * @return the timeout in milliseconds, it's always positive because 0 means waiting without a timeout.
+     */
+    private static long toSelectTimeout(long nanos) {
+        return Math.max((nanos + TimeUnit.MILLISECONDS.toNanos(1) - 1) / TimeUnit.MILLISECONDS.toNanos(1), 1);
+    }
+
+    private void runTask(Runnable task) {
+
+        if (task == null) {
+            return;
+        }
+
+        try {
+            task.run();
+        } catch (Throwable e) {
+            LOGGER.warning(this, e);
+        }
+    }
+
+    /**
+     * Stop the loop and close all registered channels.
+     */
+    void shutdown() {
+        running = false;
+        selector.wakeup();
+    }
+
+    @Override
+    public String toString() {
+        return "SelectorEventLoop{" + "thread=" + thread.getName() + ", channels=" + selector.keys().size() + '}';
+    }
+}
@@ -0,0 +1,105 @@
+package com.ss.rlib.common.network.impl;
+
+import com.ss.rlib.common.network.NetworkTransport;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.channels.AsynchronousServerSocketChannel;
+import java.nio.channels.AsynchronousSocketChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The group of event loops of the {@link NetworkTransport#SELECTOR} transport. Opened channels are pinned to event
+ * loops in turn, so each event loop owns a fixed set of channels and completions of IO operations of a channel are
+ * always handled by the same thread.
+ *
+ * @author JavaSaBr
+ */
+public final class SelectorEventLoopGroup {
+
+    /**
+     * The event loops.
+     */
+    @NotNull
+    private final SelectorEventLoop[] eventLoops;
+
+    /**
+     * The index of the event loop for the next channel.
+     */
+    @NotNull
+    private final AtomicInteger nextIndex;
+
+    public SelectorEventLoopGroup(int size, @NotNull ThreadFactory threadFactory) throws IOException {
+
+        if (size < 1) {
+            throw new IllegalArgumentException("Wrong size of event loop group " + size);
+        }
+
+        this.eventLoops = new SelectorEventLoop[size];
+        this.nextIndex = new AtomicInteger();
+
+        for (int i = 0; i < size; i++) {
+            eventLoops[i] = new SelectorEventLoop(threadFactory);
+        }
+
+        for (SelectorEventLoop eventLoop : eventLoops) {
+            eventLoop.start();
+        }
+    }
+
+    /**
+     * Get the event loop for a new channel.
+     *
+     * @return the event loop.
+     */
+    @NotNull SelectorEventLoop next() {
+        return eventLoops[Math.floorMod(nextIndex.getAndIncrement(), eventLoops.length)];
+    }
+
+    /**
+     * Open a new socket channel which is pinned to the next event loop.
+     *
+     * @return the new socket channel.
+     * @throws IOException if the channel can't be opened.
+     */
+    public @NotNull AsynchronousSocketChannel openSocketChannel() throws IOException {
+        return new SelectorSocketChannel(SocketChannel.open(), next());
+    }
+
+    /**
+     * Open a new server socket channel which accepts connections by the first event loop.
+     *
+     * @return the new server socket channel.
+     * @throws IOException if the channel can't be opened.
+     */
+    public @NotNull AsynchronousServerSocketChannel openServerSocketChannel() throws IOException {
+        return new SelectorServerSocketChannel(ServerSocketChannel.open(), this, eventLoops[0]);
+    }
+
+    /**
+     * Get the count of event loops.
+     *
+     * @return the count of event loops.
+     */
+    public int getSize() {
+        return eventLoops.length;
+    }
+
+    /**
+     * Stop all event loops and close their channels.
+     */
+    public void shutdown() {
+        for (SelectorEventLoop eventLoop : eventLoops) {
+            eventLoop.shutdown();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SelectorEventLoopGroup{" + "eventLoops=" + Arrays.toString(eventLoops) + '}';
+    }
+}
@@ -0,0 +1,219 @@
+package com.ss.rlib.common.network.impl;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.net.SocketOption;
+import java.nio.channels.AcceptPendingException;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.AsynchronousServerSocketChannel;
+import java.nio.channels.AsynchronousSocketChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.channels.spi.AsynchronousChannelProvider;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The implementation of {@link AsynchronousServerSocketChannel} which accepts connections by a
+ * {@link SelectorEventLoop}, each accepted channel is pinned to the next event loop of the group.
+ *
+ * @author JavaSaBr
+ */
+final class SelectorServerSocketChannel extends AsynchronousServerSocketChannel implements SelectorEventLoop.Handler {
+
+    /**
+     * The server socket channel.
+     */
+    @NotNull
+    private final ServerSocketChannel channel;
+
+    /**
+     * The group of event loops of accepted channels.
+     */
+    @NotNull
+    private final SelectorEventLoopGroup group;
+
+    /**
+     * The event loop which accepts connections.
+     */
+    @NotNull
+    private final SelectorEventLoop eventLoop;
+
+    /**
+     * The flag of having a pending accept.
+     */
+    @NotNull
+    private final AtomicBoolean accepting;
+
+    /**
+     * The selection key, is used only by the loop thread.
+     */
+    @Nullable
+    private SelectionKey key;
+
+    /**
+     * The attachment of the pending accept.
+     */
+    @Nullable
+    private Object acceptAttachment;
+
+    /**
+     * The handler of the pending accept.
+     */
+    @Nullable
+    private CompletionHandler<AsynchronousSocketChannel, Object> acceptHandler;
+
+    SelectorServerSocketChannel(
+            @NotNull ServerSocketChannel channel,
+            @NotNull SelectorEventLoopGroup group,
+            @NotNull SelectorEventLoop eventLoop
+    ) throws IOException {
+        super(AsynchronousChannelProvider.provider());
+        channel.configureBlocking(false);
+        this.channel = channel;
+        this.group = group;
+        this.eventLoop = eventLoop;
+        this.accepting = new AtomicBoolean();
+    }
+
+    @Override
+    public @NotNull AsynchronousServerSocketChannel bind(@Nullable SocketAddress local, int backlog)
+            throws IOException {
+        channel.bind(local, backlog);
+        return this;
+    }
+
+    @Override
+    public <T> @NotNull AsynchronousServerSocketChannel setOption(@NotNull SocketOption<T> name, @Nullable T value)
+            throws IOException {
+        channel.setOption(name, value);
+        return this;
+    }
+
+    @Override
+    public <T> @Nullable T getOption(@NotNull SocketOption<T> name) throws IOException {
+        return channel.getOption(name);
+    }
+
+    @Override
+    public @NotNull Set<SocketOption<?>> supportedOptions() {
+        return channel.supportedOptions();
+    }
+
+    @Override
+    public @Nullable SocketAddress getLocalAddress() throws IOException {
+        return channel.getLocalAddress();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return channel.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+        eventLoop.execute(() -> completeAccept(null, new AsynchronousCloseException()));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <A> void accept(
+            @Nullable A attachment,
+            @NotNull CompletionHandler<AsynchronousSocketChannel, ? super A> handler
+    ) {
+
+        if (!accepting.compareAndSet(false, true)) {
+            throw new AcceptPendingException();
+        }
+
+        acceptAttachment = attachment;
+        acceptHandler = (CompletionHandler<AsynchronousSocketChannel, Object>) handler;
+
+        eventLoop.execute(this::doAccept);
+    }
+
+    @Override
+    public @NotNull Future<AsynchronousSocketChannel> accept() {
+        CompletableFuture<AsynchronousSocketChannel> future = new CompletableFuture<>();
+        accept(future, SelectorSocketChannel.futureHandler());
+        return future;
+    }
+
+    @Override
+    public void handleReady(int readyOps) {
+        doAccept();
+    }
+
+    @Override
+    public void handleShutdown() {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+        completeAccept(null, new AsynchronousCloseException());
+    }
+
+    private void doAccept() {
+
+        try {
+
+            SelectionKey key = this.key;
+
+            if (key == null) {
+                key = eventLoop.register(channel, this);
+                this.key = key;
+            }
+
+            // we don't have a pending accept, so we don't need to wait for new connections anymore
+            if (acceptHandler == null) {
+                key.interestOps(0);
+                return;
+            }
+
+            SocketChannel accepted = channel.accept();
+
+            if (accepted == null) {
+                key.interestOps(SelectionKey.OP_ACCEPT);
+                return;
+            }
+
+            completeAccept(new SelectorSocketChannel(accepted, group.next()), null);
+
+        } catch (IOException | RuntimeException e) {
+            completeAccept(null, e);
+        }
+    }
+
+    private void completeAccept(@Nullable AsynchronousSocketChannel accepted, @Nullable Throwable exception) {
+
+        CompletionHandler<AsynchronousSocketChannel, Object> handler = acceptHandler;
+        Object attachment = acceptAttachment;
+
+        if (handler == null) {
+            return;
+        }
+
+        acceptAttachment = null;
+        acceptHandler = null;
+        accepting.set(false);
+
+        if (exception == null) {
+            handler.completed(accepted, attachment);
+        } else {
+            handler.failed(exception, attachment);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SelectorServerSocketChannel{" + "channel=" + channel + ", eventLoop=" + eventLoop + '}';
+    }
+}
@@ -0,0 +1,806 @@
+package com.ss.rlib.common.network.impl;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.net.SocketOption;
+import java.nio.ByteBuffer;
+import java.nio.channels.AlreadyConnectedException;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.AsynchronousSocketChannel;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.ConnectionPendingException;
+import java.nio.channels.InterruptedByTimeoutException;
+import java.nio.channels.ReadPendingException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.channels.WritePendingException;
+import java.nio.channels.spi.AsynchronousChannelProvider;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The implementation of {@link AsynchronousSocketChannel} which is pinned to a {@link SelectorEventLoop}. All IO
+ * operations of the channel are performed and completed by the loop thread, a read waits for readiness of the
+ * channel, a write is completed only when the whole buffer is written. A timeout of an operation is a task which is
+ * scheduled on the loop, scattering reads and gathering writes handle their buffers one by one.
+ *
+ * @author JavaSaBr
+ */
+final class SelectorSocketChannel extends AsynchronousSocketChannel implements SelectorEventLoop.Handler {
+
+    /**
+     * The handler to complete futures of operations.
+     */
+    @SuppressWarnings("rawtypes")
+    private static final CompletionHandler FUTURE_HANDLER = new CompletionHandler<Object, CompletableFuture<Object>>() {
+
+        @Override
+        public void completed(Object result, CompletableFuture<Object> future) {
+            future.complete(result);
+        }
+
+        @Override
+        public void failed(Throwable exc, CompletableFuture<Object> future) {
+            future.completeExceptionally(exc);
+        }
+    };
+
+    /**
+     * Get the handler to complete a future of an operation.
+     *
+     * @param <V> the result's type.
+     * @return the handler.
+     */
+    @SuppressWarnings("unchecked")
+    static <V> @NotNull CompletionHandler<V, CompletableFuture<V>> futureHandler() {
+        return FUTURE_HANDLER;
+    }
+
+    /**
+     * The socket channel.
+     */
+    @NotNull
+    private final SocketChannel channel;
+
+    /**
+     * The event loop of this channel.
+     */
+    @NotNull
+    private final SelectorEventLoop eventLoop;
+
+    /**
+     * The flag of having a pending read.
+     */
+    @NotNull
+    private final AtomicBoolean reading;
+
+    /**
+     * The flag of having a pending write.
+     */
+    @NotNull
+    private final AtomicBoolean writing;
+
+    /**
+     * The flag of having a pending connect.
+     */
+    @NotNull
+    private final AtomicBoolean connecting;
+
+    /**
+     * The selection key, is used only by the loop thread.
+     */
+    @Nullable
+    private SelectionKey key;
+
+    /**
+     * The interest operations, is used only by the loop thread.
+     */
+    private int interestOps;
+
+    /**
+     * The buffer of the pending read.
+     */
+    @Nullable
+    private ByteBuffer readBuffer;
+
+    /**
+     * The buffers of the pending scattering read.
+     */
+    @Nullable
+    private ByteBuffer[] readBuffers;
+
+    /**
+     * The index of the first buffer of the pending scattering read.
+     */
+    private int readOffset;
+
+    /**
+     * The count of buffers of the pending scattering read.
+     */
+    private int readLength;
+
+    /**
+     * The timeout of the pending read in nanoseconds or 0.
+     */
+    private long readTimeout;
+
+    /**
+     * The task to fail the pending read by the timeout.
+     */
+    @Nullable
+    private SelectorEventLoop.ScheduledTask readTimer;
+
+    /**
+     * The attachment of the pending read.
+     */
+    @Nullable
+    private Object readAttachment;
+
+    /**
+     * The handler of the pending read, it's completed by an integer or by a long for a scattering read.
+     */
+    @Nullable
+    private CompletionHandler<Object, Object> readHandler;
+
+    /**
+     * The buffer of the pending write.
+     */
+    @Nullable
+    private ByteBuffer writeBuffer;
+
+    /**
+     * The buffers of the pending gathering write.
+     */
+    @Nullable
+    private ByteBuffer[] writeBuffers;
+
+    /**
+     * The index of the first buffer of the pending gathering write.
+     */
+    private int writeOffset;
+
+    /**
+     * The count of buffers of the pending gathering write.
+     */
+    private int writeLength;
+
+    /**
+     * The timeout of the pending write in nanoseconds or 0.
+     */
+    private long writeTimeout;
+
+    /**
+     * The task to fail the pending write by the timeout.
+     */
+    @Nullable
+    private SelectorEventLoop.ScheduledTask writeTimer;
+
+    /**
+     * The attachment of the pending write.
+     */
+    @Nullable
+    private Object writeAttachment;
+
+    /**
+     * The handler of the pending write, it's completed by an integer or by a long for a gathering write.
+     */
+    @Nullable
+    private CompletionHandler<Object, Object> writeHandler;
+
+    /**
+     * The count of written bytes of the pending write.
+     */
+    private long written;
+
+    /**
+     * The address of the pending connect.
+     */
+    @Nullable
+    private SocketAddress connectAddress;
+
+    /**
+     * The attachment of the pending connect.
+     */
+    @Nullable
+    private Object connectAttachment;
+
+    /**
+     * The handler of the pending connect.
+     */
+    @Nullable
+    private CompletionHandler<Void, Object> connectHandler;
+
+    SelectorSocketChannel(@NotNull SocketChannel channel, @NotNull SelectorEventLoop eventLoop) throws IOException {
+        super(AsynchronousChannelProvider.provider());
+        channel.configureBlocking(false);
+        this.channel = channel;
+        this.eventLoop = eventLoop;
+        this.reading = new AtomicBoolean();
+        this.writing = new AtomicBoolean();
+        this.connecting = new AtomicBoolean();
+    }
+
+    @Override
+    public @NotNull AsynchronousSocketChannel bind(@Nullable SocketAddress local) throws IOException {
+        channel.bind(local);
+        return this;
+    }
+
+    @Override
+    public <T> @NotNull AsynchronousSocketChannel setOption(@NotNull SocketOption<T> name, @Nullable T value)
+            throws IOException {
+        channel.setOption(name, value);
+        return this;
+    }
+
+    @Override
+    public <T> @Nullable T getOption(@NotNull SocketOption<T> name) throws IOException {
+        return channel.getOption(name);
+    }
+
+    @Override
+    public @NotNull Set<SocketOption<?>> supportedOptions() {
+        return channel.supportedOptions();
+    }
+
+    @Override
+    public @NotNull AsynchronousSocketChannel shutdownInput() throws IOException {
+        channel.shutdownInput();
+        return this;
+    }
+
+    @Override
+    public @NotNull AsynchronousSocketChannel shutdownOutput() throws IOException {
+        channel.shutdownOutput();
+        return this;
+    }
+
+    @Override
+    public @Nullable SocketAddress getRemoteAddress() throws IOException {
+        return channel.getRemoteAddress();
+    }
+
+    @Override
+    public @Nullable SocketAddress getLocalAddress() throws IOException {
+        return channel.getLocalAddress();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return channel.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+        eventLoop.execute(this::failPending);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <A> void connect(
+            @NotNull SocketAddress remote,
+            @Nullable A attachment,
+            @NotNull CompletionHandler<Void, ? super A> handler
+    ) {
+
+        if (channel.isConnected()) {
+            throw new AlreadyConnectedException();
+        } else if (!connecting.compareAndSet(false, true)) {
+            throw new ConnectionPendingException();
+        }
+
+        connectAddress = remote;
+        connectAttachment = attachment;
+        connectHandler = (CompletionHandler<Void, Object>) handler;
+
+        eventLoop.execute(this::startConnect);
+    }
+
+    @Override
+    public @NotNull Future<Void> connect(@NotNull SocketAddress remote) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        connect(remote, future, futureHandler());
+        return future;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <A> void read(
+            @NotNull ByteBuffer dst,
+            long timeout,
+            @NotNull TimeUnit unit,
+            @Nullable A attachment,
+            @NotNull CompletionHandler<Integer, ? super A> handler
+    ) {
+
+        if (!reading.compareAndSet(false, true)) {
+            throw new ReadPendingException();
+        }
+
+        readBuffer = dst;
+        readTimeout = unit.toNanos(timeout);
+        readAttachment = attachment;
+        readHandler = (CompletionHandler<Object, Object>) (CompletionHandler<?, ?>) handler;
+
+        if (eventLoop.inLoop()) {
+            startRead();
+        } else {
+            eventLoop.execute(this::startRead);
+        }
+    }
+
+    @Override
+    public @NotNull Future<Integer> read(@NotNull ByteBuffer dst) {
+        CompletableFuture<Integer> future = new CompletableFuture<>();
+        read(dst, 0, TimeUnit.MILLISECONDS, future, futureHandler());
+        return future;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <A> void read(
+            @NotNull ByteBuffer[] dsts,
+            int offset,
+            int length,
+            long timeout,
+            @NotNull TimeUnit unit,
+            @Nullable A attachment,
+            @NotNull CompletionHandler<Long, ? super A> handler
+    ) {
+
+        Objects.checkFromIndexSize(offset, length, dsts.length);
+
+        if (!reading.compareAndSet(false, true)) {
+            throw new ReadPendingException();
+        }
+
+        readBuffers = dsts;
+        readOffset = offset;
+        readLength = length;
+        readTimeout = unit.toNanos(timeout);
+        readAttachment = attachment;
+        readHandler = (CompletionHandler<Object, Object>) (CompletionHandler<?, ?>) handler;
+
+        if (eventLoop.inLoop()) {
+            startRead();
+        } else {
+            eventLoop.execute(this::startRead);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <A> void write(
+            @NotNull ByteBuffer src,
+            long timeout,
+            @NotNull TimeUnit unit,
+            @Nullable A attachment,
+            @NotNull CompletionHandler<Integer, ? super A> handler
+    ) {
+
+        if (!writing.compareAndSet(false, true)) {
+            throw new WritePendingException();
+        }
+
+        writeBuffer = src;
+        writeTimeout = unit.toNanos(timeout);
+        writeAttachment = attachment;
+        writeHandler = (CompletionHandler<Object, Object>) (CompletionHandler<?, ?>) handler;
+
+        // writes which are started by the loop thread are performed in a batch after handling ready channels
+        eventLoop.execute(this::startWrite);
+    }
+
+    @Override
+    public @NotNull Future<Integer> write(@NotNull ByteBuffer src) {
+        CompletableFuture<Integer> future = new CompletableFuture<>();
+        write(src, 0, TimeUnit.MILLISECONDS, future, futureHandler());
+        return future;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <A> void write(
+            @NotNull ByteBuffer[] srcs,
+            int offset,
+            int length,
+            long timeout,
+            @NotNull TimeUnit unit,
+            @Nullable A attachment,
+            @NotNull CompletionHandler<Long, ? super A> handler
+    ) {
+
+        Objects.checkFromIndexSize(offset, length, srcs.length);
+
+        if (!writing.compareAndSet(false, true)) {
+            throw new WritePendingException();
+        }
+
+        writeBuffers = srcs;
+        writeOffset = offset;
+        writeLength = length;
+        writeTimeout = unit.toNanos(timeout);
+        writeAttachment = attachment;
+        writeHandler = (CompletionHandler<Object, Object>) (CompletionHandler<?, ?>) handler;
+
+        eventLoop.execute(this::startWrite);
+    }
+
+    @Override
+    public void handleReady(int readyOps) {
+
+        if ((readyOps & SelectionKey.OP_CONNECT) != 0) {
+            finishConnect();
+        }
+
+        if ((readyOps & SelectionKey.OP_READ) != 0) {
+            doRead();
+        }
+
+        if ((readyOps & SelectionKey.OP_WRITE) != 0) {
+            doWrite();
+        }
+    }
+
+    @Override
+    public void handleShutdown() {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+        failPending();
+    }
+
+    /**
+     * Change interest operations of this channel.
+     *
+     * @param ops    the operations.
+     * @param enable true if need to enable the operations.
+     * @throws ClosedChannelException if this channel is closed.
+     */
+    private void changeInterest(int ops, boolean enable) throws ClosedChannelException {
+
+        SelectionKey key = this.key;
+
+        if (key == null) {
+
+            if (!enable) {
+                return;
+            }
+
+            key = eventLoop.register(channel, this);
+            this.key = key;
+        }
+
+        int newOps = enable ? interestOps | ops : interestOps & ~ops;
+
+        if (newOps == interestOps) {
+            return;
+        } else if (!key.isValid()) {
+            throw new ClosedChannelException();
+        }
+
+        key.interestOps(newOps);
+        interestOps = newOps;
+    }
+
+    private void startConnect() {
+
+        SocketAddress address = connectAddress;
+
+        if (address == null) {
+            return;
+        }
+
+        try {
+            if (channel.connect(address)) {
+                completeConnect(null);
+            } else {
+                changeInterest(SelectionKey.OP_CONNECT, true);
+            }
+        } catch (IOException | RuntimeException e) {
+            completeConnect(e);
+        }
+    }
+
+    private void finishConnect() {
+        try {
+            if (channel.finishConnect()) {
+                changeInterest(SelectionKey.OP_CONNECT, false);
+                completeConnect(null);
+            }
+        } catch (IOException | RuntimeException e) {
+            completeConnect(e);
+        }
+    }
+
+    private void completeConnect(@Nullable Throwable exception) {
+
+        CompletionHandler<Void, Object> handler = connectHandler;
+        Object attachment = connectAttachment;
+
+        if (handler == null) {
+            return;
+        }
+
+        connectAddress = null;
+        connectAttachment = null;
+        connectHandler = null;
+        connecting.set(false);
+
+        if (exception == null) {
+            handler.completed(null, attachment);
+        } else {
+            handler.failed(exception, attachment);
+        }
+    }
+
+    private void startRead() {
+
+        if (readBuffer == null && readBuffers == null) {
+            return;
+        } else if (readBuffers == null ? !readBuffer.hasRemaining() : !hasRemaining(readBuffers, readOffset,
+                readLength)) {
+            completeRead(0, null);
+            return;
+        }
+
+        try {
+            changeInterest(SelectionKey.OP_READ, true);
+        } catch (IOException e) {
+            completeRead(0, e);
+            return;
+        }
+
+        if (readTimeout > 0) {
+            readTimer = eventLoop.schedule(this::timeoutRead, readTimeout);
+        }
+    }
+
+    private void doRead() {
+
+        ByteBuffer buffer = readBuffer;
+        ByteBuffer[] buffers = readBuffers;
+
+        try {
+
+            // we don't have a pending read, so we don't need to wait for readiness anymore
+            if (buffer == null && buffers == null) {
+                changeInterest(SelectionKey.OP_READ, false);
+                return;
+            }
+
+            long read = buffers == null ? channel.read(buffer) : readScattering(buffers);
+
+            if (read != 0) {
+                completeRead(read, null);
+            }
+
+        } catch (IOException | RuntimeException e) {
+            completeRead(0, e);
+        }
+    }
+
+    /**
+     * Read data to the buffers of the pending scattering read until the socket doesn't have more data.
+     *
+     * @param buffers the buffers.
+     * @return the count of read bytes or -1 if the end of stream is reached.
+     * @throws IOException if the channel can't be read.
+     */
+    private long readScattering(@NotNull ByteBuffer[] buffers) throws IOException {
+
+        long total = 0;
+
+        for (int i = readOffset, end = readOffset + readLength; i < end; i++) {
+
+            ByteBuffer buffer = buffers[i];
+
+            if (!buffer.hasRemaining()) {
+                continue;
+            }
+
+            int read = channel.read(buffer);
+
+            if (read < 0) {
+                return total > 0 ? total : -1;
+            }
+
+            total += read;
+
+            // the socket doesn't have more data for now
+            if (buffer.hasRemaining()) {
+                break;
+            }
+        }
+
+        return total;
+    }
+
+    private void timeoutRead() {
+        readTimer = null;
+        completeRead(0, new InterruptedByTimeoutException());
+    }
+
+    private void completeRead(long result, @Nullable Throwable exception) {
+
+        CompletionHandler<Object, Object> handler = readHandler;
+        Object attachment = readAttachment;
+        boolean scattering = readBuffers != null;
+
+        if (handler == null) {
+            return;
+        }
+
+        SelectorEventLoop.ScheduledTask timer = readTimer;
+
+        if (timer != null) {
+            eventLoop.cancel(timer);
+        }
+
+        readBuffer = null;
+        readBuffers = null;
+        readTimer = null;
+        readAttachment = null;
+        readHandler = null;
+        reading.set(false);
+
+        if (exception != null) {
+            handler.failed(exception, attachment);
+        } else if (scattering) {
+            handler.completed(result, attachment);
+        } else {
+            handler.completed((int) result, attachment);
+        }
+    }
+
+    private void startWrite() {
+
+        if (writeBuffer == null && writeBuffers == null) {
+            return;
+        } else if (!channel.isOpen()) {
+            completeWrite(new ClosedChannelException());
+            return;
+        }
+
+        if (writeTimeout > 0) {
+            writeTimer = eventLoop.schedule(this::timeoutWrite, writeTimeout);
+        }
+
+        doWrite();
+    }
+
+    private void doWrite() {
+
+        ByteBuffer buffer = writeBuffer;
+        ByteBuffer[] buffers = writeBuffers;
+
+        try {
+
+            if (buffer == null && buffers == null) {
+                changeInterest(SelectionKey.OP_WRITE, false);
+                return;
+            }
+
+            boolean completed;
+
+            if (buffers == null) {
+                written += channel.write(buffer);
+                completed = !buffer.hasRemaining();
+            } else {
+                completed = writeGathering(buffers);
+            }
+
+            // the socket buffer is full, so we need to wait for readiness to write the rest data
+            if (!completed) {
+                changeInterest(SelectionKey.OP_WRITE, true);
+            } else {
+                changeInterest(SelectionKey.OP_WRITE, false);
+                completeWrite(null);
+            }
+
+        } catch (IOException | RuntimeException e) {
+            completeWrite(e);
+        }
+    }
+
+    /**
+     * Write data of the buffers of the pending gathering write until the socket buffer is full.
+     *
+     * @param buffers the buffers.
+     * @return true if all buffers were written.
+     * @throws IOException if the channel can't be written.
+     */
+    private boolean writeGathering(@NotNull ByteBuffer[] buffers) throws IOException {
+
+        for (int i = writeOffset, end = writeOffset + writeLength; i < end; i++) {
+
+            ByteBuffer buffer = buffers[i];
+
+            if (!buffer.hasRemaining()) {
+                continue;
+            }
+
+            written += channel.write(buffer);
+
+            if (buffer.hasRemaining()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void timeoutWrite() {
+        writeTimer = null;
+        completeWrite(new InterruptedByTimeoutException());
+    }
+
+    private void completeWrite(@Nullable Throwable exception) {
+
+        CompletionHandler<Object, Object> handler = writeHandler;
+        Object attachment = writeAttachment;
+        boolean gathering = writeBuffers != null;
+        long result = written;
+
+        if (handler == null) {
+            return;
+        }
+
+        SelectorEventLoop.ScheduledTask timer = writeTimer;
+
+        if (timer != null) {
+            eventLoop.cancel(timer);
+        }
+
+        writeBuffer = null;
+        writeBuffers = null;
+        writeTimer = null;
+        writeAttachment = null;
+        writeHandler = null;
+        written = 0;
+        writing.set(false);
+
+        if (exception != null) {
+            handler.failed(exception, attachment);
+        } else if (gathering) {
+            handler.completed(result, attachment);
+        } else {
+            handler.completed((int) result, attachment);
+        }
+    }
+
+    private static boolean hasRemaining(@NotNull ByteBuffer[] buffers, int offset, int length) {
+
+        for (int i = offset, end = offset + length; i < end; i++) {
+            if (buffers[i].hasRemaining()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Fail all pending operations of the closed channel.
+     */
+    private void failPending() {
+        completeConnect(new AsynchronousCloseException());
+        completeRead(0, new AsynchronousCloseException());
+        completeWrite(new AsynchronousCloseException());
+    }
+
+    @Override
+    public String toString() {
+        return "SelectorSocketChannel{" + "channel=" + channel + ", eventLoop=" + eventLoop + '}';
+    }
+}
@@ -0,0 +1,98 @@
+package com.ss.rlib.common.network.impl;
+
+import com.ss.rlib.common.network.FrameCodec;
+import com.ss.rlib.common.network.FrameException;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The implementation of {@link FrameCodec} with variable length headers which contain the length of packet data
+ * encoded by 7 bits in each byte, so small packets need only 1 byte of header.
+ *
+ * @author JavaSaBr
+ */
+public class VarIntFrameCodec implements FrameCodec {
+
+    private static final int MAX_HEADER_SIZE = 5;
+
+    /**
+     * Get the size of a header for the data length.
+     *
+     * @param dataLength the data length.
+     * @return the size of a header.
+     */
+    public static int getHeaderSize(int dataLength) {
+
+        int size = 1;
+
+        while ((dataLength >>>= 7) != 0) {
+            size++;
+        }
+
+        return size;
+    }
+
+    @Override
+    public int getMaxHeaderSize() {
+        return MAX_HEADER_SIZE;
+    }
+
+    @Override
+    public int getMaxDataLength() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public int readDataLength(@NotNull ByteBuffer buffer) {
+
+        int position = buffer.position();
+        int limit = buffer.limit();
+        int result = 0;
+
+        for (int i = 0; i < MAX_HEADER_SIZE; i++) {
+
+            if (position + i >= limit) {
+                return NOT_ENOUGH_DATA;
+            }
+
+            int value = buffer.get(position + i);
+
+            result |= (value & 0x7F) << (7 * i);
+
+            if ((value & 0x80) == 0) {
+
+                if (result < 0) {
+                    throw new FrameException("Incorrect data length " + Integer.toUnsignedString(result));
+                }
+
+                buffer.position(position + i + 1);
+                return result;
+            }
+        }
+
+        throw new FrameException("Too long header of a frame.");
+    }
+
+    @Override
+    public int writeHeader(@NotNull ByteBuffer buffer, int dataOffset, int dataLength) {
+
+        int offset = dataOffset - getHeaderSize(dataLength);
+        int index = offset;
+        int value = dataLength;
+
+        while ((value & ~0x7F) != 0) {
+            buffer.put(index++, (byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+
+        buffer.put(index, (byte) value);
+
+        return offset;
+    }
+
+    @Override
+    public String toString() {
+        return "VarIntFrameCodec";
+    }
+}
@@ -0,0 +1,147 @@
+package com.ss.rlib.common.network.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The lock-free statistics of compressing or decompressing packets.
+ *
+ * @author JavaSaBr
+ */
+public final class CompressionStats {
+
+    /**
+     * The count of compressed packets.
+     */
+    @NotNull
+    private final LongAdder packets;
+
+    /**
+     * The count of packets which were sent as is, because compressed data wasn't smaller.
+     */
+    @NotNull
+    private final LongAdder skippedPackets;
+
+    /**
+     * The count of bytes of packet data before compressing.
+     */
+    @NotNull
+    private final LongAdder rawBytes;
+
+    /**
+     * The count of bytes of compressed packet data.
+     */
+    @NotNull
+    private final LongAdder compressedBytes;
+
+    /**
+     * The total time of compressing in nanoseconds.
+     */
+    @NotNull
+    private final LongAdder time;
+
+    public CompressionStats() {
+        this.packets = new LongAdder();
+        this.skippedPackets = new LongAdder();
+        this.rawBytes = new LongAdder();
+        this.compressedBytes = new LongAdder();
+        this.time = new LongAdder();
+    }
+
+    /**
+     * Handle a compressed or decompressed packet.
+     *
+     * @param rawBytes        the length of packet data.
+     * @param compressedBytes the length of compressed data.
+     * @param time            the time of compressing in nanoseconds.
+     */
+    public void onCompressed(int rawBytes, int compressedBytes, long time) {
+        this.packets.increment();
+        this.rawBytes.add(rawBytes);
+        this.compressedBytes.add(compressedBytes);
+        this.time.add(time);
+    }
+
+    /**
+     * Handle a packet which was sent as is, because compressed data wasn't smaller.
+     *
+     * @param time the time of trying to compress in nanoseconds.
+     */
+    public void onSkipped(long time) {
+        this.skippedPackets.increment();
+        this.time.add(time);
+    }
+
+    /**
+     * Get the count of compressed packets.
+     *
+     * @return the count of compressed packets.
+     */
+    public long getPackets() {
+        return packets.sum();
+    }
+
+    /**
+     * Get the count of packets which were sent as is, because compressed data wasn't smaller.
+     *
+     * @return the count of skipped packets.
+     */
+    public long getSkippedPackets() {
+        return skippedPackets.sum();
+    }
+
+    /**
+     * Get the count of bytes of packet data before compressing.
+     *
+     * @return the count of raw bytes.
+     */
+    public long getRawBytes() {
+        return rawBytes.sum();
+    }
+
+    /**
+     * Get the count of bytes of compressed packet data.
+     *
+     * @return the count of compressed bytes.
+     */
+    public long getCompressedBytes() {
+        return compressedBytes.sum();
+    }
+
+    /**
+     * Get the total time of compressing including skipped packets.
+     *
+     * @return the total time in nanoseconds.
+     */
+    public long getTime() {
+        return time.sum();
+    }
+
+    /**
+     * Get the ratio of compressed bytes to raw bytes.
+     *
+     * @return the ratio or 1 if nothing was compressed.
+     */
+    public double getRatio() {
+        long raw = getRawBytes();
+        return raw == 0 ? 1D : (double) getCompressedBytes() / raw;
+    }
+
+    /**
+     * Get the average time of compressing a packet including skipped packets.
+     *
+     * @return the average time in nanoseconds.
+     */
+    public long getAverageTime() {
+        long count = getPackets() + getSkippedPackets();
+        return count == 0 ? 0 : getTime() / count;
+    }
+
+    @Override
+    public String toString() {
+        return "CompressionStats{" + "packets=" + getPackets() + ", skippedPackets=" + getSkippedPackets() +
+                ", rawBytes=" + getRawBytes() + ", compressedBytes=" + getCompressedBytes() + ", ratio=" + getRatio() +
+                ", averageTime=" + getAverageTime() + '}';
+    }
+}
@@ -0,0 +1,93 @@
+package com.ss.rlib.common.network.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The lock-free histogram with power of two buckets. The bucket with the index N contains values from 2^(N-1) to
+ * 2^N - 1, so recording a value costs one atomic increment of a bucket and percentiles are accurate up to 2 times.
+ *
+ * @author JavaSaBr
+ */
+public final class Histogram {
+
+    /**
+     * The count of buckets to contain all non negative long values.
+     */
+    static final int BUCKETS = 64;
+
+    /**
+     * Get the index of a bucket for the value.
+     *
+     * @param value the value.
+     * @return the index of the bucket.
+     */
+    static int bucketOf(long value) {
+        return value <= 0 ? 0 : Long.SIZE - Long.numberOfLeadingZeros(value);
+    }
+
+    /**
+     * The counts of values by buckets.
+     */
+    @NotNull
+    private final AtomicLongArray buckets;
+
+    /**
+     * The sum of values.
+     */
+    @NotNull
+    private final LongAdder sum;
+
+    /**
+     * The max value.
+     */
+    @NotNull
+    private final AtomicLong max;
+
+    public Histogram() {
+        this.buckets = new AtomicLongArray(BUCKETS);
+        this.sum = new LongAdder();
+        this.max = new AtomicLong();
+    }
+
+    /**
+     * Record the value.
+     *
+     * @param value the value.
+     */
+    public void record(long value) {
+
+        buckets.incrementAndGet(bucketOf(value));
+        sum.add(value);
+
+        long current = max.get();
+
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * Take a snapshot of this histogram, values which are being recorded right now can be partially visible.
+     *
+     * @return the snapshot.
+     */
+    public @NotNull HistogramSnapshot snapshot() {
+
+        long[] counts = new long[BUCKETS];
+
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+        }
+
+        return new HistogramSnapshot(counts, sum.sum(), max.get());
+    }
+
+    @Override
+    public String toString() {
+        return snapshot().toString();
+    }
+}
@@ -0,0 +1,115 @@
+package com.ss.rlib.common.network.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The immutable snapshot of a {@link Histogram}.
+ *
+ * @author JavaSaBr
+ */
+public final class HistogramSnapshot {
+
+    /**
+     * The counts of values by buckets.
+     */
+    @NotNull
+    private final long[] counts;
+
+    /**
+     * The count of values.
+     */
+    private final long count;
+
+    /**
+     * The sum of values.
+     */
+    private final long sum;
+
+    /**
+     * The max value.
+     */
+    private final long max;
+
+    HistogramSnapshot(@NotNull long[] counts, long sum, long max) {
+
+        long count = 0;
+
+        for (long value : counts) {
+            count += value;
+        }
+
+        this.counts = counts;
+        this.count = count;
+        this.sum = sum;
+        this.max = max;
+    }
+
+    /**
+     * Get the count of values.
+     *
+     * @return the count of values.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Get the sum of values.
+     *
+     * @return the sum of values.
+     */
+    public long getSum() {
+        return sum;
+    }
+
+    /**
+     * Get the max value.
+     *
+     * @return the max value.
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Get the mean value.
+     *
+     * @return the mean value or 0 if there are no values.
+     */
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * Get the upper bound of the bucket which contains the percentile.
+     *
+     * @param percentile the percentile from 0 to 100.
+     * @return the estimated value of the percentile or 0 if there are no values.
+     */
+    public long getPercentile(double percentile) {
+
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(count * percentile / 100D));
+        long passed = 0;
+
+        for (int i = 0; i < counts.length; i++) {
+
+            passed += counts[i];
+
+            if (passed >= rank) {
+                return Math.min(i == 0 ? 0 : (1L << i) - 1, max);
+            }
+        }
+
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return "HistogramSnapshot{" + "count=" + count + ", mean=" + getMean() + ", p50=" + getPercentile(50) +
+                ", p99=" + getPercentile(99) + ", max=" + max + '}';
+    }
+}
@@ -0,0 +1,343 @@
+package com.ss.rlib.common.network.metrics;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The lock-free metrics of a network or a connection. Metrics of a connection also update metrics of its network, so
+ * metrics of a network aggregate all its connections. Networks and connections don't have metrics at all if they are
+ * disabled in the config, so disabled metrics don't cost anything.
+ *
+ * @author JavaSaBr
+ */
+public final class NetworkMetrics {
+
+    /**
+     * The parent metrics.
+     */
+    @Nullable
+    private final NetworkMetrics parent;
+
+    /**
+     * The count of received bytes.
+     */
+    @NotNull
+    private final LongAdder receivedBytes;
+
+    /**
+     * The count of sent bytes.
+     */
+    @NotNull
+    private final LongAdder sentBytes;
+
+    /**
+     * The count of received packets.
+     */
+    @NotNull
+    private final LongAdder receivedPackets;
+
+    /**
+     * The count of sent packets.
+     */
+    @NotNull
+    private final LongAdder sentPackets;
+
+    /**
+     * The count of reads which had more packets than max packets by read.
+     */
+    @NotNull
+    private final LongAdder limitedReads;
+
+    /**
+     * The count of frames which were collected in large buffers.
+     */
+    @NotNull
+    private final LongAdder largeFrames;
+
+    /**
+     * The count of compactions of receive buffers.
+     */
+    @NotNull
+    private final LongAdder compactions;
+
+    /**
+     * The count of growths of adaptive read buffers.
+     */
+    @NotNull
+    private final LongAdder readBufferGrowths;
+
+    /**
+     * The count of shrinks of adaptive read buffers.
+     */
+    @NotNull
+    private final LongAdder readBufferShrinks;
+
+    /**
+     * The count of dropped packets.
+     */
+    @NotNull
+    private final LongAdder droppedPackets;
+
+    /**
+     * The count of waited packets.
+     */
+    @NotNull
+    private final LongAdder waitPackets;
+
+    /**
+     * The count of reads which were delayed by read rate limits.
+     */
+    @NotNull
+    private final LongAdder throttledReads;
+
+    /**
+     * The count of connections which are waiting for delayed reads.
+     */
+    @NotNull
+    private final LongAdder throttledConnections;
+
+    /**
+     * The count of accepted connections which were closed by connection limits.
+     */
+    @NotNull
+    private final LongAdder rejectedConnections;
+
+    /**
+     * The count of accepts which were delayed by an accept rate.
+     */
+    @NotNull
+    private final LongAdder delayedAccepts;
+
+    /**
+     * The counts of packets by reads.
+     */
+    @NotNull
+    private final Histogram packetsByRead;
+
+    /**
+     * The depths of send queues when adding packets.
+     */
+    @NotNull
+    private final Histogram sendQueueDepth;
+
+    /**
+     * The times from starting writes to their completion in nanoseconds.
+     */
+    @NotNull
+    private final Histogram writeLatency;
+
+    /**
+     * The times of encrypting and decrypting in nanoseconds.
+     */
+    @NotNull
+    private final Histogram cryptTime;
+
+    public NetworkMetrics() {
+        this(null);
+    }
+
+    /**
+     * @param parent the parent metrics to aggregate these metrics.
+     */
+    public NetworkMetrics(@Nullable NetworkMetrics parent) {
+        this.parent = parent;
+        this.receivedBytes = new LongAdder();
+        this.sentBytes = new LongAdder();
+        this.receivedPackets = new LongAdder();
+        this.sentPackets = new LongAdder();
+        this.limitedReads = new LongAdder();
+        this.largeFrames = new LongAdder();
+        this.compactions = new LongAdder();
+        this.readBufferGrowths = new LongAdder();
+        this.readBufferShrinks = new LongAdder();
+        this.droppedPackets = new LongAdder();
+        this.waitPackets = new LongAdder();
+        this.throttledReads = new LongAdder();
+        this.throttledConnections = new LongAdder();
+        this.rejectedConnections = new LongAdder();
+        this.delayedAccepts = new LongAdder();
+        this.packetsByRead = new Histogram();
+        this.sendQueueDepth = new Histogram();
+        this.writeLatency = new Histogram();
+        this.cryptTime = new Histogram();
+    }
+
+    /**
+     * Handle a completed read.
+     *
+     * @param bytes the count of received bytes.
+     */
+    public void onRead(int bytes) {
+        receivedBytes.add(bytes);
+        if (parent != null) parent.onRead(bytes);
+    }
+
+    /**
+     * Handle parsed packets of a read.
+     *
+     * @param count   the count of parsed packets.
+     * @param limited true if the count exceeded max packets by read.
+     */
+    public void onPacketsRead(int count, boolean limited) {
+
+        receivedPackets.add(count);
+        packetsByRead.record(count);
+
+        if (limited) {
+            limitedReads.increment();
+        }
+
+        if (parent != null) parent.onPacketsRead(count, limited);
+    }
+
+    /**
+     * Handle a frame which is collected in a large buffer.
+     */
+    public void onLargeFrame() {
+        largeFrames.increment();
+        if (parent != null) parent.onLargeFrame();
+    }
+
+    /**
+     * Handle a compaction of a receive buffer.
+     */
+    public void onCompaction() {
+        compactions.increment();
+        if (parent != null) parent.onCompaction();
+    }
+
+    /**
+     * Handle changing the size of an adaptive read buffer.
+     *
+     * @param oldSize the old size of the buffer.
+     * @param newSize the new size of the buffer.
+     */
+    public void onReadBufferResized(int oldSize, int newSize) {
+
+        if (newSize > oldSize) {
+            readBufferGrowths.increment();
+        } else {
+            readBufferShrinks.increment();
+        }
+
+        if (parent != null) parent.onReadBufferResized(oldSize, newSize);
+    }
+
+    /**
+     * Handle a packet which was written to a write buffer.
+     */
+    public void onPacketWritten() {
+        sentPackets.increment();
+        if (parent != null) parent.onPacketWritten();
+    }
+
+    /**
+     * Handle a completed write operation, a buffer can be written by several operations.
+     *
+     * @param bytes the count of sent bytes.
+     */
+    public void onWrite(int bytes) {
+        sentBytes.add(bytes);
+        if (parent != null) parent.onWrite(bytes);
+    }
+
+    /**
+     * Handle a completely written buffer.
+     *
+     * @param latency the time from starting writing the buffer in nanoseconds.
+     */
+    public void onWriteCompleted(long latency) {
+        writeLatency.record(latency);
+        if (parent != null) parent.onWriteCompleted(latency);
+    }
+
+    /**
+     * Handle encrypting or decrypting data.
+     *
+     * @param time the time of crypting in nanoseconds.
+     */
+    public void onCrypt(long time) {
+        cryptTime.record(time);
+        if (parent != null) parent.onCrypt(time);
+    }
+
+    /**
+     * Handle a packet which was added to a send queue.
+     *
+     * @param depth the depth of the send queue after adding.
+     */
+    public void onPacketAdded(int depth) {
+        waitPackets.increment();
+        sendQueueDepth.record(depth);
+        if (parent != null) parent.onPacketAdded(depth);
+    }
+
+    /**
+     * Handle a packet which was removed from a send queue.
+     */
+    public void onPacketRemoved() {
+        waitPackets.decrement();
+        if (parent != null) parent.onPacketRemoved();
+    }
+
+    /**
+     * Handle a packet which was dropped from a send queue.
+     */
+    public void onPacketDropped() {
+        droppedPackets.increment();
+        if (parent != null) parent.onPacketDropped();
+    }
+
+    /**
+     * Handle a read which was delayed by a read rate limit.
+     */
+    public void onReadThrottled() {
+        throttledReads.increment();
+        throttledConnections.increment();
+        if (parent != null) parent.onReadThrottled();
+    }
+
+    /**
+     * Handle a delayed read which was started.
+     */
+    public void onReadResumed() {
+        throttledConnections.decrement();
+        if (parent != null) parent.onReadResumed();
+    }
+
+    /**
+     * Handle an accepted connection which was closed by a connection limit.
+     */
+    public void onConnectionRejected() {
+        rejectedConnections.increment();
+        if (parent != null) parent.onConnectionRejected();
+    }
+
+    /**
+     * Handle an accept which was delayed by an accept rate.
+     */
+    public void onAcceptDelayed() {
+        delayedAccepts.increment();
+        if (parent != null) parent.onAcceptDelayed();
+    }
+
+    /**
+     * Take a snapshot of these metrics.
+     *
+     * @return the snapshot.
+     */
+    public @NotNull NetworkMetricsSnapshot snapshot() {
+        return new NetworkMetricsSnapshot(receivedBytes.sum(), sentBytes.sum(), receivedPackets.sum(),
+                sentPackets.sum(), limitedReads.sum(), largeFrames.sum(), compactions.sum(), readBufferGrowths.sum(),
+                readBufferShrinks.sum(), droppedPackets.sum(), waitPackets.sum(), throttledReads.sum(),
+                throttledConnections.sum(), rejectedConnections.sum(), delayedAccepts.sum(), packetsByRead.snapshot(),
+                sendQueueDepth.snapshot(), writeLatency.snapshot(), cryptTime.snapshot());
+    }
+
+    @Override
+    public String toString() {
+        return snapshot().toString();
+    }
+}
@@ -0,0 +1,336 @@
+package com.ss.rlib.common.network.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The immutable snapshot of {@link NetworkMetrics}.
+ *
+ * @author JavaSaBr
+ */
+public final class NetworkMetricsSnapshot {
+
+    /**
+     * The count of received bytes.
+     */
+    private final long receivedBytes;
+
+    /**
+     * The count of sent bytes.
+     */
+    private final long sentBytes;
+
+    /**
+     * The count of received packets.
+     */
+    private final long receivedPackets;
+
+    /**
+     * The count of sent packets.
+     */
+    private final long sentPackets;
+
+    /**
+     * The count of reads which had more packets than max packets by read.
+     */
+    private final long limitedReads;
+
+    /**
+     * The count of frames which were collected in large buffers.
+     */
+    private final long largeFrames;
+
+    /**
+     * The count of compactions of receive buffers.
+     */
+    private final long compactions;
+
+    /**
+     * The count of growths of adaptive read buffers.
+     */
+    private final long readBufferGrowths;
+
+    /**
+     * The count of shrinks of adaptive read buffers.
+     */
+    private final long readBufferShrinks;
+
+    /**
+     * The count of dropped packets.
+     */
+    private final long droppedPackets;
+
+    /**
+     * The count of waited packets.
+     */
+    private final long waitPackets;
+
+    /**
+     * The count of reads which were delayed by read rate limits.
+     */
+    private final long throttledReads;
+
+    /**
+     * The count of connections which are waiting for delayed reads.
+     */
+    private final long throttledConnections;
+
+    /**
+     * The count of accepted connections which were closed by connection limits.
+     */
+    private final long rejectedConnections;
+
+    /**
+     * The count of accepts which were delayed by an accept rate.
+     */
+    private final long delayedAccepts;
+
+    /**
+     * The counts of packets by reads.
+     */
+    @NotNull
+    private final HistogramSnapshot packetsByRead;
+
+    /**
+     * The depths of send queues when adding packets.
+     */
+    @NotNull
+    private final HistogramSnapshot sendQueueDepth;
+
+    /**
+     * The times from starting writes to their completion in nanoseconds.
+     */
+    @NotNull
+    private final HistogramSnapshot writeLatency;
+
+    /**
+     * The times of encrypting and decrypting in nanoseconds.
+     */
+    @NotNull
+    private final HistogramSnapshot cryptTime;
+
+    NetworkMetricsSnapshot(
+            long receivedBytes,
+            long sentBytes,
+            long receivedPackets,
+            long sentPackets,
+            long limitedReads,
+            long largeFrames,
+            long compactions,
+            long readBufferGrowths,
+            long readBufferShrinks,
+            long droppedPackets,
+            long waitPackets,
+            long throttledReads,
+            long throttledConnections,
+            long rejectedConnections,
+            long delayedAccepts,
+            @NotNull HistogramSnapshot packetsByRead,
+            @NotNull HistogramSnapshot sendQueueDepth,
+            @NotNull HistogramSnapshot writeLatency,
+            @NotNull HistogramSnapshot cryptTime
+    ) {
+        this.receivedBytes = receivedBytes;
+        this.sentBytes = sentBytes;
+        this.receivedPackets = receivedPackets;
+        this.sentPackets = sentPackets;
+        this.limitedReads = limitedReads;
+        this.largeFrames = largeFrames;
+        this.compactions = compactions;
+        this.readBufferGrowths = readBufferGrowths;
+        this.readBufferShrinks = readBufferShrinks;
+        this.droppedPackets = droppedPackets;
+        this.waitPackets = waitPackets;
+        this.throttledReads = throttledReads;
+        this.throttledConnections = throttledConnections;
+        this.rejectedConnections = rejectedConnections;
+        this.delayedAccepts = delayedAccepts;
+        this.packetsByRead = packetsByRead;
+        this.sendQueueDepth = sendQueueDepth;
+        this.writeLatency = writeLatency;
+        this.cryptTime = cryptTime;
+    }
+
+    /**
+     * Get the count of received bytes.
+     *
+     * @return the count of received bytes.
+     */
+    public long getReceivedBytes() {
+        return receivedBytes;
+    }
+
+    /**
+     * Get the count of sent bytes.
+     *
+     * @return the count of sent bytes.
+     */
+    public long getSentBytes() {
+        return sentBytes;
+    }
+
+    /**
+     * Get the count of received packets.
+     *
+     * @return the count of received packets.
+     */
+    public long getReceivedPackets() {
+        return receivedPackets;
+    }
+
+    /**
+     * Get the count of sent packets.
+     *
+     * @return the count of sent packets.
+     */
+    public long getSentPackets() {
+        return sentPackets;
+    }
+
+    /**
+     * Get the count of reads which had more packets than max packets by read.
+     *
+     * @return the count of limited reads.
+     */
+    public long getLimitedReads() {
+        return limitedReads;
+    }
+
+    /**
+     * Get the count of frames which were collected in large buffers.
+     *
+     * @return the count of large frames.
+     */
+    public long getLargeFrames() {
+        return largeFrames;
+    }
+
+    /**
+     * Get the count of compactions of receive buffers.
+     *
+     * @return the count of compactions.
+     */
+    public long getCompactions() {
+        return compactions;
+    }
+
+    /**
+     * Get the count of growths of adaptive read buffers.
+     *
+     * @return the count of growths of read buffers.
+     */
+    public long getReadBufferGrowths() {
+        return readBufferGrowths;
+    }
+
+    /**
+     * Get the count of shrinks of adaptive read buffers.
+     *
+     * @return the count of shrinks of read buffers.
+     */
+    public long getReadBufferShrinks() {
+        return readBufferShrinks;
+    }
+
+    /**
+     * Get the count of dropped packets.
+     *
+     * @return the count of dropped packets.
+     */
+    public long getDroppedPackets() {
+        return droppedPackets;
+    }
+
+    /**
+     * Get the count of waited packets.
+     *
+     * @return the count of waited packets.
+     */
+    public long getWaitPackets() {
+        return waitPackets;
+    }
+
+    /**
+     * Get the count of reads which were delayed by read rate limits.
+     *
+     * @return the count of throttled reads.
+     */
+    public long getThrottledReads() {
+        return throttledReads;
+    }
+
+    /**
+     * Get the count of connections which are waiting for delayed reads.
+     *
+     * @return the count of throttled connections.
+     */
+    public long getThrottledConnections() {
+        return throttledConnections;
+    }
+
+    /**
+     * Get the count of accepted connections which were closed by connection limits.
+     *
+     * @return the count of rejected connections.
+     */
+    public long getRejectedConnections() {
+        return rejectedConnections;
+    }
+
+    /**
+     * Get the count of accepts which were delayed by an accept rate.
+     *
+     * @return the count of delayed accepts.
+     */
+    public long getDelayedAccepts() {
+        return delayedAccepts;
+    }
+
+    /**
+     * Get the counts of packets by reads.
+     *
+     * @return the counts of packets by reads.
+     */
+    public @NotNull HistogramSnapshot getPacketsByRead() {
+        return packetsByRead;
+    }
+
+    /**
+     * Get the depths of send queues when adding packets.
+     *
+     * @return the depths of send queues.
+     */
+    public @NotNull HistogramSnapshot getSendQueueDepth() {
+        return sendQueueDepth;
+    }
+
+    /**
+     * Get the times from starting writes to their completion in nanoseconds.
+     *
+     * @return the write latency.
+     */
+    public @NotNull HistogramSnapshot getWriteLatency() {
+        return writeLatency;
+    }
+
+    /**
+     * Get the times of encrypting and decrypting in nanoseconds.
+     *
+     * @return the crypt time.
+     */
+    public @NotNull HistogramSnapshot getCryptTime() {
+        return cryptTime;
+    }
+
+    @Override
+    public String toString() {
+        return "NetworkMetricsSnapshot{" + "receivedBytes=" + receivedBytes + ", sentBytes=" + sentBytes +
+                ", receivedPackets=" + receivedPackets + ", sentPackets=" + sentPackets + ", limitedReads=" +
+                limitedReads + ", largeFrames=" + largeFrames + ", compactions=" + compactions + ", readBufferGrowths=" +
+                readBufferGrowths + ", readBufferShrinks=" + readBufferShrinks + ", droppedPackets=" +
+                droppedPackets + ", waitPackets=" + waitPackets + ", throttledReads=" + throttledReads +
+                ", throttledConnections=" + throttledConnections + ", rejectedConnections=" + rejectedConnections +
+                ", delayedAccepts=" + delayedAccepts + ", packetsByRead=" + packetsByRead +
+                ", sendQueueDepth=" + sendQueueDepth + ", writeLatency=" + writeLatency + ", cryptTime=" + cryptTime +
+                '}';
+    }
+}
@@ -0,0 +1,21 @@
+package com.ss.rlib.common.network.packet;
+
+import com.ss.rlib.common.network.ConnectionOwner;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The interface to implement a readable packet which is handled separately from reading. The packet reads data by a
+ * network thread and is handled later by a worker thread of the {@link com.ss.rlib.common.network.PacketDispatcher}
+ * if the network has it, otherwise it's handled right after reading.
+ *
+ * @author JavaSaBr
+ */
+public interface HandleablePacket extends ReusableReadablePacket {
+
+    /**
+     * Handle read data of this packet.
+     *
+     * @param owner the owner.
+     */
+    void handle(@NotNull ConnectionOwner owner);
+}
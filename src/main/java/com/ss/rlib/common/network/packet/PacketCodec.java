@@ -0,0 +1,12 @@
+package com.ss.rlib.common.network.packet;
+
+/**
+ * The interface to implement a codec of data of packets, codecs are generated for packets with not final fields
+ * marked by {@link com.ss.rlib.common.network.annotation.PacketField}, packets with final fields get only a
+ * {@link PacketWriter}. The data doesn't include the packet id.
+ *
+ * @param <P> the packet's type.
+ * @author JavaSaBr
+ */
+public interface PacketCodec<P> extends PacketWriter<P>, PacketReader<P> {
+}
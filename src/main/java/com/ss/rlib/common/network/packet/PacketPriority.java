@@ -0,0 +1,49 @@
+package com.ss.rlib.common.network.packet;
+
+import com.ss.rlib.common.network.annotation.PacketDescription;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The priority of a writable packet, waited packets of a connection are written by lanes of priorities, so packets of
+ * a higher priority aren't delayed by packets of lower priorities which were sent before them. The order of packets
+ * is kept only inside one priority.
+ *
+ * @author JavaSaBr
+ */
+public enum PacketPriority {
+
+    /**
+     * Latency-critical packets which are written before other packets.
+     */
+    HIGH,
+    /**
+     * Usual packets.
+     */
+    NORMAL,
+    /**
+     * Large transfers which are written when there are no other packets or when they wait too long.
+     */
+    BULK;
+
+    /**
+     * The priorities of packet classes, they are cached to not look for the annotation on sending every packet.
+     */
+    private static final ClassValue<PacketPriority> PRIORITIES = new ClassValue<>() {
+
+        @Override
+        protected PacketPriority computeValue(@NotNull Class<?> type) {
+            PacketDescription description = type.getAnnotation(PacketDescription.class);
+            return description == null ? NORMAL : description.priority();
+        }
+    };
+
+    /**
+     * Get the priority of the packet class from its {@link PacketDescription}.
+     *
+     * @param type the packet class.
+     * @return the priority or {@link #NORMAL} if the class has no description.
+     */
+    public static @NotNull PacketPriority of(@NotNull Class<?> type) {
+        return PRIORITIES.get(type);
+    }
+}
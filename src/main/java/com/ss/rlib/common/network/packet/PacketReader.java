@@ -0,0 +1,24 @@
+package com.ss.rlib.common.network.packet;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The interface to implement a reader of data of packets, readers are generated for packets with not final fields
+ * marked by {@link com.ss.rlib.common.network.annotation.PacketField}. The data doesn't include the packet id.
+ *
+ * @param <P> the packet's type.
+ * @author JavaSaBr
+ */
+public interface PacketReader<P> {
+
+    /**
+     * Read data of the packet from the buffer, lengths of strings and arrays are checked before reading.
+     *
+     * @param packet the packet.
+     * @param buffer the buffer.
+     * @return false if the buffer doesn't contain correct data of the packet.
+     */
+    boolean read(@NotNull P packet, @NotNull ByteBuffer buffer);
+}
@@ -0,0 +1,32 @@
+package com.ss.rlib.common.network.packet;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The interface to implement a writer of data of packets, writers are generated for packets with fields marked by
+ * {@link com.ss.rlib.common.network.annotation.PacketField}. The data doesn't include the packet id.
+ *
+ * @param <P> the packet's type.
+ * @author JavaSaBr
+ */
+public interface PacketWriter<P> {
+
+    /**
+     * Get the exact length of serialized data of the packet.
+     *
+     * @param packet the packet.
+     * @return the length of data in bytes.
+     */
+    int getLength(@NotNull P packet);
+
+    /**
+     * Write data of the packet to the buffer, the buffer should have at least {@link #getLength(Object)} remaining
+     * bytes.
+     *
+     * @param packet the packet.
+     * @param buffer the buffer.
+     */
+    void write(@NotNull P packet, @NotNull ByteBuffer buffer);
+}
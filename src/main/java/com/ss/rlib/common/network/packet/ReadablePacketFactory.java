@@ -0,0 +1,19 @@
+package com.ss.rlib.common.network.packet;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The factory of readable packets of one type.
+ *
+ * @author JavaSaBr
+ */
+@FunctionalInterface
+public interface ReadablePacketFactory {
+
+    /**
+     * Create a new instance of the packet.
+     *
+     * @return the new packet.
+     */
+    @NotNull ReadablePacket newInstance();
+}
@@ -0,0 +1,36 @@
+package com.ss.rlib.common.network.packet;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The provider of the table of readable packets which is loaded by {@link java.util.ServiceLoader}. Providers are
+ * generated for packets with {@link com.ss.rlib.common.network.annotation.PacketDescription} at compile time, so a
+ * registry can be created without scanning the classpath and without reflection.
+ *
+ * @author JavaSaBr
+ */
+public interface ReadablePacketProvider {
+
+    /**
+     * Get the count of provided packets.
+     *
+     * @return the count of packets.
+     */
+    int size();
+
+    /**
+     * Get the id of a provided packet.
+     *
+     * @param index the index of the packet.
+     * @return the packet id.
+     */
+    int getId(int index);
+
+    /**
+     * Get the factory of a provided packet.
+     *
+     * @param index the index of the packet.
+     * @return the packet factory.
+     */
+    @NotNull ReadablePacketFactory getFactory(int index);
+}
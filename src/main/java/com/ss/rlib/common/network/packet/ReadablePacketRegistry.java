@@ -2,6 +2,7 @@ package com.ss.rlib.common.network.packet;
 
 import java.util.Arrays;
 import java.util.Optional;
+import java.util.ServiceLoader;
 
 import com.ss.rlib.common.network.annotation.PacketDescription;
 import org.jetbrains.annotations.NotNull;
@@ -12,6 +13,8 @@ import com.ss.rlib.common.network.annotation.PacketDescription;
 import com.ss.rlib.common.util.ClassUtils;
 import com.ss.rlib.common.util.array.Array;
 import com.ss.rlib.common.util.array.ArrayCollectors;
+import com.ss.rlib.common.util.pools.PoolFactory;
+import com.ss.rlib.common.util.pools.ReusablePool;
 
 /**
  * The registry of readable packets.
@@ -77,6 +80,59 @@ public class ReadablePacketRegistry {
         return registry;
     }
 
+    /**
+     * Creates a new readable packet registry by the packet providers.
+     *
+     * @param providers the packet providers.
+     * @return the new packet registry.
+     * @throws IllegalArgumentException if found duplication by id.
+     */
+    public static @NotNull ReadablePacketRegistry of(@NotNull final ReadablePacketProvider... providers) {
+
+        final ReadablePacketRegistry registry = new ReadablePacketRegistry();
+
+        for (final ReadablePacketProvider provider : providers) {
+            for (int i = 0, length = provider.size(); i < length; i++) {
+                registry.register(provider.getId(i), provider.getFactory(i));
+            }
+        }
+
+        return registry;
+    }
+
+    /**
+     * Creates a new readable packet registry by generated packet providers which are found by {@link ServiceLoader},
+     * the classpath isn't scanned.
+     *
+     * @return the new packet registry.
+     * @throws IllegalArgumentException if found duplication by id.
+     */
+    public static @NotNull ReadablePacketRegistry newByProviders() {
+        return of(loadProviders(ServiceLoader.load(ReadablePacketProvider.class))
+                .toArray(ReadablePacketProvider.class));
+    }
+
+    /**
+     * Creates a new readable packet registry by generated packet providers which are found by {@link ServiceLoader}
+     * in the class loader, the classpath isn't scanned.
+     *
+     * @param classLoader the class loader to find providers.
+     * @return the new packet registry.
+     * @throws IllegalArgumentException if found duplication by id.
+     */
+    public static @NotNull ReadablePacketRegistry newByProviders(@NotNull final ClassLoader classLoader) {
+        return of(loadProviders(ServiceLoader.load(ReadablePacketProvider.class, classLoader))
+                .toArray(ReadablePacketProvider.class));
+    }
+
+    private static @NotNull Array<ReadablePacketProvider> loadProviders(
+            @NotNull final ServiceLoader<ReadablePacketProvider> loader
+    ) {
+        final Array<ReadablePacketProvider> providers = Array.ofType(ReadablePacketProvider.class);
+        loader.forEach(providers::add);
+        return providers;
+    }
+
     /**
      * Creates a new readable packet registry by the array of classes.
      *
@@ -108,8 +164,28 @@ public class ReadablePacketRegistry {
     @NotNull
     private volatile ReadablePacket[] idToPacket;
 
+    /**
+     * The array packet id to packet factory.
+     */
+    @NotNull
+    private volatile ReadablePacketFactory[] idToFactory;
+
+    /**
+     * The thread local pools of reusable packets by packet ids.
+     */
+    @NotNull
+    private final ThreadLocal<ReusablePool<ReusableReadablePacket>[]> localPools;
+
     public ReadablePacketRegistry() {
         this.idToPacket = new ReadablePacket[0];
+        this.idToFactory = new ReadablePacketFactory[0];
+        this.localPools = ThreadLocal.withInitial(ReadablePacketRegistry::newPools);
+    }
+
+    // an array of a generic type can't be created, so the empty array is created raw
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static @NotNull ReusablePool<ReusableReadablePacket>[] newPools() {
+        return new ReusablePool[0];
     }
 
     /**
@@ -143,20 +219,43 @@ public class ReadablePacketRegistry {
                 .map(type -> type.getAnnotation(PacketDescription.class))
                 .mapToInt(PacketDescription::id).max().orElseThrow(() -> new IllegalStateException("Not found any packet id"));
 
-        idToPacket = Arrays.copyOf(idToPacket, maxId + 1);
+        ensureCapacity(maxId + 1);
 
         for (int i = 0; i < length; i++) {
 
             final Class<? extends ReadablePacket> type = classes[i];
             final PacketDescription description = type.getAnnotation(PacketDescription.class);
-            final int id = description.id();
 
-            if (idToPacket[id] != null) {
-                throw new IllegalArgumentException("Have found duplication by the id " + id + ", existed packet is " +
-                        idToPacket[id].getClass() + ", new packet is " + type);
-            }
+            register(description.id(), () -> ClassUtils.newInstance(type));
+        }
+    }
+
+    /**
+     * Register the factory of readable packets.
+     *
+     * @param id      the packet id.
+     * @param factory the packet factory.
+     * @throws IllegalArgumentException if found duplication by the id.
+     */
+    private void register(final int id, @NotNull final ReadablePacketFactory factory) {
+
+        ensureCapacity(id + 1);
 
-            idToPacket[id] = ClassUtils.newInstance(type);
+        final ReadablePacket packet = factory.newInstance();
+
+        if (idToPacket[id] != null) {
+            throw new IllegalArgumentException("Have found duplication by the id " + id + ", existed packet is " +
+                    idToPacket[id].getClass() + ", new packet is " + packet.getClass());
+        }
+
+        idToPacket[id] = packet;
+        idToFactory[id] = factory;
+    }
+
+    private void ensureCapacity(final int size) {
+        if (idToPacket.length < size) {
+            idToPacket = Arrays.copyOf(idToPacket, size);
+            idToFactory = Arrays.copyOf(idToFactory, size);
         }
     }
 
@@ -174,4 +273,45 @@ public class ReadablePacketRegistry {
         }
         return packet;
     }
+
+    /**
+     * Take a packet to read received data by the id. A reusable packet is taken from the pool of the current thread,
+     * other packets are shared instances.
+     *
+     * @param id the packet id.
+     * @return the packet.
+     * @throws IllegalArgumentException if can't find a packet by the id.
+     */
+    public @NotNull ReadablePacket takeById(final int id) {
+
+        final ReadablePacket packet = findById(id);
+
+        if (!(packet instanceof ReusableReadablePacket)) {
+            return packet;
+        }
+
+        ReusablePool<ReusableReadablePacket>[] pools = localPools.get();
+
+        if (pools.length <= id) {
+            pools = Arrays.copyOf(pools, idToPacket.length);
+            localPools.set(pools);
+        }
+
+        ReusablePool<ReusableReadablePacket> pool = pools[id];
+
+        if (pool == null) {
+            pool = PoolFactory.newConcurrentAtomicARSWLockReusablePool(ReusableReadablePacket.class);
+            pools[id] = pool;
+        }
+
+        ReusableReadablePacket result = pool.take();
+
+        if (result == null) {
+            result = (ReusableReadablePacket) idToFactory[id].newInstance();
+        }
+
+        result.setPool(pool);
+
+        return result;
+    }
 }
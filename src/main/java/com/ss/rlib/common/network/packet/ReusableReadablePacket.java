@@ -0,0 +1,33 @@
+package com.ss.rlib.common.network.packet;
+
+import com.ss.rlib.common.util.pools.Pool;
+import com.ss.rlib.common.util.pools.Reusable;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The interface to implement a reusable readable packet. A new instance is taken from a pool for each received
+ * packet, so it can keep read data after reading and can be handled by another thread. The connection releases the
+ * packet after reading, so the packet should be retained to be handled later and released after handling.
+ *
+ * @author JavaSaBr
+ */
+public interface ReusableReadablePacket extends ReadablePacket, Reusable {
+
+    /**
+     * Increase the count of references to this packet.
+     */
+    void retain();
+
+    /**
+     * Decrease the count of references to this packet and store it to the pool if there are no other references.
+     */
+    @Override
+    void release();
+
+    /**
+     * Set the pool.
+     *
+     * @param pool the pool to store used packet.
+     */
+    void setPool(@NotNull Pool<ReusableReadablePacket> pool);
+}
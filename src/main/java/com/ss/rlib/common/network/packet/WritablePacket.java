@@ -1,6 +1,7 @@
 package com.ss.rlib.common.network.packet;
 
 import com.ss.rlib.common.network.annotation.PacketDescription;
+import com.ss.rlib.common.util.BufferUtils;
 import org.jetbrains.annotations.NotNull;
 
 import java.nio.ByteBuffer;
@@ -83,7 +84,9 @@ public interface WritablePacket extends Packet {
      *
      * @param buffer     the buffer.
      * @param packetSize the result packet size.
+     * @deprecated frame headers are written by {@link com.ss.rlib.common.network.FrameCodec} of the network config.
      */
+    @Deprecated
     default void writePacketSize(@NotNull final ByteBuffer buffer, final int packetSize) {
         buffer.putShort(0, (short) packetSize);
     }
@@ -112,7 +115,9 @@ public interface WritablePacket extends Packet {
      * Prepare the start position in the buffer to write data from this packet.
      *
      * @param buffer the buffer
+     * @deprecated frame headers are written by {@link com.ss.rlib.common.network.FrameCodec} of the network config.
      */
+    @Deprecated
     default void prepareWritePosition(@NotNull final ByteBuffer buffer) {
         buffer.position(2);
     }
@@ -142,13 +147,40 @@ public interface WritablePacket extends Packet {
     }
 
     /**
-     * Write a data buffer to packet buffer.
+     * Write remaining data of a data buffer to packet buffer.
      *
      * @param buffer thr packet buffer.
      * @param data   the data buffer.
      */
     default void writeBuffer(@NotNull final ByteBuffer buffer, @NotNull final ByteBuffer data) {
-        buffer.put(data.array(), data.position(), data.limit());
+        BufferUtils.copy(data, data.position(), data.remaining(), buffer);
+    }
+
+    /**
+     * Get the expected length of data of this packet to take a large enough buffer to write it.
+     *
+     * @return the expected length of data or -1 if this packet fits into a usual write buffer.
+     */
+    default int getExpectedLength() {
+        return -1;
+    }
+
+    /**
+     * Check if this packet can be dropped when the send queue of a connection is overflowed.
+     *
+     * @return true if this packet can be dropped.
+     */
+    default boolean isDroppable() {
+        return false;
+    }
+
+    /**
+     * Get the priority of sending this packet, it's taken from {@link PacketDescription} by default.
+     *
+     * @return the priority of this packet.
+     */
+    default @NotNull PacketPriority getPriority() {
+        return PacketPriority.of(getClass());
     }
 
     /**
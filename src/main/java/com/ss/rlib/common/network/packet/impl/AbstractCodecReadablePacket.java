@@ -0,0 +1,43 @@
+package com.ss.rlib.common.network.packet.impl;
+
+import com.ss.rlib.common.network.ConnectionOwner;
+import com.ss.rlib.common.network.packet.PacketReader;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The base implementation of a readable packet which is read by a generated codec. A packet marks its fields by
+ * {@link com.ss.rlib.common.network.annotation.PacketField} and returns the generated codec, for example
+ * {@code MovePacketCodec.INSTANCE} for a packet {@code MovePacket}. Incorrect data is rejected by the codec without
+ * exceptions, {@link #readImpl(ConnectionOwner, ByteBuffer)} is called after reading all fields.
+ *
+ * @param <P> the packet's type.
+ * @author JavaSaBr
+ */
+public abstract class AbstractCodecReadablePacket<P extends AbstractCodecReadablePacket<P>>
+        extends AbstractReadablePacket {
+
+    /**
+     * Get the generated codec of this packet.
+     *
+     * @return the codec.
+     */
+    protected abstract @NotNull PacketReader<P> getCodec();
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean read(@NotNull ConnectionOwner owner, @NotNull ByteBuffer buffer) {
+
+        if (!getCodec().read((P) this, buffer)) {
+            LOGGER.warning(this, "incorrect data of the packet " + getName() + " in the buffer " + buffer);
+            return false;
+        }
+
+        return super.read(owner, buffer);
+    }
+
+    @Override
+    protected void readImpl(@NotNull ConnectionOwner owner, @NotNull ByteBuffer buffer) {
+    }
+}
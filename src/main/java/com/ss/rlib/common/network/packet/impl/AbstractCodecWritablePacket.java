@@ -0,0 +1,42 @@
+package com.ss.rlib.common.network.packet.impl;
+
+import com.ss.rlib.common.network.packet.PacketWriter;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The base implementation of a writable packet which is written by a generated codec. A packet marks its fields by
+ * {@link com.ss.rlib.common.network.annotation.PacketField} and returns the generated codec, for example
+ * {@code MovePacketCodec.INSTANCE} for a packet {@code MovePacket}. The expected length of the packet is exact, so a
+ * buffer for the packet doesn't need to be resized.
+ *
+ * @param <P> the packet's type.
+ * @author JavaSaBr
+ */
+public abstract class AbstractCodecWritablePacket<P extends AbstractCodecWritablePacket<P>>
+        extends AbstractWritablePacket {
+
+    /**
+     * Get the generated codec of this packet.
+     *
+     * @return the codec.
+     */
+    protected abstract @NotNull PacketWriter<P> getCodec();
+
+    @Override
+    protected void writeImpl(@NotNull ByteBuffer buffer) {
+        super.writeImpl(buffer);
+        getCodec().write(self(), buffer);
+    }
+
+    @Override
+    public int getExpectedLength() {
+        return Short.BYTES + getCodec().getLength(self());
+    }
+
+    @SuppressWarnings("unchecked")
+    private @NotNull P self() {
+        return (P) this;
+    }
+}
@@ -46,15 +46,6 @@ public abstract class AbstractReadablePacket extends AbstractPacket implements R
     protected void handleException(@NotNull ByteBuffer buffer, @NotNull Exception exception) {
 
         LOGGER.warning(this, exception);
-
-        if (buffer.isDirect()) {
-            byte[] array = new byte[buffer.limit()];
-            buffer.get(array, 0, buffer.limit());
-            LOGGER.warning(this, "buffer " +
-                    buffer + "\n" + Utils.hexdump(array, array.length));
-        } else {
-            LOGGER.warning(this, "buffer " +
-                    buffer + "\n" + Utils.hexdump(buffer.array(), buffer.limit()));
-        }
+        LOGGER.warning(this, "buffer " + buffer + "\n" + Utils.hexdump(buffer, buffer.limit()));
     }
 }
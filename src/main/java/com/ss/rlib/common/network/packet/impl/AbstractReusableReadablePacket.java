@@ -0,0 +1,71 @@
+package com.ss.rlib.common.network.packet.impl;
+
+import com.ss.rlib.common.concurrent.atomic.AtomicInteger;
+import com.ss.rlib.common.network.packet.ReusableReadablePacket;
+import com.ss.rlib.common.util.pools.Pool;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The reusable implementation of {@link AbstractReadablePacket} using the counter of references to control the life
+ * cycle of this packet.
+ *
+ * @author JavaSaBr
+ */
+public abstract class AbstractReusableReadablePacket extends AbstractReadablePacket implements ReusableReadablePacket {
+
+    /**
+     * The counter of references.
+     */
+    @NotNull
+    protected final AtomicInteger counter;
+
+    /**
+     * The pool to store this packet after using.
+     */
+    @Nullable
+    protected volatile Pool<ReusableReadablePacket> pool;
+
+    protected AbstractReusableReadablePacket() {
+        this.counter = new AtomicInteger(1);
+    }
+
+    @Override
+    public void reuse() {
+        counter.set(1);
+    }
+
+    @Override
+    public void retain() {
+        counter.incrementAndGet();
+    }
+
+    @Override
+    public void release() {
+
+        int references = counter.decrementAndGet();
+
+        if (references > 0) {
+            return;
+        } else if (references < 0) {
+            LOGGER.warning(this, "release already released packet " + this);
+            return;
+        }
+
+        Pool<ReusableReadablePacket> pool = this.pool;
+
+        if (pool != null) {
+            pool.put(this);
+        }
+    }
+
+    @Override
+    public final void setPool(@NotNull Pool<ReusableReadablePacket> pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public String toString() {
+        return "AbstractReusableReadablePacket{" + "counter=" + counter + "} " + super.toString();
+    }
+}
@@ -31,7 +31,7 @@ public abstract class AbstractWritablePacket extends AbstractPacket implements W
             writeImpl(buffer);
         } catch (final Exception e) {
             LOGGER.warning(this, e);
-            LOGGER.warning(this, "Buffer " + buffer + "\n" + Utils.hexdump(buffer.array(), buffer.position()));
+            LOGGER.warning(this, "Buffer " + buffer + "\n" + Utils.hexdump(buffer, buffer.position()));
         }
     }
 
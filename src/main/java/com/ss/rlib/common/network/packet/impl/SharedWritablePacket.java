@@ -0,0 +1,200 @@
+package com.ss.rlib.common.network.packet.impl;
+
+import com.ss.rlib.common.concurrent.atomic.AtomicInteger;
+import com.ss.rlib.common.logging.Logger;
+import com.ss.rlib.common.logging.LoggerManager;
+import com.ss.rlib.common.network.AsyncNetwork;
+import com.ss.rlib.common.network.packet.PacketPriority;
+import com.ss.rlib.common.network.packet.ReusableWritablePacket;
+import com.ss.rlib.common.network.packet.WritablePacket;
+import com.ss.rlib.common.util.pools.Pool;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The packet with already serialized data of another packet to send the same data to many connections. The data is
+ * serialized once to a buffer of the network and each connection only copies it to its write buffer, so encryption of a
+ * connection is still applied to its own copy. The buffer is returned to the network when the last connection has
+ * written the data.
+ *
+ * @author JavaSaBr
+ */
+public final class SharedWritablePacket implements ReusableWritablePacket {
+
+    private static final Logger LOGGER = LoggerManager.getLogger(SharedWritablePacket.class);
+
+    /**
+     * Serialize the packet to a new shared packet. The shared packet is retained by the caller, so it should be
+     * completed after sending it to all connections.
+     *
+     * @param network the network to take a buffer.
+     * @param packet  the packet to serialize.
+     * @return the new shared packet.
+     */
+    public static @NotNull SharedWritablePacket of(@NotNull AsyncNetwork network, @NotNull WritablePacket packet) {
+
+        int expectedLength = packet.getExpectedLength();
+        boolean large = expectedLength > network.getConfig().getWriteBufferSize();
+
+        ByteBuffer buffer = large ? network.takeLargeBuffer(expectedLength) : network.takeWriteBuffer();
+
+        packet.notifyAddedToSend();
+        try {
+            buffer.clear();
+            packet.write(buffer);
+            buffer.flip();
+        } finally {
+            if (packet instanceof ReusableWritablePacket) {
+                ((ReusableWritablePacket) packet).complete();
+            }
+        }
+
+        return new SharedWritablePacket(network, buffer, packet.getName(), large, packet.isDroppable(),
+                packet.getPriority());
+    }
+
+    /**
+     * The network which owns the buffer.
+     */
+    @NotNull
+    private final AsyncNetwork network;
+
+    /**
+     * The serialized data from the start to the limit.
+     */
+    @NotNull
+    private final ByteBuffer data;
+
+    /**
+     * The counter of pending sendings.
+     */
+    @NotNull
+    private final AtomicInteger counter;
+
+    /**
+     * The name of the serialized packet.
+     */
+    @NotNull
+    private final String name;
+
+    /**
+     * True if the buffer is a large buffer.
+     */
+    private final boolean large;
+
+    /**
+     * True if the packet can be dropped.
+     */
+    private final boolean droppable;
+
+    /**
+     * The priority of the packet.
+     */
+    @NotNull
+    private final PacketPriority priority;
+
+    private SharedWritablePacket(
+            @NotNull AsyncNetwork network,
+            @NotNull ByteBuffer data,
+            @NotNull String name,
+            boolean large,
+            boolean droppable,
+            @NotNull PacketPriority priority
+    ) {
+        this.network = network;
+        this.data = data;
+        this.name = name;
+        this.large = large;
+        this.droppable = droppable;
+        this.priority = priority;
+        this.counter = new AtomicInteger(1);
+    }
+
+    @Override
+    public void write(@NotNull ByteBuffer buffer) {
+
+        if (counter.get() < 1) {
+            LOGGER.warning(this, "write finished packet " + this);
+            return;
+        }
+
+        // the data is copied by many threads at the same time, so the position of the data can't be changed
+        if (data.hasArray()) {
+            buffer.put(data.array(), data.arrayOffset(), data.limit());
+        } else {
+            buffer.put(data.duplicate());
+        }
+    }
+
+    @Override
+    public @NotNull String getName() {
+        return name;
+    }
+
+    @Override
+    public int getExpectedLength() {
+        return data.limit();
+    }
+
+    @Override
+    public boolean isDroppable() {
+        return droppable;
+    }
+
+    @Override
+    public @NotNull PacketPriority getPriority() {
+        return priority;
+    }
+
+    @Override
+    public void complete() {
+        if (counter.decrementAndGet() == 0) {
+            if (large) {
+                network.putLargeBuffer(data);
+            } else {
+                network.putWriteBuffer(data);
+            }
+        }
+    }
+
+    @Override
+    public void forceComplete() {
+        counter.set(1);
+        complete();
+    }
+
+    @Override
+    public void decreaseSends() {
+        counter.decrementAndGet();
+    }
+
+    @Override
+    public void decreaseSends(int count) {
+        counter.subAndGet(count);
+    }
+
+    @Override
+    public void increaseSends() {
+        counter.incrementAndGet();
+    }
+
+    @Override
+    public void increaseSends(int count) {
+        counter.addAndGet(count);
+    }
+
+    /**
+     * Shared packets aren't stored to pools.
+     *
+     * @param pool the pool.
+     */
+    @Override
+    public void setPool(@NotNull Pool<ReusableWritablePacket> pool) {
+    }
+
+    @Override
+    public String toString() {
+        return "SharedWritablePacket{" + "name=" + name + ", length=" + data.limit() + ", counter=" + counter + '}';
+    }
+}
@@ -2,7 +2,6 @@ package com.ss.rlib.common.network.server;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
-import java.net.StandardSocketOptions;
 import java.nio.channels.AsynchronousSocketChannel;
 import java.nio.channels.CompletionHandler;
 import java.util.function.BiFunction;
@@ -40,8 +39,7 @@ public interface AcceptHandler extends CompletionHandler<AsynchronousSocketChann
         return (channel, network) -> {
 
             try {
-                channel.setOption(StandardSocketOptions.SO_SNDBUF, 12000);
-                channel.setOption(StandardSocketOptions.SO_RCVBUF, 24000);
+                network.configureChannel(channel);
             } catch (IOException e) {
                 throw new UncheckedIOException(e);
             }
@@ -1,6 +1,9 @@
 package com.ss.rlib.common.network.server;
 
 import com.ss.rlib.common.network.AsyncNetwork;
+import com.ss.rlib.common.network.ConnectionOwner;
+import com.ss.rlib.common.network.packet.WritablePacket;
+import com.ss.rlib.common.network.packet.impl.SharedWritablePacket;
 import com.ss.rlib.common.network.server.client.Client;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -45,6 +48,25 @@ public interface ServerNetwork extends AsyncNetwork {
      */
     void bind(@NotNull SocketAddress address) throws IOException;
 
+    /**
+     * Send the packet to many owners. The packet is serialized only once and each owner gets a copy of serialized
+     * data which is encrypted by the crypt of the owner.
+     *
+     * @param packet the packet.
+     * @param owners the owners.
+     */
+    default void broadcast(@NotNull WritablePacket packet, @NotNull Iterable<? extends ConnectionOwner> owners) {
+
+        SharedWritablePacket shared = SharedWritablePacket.of(this, packet);
+        try {
+            for (ConnectionOwner owner : owners) {
+                owner.sendPacket(shared);
+            }
+        } finally {
+            shared.complete();
+        }
+    }
+
     /**
      * Notify the server about destroying the client.
      *
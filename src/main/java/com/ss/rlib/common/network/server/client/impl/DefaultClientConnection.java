@@ -18,15 +18,22 @@ import java.nio.channels.AsynchronousSocketChannel;
 public class DefaultClientConnection extends AbstractAsyncConnection implements ClientConnection {
 
     public DefaultClientConnection(@NotNull ServerNetwork network, @NotNull AsynchronousSocketChannel channel) {
-        super(network, channel, WritablePacket.class);
+        super(network, channel);
     }
 
+    /**
+     * @param network      the network.
+     * @param channel      the channel.
+     * @param sendableType the type of sendable packets.
+     * @deprecated the type of sendable packets isn't used, use the constructor without it.
+     */
+    @Deprecated
     public DefaultClientConnection(
             @NotNull ServerNetwork network,
             @NotNull AsynchronousSocketChannel channel,
             @NotNull Class<? extends WritablePacket> sendableType
     ) {
-        super(network, channel, sendableType);
+        this(network, channel);
     }
 
     @Override
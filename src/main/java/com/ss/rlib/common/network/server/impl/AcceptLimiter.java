@@ -0,0 +1,294 @@
+package com.ss.rlib.common.network.server.impl;
+
+import com.ss.rlib.common.logging.Logger;
+import com.ss.rlib.common.logging.LoggerManager;
+import com.ss.rlib.common.network.NetworkConfig;
+import com.ss.rlib.common.network.metrics.NetworkMetrics;
+import com.ss.rlib.common.network.server.AcceptHandler;
+import com.ss.rlib.common.network.server.ServerNetwork;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.channels.AsynchronousSocketChannel;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The accept handler which applies limits of {@link NetworkConfig} before passing accepted connections to the
+ * accept handler of a server.
+ * <p>
+ * The next accept is delayed while the accept rate is exceeded, so connections of a storm wait in the backlog of the
+ * server socket instead of being dropped. Connections over the max count of connections or over the max count of
+ * connections from one address are closed right after accepting. An admitted connection is counted until its client
+ * is destroyed.
+ *
+ * @author JavaSaBr
+ */
+public final class AcceptLimiter implements AcceptHandler {
+
+    private static final Logger LOGGER = LoggerManager.getLogger(AcceptLimiter.class);
+
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * Check the config on limits of accepting.
+     *
+     * @param config the network config.
+     * @return true if the config has any limit of accepting.
+     */
+    public static boolean isLimited(@NotNull NetworkConfig config) {
+        return config.getAcceptRate() > 0 || config.getMaxConnections() > 0 ||
+                config.getMaxConnectionsPerAddress() > 0;
+    }
+
+    /**
+     * The accept handler of the server.
+     */
+    @NotNull
+    private final AcceptHandler acceptHandler;
+
+    /**
+     * The metrics of the server or null.
+     */
+    @Nullable
+    private final NetworkMetrics metrics;
+
+    /**
+     * The remote addresses of admitted connections.
+     */
+    @NotNull
+    private final Set<SocketAddress> admitted;
+
+    /**
+     * The counts of admitted connections by remote IP addresses.
+     */
+    @NotNull
+    private final ConcurrentHashMap<InetAddress, AtomicInteger> connectionsByAddress;
+
+    /**
+     * The count of admitted connections.
+     */
+    @NotNull
+    private final AtomicInteger connections;
+
+    /**
+     * The max count of connections or 0.
+     */
+    private final int maxConnections;
+
+    /**
+     * The max count of connections from one address or 0.
+     */
+    private final int maxConnectionsPerAddress;
+
+    /**
+     * The rate of accepts per nanosecond or 0.
+     */
+    private final double acceptRate;
+
+    /**
+     * The max count of tokens of accepts.
+     */
+    private final double acceptCapacity;
+
+    /**
+     * The current tokens of accepts, they are changed only by the single pending accept.
+     */
+    private double acceptTokens;
+
+    /**
+     * The time of the last refill in nanoseconds.
+     */
+    private long lastAcceptTime;
+
+    public AcceptLimiter(
+            @NotNull NetworkConfig config,
+            @NotNull AcceptHandler acceptHandler,
+            @Nullable NetworkMetrics metrics
+    ) {
+        this.acceptHandler = acceptHandler;
+        this.metrics = metrics;
+        this.admitted = ConcurrentHashMap.newKeySet();
+        this.connectionsByAddress = new ConcurrentHashMap<>();
+        this.connections = new AtomicInteger();
+        this.maxConnections = config.getMaxConnections();
+        this.maxConnectionsPerAddress = config.getMaxConnectionsPerAddress();
+        this.acceptRate = config.getAcceptRate() / NANOS_PER_SECOND;
+        this.acceptCapacity = config.getAcceptRate();
+        this.acceptTokens = acceptCapacity;
+        this.lastAcceptTime = System.nanoTime();
+    }
+
+    @Override
+    public void completed(@NotNull AsynchronousSocketChannel result, @NotNull ServerNetwork network) {
+
+        long delay = acquireAccept(System.nanoTime());
+
+        if (delay > 0) {
+
+            if (metrics != null) {
+                metrics.onAcceptDelayed();
+            }
+
+            CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS, Runnable::run)
+                    .execute(() -> resumeAccept(network));
+
+        } else {
+            network.accept(network, this);
+        }
+
+        onAccept(result, network);
+    }
+
+    @Override
+    public void onAccept(@NotNull AsynchronousSocketChannel channel, @NotNull ServerNetwork network) {
+
+        SocketAddress address = remoteAddressOf(channel);
+
+        if (address == null || !admit(address)) {
+            reject(channel, address);
+            return;
+        }
+
+        try {
+            acceptHandler.onAccept(channel, network);
+        } catch (RuntimeException e) {
+            release(address);
+            throw e;
+        }
+    }
+
+    @Override
+    public void onFailed(@NotNull Throwable exception) {
+        acceptHandler.onFailed(exception);
+    }
+
+    /**
+     * Release the connection from the remote address if it was admitted.
+     *
+     * @param address the remote address of the connection.
+     */
+    public void release(@Nullable SocketAddress address) {
+
+        if (address == null || !admitted.remove(address)) {
+            return;
+        }
+
+        connections.decrementAndGet();
+
+        if (address instanceof InetSocketAddress) {
+            connectionsByAddress.computeIfPresent(((InetSocketAddress) address).getAddress(),
+                    (key, count) -> count.decrementAndGet() > 0 ? count : null);
+        }
+    }
+
+    /**
+     * Get the count of admitted connections.
+     *
+     * @return the count of admitted connections.
+     */
+    public int getConnections() {
+        return connections.get();
+    }
+
+    private boolean admit(@NotNull SocketAddress address) {
+
+        if (connections.incrementAndGet() > maxConnections && maxConnections > 0) {
+            connections.decrementAndGet();
+            return false;
+        }
+
+        if (maxConnectionsPerAddress > 0 && address instanceof InetSocketAddress) {
+
+            var admittedByAddress = new boolean[1];
+
+            connectionsByAddress.compute(((InetSocketAddress) address).getAddress(), (key, count) -> {
+
+                if (count == null) {
+                    count = new AtomicInteger();
+                }
+
+                admittedByAddress[0] = count.get() < maxConnectionsPerAddress;
+
+                if (admittedByAddress[0]) {
+                    count.incrementAndGet();
+                }
+
+                return count;
+            });
+
+            if (!admittedByAddress[0]) {
+                connections.decrementAndGet();
+                return false;
+            }
+        }
+
+        admitted.add(address);
+        return true;
+    }
+
+    private void reject(@NotNull AsynchronousSocketChannel channel, @Nullable SocketAddress address) {
+
+        if (metrics != null) {
+            metrics.onConnectionRejected();
+        }
+
+        LOGGER.debug(this, "reject the connection from " + address);
+
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOGGER.warning(this, e);
+        }
+    }
+
+    private void resumeAccept(@NotNull ServerNetwork network) {
+        try {
+            network.accept(network, this);
+        } catch (RuntimeException e) {
+            // the server was shutdown during the delay
+            LOGGER.debug(this, "can't resume accepting: " + e);
+        }
+    }
+
+    /**
+     * Take a token of an accept.
+     *
+     * @param now the current time in nanoseconds.
+     * @return the delay in nanoseconds before the next accept or 0.
+     */
+    private long acquireAccept(long now) {
+
+        if (acceptRate <= 0) {
+            return 0;
+        }
+
+        long elapsed = Math.max(now - lastAcceptTime, 0);
+
+        lastAcceptTime = now;
+        acceptTokens = Math.min(acceptTokens + elapsed * acceptRate, acceptCapacity) - 1;
+
+        return acceptTokens >= 0 ? 0 : (long) Math.ceil(-acceptTokens / acceptRate);
+    }
+
+    private static @Nullable SocketAddress remoteAddressOf(@NotNull AsynchronousSocketChannel channel) {
+        try {
+            return channel.getRemoteAddress();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "AcceptLimiter{" + "connections=" + connections + ", maxConnections=" + maxConnections +
+                ", maxConnectionsPerAddress=" + maxConnectionsPerAddress + ", acceptHandler=" + acceptHandler + '}';
+    }
+}
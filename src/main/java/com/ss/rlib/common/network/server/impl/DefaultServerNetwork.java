@@ -1,8 +1,9 @@
 package com.ss.rlib.common.network.server.impl;
 
-import com.ss.rlib.common.concurrent.GroupThreadFactory;
 import com.ss.rlib.common.network.NetworkConfig;
+import com.ss.rlib.common.network.NetworkTransport;
 import com.ss.rlib.common.network.impl.AbstractAsyncNetwork;
+import com.ss.rlib.common.network.impl.SelectorEventLoopGroup;
 import com.ss.rlib.common.network.packet.ReadablePacketRegistry;
 import com.ss.rlib.common.network.server.AcceptHandler;
 import com.ss.rlib.common.network.server.ServerNetwork;
@@ -26,11 +27,17 @@ import java.util.function.Consumer;
 public final class DefaultServerNetwork extends AbstractAsyncNetwork implements ServerNetwork {
 
     /**
-     * The asynchronous channel group.
+     * The asynchronous channel group of the async transport.
      */
-    @NotNull
+    @Nullable
     private final AsynchronousChannelGroup group;
 
+    /**
+     * The event loop group of the selector transport.
+     */
+    @Nullable
+    private final SelectorEventLoopGroup eventLoopGroup;
+
     /**
      * The asynchronous server socket channel.
      */
@@ -43,6 +50,12 @@ public final class DefaultServerNetwork extends AbstractAsyncNetwork implements
     @NotNull
     private final AcceptHandler acceptHandler;
 
+    /**
+     * The limiter of accepting or null if accepting isn't limited.
+     */
+    @Nullable
+    private final AcceptLimiter acceptLimiter;
+
     /**
      * The destroyed handler.
      */
@@ -57,11 +70,21 @@ public final class DefaultServerNetwork extends AbstractAsyncNetwork implements
 
         super(config, packetRegistry);
 
-        this.group = AsynchronousChannelGroup.withFixedThreadPool(config.getGroupSize(),
-                new GroupThreadFactory(config.getGroupName(), config.getThreadClass(), config.getThreadPriority()));
+        var threadFactory = newNetworkThreadFactory(config);
+
+        if (config.getTransport() == NetworkTransport.SELECTOR) {
+            this.group = null;
+            this.eventLoopGroup = new SelectorEventLoopGroup(config.getGroupSize(), threadFactory);
+            this.channel = eventLoopGroup.openServerSocketChannel();
+        } else {
+            this.group = AsynchronousChannelGroup.withFixedThreadPool(config.getGroupSize(), threadFactory);
+            this.eventLoopGroup = null;
+            this.channel = AsynchronousServerSocketChannel.open(group);
+        }
 
-        this.channel = AsynchronousServerSocketChannel.open(group);
         this.acceptHandler = acceptHandler;
+        this.acceptLimiter = AcceptLimiter.isLimited(config) ?
+                new AcceptLimiter(config, acceptHandler, getMetrics()) : null;
     }
 
     @Override
@@ -74,13 +97,22 @@ public final class DefaultServerNetwork extends AbstractAsyncNetwork implements
 
     @Override
     public void bind(@NotNull SocketAddress address) throws IOException {
-        channel.bind(address);
-        channel.accept(this, acceptHandler);
+        channel.bind(address, config.getAcceptBacklog());
+        channel.accept(this, acceptLimiter == null ? acceptHandler : acceptLimiter);
     }
 
     @Override
     public void shutdown() {
-        group.shutdown();
+
+        if (group != null) {
+            group.shutdown();
+        }
+
+        if (eventLoopGroup != null) {
+            eventLoopGroup.shutdown();
+        }
+
+        shutdownServices();
     }
 
     @Override
@@ -90,6 +122,11 @@ public final class DefaultServerNetwork extends AbstractAsyncNetwork implements
 
     @Override
     public void onDestroyed(@NotNull Client client) {
+
+        if (acceptLimiter != null) {
+            acceptLimiter.release(client.getConnection().getRemoteSocketAddress());
+        }
+
         if (destroyedHandler != null) {
             destroyedHandler.accept(client);
         }
@@ -99,8 +136,10 @@ public final class DefaultServerNetwork extends AbstractAsyncNetwork implements
     public String toString() {
         return "DefaultServerNetwork{" +
                 "group=" + group +
+                ", eventLoopGroup=" + eventLoopGroup +
                 ", channel=" + channel +
                 ", acceptHandler=" + acceptHandler +
+                ", acceptLimiter=" + acceptLimiter +
                 "} " + super.toString();
     }
 }
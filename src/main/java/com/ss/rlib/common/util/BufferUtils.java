@@ -44,7 +44,7 @@ public class BufferUtils {
      * @param destination the destination buffer.
      */
     public static void copyAndFlip(@NotNull final ByteBuffer buffer, @NotNull final ByteBuffer destination) {
-        destination.put(buffer.array(), buffer.position(), min(destination.remaining(), buffer.remaining()));
+        copy(buffer, destination);
         destination.flip();
     }
 
@@ -55,7 +55,68 @@ public class BufferUtils {
      * @param destination the destination buffer.
      */
     public static void copy(@NotNull final ByteBuffer buffer, @NotNull final ByteBuffer destination) {
-        destination.put(buffer.array(), buffer.position(), min(destination.remaining(), buffer.remaining()));
+        copy(buffer, buffer.position(), min(destination.remaining(), buffer.remaining()), destination);
+    }
+
+    /**
+     * Copy a region of a buffer to a destination without changing position and limit of the buffer. Works with
+     * both heap and direct buffers.
+     *
+     * @param buffer      the source buffer.
+     * @param offset      the offset in the source buffer.
+     * @param length      the length of the region.
+     * @param destination the destination buffer.
+     */
+    public static void copy(@NotNull final ByteBuffer buffer, final int offset, final int length,
+                            @NotNull final ByteBuffer destination) {
+
+        final int position = buffer.position();
+        final int limit = buffer.limit();
+
+        buffer.limit(offset + length);
+        buffer.position(offset);
+        destination.put(buffer);
+
+        buffer.limit(limit);
+        buffer.position(position);
+    }
+
+    /**
+     * Read a region of a buffer to a byte array without changing position and limit of the buffer.
+     *
+     * @param buffer      the source buffer.
+     * @param offset      the offset in the source buffer.
+     * @param array       the destination array.
+     * @param arrayOffset the offset in the destination array.
+     * @param length      the length of the region.
+     */
+    public static void get(@NotNull final ByteBuffer buffer, final int offset, @NotNull final byte[] array,
+                           final int arrayOffset, final int length) {
+
+        final int position = buffer.position();
+
+        buffer.position(offset);
+        buffer.get(array, arrayOffset, length);
+        buffer.position(position);
+    }
+
+    /**
+     * Write a region of a byte array to a buffer without changing position and limit of the buffer.
+     *
+     * @param buffer      the destination buffer.
+     * @param offset      the offset in the destination buffer.
+     * @param array       the source array.
+     * @param arrayOffset the offset in the source array.
+     * @param length      the length of the region.
+     */
+    public static void put(@NotNull final ByteBuffer buffer, final int offset, @NotNull final byte[] array,
+                           final int arrayOffset, final int length) {
+
+        final int position = buffer.position();
+
+        buffer.position(offset);
+        buffer.put(array, arrayOffset, length);
+        buffer.position(position);
     }
 
     /**
@@ -0,0 +1,54 @@
+package com.ss.rlib.common.util;
+
+/**
+ * The clock which caches the current time and updates it by a background daemon thread. Reading the cached time is
+ * just a volatile read, so it can be used on hot paths which don't need the precise time, for example to track
+ * activity of network connections.
+ *
+ * @author JavaSaBr
+ */
+public final class CoarseClock {
+
+    /**
+     * The interval of updating the cached time in ms.
+     */
+    public static final long RESOLUTION = Long.parseLong(System.getProperty(
+            CoarseClock.class.getName() + ".resolution", "10"));
+
+    /**
+     * The cached time.
+     */
+    private static volatile long currentTime = System.currentTimeMillis();
+
+    static {
+        Thread thread = new Thread(CoarseClock::run, "CoarseClock");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Get the cached current time which can be behind the real time up to the resolution.
+     *
+     * @return the cached current time in ms.
+     */
+    public static long currentTimeMillis() {
+        return currentTime;
+    }
+
+    private static void run() {
+        while (true) {
+
+            try {
+                Thread.sleep(RESOLUTION);
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            currentTime = System.currentTimeMillis();
+        }
+    }
+
+    private CoarseClock() {
+        throw new RuntimeException();
+    }
+}
@@ -12,6 +12,7 @@ import java.net.InetAddress;
 import java.net.ServerSocket;
 import java.net.URI;
 import java.net.URL;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -243,6 +244,26 @@ public final class Utils {
         return hexdump(array, 0, size);
     }
 
+    /**
+     * Prepare a hexdump for the first bytes of a heap or direct byte buffer.
+     *
+     * @param buffer the byte buffer.
+     * @param size   the size.
+     * @return the string dump.
+     */
+    public static @NotNull String hexdump(@NotNull final ByteBuffer buffer, final int size) {
+
+        if (buffer.hasArray() && buffer.arrayOffset() == 0) {
+            return hexdump(buffer.array(), size);
+        }
+
+        final byte[] array = new byte[size];
+
+        BufferUtils.get(buffer, 0, array, 0, size);
+
+        return hexdump(array, size);
+    }
+
     /**
      * Prepare a hexdump for a byte array.
      *
@@ -0,0 +1,216 @@
+package com.ss.rlib.common.util.crypt;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * The ChaCha20 stream cipher from RFC 7539 with a 32 bytes key, a 12 bytes nonce and a 32 bits block counter. The
+ * key stream continues between calls, so data can be crypted by parts in the same order as it was crypted on the
+ * other side. Data of heap and direct buffers is crypted in place by 4 bytes and nothing is allocated after
+ * creating.
+ *
+ * @author JavaSaBr
+ */
+public final class ChaCha20 {
+
+    /**
+     * The size of a key.
+     */
+    public static final int KEY_SIZE = 32;
+
+    /**
+     * The size of a nonce.
+     */
+    public static final int NONCE_SIZE = 12;
+
+    /**
+     * The size of a key stream block.
+     */
+    public static final int BLOCK_SIZE = 64;
+
+    private static final int SIGMA_0 = 0x61707865;
+    private static final int SIGMA_1 = 0x3320646e;
+    private static final int SIGMA_2 = 0x79622d32;
+    private static final int SIGMA_3 = 0x6b206574;
+
+    /**
+     * The cipher state.
+     */
+    @NotNull
+    private final int[] state;
+
+    /**
+     * The current key stream block.
+     */
+    @NotNull
+    private final int[] keyStream;
+
+    /**
+     * The position of the next byte in the current key stream block.
+     */
+    private int position;
+
+    /**
+     * The flag of using the last block counter.
+     */
+    private boolean exhausted;
+
+    public ChaCha20(@NotNull byte[] key, @NotNull byte[] nonce) {
+        this(key, nonce, 0);
+    }
+
+    public ChaCha20(@NotNull byte[] key, @NotNull byte[] nonce, int counter) {
+
+        if (key.length != KEY_SIZE) {
+            throw new IllegalArgumentException("Wrong key size " + key.length + ", expected " + KEY_SIZE);
+        } else if (nonce.length != NONCE_SIZE) {
+            throw new IllegalArgumentException("Wrong nonce size " + nonce.length + ", expected " + NONCE_SIZE);
+        }
+
+        this.state = new int[16];
+        this.keyStream = new int[16];
+        this.position = BLOCK_SIZE;
+
+        state[0] = SIGMA_0;
+        state[1] = SIGMA_1;
+        state[2] = SIGMA_2;
+        state[3] = SIGMA_3;
+
+        for (int i = 0; i < 8; i++) {
+            state[4 + i] = readInt(key, i * 4);
+        }
+
+        state[12] = counter;
+        state[13] = readInt(nonce, 0);
+        state[14] = readInt(nonce, 4);
+        state[15] = readInt(nonce, 8);
+    }
+
+    private static int readInt(@NotNull byte[] array, int offset) {
+        return (array[offset] & 0xFF) | (array[offset + 1] & 0xFF) << 8 | (array[offset + 2] & 0xFF) << 16 |
+                (array[offset + 3] & 0xFF) << 24;
+    }
+
+    /**
+     * Crypt a region of the byte array in place.
+     *
+     * @param data   the byte array.
+     * @param offset the offset.
+     * @param length the byte count.
+     */
+    public void crypt(@NotNull byte[] data, int offset, int length) {
+        crypt(ByteBuffer.wrap(data), offset, length);
+    }
+
+    /**
+     * Crypt a region of the heap or direct byte buffer in place, the position and the limit of the buffer are not
+     * changed.
+     *
+     * @param buffer the byte buffer.
+     * @param offset the offset in the buffer.
+     * @param length the byte count.
+     * @throws IllegalStateException if the key stream is exhausted.
+     */
+    public void crypt(@NotNull ByteBuffer buffer, int offset, int length) {
+
+        int index = offset;
+        int end = offset + length;
+
+        // at first we need to use the rest of the current block
+        while (index < end && position < BLOCK_SIZE) {
+            buffer.put(index, (byte) (buffer.get(index) ^ keyStreamByte(position++)));
+            index++;
+        }
+
+        boolean littleEndian = buffer.order() == ByteOrder.LITTLE_ENDIAN;
+
+        while (end - index >= BLOCK_SIZE) {
+
+            nextBlock();
+
+            for (int i = 0; i < 16; i++, index += 4) {
+                int word = littleEndian ? keyStream[i] : Integer.reverseBytes(keyStream[i]);
+                buffer.putInt(index, buffer.getInt(index) ^ word);
+            }
+        }
+
+        if (index < end) {
+
+            nextBlock();
+
+            position = 0;
+
+            while (index < end) {
+                buffer.put(index, (byte) (buffer.get(index) ^ keyStreamByte(position++)));
+                index++;
+            }
+        }
+    }
+
+    private int keyStreamByte(int index) {
+        return keyStream[index >> 2] >>> ((index & 3) << 3);
+    }
+
+    /**
+     * Generate the next key stream block and increase the block counter.
+     */
+    private void nextBlock() {
+
+        if (exhausted) {
+            throw new IllegalStateException("The key stream is exhausted.");
+        }
+
+        int[] state = this.state;
+
+        int x0 = state[0], x1 = state[1], x2 = state[2], x3 = state[3];
+        int x4 = state[4], x5 = state[5], x6 = state[6], x7 = state[7];
+        int x8 = state[8], x9 = state[9], x10 = state[10], x11 = state[11];
+        int x12 = state[12], x13 = state[13], x14 = state[14], x15 = state[15];
+
+        for (int i = 0; i < 10; i++) {
+                x0 += x4; x12 = Integer.rotateLeft(x12 ^ x0, 16); x8 += x12; x4 = Integer.rotateLeft(x4 ^ x8, 12);
+                x0 += x4; x12 = Integer.rotateLeft(x12 ^ x0, 8); x8 += x12; x4 = Integer.rotateLeft(x4 ^ x8, 7);
+                x1 += x5; x13 = Integer.rotateLeft(x13 ^ x1, 16); x9 += x13; x5 = Integer.rotateLeft(x5 ^ x9, 12);
+                x1 += x5; x13 = Integer.rotateLeft(x13 ^ x1, 8); x9 += x13; x5 = Integer.rotateLeft(x5 ^ x9, 7);
+                x2 += x6; x14 = Integer.rotateLeft(x14 ^ x2, 16); x10 += x14; x6 = Integer.rotateLeft(x6 ^ x10, 12);
+                x2 += x6; x14 = Integer.rotateLeft(x14 ^ x2, 8); x10 += x14; x6 = Integer.rotateLeft(x6 ^ x10, 7);
+                x3 += x7; x15 = Integer.rotateLeft(x15 ^ x3, 16); x11 += x15; x7 = Integer.rotateLeft(x7 ^ x11, 12);
+                x3 += x7; x15 = Integer.rotateLeft(x15 ^ x3, 8); x11 += x15; x7 = Integer.rotateLeft(x7 ^ x11, 7);
+                x0 += x5; x15 = Integer.rotateLeft(x15 ^ x0, 16); x10 += x15; x5 = Integer.rotateLeft(x5 ^ x10, 12);
+                x0 += x5; x15 = Integer.rotateLeft(x15 ^ x0, 8); x10 += x15; x5 = Integer.rotateLeft(x5 ^ x10, 7);
+                x1 += x6; x12 = Integer.rotateLeft(x12 ^ x1, 16); x11 += x12; x6 = Integer.rotateLeft(x6 ^ x11, 12);
+                x1 += x6; x12 = Integer.rotateLeft(x12 ^ x1, 8); x11 += x12; x6 = Integer.rotateLeft(x6 ^ x11, 7);
+                x2 += x7; x13 = Integer.rotateLeft(x13 ^ x2, 16); x8 += x13; x7 = Integer.rotateLeft(x7 ^ x8, 12);
+                x2 += x7; x13 = Integer.rotateLeft(x13 ^ x2, 8); x8 += x13; x7 = Integer.rotateLeft(x7 ^ x8, 7);
+                x3 += x4; x14 = Integer.rotateLeft(x14 ^ x3, 16); x9 += x14; x4 = Integer.rotateLeft(x4 ^ x9, 12);
+                x3 += x4; x14 = Integer.rotateLeft(x14 ^ x3, 8); x9 += x14; x4 = Integer.rotateLeft(x4 ^ x9, 7);
+        }
+
+        int[] keyStream = this.keyStream;
+        keyStream[0] = x0 + state[0];
+        keyStream[1] = x1 + state[1];
+        keyStream[2] = x2 + state[2];
+        keyStream[3] = x3 + state[3];
+        keyStream[4] = x4 + state[4];
+        keyStream[5] = x5 + state[5];
+        keyStream[6] = x6 + state[6];
+        keyStream[7] = x7 + state[7];
+        keyStream[8] = x8 + state[8];
+        keyStream[9] = x9 + state[9];
+        keyStream[10] = x10 + state[10];
+        keyStream[11] = x11 + state[11];
+        keyStream[12] = x12 + state[12];
+        keyStream[13] = x13 + state[13];
+        keyStream[14] = x14 + state[14];
+        keyStream[15] = x15 + state[15];
+
+        position = BLOCK_SIZE;
+
+        // the same block can't be used twice
+        if (++state[12] == 0) {
+            exhausted = true;
+        }
+    }
+}
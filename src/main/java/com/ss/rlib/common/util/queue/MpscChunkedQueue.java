@@ -0,0 +1,343 @@
+package com.ss.rlib.common.util.queue;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * The lock-free unbounded queue for many producers and the single consumer. Elements are stored in linked chunks of
+ * the fixed size, so a new object is allocated only once per chunk instead of once per element.
+ * <p>
+ * The methods {@link #offer(Object)}, {@link #removeFirst(Predicate)} and {@link #size()} can be called by any thread,
+ * all other methods must be called by the consumer only.
+ *
+ * @param <E> the element's type.
+ * @author JavaSaBr
+ */
+public final class MpscChunkedQueue<E> {
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<MpscChunkedQueue, Chunk> PRODUCER_CHUNK =
+            AtomicReferenceFieldUpdater.newUpdater(MpscChunkedQueue.class, Chunk.class, "producerChunk");
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<Chunk, Chunk> NEXT =
+            AtomicReferenceFieldUpdater.newUpdater(Chunk.class, Chunk.class, "next");
+
+    private static final int DEFAULT_CHUNK_SIZE = 64;
+
+    /**
+     * The marker of an element which was removed before polling.
+     */
+    private static final Object REMOVED = new Object();
+
+    /**
+     * The chunk of elements, the fields aren't private to be accessible by the field updater.
+     *
+     * @param <E> the element's type.
+     */
+    static final class Chunk<E> {
+
+        /**
+         * The elements.
+         */
+        @NotNull
+        final AtomicReferenceArray<E> elements;
+
+        /**
+         * The index of the first element of this chunk.
+         */
+        final long base;
+
+        /**
+         * The next chunk.
+         */
+        @Nullable
+        volatile Chunk<E> next;
+
+        Chunk(long base, int size) {
+            this.elements = new AtomicReferenceArray<>(size);
+            this.base = base;
+        }
+    }
+
+    /**
+     * The index of the next offered element.
+     */
+    @NotNull
+    private final AtomicLong producerIndex;
+
+    /**
+     * The size of chunks.
+     */
+    private final int chunkSize;
+
+    /**
+     * The mask to get an element index in a chunk.
+     */
+    private final int chunkMask;
+
+    /**
+     * The last known chunk of producers.
+     */
+    @NotNull
+    private volatile Chunk<E> producerChunk;
+
+    /**
+     * The current chunk of the consumer.
+     */
+    @NotNull
+    private volatile Chunk<E> consumerChunk;
+
+    /**
+     * The index of the next polled element.
+     */
+    private volatile long consumerIndex;
+
+    public MpscChunkedQueue() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param chunkSize the size of chunks, will be rounded up to a power of two.
+     */
+    public MpscChunkedQueue(int chunkSize) {
+
+        if (chunkSize < 2) {
+            throw new IllegalArgumentException("The chunk size should be greater than 1.");
+        }
+
+        this.chunkSize = Integer.highestOneBit(chunkSize - 1) << 1;
+        this.chunkMask = this.chunkSize - 1;
+        this.producerIndex = new AtomicLong();
+        this.producerChunk = new Chunk<>(0, this.chunkSize);
+        this.consumerChunk = producerChunk;
+    }
+
+    /**
+     * Add the element to the tail of this queue.
+     *
+     * @param element the element.
+     */
+    public void offer(@NotNull E element) {
+
+        // the chunk should be read before taking an index, because the last known chunk can't be moved forward
+        // farther than a chunk of the last taken index
+        Chunk<E> chunk = producerChunk;
+
+        long index = producerIndex.getAndIncrement();
+
+        while (index >= chunk.base + chunkSize) {
+            chunk = nextChunk(chunk);
+        }
+
+        chunk.elements.lazySet((int) (index & chunkMask), element);
+    }
+
+    /**
+     * Get or create the next chunk after the chunk and move forward the last known chunk of producers.
+     *
+     * @param chunk the chunk.
+     * @return the next chunk.
+     */
+    private @NotNull Chunk<E> nextChunk(@NotNull Chunk<E> chunk) {
+
+        Chunk<E> next = chunk.next;
+
+        if (next == null) {
+
+            Chunk<E> newChunk = new Chunk<>(chunk.base + chunkSize, chunkSize);
+
+            if (NEXT.compareAndSet(chunk, null, newChunk)) {
+                next = newChunk;
+            } else {
+                next = chunk.next;
+            }
+        }
+
+        Chunk<E> current = producerChunk;
+
+        while (current.base < next.base && !PRODUCER_CHUNK.compareAndSet(this, current, next)) {
+            current = producerChunk;
+        }
+
+        return next;
+    }
+
+    /**
+     * Get and remove the head of this queue. An element which is being added right now can be not visible yet.
+     *
+     * @return the head element or null.
+     */
+    public @Nullable E poll() {
+
+        while (true) {
+
+            Chunk<E> chunk = currentConsumerChunk();
+
+            if (chunk == null) {
+                return null;
+            }
+
+            long index = consumerIndex;
+            int offset = (int) (index & chunkMask);
+
+            E element = chunk.elements.get(offset);
+
+            if (element == null) {
+                return null;
+            }
+
+            if (element == REMOVED) {
+                chunk.elements.lazySet(offset, null);
+            } else if (!chunk.elements.compareAndSet(offset, element, null)) {
+                // the element was removed right now, so we will skip it by the next iteration
+                continue;
+            }
+
+            consumerIndex = index + 1;
+
+            if (element != REMOVED) {
+                return element;
+            }
+        }
+    }
+
+    /**
+     * Get but don't remove the head of this queue.
+     *
+     * @return the head element or null.
+     */
+    public @Nullable E peek() {
+
+        Chunk<E> chunk = currentConsumerChunk();
+
+        for (long index = consumerIndex; chunk != null; index++) {
+
+            if (index >= chunk.base + chunkSize) {
+                chunk = chunk.next;
+                continue;
+            }
+
+            E element = chunk.elements.get((int) (index & chunkMask));
+
+            if (element != REMOVED) {
+                return element;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Remove the first visible element which matches the condition. The removed element is skipped by the consumer,
+     * but it's still counted by {@link #size()} until the consumer skips it.
+     *
+     * @param condition the condition.
+     * @return the removed element or null.
+     */
+    @SuppressWarnings("unchecked")
+    public @Nullable E removeFirst(@NotNull Predicate<? super E> condition) {
+
+        long index = consumerIndex;
+        long end = producerIndex.get();
+
+        Chunk<E> chunk = consumerChunk;
+
+        // the consumer could move to the next chunk after reading the index
+        index = Math.max(index, chunk.base);
+
+        for (; index < end; index++) {
+
+            while (index >= chunk.base + chunkSize) {
+
+                chunk = chunk.next;
+
+                if (chunk == null) {
+                    return null;
+                }
+            }
+
+            int offset = (int) (index & chunkMask);
+            E element = chunk.elements.get(offset);
+
+            if (element == null || element == REMOVED || !condition.test(element)) {
+                continue;
+            }
+
+            if (chunk.elements.compareAndSet(offset, element, (E) REMOVED)) {
+                return element;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Get the chunk which contains the current consumer index.
+     *
+     * @return the chunk or null if the chunk isn't created yet.
+     */
+    private @Nullable Chunk<E> currentConsumerChunk() {
+
+        Chunk<E> chunk = consumerChunk;
+
+        if (consumerIndex < chunk.base + chunkSize) {
+            return chunk;
+        }
+
+        Chunk<E> next = chunk.next;
+
+        if (next != null) {
+            consumerChunk = next;
+        }
+
+        return next;
+    }
+
+    /**
+     * Return true if this queue doesn't have visible elements.
+     *
+     * @return true if this queue is empty.
+     */
+    public boolean isEmpty() {
+        return peek() == null;
+    }
+
+    /**
+     * Get the approximate count of elements in this queue.
+     *
+     * @return the count of elements.
+     */
+    public int size() {
+        return (int) Math.max(producerIndex.get() - consumerIndex, 0);
+    }
+
+    /**
+     * Remove all visible elements from this queue.
+     *
+     * @param consumer the consumer of removed elements.
+     * @return the count of removed elements.
+     */
+    public int drain(@NotNull Consumer<? super E> consumer) {
+
+        int count = 0;
+
+        for (E element = poll(); element != null; element = poll()) {
+            consumer.accept(element);
+            count++;
+        }
+
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return "MpscChunkedQueue{" + "size=" + size() + ", chunkSize=" + chunkSize + '}';
+    }
+}
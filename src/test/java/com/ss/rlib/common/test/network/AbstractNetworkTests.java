@@ -0,0 +1,230 @@
+package com.ss.rlib.common.test.network;
+
+import com.ss.rlib.common.network.ConnectionOwner;
+import com.ss.rlib.common.network.NetworkConfig;
+import com.ss.rlib.common.network.NetworkFactory;
+import com.ss.rlib.common.network.annotation.PacketDescription;
+import com.ss.rlib.common.network.client.ClientNetwork;
+import com.ss.rlib.common.network.client.ConnectHandler;
+import com.ss.rlib.common.network.client.server.Server;
+import com.ss.rlib.common.network.packet.ReadablePacketRegistry;
+import com.ss.rlib.common.network.packet.impl.AbstractReadablePacket;
+import com.ss.rlib.common.network.packet.impl.AbstractWritablePacket;
+import com.ss.rlib.common.network.server.AcceptHandler;
+import com.ss.rlib.common.network.server.ServerNetwork;
+import com.ss.rlib.common.network.server.client.Client;
+import com.ss.rlib.common.util.Utils;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * The base test which creates a server network and a client network connected to it.
+ *
+ * @author JavaSaBr
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public abstract class AbstractNetworkTests {
+
+    @NotNull
+    private static final Map<ConnectionOwner, BlockingQueue<String>> RECEIVED_MESSAGES =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * It's a packet with a message which a client or a server receives.
+     */
+    @PacketDescription(id = 1)
+    public static class MessageRequest extends AbstractReadablePacket {
+
+        @Override
+        protected void readImpl(@NotNull ConnectionOwner owner, @NotNull ByteBuffer buffer) {
+            receivedMessages(owner).add(readString(buffer));
+        }
+    }
+
+    /**
+     * It's a packet with a message which a client or a server sends.
+     */
+    @PacketDescription(id = 1)
+    public static class MessageResponse extends AbstractWritablePacket {
+
+        @NotNull
+        private final String message;
+
+        public MessageResponse(@NotNull String message) {
+            this.message = message;
+        }
+
+        @Override
+        protected void writeImpl(@NotNull ByteBuffer buffer) {
+            super.writeImpl(buffer);
+            writeString(buffer, message);
+        }
+
+        @Override
+        public int getExpectedLength() {
+            return message.length() * 2 + 8;
+        }
+    }
+
+    @NotNull
+    private final CompletableFuture<Client> acceptedClient = new CompletableFuture<>();
+
+    protected ServerNetwork serverNetwork;
+    protected ClientNetwork clientNetwork;
+
+    /**
+     * Get the address of the server.
+     *
+     * @return the server address.
+     */
+    protected abstract @NotNull InetSocketAddress getServerAddress();
+
+    /**
+     * Get the config of the server network.
+     *
+     * @return the server network config.
+     */
+    protected @NotNull NetworkConfig getServerConfig() {
+        return NetworkConfig.DEFAULT_SERVER;
+    }
+
+    /**
+     * Get the config of the client network.
+     *
+     * @return the client network config.
+     */
+    protected @NotNull NetworkConfig getClientConfig() {
+        return NetworkConfig.DEFAULT_CLIENT;
+    }
+
+    /**
+     * Get the registry of packets which the server reads.
+     *
+     * @return the server registry.
+     */
+    protected @NotNull ReadablePacketRegistry getServerRegistry() {
+        return ReadablePacketRegistry.of(MessageRequest.class);
+    }
+
+    /**
+     * Get the registry of packets which the client reads.
+     *
+     * @return the client registry.
+     */
+    protected @NotNull ReadablePacketRegistry getClientRegistry() {
+        return ReadablePacketRegistry.of(MessageRequest.class);
+    }
+
+    /**
+     * Create the accept handler of the server.
+     *
+     * @param consumer the consumer of accepted clients.
+     * @return the accept handler.
+     */
+    protected @NotNull AcceptHandler newAcceptHandler(@NotNull Consumer<Client> consumer) {
+        return AcceptHandler.newDefault(consumer);
+    }
+
+    /**
+     * Create the connect handler of the client.
+     *
+     * @return the connect handler.
+     */
+    protected @NotNull ConnectHandler newConnectHandler() {
+        return ConnectHandler.newDefault();
+    }
+
+    @BeforeAll
+    public void createNetwork() throws IOException {
+
+        serverNetwork = NetworkFactory.newDefaultAsyncServerNetwork(getServerConfig(), getServerRegistry(),
+                newAcceptHandler(acceptedClient::complete));
+        serverNetwork.bind(getServerAddress());
+
+        clientNetwork = NetworkFactory.newDefaultAsyncClientNetwork(getClientConfig(), getClientRegistry(),
+                newConnectHandler());
+        clientNetwork.connect(getServerAddress());
+    }
+
+    /**
+     * Get the server which the client network is connected to.
+     *
+     * @return the server.
+     */
+    protected @NotNull Server getServer() {
+
+        Server server = clientNetwork.getCurrentServer();
+
+        Assertions.assertNotNull(server);
+
+        return server;
+    }
+
+    /**
+     * Get the client which the server network accepted.
+     *
+     * @return the client.
+     */
+    protected @NotNull Client getClient() {
+        return Utils.get(() -> acceptedClient.get(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Get the queue of messages which the owner received by {@link MessageRequest}.
+     *
+     * @param owner the connection owner.
+     * @return the queue of received messages.
+     */
+    protected static @NotNull BlockingQueue<String> receivedMessages(@NotNull ConnectionOwner owner) {
+        return RECEIVED_MESSAGES.computeIfAbsent(owner, key -> new LinkedBlockingQueue<>());
+    }
+
+    /**
+     * Wait for the next messages which the owner receives by {@link MessageRequest}.
+     *
+     * @param owner the connection owner.
+     * @param count the count of messages.
+     * @return the received messages.
+     * @throws InterruptedException if the thread was interrupted.
+     */
+    protected static @NotNull List<String> takeMessages(@NotNull ConnectionOwner owner, int count)
+            throws InterruptedException {
+
+        BlockingQueue<String> queue = receivedMessages(owner);
+        List<String> messages = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+
+            String message = queue.poll(5, TimeUnit.SECONDS);
+
+            Assertions.assertNotNull(message, "received " + i + " of " + count + " messages");
+
+            messages.add(message);
+        }
+
+        return messages;
+    }
+
+    @AfterAll
+    public void shutdownNetwork() {
+        clientNetwork.shutdown();
+        serverNetwork.shutdown();
+    }
+}
@@ -0,0 +1,149 @@
+package com.ss.rlib.common.test.network;
+
+import com.ss.rlib.common.network.NetworkConfig;
+import com.ss.rlib.common.network.NetworkFactory;
+import com.ss.rlib.common.network.metrics.NetworkMetrics;
+import com.ss.rlib.common.network.packet.ReadablePacketRegistry;
+import com.ss.rlib.common.network.server.AcceptHandler;
+import com.ss.rlib.common.network.server.ServerNetwork;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The test to test limits of accepting connections by a server.
+ *
+ * @author JavaSaBr
+ */
+public class AcceptLimitTests {
+
+    private static final InetSocketAddress ADDRESS_LIMIT_ADDRESS = new InetSocketAddress("127.0.0.1", 2246);
+    private static final InetSocketAddress ACCEPT_RATE_ADDRESS = new InetSocketAddress("127.0.0.1", 2247);
+
+    @Test
+    void shouldRejectConnectionsOverAddressLimit() throws Exception {
+
+        var serverNetwork = NetworkFactory.newDefaultAsyncServerNetwork(new NetworkConfig() {
+
+            @Override
+            public int getMaxConnectionsPerAddress() {
+                return 2;
+            }
+
+            @Override
+            public boolean isMetricsEnabled() {
+                return true;
+            }
+        }, ReadablePacketRegistry.empty(), AcceptHandler.newDefault());
+        serverNetwork.bind(ADDRESS_LIMIT_ADDRESS);
+
+        try (var first = new Socket(); var second = new Socket(); var third = new Socket()) {
+
+            first.connect(ADDRESS_LIMIT_ADDRESS);
+            second.connect(ADDRESS_LIMIT_ADDRESS);
+            third.connect(ADDRESS_LIMIT_ADDRESS);
+
+            Assertions.assertTrue(isOpen(first));
+            Assertions.assertTrue(isOpen(second));
+            Assertions.assertFalse(isOpen(third));
+            Assertions.assertEquals(1, getMetrics(serverNetwork).snapshot().getRejectedConnections());
+
+            // the connection is released when its client is destroyed
+            first.close();
+
+            Thread.sleep(200);
+
+            try (var fourth = new Socket()) {
+                fourth.connect(ADDRESS_LIMIT_ADDRESS);
+                Assertions.assertTrue(isOpen(fourth));
+            }
+
+        } finally {
+            serverNetwork.shutdown();
+        }
+    }
+
+    @Test
+    void shouldDelayAcceptsOverAcceptRate() throws Exception {
+
+        var accepted = new AtomicInteger();
+        var serverNetwork = NetworkFactory.newDefaultAsyncServerNetwork(new NetworkConfig() {
+
+            @Override
+            public int getAcceptRate() {
+                return 5;
+            }
+
+            @Override
+            public int getAcceptBacklog() {
+                return 64;
+            }
+
+            @Override
+            public boolean isMetricsEnabled() {
+                return true;
+            }
+        }, ReadablePacketRegistry.empty(), AcceptHandler.newDefault(client -> accepted.incrementAndGet()));
+        serverNetwork.bind(ACCEPT_RATE_ADDRESS);
+
+        var sockets = new ArrayList<Socket>();
+        try {
+
+            // all connections are established by the backlog, but they are accepted by the rate
+            for (int i = 0; i < 10; i++) {
+                var socket = new Socket();
+                socket.connect(ACCEPT_RATE_ADDRESS);
+                sockets.add(socket);
+            }
+
+            Thread.sleep(100);
+
+            Assertions.assertTrue(accepted.get() < 10, "accepted " + accepted.get());
+
+            for (int i = 0; i < 30 && accepted.get() < 10; i++) {
+                Thread.sleep(100);
+            }
+
+            Assertions.assertEquals(10, accepted.get());
+            Assertions.assertTrue(getMetrics(serverNetwork).snapshot().getDelayedAccepts() > 0);
+            Assertions.assertEquals(0, getMetrics(serverNetwork).snapshot().getRejectedConnections());
+
+        } finally {
+
+            for (var socket : sockets) {
+                socket.close();
+            }
+
+            serverNetwork.shutdown();
+        }
+    }
+
+    private static boolean isOpen(@NotNull Socket socket) throws IOException {
+
+        socket.setSoTimeout(300);
+
+        try {
+            return socket.getInputStream().read() != -1;
+        } catch (SocketTimeoutException e) {
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static @NotNull NetworkMetrics getMetrics(@NotNull ServerNetwork network) {
+
+        NetworkMetrics metrics = network.getMetrics();
+
+        Assertions.assertNotNull(metrics);
+
+        return metrics;
+    }
+}
@@ -0,0 +1,130 @@
+package com.ss.rlib.common.test.network;
+
+import com.ss.rlib.common.network.NetworkConfig;
+import com.ss.rlib.common.network.client.server.Server;
+import com.ss.rlib.common.network.impl.AdaptiveReadBufferSizer;
+import com.ss.rlib.common.network.metrics.NetworkMetrics;
+import com.ss.rlib.common.network.metrics.NetworkMetricsSnapshot;
+import com.ss.rlib.common.network.server.client.Client;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The test to test adaptive sizing of read buffers.
+ *
+ * @author JavaSaBr
+ */
+public class AdaptiveReadBufferTests extends AbstractNetworkTests {
+
+    private static final InetSocketAddress SERVER_ADDRESS = new InetSocketAddress(2234);
+
+    private static final int BULK_MESSAGES = 2_000;
+
+    private static final int SMALL_MESSAGES = 20;
+
+    private static final String BULK_MESSAGE;
+
+    static {
+        char[] chars = new char[500];
+        Arrays.fill(chars, 'a');
+        BULK_MESSAGE = new String(chars);
+    }
+
+    private static final NetworkConfig SERVER_CONFIG = new NetworkConfig() {
+
+        @Override
+        public boolean isAdaptiveReadBuffer() {
+            return true;
+        }
+
+        @Override
+        public int getMinReadBufferSize() {
+            return 256;
+        }
+
+        @Override
+        public int getMaxReadBufferSize() {
+            return 16384;
+        }
+
+        @Override
+        public boolean isMetricsEnabled() {
+            return true;
+        }
+    };
+
+    @Override
+    protected @NotNull InetSocketAddress getServerAddress() {
+        return SERVER_ADDRESS;
+    }
+
+    @Override
+    protected @NotNull NetworkConfig getServerConfig() {
+        return SERVER_CONFIG;
+    }
+
+    @Test
+    void shouldGrowAndShrinkReadBufferByReadSizes() throws InterruptedException {
+
+        Server server = getServer();
+        Client client = getClient();
+        NetworkMetrics metrics = serverNetwork.getMetrics();
+
+        Assertions.assertNotNull(metrics);
+
+        for (int i = 0; i < BULK_MESSAGES; i++) {
+            server.sendPacket(new MessageResponse(BULK_MESSAGE));
+        }
+
+        for (String message : takeMessages(client, BULK_MESSAGES)) {
+            Assertions.assertEquals(BULK_MESSAGE, message);
+        }
+
+        Assertions.assertTrue(metrics.snapshot().getReadBufferGrowths() > 0);
+
+        // each small message is received by a separated read
+        for (int i = 0; i < SMALL_MESSAGES; i++) {
+            server.sendPacket(new MessageResponse("Small " + i));
+            Thread.sleep(20);
+        }
+
+        List<String> messages = takeMessages(client, SMALL_MESSAGES);
+
+        for (int i = 0; i < SMALL_MESSAGES; i++) {
+            Assertions.assertEquals("Small " + i, messages.get(i));
+        }
+
+        NetworkMetricsSnapshot snapshot = metrics.snapshot();
+
+        Assertions.assertTrue(snapshot.getReadBufferShrinks() > 0);
+    }
+
+    @Test
+    void shouldChooseSizeByRecentReads() {
+
+        AdaptiveReadBufferSizer sizer = new AdaptiveReadBufferSizer(2048, 512, 8192);
+
+        Assertions.assertEquals(4096, sizer.record(2048, 2048));
+        Assertions.assertEquals(8192, sizer.record(4096, 4096));
+        Assertions.assertEquals(8192, sizer.record(8192, 8192));
+
+        // a single small read doesn't change the size
+        Assertions.assertEquals(8192, sizer.record(100, 8192));
+        Assertions.assertEquals(8192, sizer.record(5000, 8192));
+        Assertions.assertEquals(8192, sizer.record(100, 8192));
+        Assertions.assertEquals(4096, sizer.record(100, 8192));
+        Assertions.assertEquals(4096, sizer.record(100, 4096));
+        Assertions.assertEquals(2048, sizer.record(100, 4096));
+
+        for (int i = 0; i < 10; i++) {
+            sizer.record(10, 2048);
+        }
+
+        Assertions.assertEquals(512, sizer.getSize());
+    }
+}
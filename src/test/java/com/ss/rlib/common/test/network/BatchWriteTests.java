@@ -0,0 +1,111 @@
+package com.ss.rlib.common.test.network;
+
+import com.ss.rlib.common.network.NetworkConfig;
+import com.ss.rlib.common.network.annotation.PacketDescription;
+import com.ss.rlib.common.network.client.server.Server;
+import com.ss.rlib.common.network.packet.impl.AbstractReusableWritablePacket;
+import com.ss.rlib.common.util.StringUtils;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The test to test coalescing of waited packets into one write.
+ *
+ * @author JavaSaBr
+ */
+public class BatchWriteTests extends AbstractNetworkTests {
+
+    private static final InetSocketAddress SERVER_ADDRESS = new InetSocketAddress("127.0.0.1", 2257);
+
+    private static final int MESSAGES = 500;
+
+    /**
+     * It's a reusable packet with a message which counts its completions.
+     */
+    @PacketDescription(id = 1)
+    public static class ReusableMessage extends AbstractReusableWritablePacket {
+
+        @NotNull
+        private final AtomicInteger completions = new AtomicInteger();
+
+        @NotNull
+        private final String message;
+
+        public ReusableMessage(@NotNull String message) {
+            this.message = message;
+        }
+
+        @Override
+        protected void writeImpl(@NotNull ByteBuffer buffer) {
+            super.writeImpl(buffer);
+            writeString(buffer, message);
+        }
+
+        @Override
+        public int getExpectedLength() {
+            return message.length() * 2 + 8;
+        }
+
+        @Override
+        public void complete() {
+            completions.incrementAndGet();
+            super.complete();
+        }
+
+        /**
+         * The packet isn't stored to a pool to not be reused by the test.
+         */
+        @Override
+        protected void completeImpl() {
+        }
+    }
+
+    @Override
+    protected @NotNull InetSocketAddress getServerAddress() {
+        return SERVER_ADDRESS;
+    }
+
+    @Override
+    protected @NotNull NetworkConfig getClientConfig() {
+        return new NetworkConfig() {
+
+            @Override
+            public boolean isBatchWrite() {
+                return true;
+            }
+        };
+    }
+
+    @Test
+    void shouldWriteManyPacketsWithLargePacket() throws InterruptedException {
+
+        Server server = getServer();
+        List<ReusableMessage> packets = new ArrayList<>(MESSAGES + 1);
+
+        for (int i = 0; i < MESSAGES; i++) {
+
+            // the large packet doesn't fit into the write buffer, so it's written alone between small packets
+            String message = i == MESSAGES / 2 ? "Large message " + StringUtils.generate(10_000) :
+                    "Message " + i;
+
+            ReusableMessage packet = new ReusableMessage(message);
+
+            packets.add(packet);
+            server.sendPacket(packet);
+        }
+
+        List<String> messages = takeMessages(getClient(), MESSAGES);
+
+        for (int i = 0; i < MESSAGES; i++) {
+            Assertions.assertEquals(packets.get(i).message, messages.get(i));
+            Assertions.assertEquals(1, packets.get(i).completions.get(), "completions of the packet " + i);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.ss.rlib.common.test.network;
+
+import com.ss.rlib.common.network.ConnectionOwner;
+import com.ss.rlib.common.network.NetworkConfig;
+import com.ss.rlib.common.network.NetworkFactory;
+import com.ss.rlib.common.network.annotation.PacketDescription;
+import com.ss.rlib.common.network.client.ClientNetwork;
+import com.ss.rlib.common.network.client.ConnectHandler;
+import com.ss.rlib.common.network.packet.ReadablePacketRegistry;
+import com.ss.rlib.common.network.server.AcceptHandler;
+import com.ss.rlib.common.network.server.ServerNetwork;
+import com.ss.rlib.common.network.server.impl.DefaultServerNetwork;
+import com.ss.rlib.common.network.server.client.Client;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The test to test broadcasting packets from a server to many clients.
+ *
+ * @author JavaSaBr
+ */
+public class BroadcastTests {
+
+    private static final InetSocketAddress SERVER_ADDRESS = new InetSocketAddress(2231);
+
+    private static final int CLIENTS = 3;
+    private static final int MESSAGES = 1_000;
+
+    private static final AtomicInteger SERIALIZATIONS = new AtomicInteger();
+
+    /**
+     * It's a packet which a server broadcasts to clients.
+     */
+    @PacketDescription(id = 1)
+    public static class BroadcastMessage extends AbstractNetworkTests.MessageResponse {
+
+        public BroadcastMessage(@NotNull String message) {
+            super(message);
+        }
+
+        @Override
+        protected void writeImpl(@NotNull ByteBuffer buffer) {
+            SERIALIZATIONS.incrementAndGet();
+            super.writeImpl(buffer);
+        }
+    }
+
+    private static final List<Client> CONNECTED_CLIENTS = new CopyOnWriteArrayList<>();
+    private static final List<ClientNetwork> CLIENT_NETWORKS = new ArrayList<>();
+
+    private static ServerNetwork serverNetwork;
+
+    @BeforeAll
+    static void createNetwork() throws IOException, InterruptedException {
+
+        serverNetwork = NetworkFactory.newDefaultAsyncServerNetwork(NetworkConfig.DEFAULT_SERVER,
+                ReadablePacketRegistry.empty(), AcceptHandler.newDefault(CONNECTED_CLIENTS::add));
+        serverNetwork.bind(SERVER_ADDRESS);
+
+        for (int i = 0; i < CLIENTS; i++) {
+
+            ClientNetwork clientNetwork = NetworkFactory.newDefaultAsyncClientNetwork(NetworkConfig.DEFAULT_CLIENT,
+                    ReadablePacketRegistry.of(AbstractNetworkTests.MessageRequest.class), ConnectHandler.newDefault());
+            clientNetwork.connect(SERVER_ADDRESS);
+
+            CLIENT_NETWORKS.add(clientNetwork);
+        }
+
+        for (int i = 0; i < 50 && CONNECTED_CLIENTS.size() < CLIENTS; i++) {
+            Thread.sleep(100);
+        }
+    }
+
+    @Test
+    void shouldSerializeBroadcastPacketOnce() throws InterruptedException {
+
+        Assertions.assertEquals(CLIENTS, CONNECTED_CLIENTS.size());
+
+        for (int i = 0; i < MESSAGES; i++) {
+            serverNetwork.broadcast(new BroadcastMessage("Message " + i), CONNECTED_CLIENTS);
+        }
+
+        for (ClientNetwork clientNetwork : CLIENT_NETWORKS) {
+
+            ConnectionOwner server = clientNetwork.getCurrentServer();
+
+            Assertions.assertNotNull(server);
+
+            List<String> messages = AbstractNetworkTests.takeMessages(server, MESSAGES);
+
+            for (int i = 0; i < MESSAGES; i++) {
+                Assertions.assertEquals("Message " + i, messages.get(i));
+            }
+        }
+
+        Assertions.assertEquals(MESSAGES, SERIALIZATIONS.get());
+    }
+
+    @Test
+    void shouldReleaseBroadcastPacketSentToClosedClient() throws Exception {
+
+        var address = new InetSocketAddress(2256);
+        var accepted = new CompletableFuture<Client>();
+
+        var network = (DefaultServerNetwork) NetworkFactory.newDefaultAsyncServerNetwork(NetworkConfig.DEFAULT_SERVER,
+                ReadablePacketRegistry.empty(), AcceptHandler.newDefault(accepted::complete));
+        network.bind(address);
+
+        var clientNetwork = NetworkFactory.newDefaultAsyncClientNetwork(NetworkConfig.DEFAULT_CLIENT,
+                ReadablePacketRegistry.of(AbstractNetworkTests.MessageRequest.class), ConnectHandler.newDefault());
+        clientNetwork.connect(address);
+
+        try {
+
+            var client = accepted.get(5, TimeUnit.SECONDS);
+            client.getConnection().close();
+
+            // the arena gives the last returned buffer of the current thread first
+            var arena = network.getWriteBufferArena();
+            var buffer = arena.take();
+            arena.put(buffer);
+
+            network.broadcast(new AbstractNetworkTests.MessageResponse("Message"), List.of(client));
+
+            Assertions.assertSame(buffer, arena.take());
+
+        } finally {
+            clientNetwork.shutdown();
+            network.shutdown();
+        }
+    }
+
+    @AfterAll
+    static void shutdownNetwork() {
+        CLIENT_NETWORKS.forEach(ClientNetwork::shutdown);
+        serverNetwork.shutdown();
+    }
+}
@@ -0,0 +1,149 @@
+package com.ss.rlib.common.test.network;
+
+import com.ss.rlib.common.network.NetworkConfig;
+import com.ss.rlib.common.network.NetworkFactory;
+import com.ss.rlib.common.network.impl.ByteBufferArena;
+import com.ss.rlib.common.network.packet.ReadablePacketRegistry;
+import com.ss.rlib.common.network.server.AcceptHandler;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The test to test the arena of network buffers.
+ *
+ * @author JavaSaBr
+ */
+public class ByteBufferArenaTests {
+
+    @Test
+    void shouldSliceSlabsToIndependentBuffers() {
+
+        ByteBufferArena arena = new ByteBufferArena(64, 8, 4, false);
+
+        List<ByteBuffer> buffers = new ArrayList<>();
+
+        for (int i = 0; i < 8; i++) {
+            ByteBuffer buffer = arena.take();
+            Assertions.assertEquals(64, buffer.capacity());
+            Assertions.assertEquals(64, buffer.remaining());
+            Assertions.assertEquals(ByteOrder.LITTLE_ENDIAN, buffer.order());
+            buffers.add(buffer);
+        }
+
+        Assertions.assertEquals(1, arena.getSlabCount());
+
+        for (int i = 0; i < buffers.size(); i++) {
+            ByteBuffer buffer = buffers.get(i);
+            while (buffer.hasRemaining()) {
+                buffer.put((byte) i);
+            }
+        }
+
+        for (int i = 0; i < buffers.size(); i++) {
+            ByteBuffer buffer = buffers.get(i);
+            for (int j = 0; j < buffer.capacity(); j++) {
+                Assertions.assertEquals(i, buffer.get(j));
+            }
+        }
+
+        arena.take();
+
+        Assertions.assertEquals(2, arena.getSlabCount());
+        Assertions.assertEquals(16, arena.getAllocatedBuffers());
+    }
+
+    @Test
+    void shouldReuseReturnedBuffers() {
+
+        ByteBufferArena arena = new ByteBufferArena(64, 4, 2, true);
+
+        for (int i = 0; i < 100; i++) {
+            ByteBuffer buffer = arena.take();
+            Assertions.assertTrue(buffer.isDirect());
+            buffer.putInt(i);
+            arena.put(buffer);
+        }
+
+        Assertions.assertEquals(1, arena.getSlabCount());
+        Assertions.assertEquals(100, arena.getTakeCount());
+        Assertions.assertTrue(arena.getCacheHitCount() >= 99);
+    }
+
+    @Test
+    void shouldBalanceBuffersBetweenThreads() throws Exception {
+
+        ByteBufferArena arena = new ByteBufferArena(32, 16, 4, false);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        List<ByteBuffer> buffers = new ArrayList<>();
+
+        for (int round = 0; round < 10; round++) {
+
+            for (int i = 0; i < 16; i++) {
+                buffers.add(arena.take());
+            }
+
+            // buffers are returned by another thread, like a connection which is closed by another thread
+            executor.submit(() -> buffers.forEach(arena::put)).get();
+
+            buffers.clear();
+        }
+
+        executor.shutdown();
+
+        // only buffers in the magazine of the other thread aren't available to this thread
+        Assertions.assertEquals(2, arena.getSlabCount());
+    }
+
+    @Test
+    void shouldIgnoreForeignBuffers() {
+
+        ByteBufferArena arena = new ByteBufferArena(64, 4, 2, false);
+
+        arena.put(ByteBuffer.allocate(128));
+        arena.put(ByteBuffer.allocateDirect(64));
+
+        ByteBuffer buffer = arena.take();
+
+        Assertions.assertEquals(64, buffer.capacity());
+        Assertions.assertFalse(buffer.isDirect());
+        Assertions.assertEquals(0, arena.getCacheHitCount());
+    }
+
+    @Test
+    void shouldReuseLargeBuffersBySizeClasses() {
+
+        var network = NetworkFactory.newDefaultAsyncServerNetwork(new NetworkConfig() {
+
+            @Override
+            public boolean isDirectByteBuffer() {
+                return true;
+            }
+        }, ReadablePacketRegistry.empty(), AcceptHandler.newDefault());
+
+        try {
+
+            ByteBuffer buffer = network.takeLargeBuffer(5000);
+
+            Assertions.assertEquals(8192, buffer.capacity());
+            Assertions.assertTrue(buffer.isDirect());
+            Assertions.assertEquals(ByteOrder.LITTLE_ENDIAN, buffer.order());
+
+            network.putLargeBuffer(buffer);
+
+            // a buffer of the same size class is taken from the arena instead of allocating a new buffer
+            Assertions.assertSame(buffer, network.takeLargeBuffer(8000));
+            Assertions.assertNotSame(buffer, network.takeLargeBuffer(5000));
+
+        } finally {
+            network.shutdown();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.ss.rlib.common.test.network;
+
+import com.ss.rlib.common.network.NetworkConfig;
+import com.ss.rlib.common.network.PacketCompressor;
+import com.ss.rlib.common.network.client.server.Server;
+import com.ss.rlib.common.network.impl.DeflatePacketCompressor;
+import com.ss.rlib.common.network.metrics.CompressionStats;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The test to test compression of large packets.
+ *
+ * @author JavaSaBr
+ */
+public class CompressionTests extends AbstractNetworkTests {
+
+    private static final InetSocketAddress SERVER_ADDRESS = new InetSocketAddress(2235);
+
+    private static final int MESSAGES = 200;
+
+    private static final NetworkConfig CONFIG = new NetworkConfig() {
+
+        @Override
+        public int getCompressionThreshold() {
+            return 256;
+        }
+    };
+
+    private static @NotNull String newMessage(int number) {
+
+        var builder = new StringBuilder();
+
+        // small and large messages in turn, large messages don't fit into a write buffer
+        int length = number % 2 == 0 ? 10 : 200 + number * 20;
+
+        for (int i = 0; i < length; i++) {
+            builder.append((char) ('a' + i % 4));
+        }
+
+        return builder.toString();
+    }
+
+    @Override
+    protected @NotNull InetSocketAddress getServerAddress() {
+        return SERVER_ADDRESS;
+    }
+
+    @Override
+    protected @NotNull NetworkConfig getServerConfig() {
+        return CONFIG;
+    }
+
+    @Override
+    protected @NotNull NetworkConfig getClientConfig() {
+        return CONFIG;
+    }
+
+    @Test
+    void shouldCompressOnlyLargePackets() throws InterruptedException {
+
+        Server server = getServer();
+
+        for (int i = 0; i < MESSAGES; i++) {
+            server.sendPacket(new MessageResponse(newMessage(i)));
+        }
+
+        List<String> messages = takeMessages(getClient(), MESSAGES);
+
+        for (int i = 0; i < MESSAGES; i++) {
+            Assertions.assertEquals(newMessage(i), messages.get(i));
+        }
+
+        PacketCompressor clientCompressor = clientNetwork.getPacketCompressor();
+        PacketCompressor serverCompressor = serverNetwork.getPacketCompressor();
+
+        Assertions.assertNotNull(clientCompressor);
+        Assertions.assertNotNull(serverCompressor);
+
+        CompressionStats stats = clientCompressor.getCompressionStats().get(MessageResponse.class.getName());
+
+        Assertions.assertNotNull(stats);
+        Assertions.assertEquals(MESSAGES / 2, stats.getPackets());
+        Assertions.assertTrue(stats.getRatio() < 0.5);
+        Assertions.assertEquals(MESSAGES / 2, serverCompressor.getDecompressionStats().getPackets());
+        Assertions.assertEquals(stats.getCompressedBytes(), serverCompressor.getDecompressionStats()
+                .getCompressedBytes());
+    }
+
+    @Test
+    void shouldNotCompressRandomData() {
+
+        PacketCompressor compressor = new DeflatePacketCompressor(CONFIG);
+
+        byte[] data = new byte[1000];
+        new Random(1).nextBytes(data);
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(2000).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.position(5);
+        buffer.put(data);
+        buffer.flip();
+
+        compressor.compress("random", buffer, 4);
+
+        Assertions.assertEquals(PacketCompressor.FLAG_RAW, buffer.get(4));
+        Assertions.assertEquals(1005, buffer.limit());
+        Assertions.assertEquals(1, compressor.getCompressionStats().get("random").getSkippedPackets());
+
+        buffer.position(4);
+
+        ByteBuffer result = compressor.decompress(buffer);
+        byte[] read = new byte[result.remaining()];
+        result.get(read);
+
+        Assertions.assertArrayEquals(data, read);
+    }
+
+    @Test
+    void shouldRestoreCompressedDataOfDirectBuffer() {
+
+        PacketCompressor compressor = new DeflatePacketCompressor(CONFIG);
+
+        byte[] data = new byte[1000];
+
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i % 7);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(2000).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.position(5);
+        buffer.put(data);
+        buffer.flip();
+
+        compressor.compress("sequence", buffer, 4);
+
+        Assertions.assertEquals(PacketCompressor.FLAG_COMPRESSED, buffer.get(4));
+        Assertions.assertTrue(buffer.limit() < 200);
+
+        buffer.position(4);
+
+        ByteBuffer result = compressor.decompress(buffer);
+        byte[] read = new byte[result.remaining()];
+        result.get(read);
+
+        Assertions.assertArrayEquals(data, read);
+    }
+}
@@ -0,0 +1,299 @@
+package com.ss.rlib.common.test.network;
+
+import com.ss.rlib.common.network.ConnectionOwner;
+import com.ss.rlib.common.network.DatagramEndpoint;
+import com.ss.rlib.common.network.DatagramNetwork;
+import com.ss.rlib.common.network.NetworkConfig;
+import com.ss.rlib.common.network.NetworkFactory;
+import com.ss.rlib.common.network.annotation.PacketDescription;
+import com.ss.rlib.common.network.client.ClientNetwork;
+import com.ss.rlib.common.network.client.server.Server;
+import com.ss.rlib.common.network.packet.ReadablePacketRegistry;
+import com.ss.rlib.common.network.packet.WritablePacket;
+import com.ss.rlib.common.network.packet.impl.AbstractReadablePacket;
+import com.ss.rlib.common.network.packet.impl.AbstractWritablePacket;
+import com.ss.rlib.common.network.server.AcceptHandler;
+import com.ss.rlib.common.network.server.ServerNetwork;
+import com.ss.rlib.common.network.server.client.Client;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.DatagramChannel;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The test to test datagram networks.
+ *
+ * @author JavaSaBr
+ */
+public class DatagramNetworkTests {
+
+    private static final InetSocketAddress SERVER_ADDRESS = new InetSocketAddress(2238);
+
+    private static final InetSocketAddress SERVER_DATAGRAM_ADDRESS = new InetSocketAddress("127.0.0.1", 2239);
+
+    private static final int POSITIONS = 100;
+
+    private static final CountDownLatch SERVER_POSITIONS = new CountDownLatch(POSITIONS);
+
+    private static final CountDownLatch CLIENT_POSITIONS = new CountDownLatch(POSITIONS);
+
+    private static final List<Integer> UPDATES = new CopyOnWriteArrayList<>();
+
+    private static final NetworkConfig DATAGRAM_CONFIG = new NetworkConfig() {
+
+        @Override
+        public boolean isDatagramSequencing() {
+            return true;
+        }
+    };
+
+    /**
+     * It's a packet which a server receives from a client.
+     */
+    @PacketDescription(id = 1)
+    public static class PositionRequest extends AbstractReadablePacket {
+
+        @Override
+        protected void readImpl(@NotNull ConnectionOwner owner, @NotNull ByteBuffer buffer) {
+            if (owner instanceof Client && readInt(buffer) >= 0) {
+                SERVER_POSITIONS.countDown();
+            }
+        }
+    }
+
+    /**
+     * It's a packet which a server receives from a raw datagram channel.
+     */
+    @PacketDescription(id = 2)
+    public static class UpdateRequest extends AbstractReadablePacket {
+
+        @Override
+        protected void readImpl(@NotNull ConnectionOwner owner, @NotNull ByteBuffer buffer) {
+            UPDATES.add(readInt(buffer));
+        }
+    }
+
+    /**
+     * It's a packet which a client receives from a server.
+     */
+    @PacketDescription(id = 1)
+    public static class PositionResponse extends AbstractReadablePacket {
+
+        @Override
+        protected void readImpl(@NotNull ConnectionOwner owner, @NotNull ByteBuffer buffer) {
+            if (owner instanceof Server && readInt(buffer) >= 0) {
+                CLIENT_POSITIONS.countDown();
+            }
+        }
+    }
+
+    /**
+     * It's a packet with a position.
+     */
+    @PacketDescription(id = 1)
+    public static class PositionPacket extends AbstractWritablePacket {
+
+        private final int position;
+
+        public PositionPacket(int position) {
+            this.position = position;
+        }
+
+        @Override
+        protected void writeImpl(@NotNull ByteBuffer buffer) {
+            super.writeImpl(buffer);
+            writeInt(buffer, position);
+        }
+    }
+
+    /**
+     * It's a packet which doesn't fit into a datagram.
+     */
+    @PacketDescription(id = 1)
+    public static class LargePacket extends AbstractWritablePacket {
+
+        @Override
+        protected void writeImpl(@NotNull ByteBuffer buffer) {
+            super.writeImpl(buffer);
+            for (int i = 0; i < 1000; i++) {
+                writeInt(buffer, i);
+            }
+        }
+    }
+
+    /**
+     * It's a packet which doesn't fit into a datagram and doesn't catch overflowing of the buffer.
+     */
+    public static class RawLargePacket implements WritablePacket {
+
+        @Override
+        public void write(@NotNull ByteBuffer buffer) {
+            buffer.put(new byte[10_000]);
+        }
+
+        @Override
+        public @NotNull String getName() {
+            return "RawLargePacket";
+        }
+    }
+
+    private static ServerNetwork serverNetwork;
+    private static ClientNetwork clientNetwork;
+    private static DatagramNetwork serverDatagramNetwork;
+    private static DatagramNetwork clientDatagramNetwork;
+    private static Client client;
+    private static Server server;
+
+    @BeforeAll
+    static void createNetwork() throws Exception {
+
+        var accepted = new CompletableFuture<Client>();
+
+        serverNetwork = NetworkFactory.newDefaultAsyncServerNetwork(
+                ReadablePacketRegistry.of(PositionRequest.class), AcceptHandler.newDefault(accepted::complete));
+        serverNetwork.bind(SERVER_ADDRESS);
+
+        clientNetwork = NetworkFactory.newDefaultAsyncClientNetwork(ReadablePacketRegistry.of(PositionResponse.class));
+        server = clientNetwork.connect(SERVER_ADDRESS);
+        client = accepted.get(5, TimeUnit.SECONDS);
+
+        serverDatagramNetwork = NetworkFactory.newDefaultDatagramNetwork(DATAGRAM_CONFIG,
+                ReadablePacketRegistry.of(PositionRequest.class, UpdateRequest.class));
+        serverDatagramNetwork.bind(SERVER_DATAGRAM_ADDRESS);
+        serverDatagramNetwork.setOwnerResolver(address -> client);
+
+        clientDatagramNetwork = NetworkFactory.newDefaultDatagramNetwork(DATAGRAM_CONFIG,
+                ReadablePacketRegistry.of(PositionResponse.class));
+        clientDatagramNetwork.bind(new InetSocketAddress("127.0.0.1", 0));
+    }
+
+    @Test
+    void shouldExchangeDatagrams() throws InterruptedException {
+
+        DatagramEndpoint endpoint = clientDatagramNetwork.register(server, SERVER_DATAGRAM_ADDRESS);
+
+        for (int i = 0; i < POSITIONS; i++) {
+            endpoint.sendPacket(new PositionPacket(i));
+        }
+
+        Assertions.assertTrue(SERVER_POSITIONS.await(5, TimeUnit.SECONDS));
+
+        // the server's endpoint of the client was bound by the owner resolver
+        var localAddress = clientDatagramNetwork.getLocalAddress();
+
+        Assertions.assertNotNull(localAddress);
+
+        DatagramEndpoint clientEndpoint = serverDatagramNetwork.getEndpoint(localAddress);
+
+        Assertions.assertNotNull(clientEndpoint);
+        Assertions.assertSame(client, clientEndpoint.getOwner());
+
+        for (int i = 0; i < POSITIONS; i++) {
+            clientEndpoint.sendPacket(new PositionPacket(i));
+        }
+
+        Assertions.assertTrue(CLIENT_POSITIONS.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(0, endpoint.getStalePacketCount());
+    }
+
+    @Test
+    void shouldDropStalePackets() throws IOException, InterruptedException {
+
+        try (var channel = DatagramChannel.open()) {
+
+            channel.bind(new InetSocketAddress("127.0.0.1", 0));
+
+            sendUpdate(channel, 5, 50);
+            sendUpdate(channel, 3, 30);
+            sendUpdate(channel, 5, 51);
+            sendUpdate(channel, 6, 60);
+
+            for (int i = 0; i < 50 && UPDATES.size() < 2; i++) {
+                Thread.sleep(100);
+            }
+
+            var endpoint = serverDatagramNetwork.getEndpoint(channel.getLocalAddress());
+
+            Assertions.assertNotNull(endpoint);
+            Assertions.assertEquals(List.of(50, 60), UPDATES);
+            Assertions.assertEquals(2, endpoint.getStalePacketCount());
+        }
+    }
+
+    private static void sendUpdate(@NotNull DatagramChannel channel, int sequence, int value) throws IOException {
+
+        var buffer = ByteBuffer.allocate(10).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(sequence);
+        buffer.putShort((short) 2);
+        buffer.putInt(value);
+        buffer.flip();
+
+        channel.send(buffer, SERVER_DATAGRAM_ADDRESS);
+    }
+
+    @Test
+    void shouldDropTooLargePackets() throws InterruptedException {
+
+        var network = NetworkFactory.newDefaultDatagramNetwork(DATAGRAM_CONFIG,
+                ReadablePacketRegistry.of(PositionResponse.class));
+        try {
+
+            var endpoint = network.register(server, new InetSocketAddress("127.0.0.1", 2240));
+            endpoint.sendPacket(new LargePacket());
+            endpoint.sendPacket(new PositionPacket(1));
+
+            for (int i = 0; i < 50 && network.getSentDatagrams() < 1; i++) {
+                Thread.sleep(100);
+            }
+
+            Assertions.assertEquals(1, network.getDroppedDatagrams());
+            Assertions.assertEquals(1, network.getSentDatagrams());
+
+        } finally {
+            network.shutdown();
+        }
+    }
+
+    @Test
+    void shouldDropOverflowingPacketsWithoutExpectedLength() throws InterruptedException {
+
+        var network = NetworkFactory.newDefaultDatagramNetwork(DATAGRAM_CONFIG,
+                ReadablePacketRegistry.of(PositionResponse.class));
+        try {
+
+            var endpoint = network.register(server, new InetSocketAddress("127.0.0.1", 2255));
+            endpoint.sendPacket(new RawLargePacket());
+            endpoint.sendPacket(new PositionPacket(1));
+
+            for (int i = 0; i < 50 && network.getSentDatagrams() < 1; i++) {
+                Thread.sleep(100);
+            }
+
+            Assertions.assertEquals(1, network.getDroppedDatagrams());
+            Assertions.assertEquals(1, network.getSentDatagrams());
+
+        } finally {
+            network.shutdown();
+        }
+    }
+
+    @AfterAll
+    static void shutdownNetwork() {
+        clientDatagramNetwork.shutdown();
+        serverDatagramNetwork.shutdown();
+        clientNetwork.shutdown();
+        serverNetwork.shutdown();
+    }
+}
@@ -0,0 +1,135 @@
+package com.ss.rlib.common.test.network;
+
+import com.ss.rlib.common.network.ConnectionOwner;
+import com.ss.rlib.common.network.NetworkConfig;
+import com.ss.rlib.common.network.PacketDispatcher;
+import com.ss.rlib.common.network.annotation.PacketDescription;
+import com.ss.rlib.common.network.client.server.Server;
+import com.ss.rlib.common.network.packet.HandleablePacket;
+import com.ss.rlib.common.network.packet.ReadablePacketRegistry;
+import com.ss.rlib.common.network.packet.impl.AbstractReusableReadablePacket;
+import com.ss.rlib.common.network.packet.impl.AbstractWritablePacket;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The test to test handling of received packets by the packet dispatcher.
+ *
+ * @author JavaSaBr
+ */
+public class DispatchNetworkTests extends AbstractNetworkTests {
+
+    private static final InetSocketAddress SERVER_ADDRESS = new InetSocketAddress(2227);
+
+    private static final int MESSAGES = 5_000;
+
+    private static final BlockingQueue<Integer> RECEIVED_NUMBERS = new LinkedBlockingQueue<>();
+
+    private static final BlockingQueue<String> HANDLE_THREADS = new LinkedBlockingQueue<>();
+
+    private static final NetworkConfig SERVER_CONFIG = new NetworkConfig() {
+
+        @Override
+        public int getGroupSize() {
+            return 1;
+        }
+
+        @Override
+        public @NotNull String getGroupName() {
+            return "DispatchServerNetwork";
+        }
+
+        @Override
+        public int getDispatchThreads() {
+            return 4;
+        }
+    };
+
+    /**
+     * It's a packet which a server reads by a network thread and handles by a worker thread.
+     */
+    @PacketDescription(id = 1)
+    public static class NumberRequest extends AbstractReusableReadablePacket implements HandleablePacket {
+
+        private int number;
+
+        @Override
+        protected void readImpl(@NotNull ConnectionOwner owner, @NotNull ByteBuffer buffer) {
+            number = readInt(buffer);
+        }
+
+        @Override
+        public void handle(@NotNull ConnectionOwner owner) {
+            RECEIVED_NUMBERS.add(number);
+            HANDLE_THREADS.add(Thread.currentThread().getName());
+        }
+    }
+
+    /**
+     * It's a packet which a client sends to a server.
+     */
+    @PacketDescription(id = 1)
+    public static class NumberResponse extends AbstractWritablePacket {
+
+        private final int number;
+
+        public NumberResponse(int number) {
+            this.number = number;
+        }
+
+        @Override
+        protected void writeImpl(@NotNull ByteBuffer buffer) {
+            super.writeImpl(buffer);
+            writeInt(buffer, number);
+        }
+    }
+
+    @Override
+    protected @NotNull InetSocketAddress getServerAddress() {
+        return SERVER_ADDRESS;
+    }
+
+    @Override
+    protected @NotNull NetworkConfig getServerConfig() {
+        return SERVER_CONFIG;
+    }
+
+    @Override
+    protected @NotNull ReadablePacketRegistry getServerRegistry() {
+        return ReadablePacketRegistry.of(NumberRequest.class);
+    }
+
+    @Test
+    void shouldHandlePacketsInOrderByWorkerThreads() throws InterruptedException {
+
+        Server server = getServer();
+
+        for (int i = 0; i < MESSAGES; i++) {
+            server.sendPacket(new NumberResponse(i));
+        }
+
+        for (int i = 0; i < MESSAGES; i++) {
+            Integer number = RECEIVED_NUMBERS.poll(5, TimeUnit.SECONDS);
+            Assertions.assertEquals(Integer.valueOf(i), number);
+        }
+
+        for (String threadName : HANDLE_THREADS) {
+            Assertions.assertTrue(threadName.startsWith("DispatchServerNetworkDispatch"), threadName);
+        }
+
+        PacketDispatcher dispatcher = serverNetwork.getPacketDispatcher();
+
+        Assertions.assertNotNull(dispatcher);
+        Assertions.assertEquals(MESSAGES, dispatcher.getHandledCount());
+        Assertions.assertEquals(0, dispatcher.getQueueSize());
+        Assertions.assertTrue(dispatcher.getMaxHandleTime() > 0);
+        Assertions.assertNull(clientNetwork.getPacketDispatcher());
+    }
+}
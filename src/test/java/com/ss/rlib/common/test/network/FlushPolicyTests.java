@@ -0,0 +1,297 @@
+package com.ss.rlib.common.test.network;
+
+import com.ss.rlib.common.network.AsyncConnection;
+import com.ss.rlib.common.network.ConnectionOwner;
+import com.ss.rlib.common.network.FlushPolicy;
+import com.ss.rlib.common.network.NetworkConfig;
+import com.ss.rlib.common.network.NetworkFactory;
+import com.ss.rlib.common.network.annotation.PacketDescription;
+import com.ss.rlib.common.network.client.ClientNetwork;
+import com.ss.rlib.common.network.client.ConnectHandler;
+import com.ss.rlib.common.network.client.server.Server;
+import com.ss.rlib.common.network.impl.DefaultFlushScheduler;
+import com.ss.rlib.common.network.metrics.NetworkMetrics;
+import com.ss.rlib.common.network.packet.ReadablePacketRegistry;
+import com.ss.rlib.common.network.packet.impl.AbstractReadablePacket;
+import com.ss.rlib.common.network.packet.impl.AbstractWritablePacket;
+import com.ss.rlib.common.network.server.AcceptHandler;
+import com.ss.rlib.common.network.server.ServerNetwork;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousSocketChannel;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The test to test flush policies and socket options of connections.
+ *
+ * @author JavaSaBr
+ */
+public class FlushPolicyTests {
+
+    private static final InetSocketAddress SERVER_ADDRESS = new InetSocketAddress("127.0.0.1", 2244);
+
+    private static final int MESSAGES = 100;
+
+    private static final AtomicInteger RECEIVED_MESSAGES = new AtomicInteger();
+
+    /**
+     * It's a packet which a server receives from a client.
+     */
+    @PacketDescription(id = 1)
+    public static class MessageRequest extends AbstractReadablePacket {
+
+        @Override
+        protected void readImpl(@NotNull ConnectionOwner owner, @NotNull ByteBuffer buffer) {
+            readString(buffer);
+            RECEIVED_MESSAGES.incrementAndGet();
+        }
+    }
+
+    /**
+     * It's a packet which a client sends to a server.
+     */
+    @PacketDescription(id = 1)
+    public static class MessagePacket extends AbstractWritablePacket {
+
+        @NotNull
+        private final String message;
+
+        public MessagePacket(@NotNull String message) {
+            this.message = message;
+        }
+
+        @Override
+        protected void writeImpl(@NotNull ByteBuffer buffer) {
+            super.writeImpl(buffer);
+            writeString(buffer, message);
+        }
+
+        @Override
+        public int getExpectedLength() {
+            return message.length() * 2 + 6;
+        }
+    }
+
+    private static ServerNetwork serverNetwork;
+
+    @BeforeAll
+    static void createServerNetwork() throws IOException {
+        serverNetwork = NetworkFactory.newDefaultAsyncServerNetwork(NetworkConfig.DEFAULT_SERVER,
+                ReadablePacketRegistry.of(MessageRequest.class), AcceptHandler.newDefault());
+        serverNetwork.bind(SERVER_ADDRESS);
+    }
+
+    @BeforeEach
+    void resetMessages() {
+        RECEIVED_MESSAGES.set(0);
+    }
+
+    @Test
+    void shouldWritePacketsOnlyAfterExplicitFlush() throws Exception {
+
+        var clientNetwork = newClientNetwork(FlushPolicy.EXPLICIT, 0, 0);
+        try {
+
+            Server server = clientNetwork.connect(SERVER_ADDRESS);
+
+            for (int i = 0; i < MESSAGES; i++) {
+                server.sendPacket(new MessagePacket("Message " + i));
+            }
+
+            Thread.sleep(200);
+
+            Assertions.assertEquals(0, RECEIVED_MESSAGES.get());
+            Assertions.assertEquals(MESSAGES, server.getConnection().getWaitPacketCount());
+
+            server.getConnection().flush();
+
+            waitForMessages(MESSAGES);
+
+            Assertions.assertEquals(MESSAGES, RECEIVED_MESSAGES.get());
+            Assertions.assertTrue(getWrites(clientNetwork) < MESSAGES / 10, "writes " + getWrites(clientNetwork));
+
+        } finally {
+            clientNetwork.shutdown();
+        }
+    }
+
+    @Test
+    void shouldWritePacketsAfterFlushDelay() throws Exception {
+
+        var clientNetwork = newClientNetwork(FlushPolicy.DELAYED, 20_000, Long.MAX_VALUE);
+        try {
+
+            Server server = clientNetwork.connect(SERVER_ADDRESS);
+
+            for (int i = 0; i < MESSAGES; i++) {
+                server.sendPacket(new MessagePacket("Message " + i));
+            }
+
+            waitForMessages(MESSAGES);
+
+            Assertions.assertEquals(MESSAGES, RECEIVED_MESSAGES.get());
+            Assertions.assertTrue(getWrites(clientNetwork) < MESSAGES / 10, "writes " + getWrites(clientNetwork));
+
+            // next packets are flushed by the next tick of the scheduler
+            server.sendPacket(new MessagePacket("Last message"));
+
+            waitForMessages(MESSAGES + 1);
+
+            Assertions.assertEquals(MESSAGES + 1, RECEIVED_MESSAGES.get());
+
+        } finally {
+            clientNetwork.shutdown();
+        }
+    }
+
+    @Test
+    void shouldFlushWhenFlushBytesAreQueued() throws Exception {
+
+        // the flush delay is too long to be waited by the test
+        var clientNetwork = newClientNetwork(FlushPolicy.DELAYED, 60_000_000, 256);
+        try {
+
+            Server server = clientNetwork.connect(SERVER_ADDRESS);
+
+            for (int i = 0; i < MESSAGES; i++) {
+                server.sendPacket(new MessagePacket("Message " + i));
+            }
+
+            waitForMessages(MESSAGES - 10);
+
+            Assertions.assertTrue(RECEIVED_MESSAGES.get() >= MESSAGES - 10);
+
+        } finally {
+            clientNetwork.shutdown();
+        }
+    }
+
+    @Test
+    void shouldApplySocketOptionsOfConfig() throws IOException {
+
+        var config = new NetworkConfig() {
+
+            @Override
+            public boolean isTcpNoDelay() {
+                return true;
+            }
+
+            @Override
+            public boolean isKeepAlive() {
+                return true;
+            }
+
+            @Override
+            public int getSendBufferSize() {
+                return 64 * 1024;
+            }
+        };
+
+        var clientNetwork = NetworkFactory.newDefaultAsyncClientNetwork(config,
+                ReadablePacketRegistry.empty(), ConnectHandler.newDefault());
+
+        try (var channel = AsynchronousSocketChannel.open()) {
+
+            clientNetwork.configureChannel(channel);
+
+            Assertions.assertTrue(channel.getOption(StandardSocketOptions.TCP_NODELAY));
+            Assertions.assertTrue(channel.getOption(StandardSocketOptions.SO_KEEPALIVE));
+            Assertions.assertTrue(channel.getOption(StandardSocketOptions.SO_SNDBUF) >= 64 * 1024);
+
+        } finally {
+            clientNetwork.shutdown();
+        }
+    }
+
+    private static @NotNull ClientNetwork newClientNetwork(@NotNull FlushPolicy policy, long delay, long bytes) {
+        return NetworkFactory.newDefaultAsyncClientNetwork(new NetworkConfig() {
+
+            @Override
+            public @NotNull FlushPolicy getFlushPolicy() {
+                return policy;
+            }
+
+            @Override
+            public long getFlushDelay() {
+                return delay;
+            }
+
+            @Override
+            public long getFlushBytes() {
+                return bytes;
+            }
+
+            @Override
+            public boolean isMetricsEnabled() {
+                return true;
+            }
+        }, ReadablePacketRegistry.empty(), ConnectHandler.newDefault());
+    }
+
+    private static long getWrites(@NotNull ClientNetwork network) {
+
+        NetworkMetrics metrics = network.getMetrics();
+
+        Assertions.assertNotNull(metrics);
+
+        return metrics.snapshot().getWriteLatency().getCount();
+    }
+
+    @Test
+    void shouldNotLoseWakeupOfFlushScheduler() throws InterruptedException {
+
+        var flushes = new Semaphore(0);
+        var connection = (AsyncConnection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {AsyncConnection.class}, (proxy, method, args) -> {
+
+                    if ("flush".equals(method.getName())) {
+                        flushes.release();
+                    }
+
+                    return null;
+                });
+
+        var scheduler = new DefaultFlushScheduler(new NetworkConfig() {
+
+            @Override
+            public long getFlushDelay() {
+                return 1;
+            }
+        });
+
+        try {
+
+            // every schedule races with falling asleep of the scheduler after the previous flush
+            for (int i = 0; i < 10_000; i++) {
+                scheduler.schedule(connection);
+                Assertions.assertTrue(flushes.tryAcquire(5, TimeUnit.SECONDS), "lost wakeup of the flush " + i);
+            }
+
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    private static void waitForMessages(int count) throws InterruptedException {
+        for (int i = 0; i < 50 && RECEIVED_MESSAGES.get() < count; i++) {
+            Thread.sleep(100);
+        }
+    }
+
+    @AfterAll
+    static void shutdownServerNetwork() {
+        serverNetwork.shutdown();
+    }
+}
@@ -0,0 +1,191 @@
+package com.ss.rlib.common.test.network;
+
+import com.ss.rlib.common.network.FrameCodec;
+import com.ss.rlib.common.network.FrameException;
+import com.ss.rlib.common.network.NetworkConfig;
+import com.ss.rlib.common.network.NetworkFactory;
+import com.ss.rlib.common.network.client.ConnectHandler;
+import com.ss.rlib.common.network.packet.ReadablePacketRegistry;
+import com.ss.rlib.common.network.server.AcceptHandler;
+import com.ss.rlib.common.network.server.client.Client;
+import com.ss.rlib.common.util.StringUtils;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The test to test frame codecs.
+ *
+ * @author JavaSaBr
+ */
+public class FrameCodecTests {
+
+    @Test
+    void shouldReadWrittenHeaders() {
+        checkHeaders(FrameCodec.SHORT, 0, 1, 200, 0xFFFF - 2);
+        checkHeaders(FrameCodec.INT, 0, 1, 200, 0xFFFF, 10_000_000);
+        checkHeaders(FrameCodec.VAR_INT, 0, 1, 127, 128, 16383, 16384, 10_000_000, Integer.MAX_VALUE);
+    }
+
+    @Test
+    void shouldNotReadPartialHeaders() {
+        checkPartialHeader(FrameCodec.SHORT, 1000);
+        checkPartialHeader(FrameCodec.INT, 1000);
+        checkPartialHeader(FrameCodec.VAR_INT, 1_000_000);
+    }
+
+    @Test
+    void shouldWriteShortestVarIntHeaders() {
+
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+
+        Assertions.assertEquals(4, FrameCodec.VAR_INT.writeHeader(buffer, 5, 100));
+        Assertions.assertEquals(3, FrameCodec.VAR_INT.writeHeader(buffer, 5, 300));
+        Assertions.assertEquals(0, FrameCodec.VAR_INT.writeHeader(buffer, 5, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void shouldFailOnCorruptedHeaders() {
+
+        ByteBuffer buffer = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putShort((short) 1).flip();
+
+        Assertions.assertThrows(FrameException.class, () -> FrameCodec.SHORT.readDataLength(buffer));
+
+        ByteBuffer varInt = ByteBuffer.wrap(new byte[] {-1, -1, -1, -1, -1, -1});
+
+        Assertions.assertThrows(FrameException.class, () -> FrameCodec.VAR_INT.readDataLength(varInt));
+    }
+
+    @Test
+    void shouldCloseConnectionWithCorruptedHeader() throws Exception {
+
+        var header = ByteBuffer.allocate(2).order(ByteOrder.LITTLE_ENDIAN).putShort((short) 1);
+
+        Assertions.assertTrue(isClosedAfterSending(FrameCodec.SHORT, 2249, header.array()));
+    }
+
+    @Test
+    void shouldCloseConnectionWithTooLargeFrame() throws Exception {
+
+        var header = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN)
+                .putInt(Integer.MAX_VALUE)
+                .putInt(0);
+
+        Assertions.assertTrue(isClosedAfterSending(FrameCodec.INT, 2250, header.array()));
+    }
+
+    @Test
+    void shouldDropPacketTooLargeForShortFrame() throws Exception {
+
+        var address = new InetSocketAddress("127.0.0.1", 2254);
+        var accepted = new CompletableFuture<Client>();
+
+        var serverNetwork = NetworkFactory.newDefaultAsyncServerNetwork(NetworkConfig.DEFAULT_SERVER,
+                ReadablePacketRegistry.of(AbstractNetworkTests.MessageRequest.class),
+                AcceptHandler.newDefault(accepted::complete));
+        serverNetwork.bind(address);
+
+        var clientNetwork = NetworkFactory.newDefaultAsyncClientNetwork(NetworkConfig.DEFAULT_CLIENT,
+                ReadablePacketRegistry.empty(), ConnectHandler.newDefault());
+        clientNetwork.connect(address);
+
+        try {
+
+            var server = clientNetwork.getCurrentServer();
+            var client = accepted.get(5, TimeUnit.SECONDS);
+
+            Assertions.assertNotNull(server);
+
+            // the data of the large message takes more than 64 KB which the short header can't contain
+            server.sendPacket(new AbstractNetworkTests.MessageResponse(StringUtils.generate(40_000)));
+            server.sendPacket(new AbstractNetworkTests.MessageResponse("next message"));
+
+            var messages = AbstractNetworkTests.receivedMessages(client);
+
+            Assertions.assertEquals("next message", messages.poll(5, TimeUnit.SECONDS));
+            Assertions.assertNull(messages.poll(300, TimeUnit.MILLISECONDS));
+            Assertions.assertEquals(1, server.getConnection().getDroppedPacketCount());
+
+        } finally {
+            clientNetwork.shutdown();
+            serverNetwork.shutdown();
+        }
+    }
+
+    private static boolean isClosedAfterSending(
+            @NotNull FrameCodec codec,
+            int port,
+            byte[] data
+    ) throws IOException {
+
+        var address = new InetSocketAddress("127.0.0.1", port);
+        var serverNetwork = NetworkFactory.newDefaultAsyncServerNetwork(new NetworkConfig() {
+
+            @Override
+            public @NotNull FrameCodec getFrameCodec() {
+                return codec;
+            }
+        }, ReadablePacketRegistry.empty(), AcceptHandler.newDefault());
+        serverNetwork.bind(address);
+
+        try (var socket = new Socket()) {
+
+            socket.connect(address);
+            socket.setSoTimeout(3000);
+            socket.getOutputStream().write(data);
+
+            try {
+                return socket.getInputStream().read() == -1;
+            } catch (SocketTimeoutException e) {
+                return false;
+            } catch (IOException e) {
+                // the connection was reset
+                return true;
+            }
+
+        } finally {
+            serverNetwork.shutdown();
+        }
+    }
+
+    private void checkHeaders(@NotNull FrameCodec codec, int... lengths) {
+
+        ByteBuffer buffer = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+
+        for (int length : lengths) {
+
+            buffer.clear();
+
+            int offset = codec.writeHeader(buffer, codec.getMaxHeaderSize(), length);
+
+            buffer.position(offset);
+            buffer.limit(codec.getMaxHeaderSize());
+
+            Assertions.assertEquals(length, codec.readDataLength(buffer), codec + ": " + length);
+            Assertions.assertFalse(buffer.hasRemaining());
+        }
+    }
+
+    private void checkPartialHeader(@NotNull FrameCodec codec, int length) {
+
+        ByteBuffer buffer = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+
+        int offset = codec.writeHeader(buffer, codec.getMaxHeaderSize(), length);
+
+        buffer.position(offset);
+        buffer.limit(codec.getMaxHeaderSize() - 1);
+
+        Assertions.assertEquals(FrameCodec.NOT_ENOUGH_DATA, codec.readDataLength(buffer));
+        Assertions.assertEquals(offset, buffer.position());
+    }
+}
@@ -0,0 +1,113 @@
+package com.ss.rlib.common.test.network;
+
+import com.ss.rlib.common.network.IdleManager;
+import com.ss.rlib.common.network.IdleState;
+import com.ss.rlib.common.network.NetworkConfig;
+import com.ss.rlib.common.network.client.ConnectHandler;
+import com.ss.rlib.common.network.client.server.Server;
+import com.ss.rlib.common.network.client.server.ServerConnection;
+import com.ss.rlib.common.network.client.server.impl.DefaultServer;
+import com.ss.rlib.common.network.client.server.impl.DefaultServerConnection;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The test to test detecting and closing idle connections.
+ *
+ * @author JavaSaBr
+ */
+public class IdleConnectionTests extends AbstractNetworkTests {
+
+    private static final InetSocketAddress SERVER_ADDRESS = new InetSocketAddress(2233);
+
+    private static final Map<IdleState, AtomicInteger> IDLE_EVENTS = new ConcurrentHashMap<>();
+
+    private static final NetworkConfig CLIENT_CONFIG = new NetworkConfig() {
+
+        @Override
+        public long getReadIdleTimeout() {
+            return 100;
+        }
+
+        @Override
+        public long getAllIdleTimeout() {
+            return 500;
+        }
+
+        @Override
+        public long getIdleCheckInterval() {
+            return 20;
+        }
+    };
+
+    /**
+     * It's a server which counts idle events.
+     */
+    public static class IdleServer extends DefaultServer {
+
+        public IdleServer(@NotNull ServerConnection connection) {
+            super(connection);
+        }
+
+        @Override
+        public void onIdle(@NotNull IdleState state) {
+            IDLE_EVENTS.computeIfAbsent(state, key -> new AtomicInteger()).incrementAndGet();
+            super.onIdle(state);
+        }
+    }
+
+    @Override
+    protected @NotNull InetSocketAddress getServerAddress() {
+        return SERVER_ADDRESS;
+    }
+
+    @Override
+    protected @NotNull NetworkConfig getClientConfig() {
+        return CLIENT_CONFIG;
+    }
+
+    @Override
+    protected @NotNull ConnectHandler newConnectHandler() {
+        return ConnectHandler.newSimple(DefaultServerConnection::new, IdleServer::new);
+    }
+
+    @Test
+    void shouldNotifyAboutIdlenessAndCloseIdleConnection() throws InterruptedException {
+
+        Server server = getServer();
+        IdleManager idleManager = clientNetwork.getIdleManager();
+
+        Assertions.assertNotNull(idleManager);
+
+        // the client only writes, so it's read idle, but it isn't idle in both directions
+        for (int i = 0; i < 20; i++) {
+            server.sendPacket(new MessageResponse("Message " + i));
+            Thread.sleep(50);
+        }
+
+        Assertions.assertTrue(IDLE_EVENTS.containsKey(IdleState.READER_IDLE));
+        Assertions.assertFalse(IDLE_EVENTS.containsKey(IdleState.ALL_IDLE));
+        Assertions.assertFalse(IDLE_EVENTS.containsKey(IdleState.WRITER_IDLE));
+        Assertions.assertFalse(server.getConnection().isClosed());
+        Assertions.assertEquals(1, idleManager.size());
+
+        for (int i = 0; i < 50 && !server.getConnection().isClosed(); i++) {
+            Thread.sleep(50);
+        }
+
+        Assertions.assertTrue(IDLE_EVENTS.containsKey(IdleState.ALL_IDLE));
+        Assertions.assertTrue(server.getConnection().isClosed());
+        Assertions.assertTrue(((IdleServer) server).isDestroyed());
+    }
+
+    @Test
+    void shouldNotHaveIdleManagerIfDisabled() {
+        Assertions.assertNull(serverNetwork.getIdleManager());
+    }
+}
@@ -0,0 +1,262 @@
+package com.ss.rlib.common.test.network;
+
+import com.ss.rlib.common.network.AsyncNetwork;
+import com.ss.rlib.common.network.ConnectionOwner;
+import com.ss.rlib.common.network.NetworkFactory;
+import com.ss.rlib.common.network.annotation.PacketDescription;
+import com.ss.rlib.common.network.client.ClientNetwork;
+import com.ss.rlib.common.network.client.ServerPool;
+import com.ss.rlib.common.network.client.server.Server;
+import com.ss.rlib.common.network.packet.ReadablePacketRegistry;
+import com.ss.rlib.common.network.packet.impl.AbstractReadablePacket;
+import com.ss.rlib.common.network.packet.impl.AbstractWritablePacket;
+import com.ss.rlib.common.network.server.ServerNetwork;
+import com.ss.rlib.common.util.StringUtils;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The test to test a client network with many connections and a pool of connections.
+ *
+ * @author JavaSaBr
+ */
+public class MultiConnectionClientTests {
+
+    private static final InetSocketAddress FIRST_ADDRESS = new InetSocketAddress("127.0.0.1", 2241);
+
+    private static final InetSocketAddress SECOND_ADDRESS = new InetSocketAddress("127.0.0.1", 2242);
+
+    private static final InetSocketAddress STALLED_ADDRESS = new InetSocketAddress("127.0.0.1", 2253);
+
+    private static final Map<AsyncNetwork, AtomicInteger> RECEIVED_MESSAGES = new ConcurrentHashMap<>();
+
+    /**
+     * It's a packet which a server receives from a client.
+     */
+    @PacketDescription(id = 1)
+    public static class MessageRequest extends AbstractReadablePacket {
+
+        @Override
+        protected void readImpl(@NotNull ConnectionOwner owner, @NotNull ByteBuffer buffer) {
+            readString(buffer);
+            RECEIVED_MESSAGES.computeIfAbsent(owner.getConnection().getNetwork(), network -> new AtomicInteger())
+                    .incrementAndGet();
+        }
+    }
+
+    /**
+     * It's a packet which a client receives from a server.
+     */
+    @PacketDescription(id = 1)
+    public static class MessageResponse extends AbstractReadablePacket {
+
+        @Override
+        protected void readImpl(@NotNull ConnectionOwner owner, @NotNull ByteBuffer buffer) {
+            readString(buffer);
+        }
+    }
+
+    /**
+     * It's a packet with a message.
+     */
+    @PacketDescription(id = 1)
+    public static class MessagePacket extends AbstractWritablePacket {
+
+        @NotNull
+        private final String message;
+
+        public MessagePacket(@NotNull String message) {
+            this.message = message;
+        }
+
+        @Override
+        protected void writeImpl(@NotNull ByteBuffer buffer) {
+            super.writeImpl(buffer);
+            writeString(buffer, message);
+        }
+
+        @Override
+        public int getExpectedLength() {
+            return message.length() * 2 + 8;
+        }
+    }
+
+    /**
+     * It's a packet with a message which doesn't have an expected length.
+     */
+    @PacketDescription(id = 1)
+    public static class UnsizedPacket extends AbstractWritablePacket {
+
+        @NotNull
+        private final String message;
+
+        public UnsizedPacket(@NotNull String message) {
+            this.message = message;
+        }
+
+        @Override
+        protected void writeImpl(@NotNull ByteBuffer buffer) {
+            super.writeImpl(buffer);
+            writeString(buffer, message);
+        }
+    }
+
+    private static ServerNetwork firstServerNetwork;
+    private static ServerNetwork secondServerNetwork;
+    private static ClientNetwork clientNetwork;
+
+    @BeforeAll
+    static void createNetworks() throws IOException {
+
+        firstServerNetwork = NetworkFactory.newDefaultAsyncServerNetwork(
+                ReadablePacketRegistry.of(MessageRequest.class));
+        firstServerNetwork.bind(FIRST_ADDRESS);
+
+        secondServerNetwork = NetworkFactory.newDefaultAsyncServerNetwork(
+                ReadablePacketRegistry.of(MessageRequest.class));
+        secondServerNetwork.bind(SECOND_ADDRESS);
+
+        clientNetwork = NetworkFactory.newDefaultAsyncClientNetwork(ReadablePacketRegistry.of(MessageResponse.class));
+    }
+
+    @Test
+    void shouldConnectToManyServers() throws Exception {
+
+        CompletableFuture<Server> first = clientNetwork.asyncConnect(FIRST_ADDRESS);
+        CompletableFuture<Server> second = clientNetwork.asyncConnect(SECOND_ADDRESS);
+        CompletableFuture<Server> third = clientNetwork.asyncConnect(SECOND_ADDRESS);
+
+        CompletableFuture.allOf(first, second, third).get(5, TimeUnit.SECONDS);
+
+        Assertions.assertTrue(clientNetwork.getServers().contains(first.get()));
+        Assertions.assertTrue(clientNetwork.getServers().contains(second.get()));
+        Assertions.assertTrue(clientNetwork.getServers().contains(third.get()));
+        Assertions.assertNotSame(second.get(), third.get());
+
+        second.get().destroy();
+
+        Assertions.assertFalse(clientNetwork.getServers().contains(second.get()));
+        Assertions.assertTrue(clientNetwork.getServers().contains(third.get()));
+
+        first.get().destroy();
+        third.get().destroy();
+    }
+
+    @Test
+    void shouldSendPacketsByPool() throws Exception {
+
+        ServerPool pool = ServerPool.newDefault(clientNetwork, 2, FIRST_ADDRESS, SECOND_ADDRESS);
+        try {
+
+            pool.connect().get(5, TimeUnit.SECONDS);
+
+            Assertions.assertEquals(4, pool.getServers().size());
+
+            int before = receivedMessages(firstServerNetwork) + receivedMessages(secondServerNetwork);
+
+            for (int i = 0; i < 1000; i++) {
+                Assertions.assertTrue(pool.sendPacket(new MessagePacket("Message " + i)));
+            }
+
+            for (int i = 0; i < 50 && receivedMessages(firstServerNetwork) +
+                    receivedMessages(secondServerNetwork) < before + 1000; i++) {
+                Thread.sleep(100);
+            }
+
+            Assertions.assertEquals(before + 1000,
+                    receivedMessages(firstServerNetwork) + receivedMessages(secondServerNetwork));
+            Assertions.assertTrue(receivedMessages(firstServerNetwork) > 0);
+            Assertions.assertTrue(receivedMessages(secondServerNetwork) > 0);
+
+            // a lost connection is reconnected by the pool
+            pool.getServers().first().destroy();
+
+            Assertions.assertEquals(3, pool.getServers().size());
+
+            for (int i = 0; i < 50 && pool.getServers().size() < 4; i++) {
+                Assertions.assertNotNull(pool.next());
+                Thread.sleep(100);
+            }
+
+            Assertions.assertEquals(4, pool.getServers().size());
+
+        } finally {
+            pool.close();
+        }
+    }
+
+    @Test
+    void shouldSkipStalledServerOfPool() throws Exception {
+
+        try (var stalledSocket = new ServerSocket()) {
+
+            // the stalled server never reads, so packets stay in the send queue of its connection
+            stalledSocket.setReceiveBufferSize(4096);
+            stalledSocket.bind(STALLED_ADDRESS);
+
+            ServerPool pool = ServerPool.newDefault(clientNetwork, 1, STALLED_ADDRESS, FIRST_ADDRESS);
+            try {
+
+                pool.connect().get(5, TimeUnit.SECONDS);
+
+                Server stalled = null;
+
+                for (Server server : pool.getServers()) {
+                    if (STALLED_ADDRESS.equals(server.getConnection().getRemoteSocketAddress())) {
+                        stalled = server;
+                    }
+                }
+
+                Assertions.assertNotNull(stalled);
+
+                String message = StringUtils.generate(500);
+
+                for (int i = 0; i < 10_000; i++) {
+                    stalled.sendPacket(new UnsizedPacket(message));
+                }
+
+                for (int i = 0; i < 50 && stalled.getConnection().getWaitPacketCount() == 0; i++) {
+                    Thread.sleep(100);
+                }
+
+                // the stalled connection has waiting packets, but it doesn't have waiting bytes
+                Assertions.assertTrue(stalled.getConnection().getWaitPacketCount() > 0);
+                Assertions.assertEquals(0, stalled.getConnection().getWaitPacketBytes());
+
+                for (int i = 0; i < 10; i++) {
+                    Server server = pool.next();
+                    Assertions.assertNotNull(server);
+                    Assertions.assertNotSame(stalled, server);
+                }
+
+            } finally {
+                pool.close();
+            }
+        }
+    }
+
+    private static int receivedMessages(@NotNull AsyncNetwork network) {
+        var counter = RECEIVED_MESSAGES.get(network);
+        return counter == null ? 0 : counter.get();
+    }
+
+    @AfterAll
+    static void shutdownNetworks() {
+        clientNetwork.shutdown();
+        firstServerNetwork.shutdown();
+        secondServerNetwork.shutdown();
+    }
+}
@@ -0,0 +1,241 @@
+package com.ss.rlib.common.test.network;
+
+import com.ss.rlib.common.network.ConnectionOwner;
+import com.ss.rlib.common.network.NetworkConfig;
+import com.ss.rlib.common.network.NetworkCrypt;
+import com.ss.rlib.common.network.annotation.PacketDescription;
+import com.ss.rlib.common.network.client.ConnectHandler;
+import com.ss.rlib.common.network.client.server.Server;
+import com.ss.rlib.common.network.client.server.impl.DefaultServer;
+import com.ss.rlib.common.network.client.server.impl.DefaultServerConnection;
+import com.ss.rlib.common.network.impl.AesCtrNetworkCrypt;
+import com.ss.rlib.common.network.impl.ChaCha20NetworkCrypt;
+import com.ss.rlib.common.network.packet.ReadablePacketRegistry;
+import com.ss.rlib.common.network.packet.impl.AbstractReadablePacket;
+import com.ss.rlib.common.network.server.AcceptHandler;
+import com.ss.rlib.common.network.server.client.Client;
+import com.ss.rlib.common.network.server.client.impl.DefaultClient;
+import com.ss.rlib.common.network.server.client.impl.DefaultClientConnection;
+import com.ss.rlib.common.util.crypt.ChaCha20;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * The test to test stream network crypts.
+ *
+ * @author JavaSaBr
+ */
+public class NetworkCryptTests extends AbstractNetworkTests {
+
+    private static final InetSocketAddress SERVER_ADDRESS = new InetSocketAddress(2236);
+
+    private static final int MESSAGES = 500;
+
+    private static final byte[] KEY = new byte[ChaCha20.KEY_SIZE];
+
+    private static final byte[] CLIENT_NONCE = new byte[ChaCha20.NONCE_SIZE];
+
+    private static final byte[] SERVER_NONCE = new byte[ChaCha20.NONCE_SIZE];
+
+    static {
+        var random = new Random(7);
+        random.nextBytes(KEY);
+        random.nextBytes(CLIENT_NONCE);
+        random.nextBytes(SERVER_NONCE);
+    }
+
+    private static final NetworkConfig SERVER_CONFIG = new NetworkConfig() {
+
+        @Override
+        public boolean isDirectByteBuffer() {
+            return true;
+        }
+    };
+
+    /**
+     * It's a packet which a server receives from a client and sends it back.
+     */
+    @PacketDescription(id = 1)
+    public static class EchoRequest extends AbstractReadablePacket {
+
+        @Override
+        protected void readImpl(@NotNull ConnectionOwner owner, @NotNull ByteBuffer buffer) {
+            owner.sendPacket(new MessageResponse(readString(buffer)));
+        }
+    }
+
+    private static @NotNull String newMessage(int number) {
+
+        var builder = new StringBuilder("Message ").append(number);
+
+        // some messages don't fit into a write buffer
+        int length = number % 10 == 0 ? 5000 : number % 100;
+
+        for (int i = 0; i < length; i++) {
+            builder.append((char) ('a' + i % 26));
+        }
+
+        return builder.toString();
+    }
+
+    @Override
+    protected @NotNull InetSocketAddress getServerAddress() {
+        return SERVER_ADDRESS;
+    }
+
+    @Override
+    protected @NotNull NetworkConfig getServerConfig() {
+        return SERVER_CONFIG;
+    }
+
+    @Override
+    protected @NotNull ReadablePacketRegistry getServerRegistry() {
+        return ReadablePacketRegistry.of(EchoRequest.class);
+    }
+
+    @Override
+    protected @NotNull AcceptHandler newAcceptHandler(@NotNull Consumer<Client> consumer) {
+        return AcceptHandler.newSimple(DefaultClientConnection::new, connection -> new DefaultClient(connection,
+                new ChaCha20NetworkCrypt(KEY, SERVER_NONCE, CLIENT_NONCE)), consumer);
+    }
+
+    @Override
+    protected @NotNull ConnectHandler newConnectHandler() {
+        return ConnectHandler.newSimple(DefaultServerConnection::new, connection -> new DefaultServer(connection,
+                new ChaCha20NetworkCrypt(KEY, CLIENT_NONCE, SERVER_NONCE)));
+    }
+
+    @Test
+    void shouldExchangeEncryptedPackets() throws InterruptedException {
+
+        Server server = getServer();
+
+        for (int i = 0; i < MESSAGES; i++) {
+            server.sendPacket(new MessageResponse(newMessage(i)));
+        }
+
+        List<String> messages = takeMessages(server, MESSAGES);
+
+        for (int i = 0; i < MESSAGES; i++) {
+            Assertions.assertEquals(newMessage(i), messages.get(i));
+        }
+    }
+
+    @Test
+    void shouldMatchChaCha20TestVector() {
+
+        byte[] key = new byte[ChaCha20.KEY_SIZE];
+
+        for (int i = 0; i < key.length; i++) {
+            key[i] = (byte) i;
+        }
+
+        byte[] nonce = {0, 0, 0, 0, 0, 0, 0, 0x4a, 0, 0, 0, 0};
+        byte[] data = ("Ladies and Gentlemen of the class of '99: If I could offer you only one tip for the future, " +
+                "sunscreen would be it.").getBytes(StandardCharsets.US_ASCII);
+
+        // RFC 7539, section 2.4.2
+        String expected = "6e2e359a2568f98041ba0728dd0d6981e97e7aec1d4360c20a27afccfd9fae0bf91b65c5524733ab8f593dabcd6" +
+                "2b3571639d624e65152ab8f530c359f0861d807ca0dbf500d6a6156a38e088a22b65e52bc514d16ccf806818ce91ab77937365a" +
+                "f90bbf74a35be6b40b8eedf2785e42874d";
+
+        var direct = ByteBuffer.allocateDirect(data.length + 3).order(ByteOrder.LITTLE_ENDIAN);
+        direct.position(3);
+        direct.put(data);
+
+        // the direct buffer is crypted by parts which don't match key stream blocks
+        var cipher = new ChaCha20(key, nonce, 1);
+        cipher.crypt(direct, 3, 10);
+        cipher.crypt(direct, 13, 70);
+        cipher.crypt(direct, 83, data.length - 80);
+
+        var heap = data.clone();
+        new ChaCha20(key, nonce, 1).crypt(heap, 0, heap.length);
+
+        byte[] result = new byte[data.length];
+        direct.position(3);
+        direct.get(result);
+
+        Assertions.assertEquals(expected, toHex(result));
+        Assertions.assertEquals(expected, toHex(heap));
+    }
+
+    @Test
+    void shouldMatchAesCtrCipher() throws Exception {
+
+        byte[] key = new byte[16];
+        byte[] clientIv = new byte[AesCtrNetworkCrypt.IV_SIZE];
+        byte[] serverIv = new byte[AesCtrNetworkCrypt.IV_SIZE];
+        byte[] data = new byte[10_000];
+
+        var random = new Random(11);
+        random.nextBytes(key);
+        random.nextBytes(clientIv);
+        random.nextBytes(serverIv);
+        random.nextBytes(data);
+
+        var cipher = Cipher.getInstance("AES/CTR/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(key, "AES"), new IvParameterSpec(clientIv));
+
+        byte[] expected = cipher.doFinal(data);
+
+        NetworkCrypt clientCrypt = new AesCtrNetworkCrypt(key, clientIv, serverIv);
+        NetworkCrypt serverCrypt = new AesCtrNetworkCrypt(key, serverIv, clientIv);
+
+        var direct = ByteBuffer.allocateDirect(data.length);
+        direct.put(data);
+
+        for (int offset = 0; offset < data.length; ) {
+            int length = Math.min(random.nextInt(6000), data.length - offset);
+            clientCrypt.encrypt(direct, offset, length);
+            offset += length;
+        }
+
+        byte[] encrypted = new byte[data.length];
+        direct.flip();
+        direct.get(encrypted);
+
+        Assertions.assertArrayEquals(expected, encrypted);
+
+        var heap = ByteBuffer.wrap(encrypted);
+
+        for (int offset = 0; offset < data.length; ) {
+            int length = Math.min(random.nextInt(300), data.length - offset);
+            serverCrypt.decrypt(heap, offset, length);
+            offset += length;
+        }
+
+        Assertions.assertArrayEquals(data, encrypted);
+    }
+
+    @Test
+    void shouldNotAllowSameCountersForBothDirections() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new ChaCha20NetworkCrypt(KEY, CLIENT_NONCE, CLIENT_NONCE));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new AesCtrNetworkCrypt(new byte[16], new byte[16], new byte[16]));
+    }
+
+    private static @NotNull String toHex(@NotNull byte[] bytes) {
+
+        var builder = new StringBuilder();
+
+        for (byte value : bytes) {
+            builder.append(String.format("%02x", value));
+        }
+
+        return builder.toString();
+    }
+}
@@ -0,0 +1,124 @@
+package com.ss.rlib.common.test.network;
+
+import com.ss.rlib.common.network.NetworkConfig;
+import com.ss.rlib.common.network.NetworkFactory;
+import com.ss.rlib.common.network.client.server.Server;
+import com.ss.rlib.common.network.metrics.Histogram;
+import com.ss.rlib.common.network.metrics.HistogramSnapshot;
+import com.ss.rlib.common.network.metrics.NetworkMetrics;
+import com.ss.rlib.common.network.metrics.NetworkMetricsSnapshot;
+import com.ss.rlib.common.network.packet.ReadablePacketRegistry;
+import com.ss.rlib.common.network.server.AcceptHandler;
+import com.ss.rlib.common.network.server.ServerNetwork;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+/**
+ * The test to test metrics of networks and connections.
+ *
+ * @author JavaSaBr
+ */
+public class NetworkMetricsTests extends AbstractNetworkTests {
+
+    private static final InetSocketAddress SERVER_ADDRESS = new InetSocketAddress(2232);
+
+    private static final int MESSAGES = 1_000;
+
+    private static final NetworkConfig CONFIG = new NetworkConfig() {
+
+        @Override
+        public boolean isMetricsEnabled() {
+            return true;
+        }
+    };
+
+    @Override
+    protected @NotNull InetSocketAddress getServerAddress() {
+        return SERVER_ADDRESS;
+    }
+
+    @Override
+    protected @NotNull NetworkConfig getServerConfig() {
+        return CONFIG;
+    }
+
+    @Override
+    protected @NotNull NetworkConfig getClientConfig() {
+        return CONFIG;
+    }
+
+    @Test
+    void shouldCollectMetricsOfSentAndReceivedPackets() throws InterruptedException {
+
+        Server server = getServer();
+
+        for (int i = 0; i < MESSAGES; i++) {
+            server.sendPacket(new MessageResponse("Message " + i));
+        }
+
+        takeMessages(getClient(), MESSAGES);
+
+        NetworkMetrics serverMetrics = serverNetwork.getMetrics();
+        NetworkMetrics clientMetrics = clientNetwork.getMetrics();
+        NetworkMetrics connectionMetrics = server.getConnection().getMetrics();
+
+        Assertions.assertNotNull(serverMetrics);
+        Assertions.assertNotNull(clientMetrics);
+        Assertions.assertNotNull(connectionMetrics);
+
+        // the last write can be completed and the last read can be counted a bit later than handling packets
+        for (int i = 0; i < 50 && (clientMetrics.snapshot().getWaitPackets() > 0 ||
+                serverMetrics.snapshot().getReceivedPackets() < MESSAGES); i++) {
+            Thread.sleep(100);
+        }
+
+        NetworkMetricsSnapshot received = serverMetrics.snapshot();
+        NetworkMetricsSnapshot sent = clientMetrics.snapshot();
+
+        Assertions.assertEquals(MESSAGES, received.getReceivedPackets());
+        Assertions.assertEquals(MESSAGES, sent.getSentPackets());
+        Assertions.assertEquals(sent.getSentBytes(), received.getReceivedBytes());
+        Assertions.assertEquals(0, sent.getWaitPackets());
+        Assertions.assertEquals(MESSAGES, sent.getSendQueueDepth().getCount());
+        Assertions.assertTrue(sent.getWriteLatency().getCount() > 0);
+        Assertions.assertTrue(received.getPacketsByRead().getCount() > 0);
+        Assertions.assertEquals(MESSAGES, received.getPacketsByRead().getSum());
+        Assertions.assertEquals(sent.getSentPackets(), connectionMetrics.snapshot().getSentPackets());
+    }
+
+    @Test
+    void shouldNotHaveMetricsIfDisabled() throws IOException {
+
+        ServerNetwork network = NetworkFactory.newDefaultAsyncServerNetwork(NetworkConfig.DEFAULT_SERVER,
+                ReadablePacketRegistry.of(MessageRequest.class), AcceptHandler.newDefault());
+        try {
+            Assertions.assertNull(network.getMetrics());
+        } finally {
+            network.shutdown();
+        }
+    }
+
+    @Test
+    void shouldEstimatePercentilesByHistogram() {
+
+        Histogram histogram = new Histogram();
+
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+
+        HistogramSnapshot snapshot = histogram.snapshot();
+
+        Assertions.assertEquals(100, snapshot.getCount());
+        Assertions.assertEquals(5050, snapshot.getSum());
+        Assertions.assertEquals(100, snapshot.getMax());
+        Assertions.assertEquals(50.5, snapshot.getMean());
+        Assertions.assertEquals(63, snapshot.getPercentile(50));
+        Assertions.assertEquals(100, snapshot.getPercentile(99));
+        Assertions.assertEquals(1, snapshot.getPercentile(1));
+    }
+}
@@ -1,39 +1,50 @@
 package com.ss.rlib.common.test.network;
 
 import com.ss.rlib.common.network.ConnectionOwner;
+import com.ss.rlib.common.network.NetworkConfig;
 import com.ss.rlib.common.network.NetworkFactory;
 import com.ss.rlib.common.network.annotation.PacketDescription;
 import com.ss.rlib.common.network.client.ClientNetwork;
+import com.ss.rlib.common.network.client.ConnectHandler;
 import com.ss.rlib.common.network.client.server.Server;
 import com.ss.rlib.common.network.packet.ReadablePacketRegistry;
 import com.ss.rlib.common.network.packet.impl.AbstractReadablePacket;
 import com.ss.rlib.common.network.packet.impl.AbstractWritablePacket;
+import com.ss.rlib.common.network.server.AcceptHandler;
 import com.ss.rlib.common.network.server.ServerNetwork;
 import com.ss.rlib.common.network.server.client.Client;
+import com.ss.rlib.common.util.StringUtils;
 import com.ss.rlib.common.util.Utils;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The test ot test network.
  *
  * @author JavaSaBr
  */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
 public class NetworkTests {
 
     @NotNull
     private static final InetSocketAddress SERVER_ADDRESS = new InetSocketAddress(2222);
 
     @NotNull
-    private static final CompletableFuture<Client> WAITED_CLIENT = new CompletableFuture<>();
+    private static final BlockingQueue<String> RECEIVED_CLIENT_MESSAGES = new LinkedBlockingQueue<>();
 
     private static volatile CompletableFuture<String> checkClientMessage;
     private static volatile CompletableFuture<String> checkServerMessage;
@@ -50,7 +61,12 @@ public class NetworkTests {
             protected void readImpl(@NotNull final ConnectionOwner owner, @NotNull final ByteBuffer buffer) {
                 final String message = readString(buffer);
                 System.out.println("Server: received \"" + message + "\"");
-                checkClientMessage.complete(message);
+                // the future is taken before queueing the message, so a late message of the previous test can't
+                // complete the future of the next test, and the message is queued before completing, so the next
+                // test can't get it after clearing the queue
+                final CompletableFuture<String> future = checkClientMessage;
+                RECEIVED_CLIENT_MESSAGES.add(message);
+                future.complete(message);
             }
         }
 
@@ -90,6 +106,11 @@ public class NetworkTests {
                 this.message = message;
             }
 
+            @Override
+            public int getExpectedLength() {
+                return 6 + message.length() * 2;
+            }
+
             @Override
             protected void writeImpl(@NotNull final ByteBuffer buffer) {
                 super.writeImpl(buffer);
@@ -112,16 +133,52 @@ public class NetworkTests {
         }
     }
 
-    private static ServerNetwork serverNetwork;
-    private static ClientNetwork clientNetwork;
+    @NotNull
+    private final CompletableFuture<Client> waitedClient = new CompletableFuture<>();
+
+    private ServerNetwork serverNetwork;
+    private ClientNetwork clientNetwork;
+
+    /**
+     * Get the config of the server network.
+     *
+     * @return the server network config.
+     */
+    protected @NotNull NetworkConfig getServerConfig() {
+        return NetworkConfig.DEFAULT_SERVER;
+    }
+
+    /**
+     * Get the config of the client network.
+     *
+     * @return the client network config.
+     */
+    protected @NotNull NetworkConfig getClientConfig() {
+        return NetworkConfig.DEFAULT_CLIENT;
+    }
+
+    /**
+     * Get the address of the server.
+     *
+     * @return the server address.
+     */
+    protected @NotNull InetSocketAddress getServerAddress() {
+        return SERVER_ADDRESS;
+    }
 
     @BeforeAll
-    public static void createNetwork() throws IOException {
-        final ReadablePacketRegistry packetRegistry = ReadablePacketRegistry.of(ServerPackets.MessageRequest.class);
-        serverNetwork = NetworkFactory.newDefaultAsyncServerNetwork(packetRegistry, WAITED_CLIENT::complete);
-        serverNetwork.bind(SERVER_ADDRESS);
-        clientNetwork = NetworkFactory.newDefaultAsyncClientNetwork(ReadablePacketRegistry.of(ClientPackets.MessageResponse.class));
-        clientNetwork.connect(SERVER_ADDRESS);
+    public void createNetwork() throws IOException {
+
+        final ReadablePacketRegistry serverRegistry = ReadablePacketRegistry.of(ServerPackets.MessageRequest.class);
+        final ReadablePacketRegistry clientRegistry = ReadablePacketRegistry.of(ClientPackets.MessageResponse.class);
+
+        serverNetwork = NetworkFactory.newDefaultAsyncServerNetwork(getServerConfig(), serverRegistry,
+                AcceptHandler.newDefault(waitedClient::complete));
+        serverNetwork.bind(getServerAddress());
+
+        clientNetwork = NetworkFactory.newDefaultAsyncClientNetwork(getClientConfig(), clientRegistry,
+                ConnectHandler.newDefault());
+        clientNetwork.connect(getServerAddress());
     }
 
     @Test
@@ -143,7 +200,7 @@ public class NetworkTests {
     @Test
     public void sendFromServerToClient() {
 
-        final Client client = Utils.get(WAITED_CLIENT::get);
+        final Client client = Utils.get(waitedClient::get);
 
         checkServerMessage = new CompletableFuture<>();
 
@@ -154,8 +211,55 @@ public class NetworkTests {
         Assertions.assertEquals("Test server message", received);
     }
 
+    @Test
+    public void sendManyMessagesFromClientToServer() throws InterruptedException {
+
+        final Server server = clientNetwork.getCurrentServer();
+
+        Assertions.assertNotNull(server);
+
+        checkClientMessage = new CompletableFuture<>();
+        RECEIVED_CLIENT_MESSAGES.clear();
+
+        final List<String> messages = new ArrayList<>();
+
+        for (int i = 0; i < 500; i++) {
+            messages.add("Test client message " + i + " " + StringUtils.generate(i % 150));
+        }
+
+        messages.forEach(message -> server.sendPacket(new ClientPackets.MessageRequest(message)));
+
+        for (final String message : messages) {
+            Assertions.assertEquals(message, RECEIVED_CLIENT_MESSAGES.poll(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void sendLargeMessagesFromClientToServer() throws InterruptedException {
+
+        final Server server = clientNetwork.getCurrentServer();
+
+        Assertions.assertNotNull(server);
+
+        checkClientMessage = new CompletableFuture<>();
+        RECEIVED_CLIENT_MESSAGES.clear();
+
+        final List<String> messages = new ArrayList<>();
+
+        for (int i = 0; i < 10; i++) {
+            messages.add("Small message " + i);
+            messages.add("Large message " + i + " " + StringUtils.generate(5000 + i * 1000));
+        }
+
+        messages.forEach(message -> server.sendPacket(new ClientPackets.MessageRequest(message)));
+
+        for (final String message : messages) {
+            Assertions.assertEquals(message, RECEIVED_CLIENT_MESSAGES.poll(5, TimeUnit.SECONDS));
+        }
+    }
+
     @AfterAll
-    public static void shutdownNetwork() {
+    public void shutdownNetwork() {
         clientNetwork.shutdown();
         serverNetwork.shutdown();
     }
@@ -0,0 +1,298 @@
+package com.ss.rlib.common.test.network;
+
+import com.ss.rlib.common.network.ConnectionOwner;
+import com.ss.rlib.common.network.NetworkFactory;
+import com.ss.rlib.common.network.annotation.PacketDescription;
+import com.ss.rlib.common.network.annotation.PacketField;
+import com.ss.rlib.common.network.annotation.processor.PacketCodecProcessor;
+import com.ss.rlib.common.network.client.ClientNetwork;
+import com.ss.rlib.common.network.packet.PacketCodec;
+import com.ss.rlib.common.network.packet.PacketReader;
+import com.ss.rlib.common.network.packet.PacketWriter;
+import com.ss.rlib.common.network.packet.ReadablePacketRegistry;
+import com.ss.rlib.common.network.packet.impl.AbstractCodecReadablePacket;
+import com.ss.rlib.common.network.packet.impl.AbstractCodecWritablePacket;
+import com.ss.rlib.common.network.server.ServerNetwork;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The test to test generated codecs of packets.
+ *
+ * @author JavaSaBr
+ */
+public class PacketCodecTests {
+
+    private static final InetSocketAddress SERVER_ADDRESS = new InetSocketAddress("127.0.0.1", 2243);
+
+    private static volatile CompletableFuture<StateRequest> receivedState = new CompletableFuture<>();
+
+    /**
+     * It's a packet with a state of an object.
+     */
+    @PacketDescription(id = 1)
+    public static class StatePacket extends AbstractCodecWritablePacket<StatePacket> {
+
+        @PacketField
+        final boolean visible;
+
+        @PacketField
+        final byte type;
+
+        @PacketField
+        final char symbol;
+
+        @PacketField
+        final short level;
+
+        @PacketField
+        final int x;
+
+        @PacketField
+        final float speed;
+
+        @PacketField
+        final long objectId;
+
+        @PacketField
+        final double heading;
+
+        @PacketField(maxLength = 16)
+        @Nullable
+        final String name;
+
+        @PacketField
+        @Nullable
+        final byte[] data;
+
+        public StatePacket(@Nullable String name, @Nullable byte[] data) {
+            this.visible = true;
+            this.type = 7;
+            this.symbol = 'Z';
+            this.level = 300;
+            this.x = -5;
+            this.speed = 1.5F;
+            this.objectId = Long.MAX_VALUE;
+            this.heading = 0.25D;
+            this.name = name;
+            this.data = data;
+        }
+
+        @Override
+        protected @NotNull PacketWriter<StatePacket> getCodec() {
+            return PacketCodecTests_StatePacketCodec.INSTANCE;
+        }
+    }
+
+    /**
+     * It's a readable packet with a state of an object.
+     */
+    @PacketDescription(id = 1)
+    public static class StateRequest extends AbstractCodecReadablePacket<StateRequest> {
+
+        @PacketField
+        boolean visible;
+
+        @PacketField
+        byte type;
+
+        @PacketField
+        char symbol;
+
+        @PacketField
+        short level;
+
+        @PacketField
+        int x;
+
+        @PacketField
+        float speed;
+
+        @PacketField
+        long objectId;
+
+        @PacketField
+        double heading;
+
+        @PacketField(maxLength = 16)
+        String name;
+
+        @PacketField
+        byte[] data;
+
+        @Override
+        protected @NotNull PacketCodec<StateRequest> getCodec() {
+            return PacketCodecTests_StateRequestCodec.INSTANCE;
+        }
+
+        @Override
+        protected void readImpl(@NotNull ConnectionOwner owner, @NotNull ByteBuffer buffer) {
+            receivedState.complete(this);
+        }
+    }
+
+    private static ServerNetwork serverNetwork;
+    private static ClientNetwork clientNetwork;
+
+    @BeforeAll
+    static void createNetworks() throws IOException {
+
+        serverNetwork = NetworkFactory.newDefaultAsyncServerNetwork(ReadablePacketRegistry.of(StateRequest.class));
+        serverNetwork.bind(SERVER_ADDRESS);
+
+        clientNetwork = NetworkFactory.newDefaultAsyncClientNetwork(ReadablePacketRegistry.empty());
+    }
+
+    @Test
+    void shouldWriteAndReadAllFieldTypes() {
+
+        var packet = new StatePacket("Object", new byte[]{1, 2, 3});
+        var buffer = encode(packet);
+
+        Assertions.assertEquals(PacketCodecTests_StatePacketCodec.INSTANCE.getLength(packet), buffer.remaining());
+
+        var request = new StateRequest();
+
+        Assertions.assertTrue(PacketCodecTests_StateRequestCodec.INSTANCE.read(request, buffer));
+        Assertions.assertFalse(buffer.hasRemaining());
+        assertState(packet, request);
+    }
+
+    @Test
+    void shouldGenerateOnlyWriterForFinalFields() {
+        Assertions.assertFalse(PacketReader.class.isAssignableFrom(PacketCodecTests_StatePacketCodec.class));
+        Assertions.assertTrue(PacketCodec.class.isAssignableFrom(PacketCodecTests_StateRequestCodec.class));
+    }
+
+    @Test
+    void shouldWriteNullValuesAsEmpty() {
+
+        var packet = new StatePacket(null, null);
+        var buffer = encode(packet);
+        var request = new StateRequest();
+
+        Assertions.assertEquals(packet.getExpectedLength() - Short.BYTES, buffer.remaining());
+        Assertions.assertTrue(PacketCodecTests_StateRequestCodec.INSTANCE.read(request, buffer));
+        Assertions.assertEquals("", request.name);
+        Assertions.assertEquals(0, request.data.length);
+    }
+
+    @Test
+    void shouldRejectIncorrectData() {
+
+        var codec = PacketCodecTests_StateRequestCodec.INSTANCE;
+        var buffer = encode(new StatePacket("Object", new byte[]{1, 2, 3}));
+
+        // truncated data
+        for (int limit = 0; limit < buffer.limit(); limit++) {
+            Assertions.assertFalse(codec.read(new StateRequest(), buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN)
+                    .limit(limit)), "limit " + limit);
+        }
+
+        // the length of the string is negative
+        var negative = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        negative.putInt(30, -1);
+
+        Assertions.assertFalse(codec.read(new StateRequest(), negative));
+
+        // the string is longer than the max length
+        var tooLong = encode(new StatePacket("Very long object name", null));
+
+        Assertions.assertFalse(codec.read(new StateRequest(), tooLong));
+    }
+
+    @Test
+    void shouldSendPacketsWithCodecs() throws Exception {
+
+        receivedState = new CompletableFuture<>();
+
+        var packet = new StatePacket("Object", new byte[]{4, 5, 6, 7});
+        var server = clientNetwork.connect(SERVER_ADDRESS);
+        try {
+
+            server.sendPacket(packet);
+
+            assertState(packet, receivedState.get(5, TimeUnit.SECONDS));
+
+        } finally {
+            server.destroy();
+        }
+    }
+
+    @Test
+    void shouldRejectPrivatePacketFields() throws IOException {
+
+        var source = "package test;\n" +
+                "public class BadPacket {\n" +
+                "    @com.ss.rlib.common.network.annotation.PacketField\n" +
+                "    private int value;\n" +
+                "}\n";
+
+        var sourceFile = new SimpleJavaFileObject(URI.create("string:///test/BadPacket.java"),
+                JavaFileObject.Kind.SOURCE) {
+
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+
+        var compiler = ToolProvider.getSystemJavaCompiler();
+        var diagnostics = new DiagnosticCollector<JavaFileObject>();
+        var output = Files.createTempDirectory("codecs");
+
+        var options = List.of("-d", output.toString(), "-classpath", System.getProperty("java.class.path"));
+        var task = compiler.getTask(null, null, diagnostics, options, null, List.of(sourceFile));
+        task.setProcessors(List.of(new PacketCodecProcessor()));
+
+        Assertions.assertFalse(task.call());
+        Assertions.assertTrue(diagnostics.getDiagnostics().stream()
+                .anyMatch(diagnostic -> diagnostic.getMessage(null).contains("not private")));
+    }
+
+    private static @NotNull ByteBuffer encode(@NotNull StatePacket packet) {
+
+        var buffer = ByteBuffer.allocate(256).order(ByteOrder.LITTLE_ENDIAN);
+
+        PacketCodecTests_StatePacketCodec.INSTANCE.write(packet, buffer);
+
+        return buffer.flip();
+    }
+
+    private static void assertState(@NotNull StatePacket packet, @NotNull StateRequest request) {
+        Assertions.assertEquals(packet.visible, request.visible);
+        Assertions.assertEquals(packet.type, request.type);
+        Assertions.assertEquals(packet.symbol, request.symbol);
+        Assertions.assertEquals(packet.level, request.level);
+        Assertions.assertEquals(packet.x, request.x);
+        Assertions.assertEquals(packet.speed, request.speed);
+        Assertions.assertEquals(packet.objectId, request.objectId);
+        Assertions.assertEquals(packet.heading, request.heading);
+        Assertions.assertEquals(packet.name, request.name);
+        Assertions.assertArrayEquals(packet.data, request.data);
+    }
+
+    @AfterAll
+    static void shutdownNetworks() {
+        clientNetwork.shutdown();
+        serverNetwork.shutdown();
+    }
+}
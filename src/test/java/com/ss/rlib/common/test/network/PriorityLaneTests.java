@@ -0,0 +1,199 @@
+package com.ss.rlib.common.test.network;
+
+import com.ss.rlib.common.network.ConnectionOwner;
+import com.ss.rlib.common.network.FlushPolicy;
+import com.ss.rlib.common.network.NetworkConfig;
+import com.ss.rlib.common.network.NetworkFactory;
+import com.ss.rlib.common.network.annotation.PacketDescription;
+import com.ss.rlib.common.network.client.ConnectHandler;
+import com.ss.rlib.common.network.client.server.Server;
+import com.ss.rlib.common.network.impl.PriorityPacketQueue;
+import com.ss.rlib.common.network.packet.PacketPriority;
+import com.ss.rlib.common.network.packet.ReadablePacketRegistry;
+import com.ss.rlib.common.network.packet.WritablePacket;
+import com.ss.rlib.common.network.packet.impl.AbstractReadablePacket;
+import com.ss.rlib.common.network.packet.impl.AbstractWritablePacket;
+import com.ss.rlib.common.network.server.AcceptHandler;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The test to test priority lanes of send queues.
+ *
+ * @author JavaSaBr
+ */
+public class PriorityLaneTests {
+
+    private static final InetSocketAddress SERVER_ADDRESS = new InetSocketAddress("127.0.0.1", 2248);
+
+    private static final List<Integer> RECEIVED_IDS = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * It's a packet which a server receives from a client.
+     */
+    public abstract static class IdRequest extends AbstractReadablePacket {
+
+        @Override
+        protected void readImpl(@NotNull ConnectionOwner owner, @NotNull ByteBuffer buffer) {
+            RECEIVED_IDS.add(readInt(buffer));
+        }
+    }
+
+    @PacketDescription(id = 1)
+    public static class ChunkRequest extends IdRequest {
+    }
+
+    @PacketDescription(id = 2)
+    public static class UpdateRequest extends IdRequest {
+    }
+
+    /**
+     * It's a packet which a client sends to a server.
+     */
+    public abstract static class IdPacket extends AbstractWritablePacket {
+
+        private final int id;
+
+        IdPacket(int id) {
+            this.id = id;
+        }
+
+        @Override
+        protected void writeImpl(@NotNull ByteBuffer buffer) {
+            super.writeImpl(buffer);
+            writeInt(buffer, id);
+        }
+
+        @Override
+        public int getExpectedLength() {
+            return 8;
+        }
+    }
+
+    @PacketDescription(id = 1, priority = PacketPriority.BULK)
+    public static class ChunkPacket extends IdPacket {
+
+        ChunkPacket(int id) {
+            super(id);
+        }
+    }
+
+    @PacketDescription(id = 2, priority = PacketPriority.HIGH)
+    public static class UpdatePacket extends IdPacket {
+
+        UpdatePacket(int id) {
+            super(id);
+        }
+    }
+
+    @PacketDescription(id = 3)
+    public static class NormalPacket extends IdPacket {
+
+        NormalPacket(int id) {
+            super(id);
+        }
+    }
+
+    @Test
+    void shouldTakePriorityFromDescription() {
+        Assertions.assertEquals(PacketPriority.BULK, new ChunkPacket(0).getPriority());
+        Assertions.assertEquals(PacketPriority.HIGH, new UpdatePacket(0).getPriority());
+        Assertions.assertEquals(PacketPriority.NORMAL, new NormalPacket(0).getPriority());
+    }
+
+    @Test
+    void shouldTakeHigherLanesFirst() {
+
+        var queue = new PriorityPacketQueue(16);
+        queue.offer(new ChunkPacket(1));
+        queue.offer(new NormalPacket(2));
+        queue.offer(new UpdatePacket(3));
+        queue.offer(new NormalPacket(4));
+
+        Assertions.assertEquals(4, queue.size());
+        Assertions.assertTrue(queue.poll() instanceof UpdatePacket);
+        Assertions.assertTrue(queue.poll() instanceof NormalPacket);
+        Assertions.assertTrue(queue.poll() instanceof NormalPacket);
+        Assertions.assertTrue(queue.poll() instanceof ChunkPacket);
+        Assertions.assertNull(queue.poll());
+        Assertions.assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void shouldNotStarveLowerLanes() {
+
+        var queue = new PriorityPacketQueue(3);
+        queue.offer(new ChunkPacket(0));
+
+        for (int i = 0; i < 10; i++) {
+            queue.offer(new UpdatePacket(i));
+        }
+
+        var taken = new ArrayList<WritablePacket>();
+
+        for (WritablePacket packet = queue.poll(); packet != null; packet = queue.poll()) {
+            taken.add(packet);
+        }
+
+        Assertions.assertEquals(11, taken.size());
+        Assertions.assertTrue(taken.get(3) instanceof ChunkPacket);
+    }
+
+    @Test
+    void shouldDropLowerLanesFirst() {
+
+        var queue = new PriorityPacketQueue(16);
+        queue.offer(new UpdatePacket(1));
+        queue.offer(new ChunkPacket(2));
+
+        Assertions.assertTrue(queue.removeFirst(packet -> true) instanceof ChunkPacket);
+        Assertions.assertEquals(1, queue.size(PacketPriority.HIGH));
+        Assertions.assertTrue(queue.poll() instanceof UpdatePacket);
+        Assertions.assertNull(queue.poll());
+    }
+
+    @Test
+    void shouldWriteHighPriorityPacketsBeforeBulkPackets() throws Exception {
+
+        var serverNetwork = NetworkFactory.newDefaultAsyncServerNetwork(NetworkConfig.DEFAULT_SERVER,
+                ReadablePacketRegistry.of(ChunkRequest.class, UpdateRequest.class), AcceptHandler.newDefault());
+        serverNetwork.bind(SERVER_ADDRESS);
+
+        var clientNetwork = NetworkFactory.newDefaultAsyncClientNetwork(new NetworkConfig() {
+
+            @Override
+            public @NotNull FlushPolicy getFlushPolicy() {
+                return FlushPolicy.EXPLICIT;
+            }
+        }, ReadablePacketRegistry.empty(), ConnectHandler.newDefault());
+
+        try {
+
+            Server server = clientNetwork.connect(SERVER_ADDRESS);
+
+            for (int i = 0; i < 5; i++) {
+                server.sendPacket(new ChunkPacket(i));
+            }
+
+            server.sendPacket(new UpdatePacket(100));
+            server.getConnection().flush();
+
+            for (int i = 0; i < 50 && RECEIVED_IDS.size() < 6; i++) {
+                Thread.sleep(100);
+            }
+
+            Assertions.assertEquals(List.of(100, 0, 1, 2, 3, 4), RECEIVED_IDS);
+
+        } finally {
+            clientNetwork.shutdown();
+            serverNetwork.shutdown();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.ss.rlib.common.test.network;
+
+import com.ss.rlib.common.network.ConnectionOwner;
+import com.ss.rlib.common.network.NetworkConfig;
+import com.ss.rlib.common.network.ReadRateLimit;
+import com.ss.rlib.common.network.client.server.Server;
+import com.ss.rlib.common.network.impl.ReadRateLimiter;
+import com.ss.rlib.common.network.metrics.NetworkMetrics;
+import com.ss.rlib.common.network.server.client.impl.DefaultClient;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The test to test limiting of reading by connections.
+ *
+ * @author JavaSaBr
+ */
+public class ReadRateLimitTests extends AbstractNetworkTests {
+
+    private static final InetSocketAddress SERVER_ADDRESS = new InetSocketAddress("127.0.0.1", 2245);
+
+    private static final int PACKETS_PER_SECOND = 100;
+    private static final int MESSAGES = 300;
+
+    private static final NetworkConfig SERVER_CONFIG = new NetworkConfig() {
+
+        @Override
+        public @Nullable ReadRateLimit getReadRateLimit(@NotNull Class<? extends ConnectionOwner> ownerType) {
+            return DefaultClient.class.isAssignableFrom(ownerType) ? ReadRateLimit.of(PACKETS_PER_SECOND, 0) : null;
+        }
+
+        @Override
+        public boolean isMetricsEnabled() {
+            return true;
+        }
+    };
+
+    @Override
+    protected @NotNull InetSocketAddress getServerAddress() {
+        return SERVER_ADDRESS;
+    }
+
+    @Override
+    protected @NotNull NetworkConfig getServerConfig() {
+        return SERVER_CONFIG;
+    }
+
+    @Test
+    void shouldDelayReadingOverLimit() throws Exception {
+
+        Server server = getServer();
+        BlockingQueue<String> received = receivedMessages(getClient());
+
+        // all packets of one read are handled, so the packets are sent by a few reads
+        for (int i = 0; i < MESSAGES; i++) {
+
+            server.sendPacket(new MessageResponse("Message " + i));
+
+            if (i % PACKETS_PER_SECOND == PACKETS_PER_SECOND - 1) {
+                Thread.sleep(100);
+            }
+        }
+
+        for (int i = 0; i < 500 && received.size() < MESSAGES; i++) {
+            Thread.sleep(10);
+        }
+
+        Assertions.assertEquals(MESSAGES, received.size());
+
+        // packets can be coalesced into any count of reads, but the last read leaves a debt of at least
+        // one second, so the next packet waits for the delayed read
+        server.sendPacket(new MessageResponse("Message " + MESSAGES));
+
+        Thread.sleep(300);
+
+        Assertions.assertEquals(MESSAGES, received.size());
+
+        for (int i = 0; i < 50 && received.size() <= MESSAGES; i++) {
+            Thread.sleep(100);
+        }
+
+        Assertions.assertEquals(MESSAGES + 1, received.size());
+
+        NetworkMetrics metrics = serverNetwork.getMetrics();
+
+        Assertions.assertNotNull(metrics);
+        Assertions.assertTrue(metrics.snapshot().getThrottledReads() > 0);
+    }
+
+    @Test
+    void shouldCalculateDelayOfDebt() {
+
+        var second = TimeUnit.SECONDS.toNanos(1);
+        var limiter = new ReadRateLimiter(ReadRateLimit.of(10, 1000), 0);
+
+        Assertions.assertEquals(0, limiter.acquire(10, 100, 0));
+        Assertions.assertEquals(second / 2, limiter.acquire(5, 100, 0));
+
+        // the debt of packets is repaid, but the debt of bytes isn't
+        Assertions.assertEquals(second / 2, limiter.acquire(0, 1500, second / 2));
+        Assertions.assertEquals(0, limiter.acquire(0, 0, second * 2));
+    }
+
+    @Test
+    void shouldRejectNegativeRates() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ReadRateLimit.of(-1, 0));
+    }
+}
@@ -0,0 +1,200 @@
+package com.ss.rlib.common.test.network;
+
+import com.ss.rlib.common.network.ConnectionOwner;
+import com.ss.rlib.common.network.annotation.PacketDescription;
+import com.ss.rlib.common.network.annotation.processor.ReadablePacketProviderProcessor;
+import com.ss.rlib.common.network.packet.ReadablePacket;
+import com.ss.rlib.common.network.packet.ReadablePacketFactory;
+import com.ss.rlib.common.network.packet.ReadablePacketProvider;
+import com.ss.rlib.common.network.packet.ReadablePacketRegistry;
+import com.ss.rlib.common.network.packet.ReusableReadablePacket;
+import com.ss.rlib.common.network.packet.impl.AbstractReadablePacket;
+import com.ss.rlib.common.network.packet.impl.AbstractReusableReadablePacket;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The test to test generated providers of readable packets.
+ *
+ * @author JavaSaBr
+ */
+public class ReadablePacketProviderTests {
+
+    /**
+     * It's a pooled packet which counts created instances.
+     */
+    @PacketDescription(id = 3)
+    public static class CountedRequest extends AbstractReusableReadablePacket {
+
+        @Override
+        protected void readImpl(@NotNull ConnectionOwner owner, @NotNull ByteBuffer buffer) {
+        }
+    }
+
+    /**
+     * It's a packet with a duplicated id.
+     */
+    @PacketDescription(id = 3)
+    public static class DuplicatedRequest extends AbstractReadablePacket {
+
+        @Override
+        protected void readImpl(@NotNull ConnectionOwner owner, @NotNull ByteBuffer buffer) {
+        }
+    }
+
+    /**
+     * The provider of one packet.
+     */
+    private static class SingleProvider implements ReadablePacketProvider {
+
+        private final int id;
+
+        @NotNull
+        private final ReadablePacketFactory factory;
+
+        private SingleProvider(int id, @NotNull ReadablePacketFactory factory) {
+            this.id = id;
+            this.factory = factory;
+        }
+
+        @Override
+        public int size() {
+            return 1;
+        }
+
+        @Override
+        public int getId(int index) {
+            return id;
+        }
+
+        @Override
+        public @NotNull ReadablePacketFactory getFactory(int index) {
+            return factory;
+        }
+    }
+
+    @Test
+    void shouldLoadGeneratedProvider() {
+
+        ReadablePacketFactory factory = null;
+
+        for (ReadablePacketProvider provider : ServiceLoader.load(ReadablePacketProvider.class)) {
+            for (int i = 0; i < provider.size(); i++) {
+                if (provider.getFactory(i).newInstance() instanceof PacketCodecTests.StateRequest) {
+                    Assertions.assertEquals(1, provider.getId(i));
+                    factory = provider.getFactory(i);
+                }
+            }
+        }
+
+        Assertions.assertNotNull(factory);
+
+        ReadablePacket first = factory.newInstance();
+        ReadablePacket second = factory.newInstance();
+
+        Assertions.assertNotSame(first, second);
+        Assertions.assertSame(PacketCodecTests.StateRequest.class, second.getClass());
+    }
+
+    @Test
+    void shouldCreateReusablePacketsByFactory() {
+
+        var created = new AtomicInteger();
+        var registry = ReadablePacketRegistry.of(new SingleProvider(3, () -> {
+            created.incrementAndGet();
+            return new CountedRequest();
+        }));
+
+        Assertions.assertEquals(1, created.get());
+        Assertions.assertSame(CountedRequest.class, registry.findById(3).getClass());
+
+        var packet = (ReusableReadablePacket) registry.takeById(3);
+
+        Assertions.assertEquals(2, created.get());
+
+        packet.release();
+
+        Assertions.assertSame(packet, registry.takeById(3));
+        Assertions.assertEquals(2, created.get());
+    }
+
+    @Test
+    void shouldRejectDuplicatedIds() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ReadablePacketRegistry.of(
+                new SingleProvider(3, CountedRequest::new), new SingleProvider(3, DuplicatedRequest::new)));
+    }
+
+    @Test
+    void shouldGenerateProviderService() throws IOException {
+
+        var source = "package test.packets;\n" +
+                "@com.ss.rlib.common.network.annotation.PacketDescription(id = 5)\n" +
+                "public class FirstRequest extends com.ss.rlib.common.network.packet.impl.AbstractReadablePacket {\n" +
+                "    protected void readImpl(com.ss.rlib.common.network.ConnectionOwner owner,\n" +
+                "                            java.nio.ByteBuffer buffer) {\n" +
+                "    }\n" +
+                "    @com.ss.rlib.common.network.annotation.PacketDescription(id = 6)\n" +
+                "    static class SecondRequest extends FirstRequest {\n" +
+                "    }\n" +
+                "}\n";
+
+        var sourceFile = new SimpleJavaFileObject(URI.create("string:///test/packets/FirstRequest.java"),
+                JavaFileObject.Kind.SOURCE) {
+
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+
+        var output = Files.createTempDirectory("providers");
+        var options = List.of("-d", output.toString(), "-classpath", System.getProperty("java.class.path"));
+        var task = ToolProvider.getSystemJavaCompiler()
+                .getTask(null, null, null, options, null, List.of(sourceFile));
+        task.setProcessors(List.of(new ReadablePacketProviderProcessor()));
+
+        Assertions.assertTrue(task.call());
+
+        var service = output.resolve("META-INF/services/" + ReadablePacketProvider.class.getName());
+        var generated = new String(Files.readAllBytes(output.resolve(
+                "test/packets/GeneratedReadablePacketProvider.java")), StandardCharsets.UTF_8);
+
+        Assertions.assertEquals("test.packets.GeneratedReadablePacketProvider",
+                new String(Files.readAllBytes(service), StandardCharsets.UTF_8).trim());
+        Assertions.assertTrue(generated.contains("test.packets.FirstRequest::new"));
+        Assertions.assertTrue(generated.contains("test.packets.FirstRequest.SecondRequest::new"));
+        Assertions.assertTrue(generated.contains("{5, 6}"));
+
+        // the providers of the test classpath aren't visible to get only the generated one
+        try (var classLoader = new URLClassLoader(new URL[] {output.toUri().toURL()}, getClass().getClassLoader()) {
+
+            @Override
+            public Enumeration<URL> getResources(String name) throws IOException {
+                return findResources(name);
+            }
+        }) {
+
+            var registry = ReadablePacketRegistry.newByProviders(classLoader);
+
+            Assertions.assertEquals("test.packets.FirstRequest", registry.findById(5).getClass().getName());
+            Assertions.assertEquals("test.packets.FirstRequest$SecondRequest",
+                    registry.findById(6).getClass().getName());
+        }
+    }
+}
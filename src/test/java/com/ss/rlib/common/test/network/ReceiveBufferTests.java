@@ -0,0 +1,90 @@
+package com.ss.rlib.common.test.network;
+
+import com.ss.rlib.common.network.impl.ReceiveBuffer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The test to test the buffer of received data.
+ *
+ * @author JavaSaBr
+ */
+public class ReceiveBufferTests {
+
+    @Test
+    void shouldKeepNotParsedDataInPlace() {
+
+        var receiveBuffer = new ReceiveBuffer(ByteBuffer.allocate(8));
+
+        receive(receiveBuffer, 1, 2, 3);
+
+        var buffer = receiveBuffer.prepareRead();
+
+        Assertions.assertEquals(1, buffer.get());
+
+        receiveBuffer.commitRead();
+
+        Assertions.assertEquals(2, receiveBuffer.size());
+
+        // new data is appended after not parsed data without moving
+        Assertions.assertEquals(3, receiveBuffer.prepareWrite().position());
+
+        receive(receiveBuffer, 4, 5);
+
+        buffer = receiveBuffer.prepareRead();
+
+        Assertions.assertEquals(1, buffer.position());
+        Assertions.assertEquals(4, buffer.remaining());
+    }
+
+    @Test
+    void shouldMoveNotParsedDataWhenEndIsReached() {
+
+        var receiveBuffer = new ReceiveBuffer(ByteBuffer.allocate(8));
+
+        receive(receiveBuffer, 1, 2, 3, 4, 5, 6);
+
+        receiveBuffer.prepareRead().position(5);
+        receiveBuffer.commitRead();
+
+        // the free space at the end is less than the parsed space, so the not parsed byte is moved
+        var buffer = receiveBuffer.prepareWrite();
+
+        Assertions.assertEquals(1, buffer.position());
+        Assertions.assertEquals(6, buffer.get(0));
+
+        receive(receiveBuffer, 7);
+
+        buffer = receiveBuffer.prepareRead();
+
+        Assertions.assertEquals(0, buffer.position());
+        Assertions.assertEquals(2, buffer.remaining());
+    }
+
+    @Test
+    void shouldResetWhenAllDataIsParsed() {
+
+        var receiveBuffer = new ReceiveBuffer(ByteBuffer.allocate(8));
+
+        receive(receiveBuffer, 1, 2, 3);
+
+        receiveBuffer.prepareRead().position(3);
+        receiveBuffer.commitRead();
+
+        Assertions.assertEquals(0, receiveBuffer.size());
+        Assertions.assertEquals(8, receiveBuffer.prepareWrite().remaining());
+    }
+
+    private void receive(ReceiveBuffer receiveBuffer, int... values) {
+
+        var buffer = receiveBuffer.prepareWrite();
+
+        for (int value : values) {
+            buffer.put((byte) value);
+        }
+
+        receiveBuffer.commitWrite(values.length);
+    }
+}
@@ -0,0 +1,167 @@
+package com.ss.rlib.common.test.network;
+
+import com.ss.rlib.common.network.ConnectionOwner;
+import com.ss.rlib.common.network.NetworkConfig;
+import com.ss.rlib.common.network.NetworkFactory;
+import com.ss.rlib.common.network.annotation.PacketDescription;
+import com.ss.rlib.common.network.client.ClientNetwork;
+import com.ss.rlib.common.network.client.ConnectHandler;
+import com.ss.rlib.common.network.client.server.Server;
+import com.ss.rlib.common.network.packet.ReadablePacketRegistry;
+import com.ss.rlib.common.network.packet.impl.AbstractReadablePacket;
+import com.ss.rlib.common.network.packet.impl.AbstractReusableReadablePacket;
+import com.ss.rlib.common.network.packet.impl.AbstractWritablePacket;
+import com.ss.rlib.common.network.server.AcceptHandler;
+import com.ss.rlib.common.network.server.ServerNetwork;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The test to test handling of reusable readable packets by other threads.
+ *
+ * @author JavaSaBr
+ */
+public class ReusableReadablePacketTests {
+
+    private static final InetSocketAddress SERVER_ADDRESS = new InetSocketAddress(2226);
+
+    private static final int MESSAGES = 10_000;
+
+    private static final ExecutorService EXECUTOR_SERVICE = Executors.newFixedThreadPool(4);
+
+    private static final BlockingQueue<String> RECEIVED_MESSAGES = new LinkedBlockingQueue<>();
+
+    private static final AtomicInteger CREATED_PACKETS = new AtomicInteger();
+
+    /**
+     * It's a reusable packet which a server receives from a client and handles in an executor.
+     */
+    @PacketDescription(id = 1)
+    public static class MessageRequest extends AbstractReusableReadablePacket {
+
+        @Nullable
+        private volatile String message;
+
+        public MessageRequest() {
+            CREATED_PACKETS.incrementAndGet();
+        }
+
+        @Override
+        protected void readImpl(@NotNull ConnectionOwner owner, @NotNull ByteBuffer buffer) {
+
+            message = readString(buffer);
+
+            retain();
+
+            EXECUTOR_SERVICE.execute(() -> {
+                try {
+                    RECEIVED_MESSAGES.add(String.valueOf(message));
+                } finally {
+                    release();
+                }
+            });
+        }
+
+        @Override
+        public void free() {
+            message = null;
+        }
+    }
+
+    /**
+     * It's a packet which a client sends to a server.
+     */
+    @PacketDescription(id = 1)
+    public static class MessageResponse extends AbstractWritablePacket {
+
+        @NotNull
+        private final String message;
+
+        public MessageResponse(@NotNull String message) {
+            this.message = message;
+        }
+
+        @Override
+        protected void writeImpl(@NotNull ByteBuffer buffer) {
+            super.writeImpl(buffer);
+            writeString(buffer, message);
+        }
+    }
+
+    /**
+     * It's a not used packet to register the client registry.
+     */
+    @PacketDescription(id = 2)
+    public static class EmptyPacket extends AbstractReadablePacket {
+
+        @Override
+        protected void readImpl(@NotNull ConnectionOwner owner, @NotNull ByteBuffer buffer) {
+        }
+    }
+
+    private static ServerNetwork serverNetwork;
+    private static ClientNetwork clientNetwork;
+
+    @BeforeAll
+    static void createNetwork() throws IOException {
+
+        serverNetwork = NetworkFactory.newDefaultAsyncServerNetwork(NetworkConfig.DEFAULT_SERVER,
+                ReadablePacketRegistry.of(MessageRequest.class), AcceptHandler.newDefault());
+        serverNetwork.bind(SERVER_ADDRESS);
+
+        clientNetwork = NetworkFactory.newDefaultAsyncClientNetwork(NetworkConfig.DEFAULT_CLIENT,
+                ReadablePacketRegistry.of(EmptyPacket.class), ConnectHandler.newDefault());
+        clientNetwork.connect(SERVER_ADDRESS);
+    }
+
+    @Test
+    void shouldHandleReusablePacketsByOtherThreads() throws InterruptedException {
+
+        Server server = clientNetwork.getCurrentServer();
+
+        Assertions.assertNotNull(server);
+
+        Set<String> expected = new HashSet<>();
+
+        for (int i = 0; i < MESSAGES; i++) {
+            String message = "Message " + i;
+            expected.add(message);
+            server.sendPacket(new MessageResponse(message));
+        }
+
+        Set<String> received = new HashSet<>();
+
+        for (int i = 0; i < MESSAGES; i++) {
+            String message = RECEIVED_MESSAGES.poll(5, TimeUnit.SECONDS);
+            Assertions.assertNotNull(message);
+            received.add(message);
+        }
+
+        Assertions.assertEquals(expected, received);
+        Assertions.assertTrue(CREATED_PACKETS.get() < MESSAGES,
+                "Too many created packets " + CREATED_PACKETS.get());
+    }
+
+    @AfterAll
+    static void shutdownNetwork() {
+        clientNetwork.shutdown();
+        serverNetwork.shutdown();
+        EXECUTOR_SERVICE.shutdown();
+    }
+}
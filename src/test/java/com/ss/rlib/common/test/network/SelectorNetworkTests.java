@@ -0,0 +1,56 @@
+package com.ss.rlib.common.test.network;
+
+import com.ss.rlib.common.network.NetworkConfig;
+import com.ss.rlib.common.network.NetworkTransport;
+import org.jetbrains.annotations.NotNull;
+
+import java.net.InetSocketAddress;
+
+/**
+ * The test to test network using the selector transport.
+ *
+ * @author JavaSaBr
+ */
+public class SelectorNetworkTests extends NetworkTests {
+
+    @NotNull
+    private static final InetSocketAddress SERVER_ADDRESS = new InetSocketAddress(2237);
+
+    @NotNull
+    private static final NetworkConfig SERVER_CONFIG = new NetworkConfig() {
+
+        @Override
+        public int getGroupSize() {
+            return 2;
+        }
+
+        @Override
+        public @NotNull NetworkTransport getTransport() {
+            return NetworkTransport.SELECTOR;
+        }
+    };
+
+    @NotNull
+    private static final NetworkConfig CLIENT_CONFIG = new NetworkConfig() {
+
+        @Override
+        public @NotNull NetworkTransport getTransport() {
+            return NetworkTransport.SELECTOR;
+        }
+    };
+
+    @Override
+    protected @NotNull NetworkConfig getServerConfig() {
+        return SERVER_CONFIG;
+    }
+
+    @Override
+    protected @NotNull NetworkConfig getClientConfig() {
+        return CLIENT_CONFIG;
+    }
+
+    @Override
+    protected @NotNull InetSocketAddress getServerAddress() {
+        return SERVER_ADDRESS;
+    }
+}
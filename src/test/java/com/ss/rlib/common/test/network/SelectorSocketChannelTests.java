@@ -0,0 +1,136 @@
+package com.ss.rlib.common.test.network;
+
+import com.ss.rlib.common.concurrent.GroupThreadFactory;
+import com.ss.rlib.common.network.impl.SelectorEventLoopGroup;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousServerSocketChannel;
+import java.nio.channels.AsynchronousSocketChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.InterruptedByTimeoutException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The test to test timeouts and scattering/gathering operations of selector channels.
+ *
+ * @author JavaSaBr
+ */
+public class SelectorSocketChannelTests {
+
+    private static final InetSocketAddress SERVER_ADDRESS = new InetSocketAddress("127.0.0.1", 2252);
+
+    private static SelectorEventLoopGroup group;
+    private static AsynchronousServerSocketChannel serverChannel;
+    private static AsynchronousSocketChannel clientChannel;
+    private static AsynchronousSocketChannel acceptedChannel;
+
+    @BeforeAll
+    static void createChannels() throws Exception {
+
+        group = new SelectorEventLoopGroup(1, new GroupThreadFactory("SelectorChannelTest", Thread.class,
+                Thread.NORM_PRIORITY));
+
+        serverChannel = group.openServerSocketChannel();
+        serverChannel.bind(SERVER_ADDRESS);
+
+        var accepted = serverChannel.accept();
+
+        clientChannel = group.openSocketChannel();
+        clientChannel.connect(SERVER_ADDRESS).get(5, TimeUnit.SECONDS);
+        acceptedChannel = accepted.get(5, TimeUnit.SECONDS);
+    }
+
+    private static <V> @NotNull CompletionHandler<V, CompletableFuture<V>> toFuture() {
+        return new CompletionHandler<>() {
+
+            @Override
+            public void completed(V result, CompletableFuture<V> future) {
+                future.complete(result);
+            }
+
+            @Override
+            public void failed(Throwable exc, CompletableFuture<V> future) {
+                future.completeExceptionally(exc);
+            }
+        };
+    }
+
+    @Test
+    void shouldFailReadByTimeout() throws Exception {
+
+        var future = new CompletableFuture<Integer>();
+        var startTime = System.nanoTime();
+
+        acceptedChannel.read(ByteBuffer.allocate(16), 100, TimeUnit.MILLISECONDS, future, toFuture());
+
+        var exception = Assertions.assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+
+        Assertions.assertTrue(exception.getCause() instanceof InterruptedByTimeoutException);
+        Assertions.assertTrue(System.nanoTime() - startTime >= TimeUnit.MILLISECONDS.toNanos(100));
+
+        // the cancelled timeout of a completed read doesn't fail the next read
+        var read = new CompletableFuture<Integer>();
+        var buffer = ByteBuffer.allocate(16);
+
+        acceptedChannel.read(buffer, 100, TimeUnit.MILLISECONDS, read, toFuture());
+        clientChannel.write(ByteBuffer.wrap(new byte[] {1, 2, 3})).get(5, TimeUnit.SECONDS);
+
+        Assertions.assertEquals(Integer.valueOf(3), read.get(5, TimeUnit.SECONDS));
+
+        var next = new CompletableFuture<Integer>();
+
+        acceptedChannel.read(ByteBuffer.allocate(16), 500, TimeUnit.MILLISECONDS, next, toFuture());
+        Thread.sleep(200);
+        clientChannel.write(ByteBuffer.wrap(new byte[] {4})).get(5, TimeUnit.SECONDS);
+
+        Assertions.assertEquals(Integer.valueOf(1), next.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shouldGatherAndScatterBuffers() throws Exception {
+
+        ByteBuffer[] sources = {
+                ByteBuffer.wrap(new byte[] {1, 2, 3}),
+                ByteBuffer.allocate(0),
+                ByteBuffer.wrap(new byte[] {4, 5, 6, 7})
+        };
+
+        var written = new CompletableFuture<Long>();
+
+        clientChannel.write(sources, 0, sources.length, 0, TimeUnit.MILLISECONDS, written, toFuture());
+
+        Assertions.assertEquals(Long.valueOf(7), written.get(5, TimeUnit.SECONDS));
+
+        ByteBuffer[] destinations = {ByteBuffer.allocate(2), ByteBuffer.allocate(2), ByteBuffer.allocate(8)};
+
+        long total = 0;
+
+        // data of one write can be received by a few reads
+        while (total < 7) {
+            var read = new CompletableFuture<Long>();
+            acceptedChannel.read(destinations, 1, 2, 1, TimeUnit.SECONDS, read, toFuture());
+            total += read.get(5, TimeUnit.SECONDS);
+        }
+
+        Assertions.assertEquals(0, destinations[0].position());
+        Assertions.assertArrayEquals(new byte[] {1, 2}, destinations[1].array());
+        Assertions.assertArrayEquals(new byte[] {3, 4, 5, 6, 7, 0, 0, 0}, destinations[2].array());
+    }
+
+    @AfterAll
+    static void closeChannels() throws IOException {
+        clientChannel.close();
+        acceptedChannel.close();
+        serverChannel.close();
+        group.shutdown();
+    }
+}
@@ -0,0 +1,312 @@
+package com.ss.rlib.common.test.network;
+
+import com.ss.rlib.common.network.ConnectionOwner;
+import com.ss.rlib.common.network.NetworkConfig;
+import com.ss.rlib.common.network.NetworkFactory;
+import com.ss.rlib.common.network.SendQueueOverflowPolicy;
+import com.ss.rlib.common.network.annotation.PacketDescription;
+import com.ss.rlib.common.network.packet.ReadablePacketRegistry;
+import com.ss.rlib.common.network.packet.impl.AbstractReadablePacket;
+import com.ss.rlib.common.network.packet.impl.AbstractWritablePacket;
+import com.ss.rlib.common.network.server.AcceptHandler;
+import com.ss.rlib.common.network.server.ServerNetwork;
+import com.ss.rlib.common.network.server.client.Client;
+import com.ss.rlib.common.network.server.client.ClientConnection;
+import com.ss.rlib.common.network.server.client.impl.DefaultClient;
+import com.ss.rlib.common.network.server.client.impl.DefaultClientConnection;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The test to test overflow policies of send queues of connections to clients which don't read data.
+ *
+ * @author JavaSaBr
+ */
+public class SendQueueTests {
+
+    private static final int HIGH_WATERMARK = 50;
+    private static final int LOW_WATERMARK = 10;
+    private static final int PACKETS = 5_000;
+
+    private static final String MESSAGE;
+
+    static {
+
+        var builder = new StringBuilder();
+
+        for (int i = 0; i < 1000; i++) {
+            builder.append('a');
+        }
+
+        MESSAGE = builder.toString();
+    }
+
+    /**
+     * It's a packet which a server sends to a client.
+     */
+    @PacketDescription(id = 1)
+    public static class MessageResponse extends AbstractWritablePacket {
+
+        private final boolean droppable;
+
+        public MessageResponse(boolean droppable) {
+            this.droppable = droppable;
+        }
+
+        @Override
+        protected void writeImpl(@NotNull ByteBuffer buffer) {
+            super.writeImpl(buffer);
+            writeString(buffer, MESSAGE);
+        }
+
+        @Override
+        public boolean isDroppable() {
+            return droppable;
+        }
+    }
+
+    /**
+     * It's a not used packet to register the server registry.
+     */
+    @PacketDescription(id = 2)
+    public static class EmptyPacket extends AbstractReadablePacket {
+
+        @Override
+        protected void readImpl(@NotNull ConnectionOwner owner, @NotNull ByteBuffer buffer) {
+        }
+    }
+
+    /**
+     * It's a packet which makes a server to send many responses from the network thread.
+     */
+    @PacketDescription(id = 3)
+    public static class FloodRequest extends AbstractReadablePacket {
+
+        @Override
+        protected void readImpl(@NotNull ConnectionOwner owner, @NotNull ByteBuffer buffer) {
+
+            for (int i = 0; i < PACKETS; i++) {
+                owner.sendPacket(new MessageResponse(false));
+            }
+
+            FLOODED.countDown();
+        }
+    }
+
+    private static final CountDownLatch FLOODED = new CountDownLatch(1);
+
+    /**
+     * The client which collects changes of writability.
+     */
+    private static class WritabilityClient extends DefaultClient {
+
+        @NotNull
+        private final BlockingQueue<Boolean> changes;
+
+        private WritabilityClient(@NotNull ClientConnection connection) {
+            super(connection);
+            this.changes = new LinkedBlockingQueue<>();
+        }
+
+        @Override
+        public void onWritabilityChanged(boolean writable) {
+            changes.add(writable);
+        }
+    }
+
+    private static @NotNull NetworkConfig newConfig(@NotNull SendQueueOverflowPolicy policy) {
+        return new NetworkConfig() {
+
+            @Override
+            public int getSendQueueHighWatermark() {
+                return HIGH_WATERMARK;
+            }
+
+            @Override
+            public int getSendQueueLowWatermark() {
+                return LOW_WATERMARK;
+            }
+
+            @Override
+            public @NotNull SendQueueOverflowPolicy getSendQueueOverflowPolicy() {
+                return policy;
+            }
+
+            // a small socket buffer keeps the writer stalled by a not reading client
+            @Override
+            public int getSendBufferSize() {
+                return 4096;
+            }
+        };
+    }
+
+    private static @NotNull ServerNetwork newServerNetwork(
+            @NotNull SendQueueOverflowPolicy policy,
+            @NotNull BlockingQueue<WritabilityClient> clients,
+            int port
+    ) throws IOException {
+
+        ServerNetwork serverNetwork = NetworkFactory.newDefaultAsyncServerNetwork(newConfig(policy),
+                ReadablePacketRegistry.of(EmptyPacket.class, FloodRequest.class), AcceptHandler.newSimple(DefaultClientConnection::new,
+                        WritabilityClient::new, client -> clients.add((WritabilityClient) client)));
+
+        serverNetwork.bind(new InetSocketAddress(port));
+
+        return serverNetwork;
+    }
+
+    private static @NotNull Socket newNotReadingSocket(int port) throws IOException {
+        var socket = new Socket();
+        socket.setReceiveBufferSize(4096);
+        socket.connect(new InetSocketAddress("localhost", port));
+        return socket;
+    }
+
+    @Test
+    void shouldDropOldestDroppablePackets() throws IOException, InterruptedException {
+
+        var clients = new LinkedBlockingQueue<WritabilityClient>();
+        var serverNetwork = newServerNetwork(SendQueueOverflowPolicy.DROP_OLDEST, clients, 2228);
+
+        try (var ignored = newNotReadingSocket(2228)) {
+
+            WritabilityClient client = clients.poll(5, TimeUnit.SECONDS);
+
+            Assertions.assertNotNull(client);
+
+            for (int i = 0; i < PACKETS; i++) {
+                client.sendPacket(new MessageResponse(i % 10 != 0));
+                // not droppable packets stay in the queue
+                Assertions.assertTrue(client.getConnection().getWaitPacketCount() <= HIGH_WATERMARK + i / 10 + 1);
+            }
+
+            Assertions.assertTrue(client.getConnection().getDroppedPacketCount() > 0);
+            Assertions.assertFalse(client.getConnection().isWritable());
+            Assertions.assertEquals(Boolean.FALSE, client.changes.poll());
+
+        } finally {
+            serverNetwork.shutdown();
+        }
+    }
+
+    @Test
+    void shouldCloseOverflowedConnection() throws IOException, InterruptedException {
+
+        var clients = new LinkedBlockingQueue<WritabilityClient>();
+        var serverNetwork = newServerNetwork(SendQueueOverflowPolicy.CLOSE, clients, 2229);
+
+        try (var ignored = newNotReadingSocket(2229)) {
+
+            WritabilityClient client = clients.poll(5, TimeUnit.SECONDS);
+
+            Assertions.assertNotNull(client);
+
+            for (int i = 0; i < PACKETS && !client.getConnection().isClosed(); i++) {
+                client.sendPacket(new MessageResponse(false));
+            }
+
+            Assertions.assertTrue(client.getConnection().isClosed());
+
+            // waited packets are cleared by the thread which completes the current write
+            for (int i = 0; i < 50 && client.getConnection().getWaitPacketCount() > 0; i++) {
+                Thread.sleep(100);
+            }
+
+            Assertions.assertEquals(0, client.getConnection().getWaitPacketCount());
+
+        } finally {
+            serverNetwork.shutdown();
+        }
+    }
+
+    @Test
+    void shouldBlockSenderUntilConnectionBecomesWritable() throws IOException, InterruptedException {
+
+        var clients = new LinkedBlockingQueue<WritabilityClient>();
+        var serverNetwork = newServerNetwork(SendQueueOverflowPolicy.BLOCK, clients, 2230);
+
+        try (var socket = newNotReadingSocket(2230)) {
+
+            WritabilityClient client = clients.poll(5, TimeUnit.SECONDS);
+
+            Assertions.assertNotNull(client);
+
+            var maxWaitPacketCount = new AtomicInteger();
+
+            var sender = new Thread(() -> {
+                for (int i = 0; i < PACKETS; i++) {
+                    client.sendPacket(new MessageResponse(false));
+                    maxWaitPacketCount.accumulateAndGet(client.getConnection().getWaitPacketCount(), Math::max);
+                }
+            });
+
+            var reader = new Thread(() -> {
+                try {
+
+                    InputStream input = socket.getInputStream();
+                    byte[] data = new byte[1024];
+
+                    while (input.read(data) != -1) {
+                        Thread.sleep(1);
+                    }
+
+                } catch (IOException | InterruptedException ignored) {
+                }
+            });
+
+            sender.start();
+            reader.start();
+            sender.join(30_000);
+
+            Assertions.assertFalse(sender.isAlive());
+            Assertions.assertTrue(maxWaitPacketCount.get() <= HIGH_WATERMARK + 1);
+            Assertions.assertEquals(Boolean.FALSE, client.changes.poll());
+
+            // changes are notified by the sender and the writer, so the next changes can be notified in any order
+            Assertions.assertTrue(client.changes.contains(Boolean.TRUE));
+
+        } finally {
+            serverNetwork.shutdown();
+        }
+    }
+
+    @Test
+    void shouldNotBlockNetworkThread() throws IOException, InterruptedException {
+
+        var clients = new LinkedBlockingQueue<WritabilityClient>();
+        var serverNetwork = newServerNetwork(SendQueueOverflowPolicy.BLOCK, clients, 2251);
+
+        try (var socket = newNotReadingSocket(2251)) {
+
+            WritabilityClient client = clients.poll(5, TimeUnit.SECONDS);
+
+            Assertions.assertNotNull(client);
+
+            var request = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN)
+                    .putShort((short) 4)
+                    .putShort((short) 3);
+
+            socket.getOutputStream().write(request.array());
+
+            // responses are sent by the network thread which writes them, so it doesn't wait for writability
+            Assertions.assertTrue(FLOODED.await(5, TimeUnit.SECONDS));
+            Assertions.assertTrue(client.getConnection().getWaitPacketCount() > HIGH_WATERMARK);
+
+        } finally {
+            serverNetwork.shutdown();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.ss.rlib.common.test.network;
+
+import com.ss.rlib.common.network.NetworkConfig;
+import org.jetbrains.annotations.NotNull;
+
+import java.net.InetSocketAddress;
+
+/**
+ * The test to test network using small read buffers, so most of frames are wrapped around the end of the buffers.
+ *
+ * @author JavaSaBr
+ */
+public class SmallBufferNetworkTests extends NetworkTests {
+
+    @NotNull
+    private static final InetSocketAddress SERVER_ADDRESS = new InetSocketAddress(2225);
+
+    @NotNull
+    private static final NetworkConfig SERVER_CONFIG = new NetworkConfig() {
+
+        @Override
+        public int getGroupSize() {
+            return 2;
+        }
+
+        @Override
+        public int getReadBufferSize() {
+            return 203;
+        }
+    };
+
+    @NotNull
+    private static final NetworkConfig CLIENT_CONFIG = new NetworkConfig() {
+
+        @Override
+        public int getReadBufferSize() {
+            return 203;
+        }
+    };
+
+    @Override
+    protected @NotNull NetworkConfig getServerConfig() {
+        return SERVER_CONFIG;
+    }
+
+    @Override
+    protected @NotNull NetworkConfig getClientConfig() {
+        return CLIENT_CONFIG;
+    }
+
+    @Override
+    protected @NotNull InetSocketAddress getServerAddress() {
+        return SERVER_ADDRESS;
+    }
+}
@@ -0,0 +1,61 @@
+package com.ss.rlib.common.test.network;
+
+import com.ss.rlib.common.network.FrameCodec;
+import com.ss.rlib.common.network.NetworkConfig;
+import org.jetbrains.annotations.NotNull;
+
+import java.net.InetSocketAddress;
+
+/**
+ * The test to test network using variable length frame headers.
+ *
+ * @author JavaSaBr
+ */
+public class VarIntNetworkTests extends NetworkTests {
+
+    @NotNull
+    private static final InetSocketAddress SERVER_ADDRESS = new InetSocketAddress(2224);
+
+    @NotNull
+    private static final NetworkConfig SERVER_CONFIG = new NetworkConfig() {
+
+        @Override
+        public int getGroupSize() {
+            return 2;
+        }
+
+        @Override
+        public @NotNull FrameCodec getFrameCodec() {
+            return FrameCodec.VAR_INT;
+        }
+    };
+
+    @NotNull
+    private static final NetworkConfig CLIENT_CONFIG = new NetworkConfig() {
+
+        @Override
+        public @NotNull FrameCodec getFrameCodec() {
+            return FrameCodec.VAR_INT;
+        }
+
+        @Override
+        public boolean isBatchWrite() {
+            return true;
+        }
+    };
+
+    @Override
+    protected @NotNull NetworkConfig getServerConfig() {
+        return SERVER_CONFIG;
+    }
+
+    @Override
+    protected @NotNull NetworkConfig getClientConfig() {
+        return CLIENT_CONFIG;
+    }
+
+    @Override
+    protected @NotNull InetSocketAddress getServerAddress() {
+        return SERVER_ADDRESS;
+    }
+}
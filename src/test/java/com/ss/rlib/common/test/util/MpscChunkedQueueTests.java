@@ -0,0 +1,176 @@
+package com.ss.rlib.common.test.util;
+
+import com.ss.rlib.common.util.queue.MpscChunkedQueue;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Tests of {@link MpscChunkedQueue}.
+ *
+ * @author JavaSaBr
+ */
+public class MpscChunkedQueueTests {
+
+    private static final int PRODUCERS = 8;
+    private static final int ELEMENTS_PER_PRODUCER = 500_000;
+
+    /**
+     * The element with the producer id and the sequence number.
+     */
+    private static final class Element {
+
+        private final int producer;
+        private final int sequence;
+
+        private Element(int producer, int sequence) {
+            this.producer = producer;
+            this.sequence = sequence;
+        }
+    }
+
+    @Test
+    void shouldKeepOrderOfEachProducer() throws InterruptedException {
+
+        var queue = new MpscChunkedQueue<Element>(16);
+
+        int[] lastSequences = new int[PRODUCERS];
+
+        runProducers(queue::offer, queue::poll, element -> {
+            Assertions.assertEquals(lastSequences[element.producer] + 1, element.sequence);
+            lastSequences[element.producer] = element.sequence;
+        });
+
+        for (int sequence : lastSequences) {
+            Assertions.assertEquals(ELEMENTS_PER_PRODUCER, sequence);
+        }
+
+        Assertions.assertTrue(queue.isEmpty());
+        Assertions.assertEquals(0, queue.size());
+    }
+
+    @Test
+    void shouldRemoveFirstMatchedElement() {
+
+        var queue = new MpscChunkedQueue<Integer>(4);
+
+        for (int i = 0; i < 10; i++) {
+            queue.offer(i);
+        }
+
+        Assertions.assertEquals(Integer.valueOf(0), queue.removeFirst(value -> value % 2 == 0));
+        Assertions.assertEquals(Integer.valueOf(5), queue.removeFirst(value -> value > 4));
+        Assertions.assertNull(queue.removeFirst(value -> value > 10));
+
+        Assertions.assertEquals(Integer.valueOf(1), queue.peek());
+        Assertions.assertEquals(Integer.valueOf(1), queue.poll());
+
+        Assertions.assertEquals(Integer.valueOf(2), queue.removeFirst(value -> value % 2 == 0));
+        Assertions.assertEquals(Integer.valueOf(3), queue.peek());
+
+        int[] expected = {3, 4, 6, 7, 8, 9};
+
+        for (int value : expected) {
+            Assertions.assertEquals(Integer.valueOf(value), queue.poll());
+        }
+
+        Assertions.assertNull(queue.poll());
+        Assertions.assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void shouldNotLoseElementsWithConcurrentRemoving() throws InterruptedException {
+
+        var queue = new MpscChunkedQueue<Element>(16);
+        var removed = new AtomicInteger();
+        var finished = new AtomicBoolean();
+
+        var remover = new Thread(() -> {
+            while (!finished.get()) {
+                if (queue.removeFirst(element -> element.sequence % 2 == 0) != null) {
+                    removed.incrementAndGet();
+                }
+            }
+        }, "Remover");
+
+        remover.start();
+
+        int[] lastSequences = new int[PRODUCERS];
+        var polled = new AtomicInteger();
+
+        Supplier<Element> consumer = () -> {
+
+            // the remover can remove the last elements, so we should stop waiting for them
+            if (polled.get() + removed.get() >= PRODUCERS * ELEMENTS_PER_PRODUCER) {
+                return new Element(-1, 0);
+            }
+
+            return queue.poll();
+        };
+
+        runProducers(queue::offer, consumer, element -> {
+
+            if (element.producer == -1) {
+                return;
+            }
+
+            Assertions.assertTrue(lastSequences[element.producer] < element.sequence);
+            lastSequences[element.producer] = element.sequence;
+            polled.incrementAndGet();
+        });
+
+        finished.set(true);
+        remover.join();
+
+        Assertions.assertNull(queue.poll());
+        Assertions.assertEquals(PRODUCERS * ELEMENTS_PER_PRODUCER, polled.get() + removed.get());
+    }
+
+    private void runProducers(
+            @NotNull Consumer<Element> producer,
+            @NotNull Supplier<Element> consumer,
+            @NotNull Consumer<Element> handler
+    ) throws InterruptedException {
+
+        var latch = new CountDownLatch(PRODUCERS);
+
+        for (int i = 0; i < PRODUCERS; i++) {
+
+            int id = i;
+
+            new Thread(() -> {
+
+                for (int sequence = 1; sequence <= ELEMENTS_PER_PRODUCER; sequence++) {
+                    producer.accept(new Element(id, sequence));
+                }
+
+                latch.countDown();
+
+            }, "Producer_" + i).start();
+        }
+
+        int received = 0;
+        int expected = PRODUCERS * ELEMENTS_PER_PRODUCER;
+
+        while (received < expected) {
+
+            var element = consumer.get();
+
+            if (element == null) {
+                Thread.onSpinWait();
+                continue;
+            }
+
+            handler.accept(element);
+            received++;
+        }
+
+        latch.await();
+    }
+}